@@ -0,0 +1,147 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Growable array of doubles
+ */
+public class DoubleArrayList {
+
+    private static final double[] EMPTY = new double[0];
+
+    private double[] data;
+    private int size;
+
+    public DoubleArrayList() {
+        data = EMPTY;
+    }
+
+    public DoubleArrayList(int initialCapacity) {
+        data = initialCapacity == 0 ? EMPTY : new double[initialCapacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(int index) {
+        checkIndex(index);
+        return data[index];
+    }
+
+    public double set(int index, double value) {
+        checkIndex(index);
+        double oldValue = data[index];
+        data[index] = value;
+        return oldValue;
+    }
+
+    public void add(double value) {
+        if (size == data.length) {
+            grow(size + 1);
+        }
+        data[size++] = value;
+    }
+
+    public void addAll(double[] values) {
+        ensureCapacity(size + values.length);
+        System.arraycopy(values, 0, data, size, values.length);
+        size += values.length;
+    }
+
+    /**
+     * Removes element at specified index
+     * @return removed element
+     */
+    public double removeAt(int index) {
+        checkIndex(index);
+        double oldValue = data[index];
+        System.arraycopy(data, index + 1, data, index, size - index - 1);
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes the first occurrence of the value
+     * @return true if value was found
+     */
+    public boolean removeValue(double value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    /**
+     * Values are compared as by Double.equals (NaN is equal to itself, 0.0 is not equal to -0.0)
+     */
+    public int indexOf(double value) {
+        long bits = Double.doubleToLongBits(value);
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(data[i]) == bits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean contains(double value) {
+        return indexOf(value) >= 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity > data.length) {
+            grow(capacity);
+        }
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void grow(int minCapacity) {
+        data = Arrays.copyOf(data, Math.max(minCapacity, Math.max(8, data.length + (data.length >> 1))));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+}
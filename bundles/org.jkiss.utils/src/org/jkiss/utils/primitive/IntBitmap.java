@@ -0,0 +1,450 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Compressed bitmap of non-negative ints (roaring bitmap layout).
+ *
+ * Values are split into chunks by their high 16 bits. Sparse chunk keeps sorted array of low 16 bits,
+ * dense chunk keeps bitmap of 65536 bits. So sparse values and long ranges of values both take little memory.
+ * Ranges are set and cleared word by word.
+ */
+public class IntBitmap {
+
+    // Max size of sorted array chunk. Bitmap chunk takes the same memory (8Kb)
+    private static final int ARRAY_MAX = 4096;
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private char[] highs = new char[4];
+    private Chunk[] chunks = new Chunk[4];
+    private int chunkCount;
+    private long cardinality;
+
+    /**
+     * Number of values in the bitmap
+     */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chunks, 0, chunkCount, null);
+        chunkCount = 0;
+        cardinality = 0;
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = findChunk((char) (value >>> 16));
+        return index >= 0 && chunks[index].contains(value & 0xFFFF);
+    }
+
+    /**
+     * @return true if bitmap didn't contain the value
+     */
+    public boolean add(int value) {
+        checkValue(value);
+        int index = getOrCreateChunk((char) (value >>> 16));
+        return updateChunk(index, chunks[index].add(value & 0xFFFF)) > 0;
+    }
+
+    /**
+     * @return true if bitmap contained the value
+     */
+    public boolean remove(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int index = findChunk((char) (value >>> 16));
+        return index >= 0 && updateChunk(index, chunks[index].remove(value & 0xFFFF)) < 0;
+    }
+
+    /**
+     * Adds all values from fromValue (inclusive) to toValue (exclusive)
+     */
+    public void addRange(int fromValue, int toValue) {
+        checkRange(fromValue, toValue);
+        for (int start = fromValue; start < toValue; ) {
+            char high = (char) (start >>> 16);
+            int end = (int) Math.min(toValue, ((long) high + 1) << 16);
+            int index = getOrCreateChunk(high);
+            updateChunk(index, chunks[index].addRange(start & 0xFFFF, end - (high << 16)));
+            start = end;
+        }
+    }
+
+    /**
+     * Removes all values from fromValue (inclusive) to toValue (exclusive)
+     */
+    public void removeRange(int fromValue, int toValue) {
+        checkRange(fromValue, toValue);
+        int index = findChunk((char) (fromValue >>> 16));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        while (index < chunkCount) {
+            int chunkStart = highs[index] << 16;
+            if (chunkStart >= toValue) {
+                break;
+            }
+            int from = Math.max(fromValue, chunkStart) - chunkStart;
+            int to = (int) Math.min((long) toValue - chunkStart, CHUNK_SIZE);
+            int oldCount = chunkCount;
+            updateChunk(index, chunks[index].removeRange(from, to));
+            if (chunkCount == oldCount) {
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Returns the first value which is greater or equal to fromValue or -1 if there are no such values
+     */
+    public int nextSetBit(int fromValue) {
+        if (fromValue < 0) {
+            fromValue = 0;
+        }
+        char high = (char) (fromValue >>> 16);
+        int index = findChunk(high);
+        if (index >= 0) {
+            int low = chunks[index].next(fromValue & 0xFFFF);
+            if (low >= 0) {
+                return (high << 16) | low;
+            }
+            index++;
+        } else {
+            index = -index - 1;
+        }
+        if (index < chunkCount) {
+            return (highs[index] << 16) | chunks[index].next(0);
+        }
+        return -1;
+    }
+
+    /**
+     * All values in ascending order
+     */
+    public int[] toArray() {
+        int[] result = new int[(int) cardinality];
+        int pos = 0;
+        for (int value = nextSetBit(0); value >= 0; value = nextSetBit(value + 1)) {
+            result[pos++] = value;
+            if (value == Integer.MAX_VALUE) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int findChunk(char high) {
+        return Arrays.binarySearch(highs, 0, chunkCount, high);
+    }
+
+    private int getOrCreateChunk(char high) {
+        int index = findChunk(high);
+        if (index >= 0) {
+            return index;
+        }
+        index = -index - 1;
+        if (chunkCount == highs.length) {
+            highs = Arrays.copyOf(highs, chunkCount * 2);
+            chunks = Arrays.copyOf(chunks, chunkCount * 2);
+        }
+        System.arraycopy(highs, index, highs, index + 1, chunkCount - index);
+        System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+        highs[index] = high;
+        chunks[index] = new ArrayChunk();
+        chunkCount++;
+        return index;
+    }
+
+    /**
+     * Replaces chunk (it may be converted to another type) and removes it if it is empty.
+     * @return change of cardinality
+     */
+    private int updateChunk(int index, Chunk chunk) {
+        int delta = chunk.getCardinality() - chunk.getPreviousCardinality();
+        cardinality += delta;
+        if (chunk.getCardinality() == 0) {
+            System.arraycopy(highs, index + 1, highs, index, chunkCount - index - 1);
+            System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+            chunkCount--;
+            chunks[chunkCount] = null;
+        } else {
+            chunks[index] = chunk;
+        }
+        return delta;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value: " + value);
+        }
+    }
+
+    private static void checkRange(int fromValue, int toValue) {
+        if (fromValue < 0 || toValue < fromValue) {
+            throw new IllegalArgumentException("Bad range: " + fromValue + " - " + toValue);
+        }
+    }
+
+    /**
+     * Values with the same high 16 bits.
+     * Modification methods return chunk which must replace this one. Cardinality before modification is kept
+     * in the returned chunk so caller may calculate the change.
+     */
+    private abstract static class Chunk {
+        int cardinality;
+        int previousCardinality;
+
+        int getCardinality() {
+            return cardinality;
+        }
+
+        int getPreviousCardinality() {
+            return previousCardinality;
+        }
+
+        abstract boolean contains(int low);
+
+        abstract Chunk add(int low);
+
+        abstract Chunk remove(int low);
+
+        abstract Chunk addRange(int from, int to);
+
+        abstract Chunk removeRange(int from, int to);
+
+        /**
+         * First value greater or equal to low or -1
+         */
+        abstract int next(int low);
+    }
+
+    private static class ArrayChunk extends Chunk {
+        private char[] values = new char[4];
+
+        @Override
+        boolean contains(int low) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) low) >= 0;
+        }
+
+        @Override
+        Chunk add(int low) {
+            previousCardinality = cardinality;
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (pos >= 0) {
+                return this;
+            }
+            if (cardinality >= ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            pos = -pos - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, pos, values, pos + 1, cardinality - pos);
+            values[pos] = (char) low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(int low) {
+            previousCardinality = cardinality;
+            int pos = Arrays.binarySearch(values, 0, cardinality, (char) low);
+            if (pos >= 0) {
+                System.arraycopy(values, pos + 1, values, pos, cardinality - pos - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk addRange(int from, int to) {
+            previousCardinality = cardinality;
+            int start = lowerBound(from);
+            int end = lowerBound(to);
+            int newCardinality = cardinality - (end - start) + (to - from);
+            if (newCardinality > ARRAY_MAX) {
+                return toBitmap().addRange(from, to);
+            }
+            char[] newValues = new char[Math.max(4, newCardinality)];
+            System.arraycopy(values, 0, newValues, 0, start);
+            for (int i = 0; i < to - from; i++) {
+                newValues[start + i] = (char) (from + i);
+            }
+            System.arraycopy(values, end, newValues, start + to - from, cardinality - end);
+            values = newValues;
+            cardinality = newCardinality;
+            return this;
+        }
+
+        @Override
+        Chunk removeRange(int from, int to) {
+            previousCardinality = cardinality;
+            int start = lowerBound(from);
+            int end = lowerBound(to);
+            System.arraycopy(values, end, values, start, cardinality - end);
+            cardinality -= end - start;
+            return this;
+        }
+
+        @Override
+        int next(int low) {
+            int pos = lowerBound(low);
+            return pos < cardinality ? values[pos] : -1;
+        }
+
+        /**
+         * Index of the first value greater or equal to low
+         */
+        private int lowerBound(int low) {
+            int from = 0, to = cardinality;
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (values[mid] < low) {
+                    from = mid + 1;
+                } else {
+                    to = mid;
+                }
+            }
+            return from;
+        }
+
+        private BitmapChunk toBitmap() {
+            BitmapChunk bitmap = new BitmapChunk();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.words[values[i] >>> 6] |= 1L << values[i];
+            }
+            bitmap.cardinality = cardinality;
+            bitmap.previousCardinality = previousCardinality;
+            return bitmap;
+        }
+    }
+
+    private static class BitmapChunk extends Chunk {
+        private final long[] words = new long[CHUNK_SIZE / 64];
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Chunk add(int low) {
+            previousCardinality = cardinality;
+            if (!contains(low)) {
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(int low) {
+            previousCardinality = cardinality;
+            if (contains(low)) {
+                words[low >>> 6] &= ~(1L << low);
+                cardinality--;
+            }
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        Chunk addRange(int from, int to) {
+            previousCardinality = cardinality;
+            updateRange(from, to, true);
+            return this;
+        }
+
+        @Override
+        Chunk removeRange(int from, int to) {
+            previousCardinality = cardinality;
+            updateRange(from, to, false);
+            return cardinality <= ARRAY_MAX ? toArray() : this;
+        }
+
+        @Override
+        int next(int low) {
+            if (low >= CHUNK_SIZE) {
+                return -1;
+            }
+            int wordIndex = low >>> 6;
+            long word = words[wordIndex] & (-1L << low);
+            while (word == 0) {
+                if (++wordIndex == words.length) {
+                    return -1;
+                }
+                word = words[wordIndex];
+            }
+            return wordIndex * 64 + Long.numberOfTrailingZeros(word);
+        }
+
+        private void updateRange(int from, int to, boolean set) {
+            if (from >= to) {
+                return;
+            }
+            int firstWord = from >>> 6;
+            int lastWord = (to - 1) >>> 6;
+            long firstMask = -1L << from;
+            long lastMask = -1L >>> -to;
+            for (int i = firstWord; i <= lastWord; i++) {
+                long mask = -1L;
+                if (i == firstWord) {
+                    mask &= firstMask;
+                }
+                if (i == lastWord) {
+                    mask &= lastMask;
+                }
+                long oldWord = words[i];
+                words[i] = set ? oldWord | mask : oldWord & ~mask;
+                cardinality += Long.bitCount(words[i]) - Long.bitCount(oldWord);
+            }
+        }
+
+        private ArrayChunk toArray() {
+            ArrayChunk array = new ArrayChunk();
+            array.values = new char[Math.max(4, cardinality)];
+            int pos = 0;
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    array.values[pos++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            array.cardinality = cardinality;
+            array.previousCardinality = previousCardinality;
+            return array;
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map with int keys.
+ * Keys and values are kept in plain arrays, there are no entry objects and no key boxing.
+ *
+ * Entries may be iterated by slot index:
+ * <pre>
+ * for (int i = map.nextIndex(0); i >= 0; i = map.nextIndex(i + 1)) {
+ *     map.keyAt(i); map.valueAt(i);
+ * }
+ * </pre>
+ * Entry may be removed with {@link #removeAt(int)} during such iteration.
+ */
+@SuppressWarnings("unchecked")
+public class IntObjectMap<VALUE> {
+
+    private int[] keys;
+    private Object[] values;
+    private byte[] states;
+    private final float loadFactor;
+    private int size;
+    // Used and removed slots
+    private int filled;
+    private int threshold;
+
+    public IntObjectMap() {
+        this(PrimitiveHash.DEFAULT_CAPACITY, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public IntObjectMap(int expectedSize, float loadFactor) {
+        this.loadFactor = PrimitiveHash.checkLoadFactor(loadFactor);
+        allocate(PrimitiveHash.tableSize(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        return findIndex(key) >= 0;
+    }
+
+    public VALUE get(int key) {
+        int index = findIndex(key);
+        return index < 0 ? null : (VALUE) values[index];
+    }
+
+    /**
+     * Associates value with the key.
+     * @return previous value or null
+     */
+    public VALUE put(int key, VALUE value) {
+        int mask = keys.length - 1;
+        int index = PrimitiveHash.hash(key) & mask;
+        int freeIndex = -1;
+        while (states[index] != PrimitiveHash.FREE) {
+            if (states[index] == PrimitiveHash.USED) {
+                if (keys[index] == key) {
+                    VALUE oldValue = (VALUE) values[index];
+                    values[index] = value;
+                    return oldValue;
+                }
+            } else if (freeIndex < 0) {
+                freeIndex = index;
+            }
+            index = (index + 1) & mask;
+        }
+        if (freeIndex < 0) {
+            freeIndex = index;
+            filled++;
+        }
+        keys[freeIndex] = key;
+        values[freeIndex] = value;
+        states[freeIndex] = PrimitiveHash.USED;
+        size++;
+        if (filled > threshold) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Removes entry.
+     * @return removed value or null
+     */
+    public VALUE remove(int key) {
+        int index = findIndex(key);
+        if (index < 0) {
+            return null;
+        }
+        VALUE oldValue = (VALUE) values[index];
+        removeAt(index);
+        return oldValue;
+    }
+
+    public void clear() {
+        if (filled > 0) {
+            Arrays.fill(states, PrimitiveHash.FREE);
+            Arrays.fill(values, null);
+            size = 0;
+            filled = 0;
+        }
+    }
+
+    public boolean containsValue(Object value) {
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            Object v = values[i];
+            if (v == value || (v != null && v.equals(value))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All keys in unspecified order
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int pos = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            result[pos++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns index of the first entry at or after specified slot index or -1 if there are no more entries.
+     */
+    public int nextIndex(int fromIndex) {
+        for (int i = fromIndex; i < states.length; i++) {
+            if (states[i] == PrimitiveHash.USED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    public VALUE valueAt(int index) {
+        return (VALUE) values[index];
+    }
+
+    public VALUE setValueAt(int index, VALUE value) {
+        VALUE oldValue = (VALUE) values[index];
+        values[index] = value;
+        return oldValue;
+    }
+
+    /**
+     * Removes entry at specified slot index. Other entries do not change their indexes.
+     */
+    public void removeAt(int index) {
+        states[index] = PrimitiveHash.REMOVED;
+        values[index] = null;
+        size--;
+    }
+
+    private int findIndex(int key) {
+        int mask = keys.length - 1;
+        int index = PrimitiveHash.hash(key) & mask;
+        while (states[index] != PrimitiveHash.FREE) {
+            if (states[index] == PrimitiveHash.USED && keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        states = new byte[capacity];
+        threshold = PrimitiveHash.threshold(capacity, loadFactor);
+        filled = size;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        byte[] oldStates = states;
+        // Do not grow if table is filled mostly with removed entries
+        allocate(PrimitiveHash.tableSize(size, loadFactor) > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] == PrimitiveHash.USED) {
+                int index = PrimitiveHash.hash(oldKeys[i]) & mask;
+                while (states[index] != PrimitiveHash.FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+                states[index] = PrimitiveHash.USED;
+            }
+        }
+    }
+
+}
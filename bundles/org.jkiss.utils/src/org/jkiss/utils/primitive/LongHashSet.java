@@ -0,0 +1,183 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.primitive;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash set of longs.
+ * Elements may be iterated by slot index, the same way as {@link LongObjectMap} entries.
+ */
+public class LongHashSet {
+
+    private long[] keys;
+    private byte[] states;
+    private final float loadFactor;
+    private int size;
+    // Used and removed slots
+    private int filled;
+    private int threshold;
+
+    public LongHashSet() {
+        this(PrimitiveHash.DEFAULT_CAPACITY, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongHashSet(int expectedSize) {
+        this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongHashSet(int expectedSize, float loadFactor) {
+        this.loadFactor = PrimitiveHash.checkLoadFactor(loadFactor);
+        allocate(PrimitiveHash.tableSize(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long key) {
+        return findIndex(key) >= 0;
+    }
+
+    /**
+     * @return true if set didn't contain the element
+     */
+    public boolean add(long key) {
+        int mask = keys.length - 1;
+        int index = PrimitiveHash.hash(key) & mask;
+        int freeIndex = -1;
+        while (states[index] != PrimitiveHash.FREE) {
+            if (states[index] == PrimitiveHash.USED) {
+                if (keys[index] == key) {
+                    return false;
+                }
+            } else if (freeIndex < 0) {
+                freeIndex = index;
+            }
+            index = (index + 1) & mask;
+        }
+        if (freeIndex < 0) {
+            freeIndex = index;
+            filled++;
+        }
+        keys[freeIndex] = key;
+        states[freeIndex] = PrimitiveHash.USED;
+        size++;
+        if (filled > threshold) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * @return true if set contained the element
+     */
+    public boolean remove(long key) {
+        int index = findIndex(key);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public void clear() {
+        if (filled > 0) {
+            Arrays.fill(states, PrimitiveHash.FREE);
+            size = 0;
+            filled = 0;
+        }
+    }
+
+    /**
+     * All elements in unspecified order
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int pos = 0;
+        for (int i = nextIndex(0); i >= 0; i = nextIndex(i + 1)) {
+            result[pos++] = keys[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns index of the first element at or after specified slot index or -1 if there are no more elements.
+     */
+    public int nextIndex(int fromIndex) {
+        for (int i = fromIndex; i < states.length; i++) {
+            if (states[i] == PrimitiveHash.USED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Removes element at specified slot index. Other elements do not change their indexes.
+     */
+    public void removeAt(int index) {
+        states[index] = PrimitiveHash.REMOVED;
+        size--;
+    }
+
+    private int findIndex(long key) {
+        int mask = keys.length - 1;
+        int index = PrimitiveHash.hash(key) & mask;
+        while (states[index] != PrimitiveHash.FREE) {
+            if (states[index] == PrimitiveHash.USED && keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        states = new byte[capacity];
+        threshold = PrimitiveHash.threshold(capacity, loadFactor);
+        filled = size;
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        byte[] oldStates = states;
+        // Do not grow if table is filled mostly with removed elements
+        allocate(PrimitiveHash.tableSize(size, loadFactor) > oldKeys.length ? oldKeys.length * 2 : oldKeys.length);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldStates.length; i++) {
+            if (oldStates[i] == PrimitiveHash.USED) {
+                int index = PrimitiveHash.hash(oldKeys[i]) & mask;
+                while (states[index] != PrimitiveHash.FREE) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                states[index] = PrimitiveHash.USED;
+            }
+        }
+    }
+
+}
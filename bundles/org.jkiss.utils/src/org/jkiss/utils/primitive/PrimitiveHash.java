@@ -0,0 +1,74 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.primitive;
+
+/**
+ * Common routines of open addressing hash tables.
+ * Tables use linear probing. Slot state is kept in separate array, so any key value may be stored.
+ * Removed slots are marked and reused by later insertions, table is rehashed when there are too few free slots.
+ */
+class PrimitiveHash {
+
+    static final byte FREE = 0;
+    static final byte USED = 1;
+    static final byte REMOVED = 2;
+
+    static final int DEFAULT_CAPACITY = 16;
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        int x = (int) (h ^ (h >>> 32));
+        return x ^ (x >>> 16);
+    }
+
+    static float checkLoadFactor(float loadFactor) {
+        if (loadFactor <= 0 || loadFactor >= 1 || Float.isNaN(loadFactor)) {
+            throw new IllegalArgumentException("Illegal load factor: " + loadFactor);
+        }
+        return loadFactor;
+    }
+
+    /**
+     * Power of two table size which can hold specified number of entries
+     */
+    static int tableSize(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + expectedSize);
+        }
+        int capacity = 4;
+        while (capacity < MAXIMUM_CAPACITY && threshold(capacity, loadFactor) < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Max number of filled (used and removed) slots. At least one slot is always free, so probing stops.
+     */
+    static int threshold(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+}
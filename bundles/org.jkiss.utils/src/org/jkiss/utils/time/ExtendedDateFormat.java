@@ -93,42 +93,65 @@ public class ExtendedDateFormat extends SimpleDateFormat {
     public StringBuffer format(Date date, StringBuffer toAppendTo, FieldPosition pos)
     {
         StringBuffer result = super.format(date, toAppendTo, pos);
-        if (nanoStart >= 0) {
-            long nanos = 0;
-            if (date instanceof Timestamp) {
-                nanos = ((Timestamp) date).getNanos();
-            }
-            if (!nanoOptional || nanos > 0) {
-                StringBuilder nanosRes = new StringBuilder(nanoLength);
-                // Append nanos value in the end
-                if (nanoPrefix != null) {
-                    nanosRes.append(nanoPrefix);
-                }
-                String nanoStr = String.valueOf(nanos);
+        String nanosRes = formatNanos(date);
+        if (nanosRes != null) {
+            result.insert(nanoStart, nanosRes);
+        }
+        return result;
+    }
 
-                // nanoStr must be a string of exactly 9 chars in length. Pad with leading "0" if not
-                int nbZeroesToPad = 9 - nanoStr.length();
-                if (nbZeroesToPad > 0) {
-                    nanoStr = NINE_ZEROES.substring(0, nbZeroesToPad) + nanoStr;
-                }
+    /**
+     * Position of nanoseconds in formatted string (without nanoseconds)
+     * or -1 if pattern doesn't contain nanoseconds.
+     */
+    public int getNanoStart()
+    {
+        return nanoStart;
+    }
 
-                if (nanoLength < nanoStr.length()) {
-                    // Truncate nanos string to fit in the pattern
-                    nanoStr = nanoStr.substring(0, nanoLength);
-                } else {
-                    // Pad with 0s
-                    for (int i = 0; i < nanoLength - nanoStr.length(); i++) {
-                        nanosRes.append("0");
-                    }
-                }
-                nanosRes.append(nanoStr);
-                if (nanoPostfix != null) {
-                    nanosRes.append(nanoPostfix);
-                }
-                result.insert(nanoStart, nanosRes.toString());
+    /**
+     * Formats nanoseconds part of the date.
+     * Returns null if pattern doesn't contain nanoseconds or they are optional and absent.
+     */
+    public String formatNanos(Date date)
+    {
+        if (nanoStart < 0) {
+            return null;
+        }
+        long nanos = 0;
+        if (date instanceof Timestamp) {
+            nanos = ((Timestamp) date).getNanos();
+        }
+        if (nanoOptional && nanos <= 0) {
+            return null;
+        }
+        StringBuilder nanosRes = new StringBuilder(nanoLength);
+        // Append nanos value in the end
+        if (nanoPrefix != null) {
+            nanosRes.append(nanoPrefix);
+        }
+        String nanoStr = String.valueOf(nanos);
+
+        // nanoStr must be a string of exactly 9 chars in length. Pad with leading "0" if not
+        int nbZeroesToPad = 9 - nanoStr.length();
+        if (nbZeroesToPad > 0) {
+            nanoStr = NINE_ZEROES.substring(0, nbZeroesToPad) + nanoStr;
+        }
+
+        if (nanoLength < nanoStr.length()) {
+            // Truncate nanos string to fit in the pattern
+            nanoStr = nanoStr.substring(0, nanoLength);
+        } else {
+            // Pad with 0s
+            for (int i = 0; i < nanoLength - nanoStr.length(); i++) {
+                nanosRes.append("0");
             }
         }
-        return result;
+        nanosRes.append(nanoStr);
+        if (nanoPostfix != null) {
+            nanosRes.append(nanoPostfix);
+        }
+        return nanosRes.toString();
     }
 
     @Override
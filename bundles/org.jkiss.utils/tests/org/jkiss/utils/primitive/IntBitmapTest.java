@@ -0,0 +1,87 @@
+package org.jkiss.utils.primitive;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks IntBitmap against java.util.BitSet
+ */
+public class IntBitmapTest {
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(1);
+        IntBitmap bitmap = new IntBitmap();
+        BitSet expected = new BitSet();
+        // Values span several chunks, ranges make chunks switch between array and bitmap forms
+        int maxValue = 5 << 16;
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(maxValue);
+            switch (random.nextInt(6)) {
+                case 0:
+                    assertEquals(!expected.get(value), bitmap.add(value));
+                    expected.set(value);
+                    break;
+                case 1:
+                    assertEquals(expected.get(value), bitmap.remove(value));
+                    expected.clear(value);
+                    break;
+                case 2: {
+                    int to = Math.min(maxValue, value + random.nextInt(20000));
+                    bitmap.addRange(value, to);
+                    expected.set(value, to);
+                    break;
+                }
+                case 3: {
+                    int to = Math.min(maxValue, value + random.nextInt(30000));
+                    bitmap.removeRange(value, to);
+                    expected.clear(value, to);
+                    break;
+                }
+                default:
+                    assertEquals(expected.get(value), bitmap.contains(value));
+                    assertEquals(expected.nextSetBit(value), bitmap.nextSetBit(value));
+                    break;
+            }
+            assertEquals(expected.cardinality(), bitmap.cardinality());
+        }
+        assertArrayEquals(expected.stream().toArray(), bitmap.toArray());
+    }
+
+    @Test
+    public void testLargeRanges() {
+        IntBitmap bitmap = new IntBitmap();
+        bitmap.addRange(0, Integer.MAX_VALUE);
+        assertEquals(Integer.MAX_VALUE, bitmap.cardinality());
+        assertTrue(bitmap.contains(Integer.MAX_VALUE - 1));
+        assertFalse(bitmap.contains(Integer.MAX_VALUE));
+
+        bitmap.removeRange(10, Integer.MAX_VALUE - 10);
+        assertEquals(20, bitmap.cardinality());
+        assertEquals(Integer.MAX_VALUE - 10, bitmap.nextSetBit(10));
+
+        bitmap.add(Integer.MAX_VALUE);
+        assertEquals(21, bitmap.toArray().length);
+        bitmap.clear();
+        assertTrue(bitmap.isEmpty());
+        assertEquals(-1, bitmap.nextSetBit(0));
+    }
+
+    @Test
+    public void testNegativeValues() {
+        IntBitmap bitmap = new IntBitmap();
+        assertFalse(bitmap.contains(-1));
+        assertFalse(bitmap.remove(-1));
+        try {
+            bitmap.add(-1);
+            fail("Negative values are not supported");
+        } catch (IllegalArgumentException e) {
+            // ok
+        }
+    }
+
+}
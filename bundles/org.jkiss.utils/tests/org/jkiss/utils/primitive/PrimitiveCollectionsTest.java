@@ -0,0 +1,218 @@
+package org.jkiss.utils.primitive;
+
+import org.jkiss.utils.IntKeyMap;
+import org.jkiss.utils.LongKeyMap;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks primitive maps, sets and lists against java.util collections
+ */
+public class PrimitiveCollectionsTest {
+
+    private static final int OPERATIONS = 200000;
+
+    @Test
+    public void testIntObjectMap() {
+        Random random = new Random(1);
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            // Small key range makes a lot of collisions and removed slots
+            int key = random.nextInt(2000) - 1000;
+            switch (random.nextInt(4)) {
+                case 0:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 1:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+                default:
+                    assertEquals(expected.put(key, "v" + i), map.put(key, "v" + i));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        Map<Integer, String> actual = new HashMap<>();
+        for (int i = map.nextIndex(0); i >= 0; i = map.nextIndex(i + 1)) {
+            actual.put(map.keyAt(i), map.valueAt(i));
+        }
+        assertEquals(expected, actual);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+    }
+
+    @Test
+    public void testLongObjectMap() {
+        Random random = new Random(2);
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            long key = (random.nextInt(3000) - 1500) * 0x100000001L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(toSortedArray(expected.keySet()), keys);
+    }
+
+    @Test
+    public void testRemoveDuringIteration() {
+        IntObjectMap<Integer> map = new IntObjectMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        int visited = 0;
+        for (int i = map.nextIndex(0); i >= 0; i = map.nextIndex(i + 1)) {
+            if (map.keyAt(i) % 2 == 0) {
+                map.removeAt(i);
+            }
+            visited++;
+        }
+        assertEquals(1000, visited);
+        assertEquals(500, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 != 0, map.containsKey(i));
+        }
+    }
+
+    @Test
+    public void testHashSets() {
+        Random random = new Random(3);
+        IntHashSet intSet = new IntHashSet();
+        LongHashSet longSet = new LongHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int key = random.nextInt(5000);
+            if (random.nextBoolean()) {
+                boolean added = expected.add(key);
+                assertEquals(added, intSet.add(key));
+                assertEquals(added, longSet.add(-key));
+            } else {
+                boolean removed = expected.remove(key);
+                assertEquals(removed, intSet.remove(key));
+                assertEquals(removed, longSet.remove(-key));
+            }
+            assertEquals(expected.size(), intSet.size());
+            assertEquals(expected.size(), longSet.size());
+        }
+        int[] values = intSet.toArray();
+        Arrays.sort(values);
+        int[] expectedValues = new int[expected.size()];
+        int pos = 0;
+        for (Integer value : new TreeSet<>(expected)) {
+            expectedValues[pos++] = value;
+        }
+        assertArrayEquals(expectedValues, values);
+        for (int value : expectedValues) {
+            assertTrue(longSet.contains(-value));
+        }
+    }
+
+    @Test
+    public void testArrayLists() {
+        IntArrayList ints = new IntArrayList();
+        LongArrayList longs = new LongArrayList(2);
+        DoubleArrayList doubles = new DoubleArrayList();
+        for (int i = 0; i < 100; i++) {
+            ints.add(100 - i);
+            longs.add(i * 10000000000L);
+            doubles.add(i / 2.0);
+        }
+        assertEquals(100, ints.size());
+        assertEquals(1, ints.get(99));
+        assertEquals(42, ints.removeAt(58));
+        assertFalse(ints.contains(42));
+        assertTrue(ints.removeValue(43));
+        assertEquals(98, ints.size());
+        ints.sort();
+        assertEquals(1, ints.get(0));
+        assertEquals(100, ints.get(97));
+
+        assertEquals(5, longs.indexOf(50000000000L));
+        assertEquals(5L, longs.set(0, 5L) + 5L);
+        assertEquals(3, doubles.indexOf(1.5));
+        doubles.add(Double.NaN);
+        assertEquals(100, doubles.indexOf(Double.NaN));
+
+        longs.clear();
+        assertTrue(longs.isEmpty());
+        try {
+            longs.get(0);
+            fail("Index check");
+        } catch (IndexOutOfBoundsException e) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testKeyMaps() {
+        IntKeyMap<String> intMap = new IntKeyMap<>();
+        LongKeyMap<String> longMap = new LongKeyMap<>();
+        for (int i = 0; i < 100; i++) {
+            intMap.put(i, "v" + i);
+            longMap.put(i * 1000000000000L, "v" + i);
+        }
+        assertEquals("v5", intMap.get(5));
+        assertEquals("v5", intMap.get(Integer.valueOf(5)));
+        assertEquals("v7", longMap.get(7000000000000L));
+        assertTrue(intMap.containsValue("v99"));
+        assertTrue(intMap.keySet().contains(10));
+
+        // Remove with iterators
+        for (Iterator<Integer> iter = intMap.keySet().iterator(); iter.hasNext(); ) {
+            if (iter.next() >= 50) {
+                iter.remove();
+            }
+        }
+        assertEquals(50, intMap.size());
+        for (Iterator<Map.Entry<Long, String>> iter = longMap.entrySet().iterator(); iter.hasNext(); ) {
+            Map.Entry<Long, String> entry = iter.next();
+            if (entry.getKey() % 2000000000000L == 0) {
+                iter.remove();
+            } else {
+                entry.setValue("x");
+            }
+        }
+        assertEquals(50, longMap.size());
+        assertEquals("x", longMap.get(1000000000000L));
+
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            expected.put(i, "v" + i);
+        }
+        assertEquals(expected, intMap);
+        assertEquals(expected.hashCode(), intMap.hashCode());
+
+        try {
+            for (Integer key : intMap.keySet()) {
+                intMap.put(key + 1000, "new");
+            }
+            fail("Concurrent modification check");
+        } catch (ConcurrentModificationException e) {
+            // ok
+        }
+    }
+
+    private static long[] toSortedArray(Collection<Long> values) {
+        long[] result = new long[values.size()];
+        int pos = 0;
+        for (Long value : values) {
+            result[pos++] = value;
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+}
@@ -1119,6 +1119,8 @@ public class CoreMessages extends NLS {
 	public static String pref_page_database_general_checkbox_show_row_count_tip;
 	public static String pref_page_database_general_server_side_object_filters;
 	public static String pref_page_database_general_server_side_object_filters_tip;
+	public static String pref_page_database_general_prefetch_folders;
+	public static String pref_page_database_general_prefetch_folders_tip;
 	public static String pref_page_database_general_group_query_metadata;
 	public static String pref_page_database_general_use_column_names;
 	public static String pref_page_database_general_use_column_names_tip;
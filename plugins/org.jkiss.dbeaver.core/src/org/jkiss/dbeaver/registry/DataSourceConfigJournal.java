@@ -0,0 +1,179 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.registry;
+
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Journal of data source configuration changes.
+ *
+ * Each change is appended as a small record (data source config fragment or removed data source id),
+ * so it is persisted immediately without rewriting the whole configuration file.
+ * Records are replayed after configuration load and discarded after configuration file is rewritten.
+ * Journal is kept in project metadata, it is never shared with other workspaces.
+ */
+class DataSourceConfigJournal
+{
+    private static final Log log = Log.getLog(DataSourceConfigJournal.class);
+
+    static final String JOURNAL_FILE_EXT = ".journal"; //$NON-NLS-1$
+
+    private static final char RECORD_UPDATE = 'U';
+    private static final char RECORD_REMOVE = 'R';
+
+    interface RecordHandler {
+
+        void updateDataSource(String configFragment);
+
+        void removeDataSource(String id);
+    }
+
+    private final File file;
+
+    DataSourceConfigJournal(File file) {
+        this.file = file;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    synchronized long getSize() {
+        return file.length();
+    }
+
+    synchronized void appendUpdate(String configFragment) throws IOException {
+        appendRecord(RECORD_UPDATE, configFragment);
+    }
+
+    synchronized void appendRemove(String id) throws IOException {
+        appendRecord(RECORD_REMOVE, id);
+    }
+
+    /**
+     * Record format: type char, space, payload length in bytes, new line, payload (UTF-8), new line
+     */
+    private void appendRecord(char type, String payload) throws IOException {
+        byte[] data = payload.getBytes(GeneralUtils.UTF8_CHARSET);
+        byte[] header = (type + " " + data.length + "\n").getBytes(GeneralUtils.UTF8_CHARSET);
+        byte[] record = new byte[header.length + data.length + 1];
+        System.arraycopy(header, 0, record, 0, header.length);
+        System.arraycopy(data, 0, record, header.length, data.length);
+        record[record.length - 1] = '\n';
+        // Single write - record is either written completely or partially written tail is ignored by replay
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            out.write(record);
+        }
+    }
+
+    /**
+     * Removes first records (which were already saved in configuration file).
+     * @param size journal size before configuration save
+     */
+    synchronized void discard(long size) throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        if (size >= file.length()) {
+            if (!file.delete()) {
+                log.debug("Can't delete config journal " + file.getAbsolutePath());
+            }
+            return;
+        }
+        byte[] data = Files.readAllBytes(file.toPath());
+        // Write remaining records aside and then replace the journal, so crash never loses them
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                out.write(data, (int) size, data.length - (int) size);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                log.debug("Can't delete config journal temp file " + tempFile.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Replays all complete records. Returns number of replayed records.
+     * Incomplete tail (record which was being written during crash) is cut off.
+     */
+    synchronized int replay(RecordHandler handler) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        byte[] data = Files.readAllBytes(file.toPath());
+        int count = 0;
+        int pos = 0;
+        while (pos < data.length) {
+            int headerEnd = indexOf(data, (byte) '\n', pos);
+            if (headerEnd < 0 || headerEnd - pos < 3 || data[pos + 1] != ' ') {
+                break;
+            }
+            char type = (char) data[pos];
+            int length;
+            try {
+                length = Integer.parseInt(new String(data, pos + 2, headerEnd - pos - 2, GeneralUtils.UTF8_CHARSET));
+            } catch (NumberFormatException e) {
+                break;
+            }
+            int payloadStart = headerEnd + 1;
+            if (length < 0 || payloadStart + length >= data.length) {
+                break;
+            }
+            String payload = new String(Arrays.copyOfRange(data, payloadStart, payloadStart + length), GeneralUtils.UTF8_CHARSET);
+            switch (type) {
+                case RECORD_UPDATE:
+                    handler.updateDataSource(payload);
+                    break;
+                case RECORD_REMOVE:
+                    handler.removeDataSource(payload);
+                    break;
+                default:
+                    log.debug("Unknown config journal record type: " + type);
+                    break;
+            }
+            count++;
+            pos = payloadStart + length + 1;
+        }
+        if (pos < data.length) {
+            log.warn("Incomplete record in config journal " + file.getAbsolutePath() + " was discarded");
+            // Otherwise records appended later would follow the broken one and never be replayed
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(pos);
+            }
+        }
+        return count;
+    }
+
+    private static int indexOf(byte[] data, byte value, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+}
@@ -122,6 +122,9 @@ public class DataSourceDescriptor
     private DBPConnectionConfiguration tunnelConnectionInfo;
     // Copy of connection info with resolved params (cache)
     private DBPConnectionConfiguration resolvedConnectionInfo;
+    // Saved passwords which were not read from config yet
+    @Nullable
+    private volatile DataSourceRegistry.DeferredPasswords deferredPasswords;
 
     @NotNull
     private String id;
@@ -186,6 +189,7 @@ public class DataSourceDescriptor
     // Copy constructor
     public DataSourceDescriptor(@NotNull DataSourceDescriptor source)
     {
+        source.resolvePasswords();
         this.registry = source.registry;
         this.origin = source.origin;
         this.id = source.id;
@@ -650,7 +654,33 @@ public class DataSourceDescriptor
     @Override
     public void persistConfiguration()
     {
-        registry.flushConfig();
+        if (registry instanceof DataSourceRegistry) {
+            ((DataSourceRegistry) registry).persistDataSource(this);
+        } else {
+            registry.flushConfig();
+        }
+    }
+
+    @Nullable
+    DataSourceRegistry.DeferredPasswords getDeferredPasswords() {
+        return deferredPasswords;
+    }
+
+    void setDeferredPasswords(@Nullable DataSourceRegistry.DeferredPasswords deferredPasswords) {
+        this.deferredPasswords = deferredPasswords;
+    }
+
+    /**
+     * Reads saved passwords if they weren't read yet.
+     * Registry doesn't read passwords on config load - secure storage access and decryption are expensive
+     * and most connections are never opened in a session.
+     */
+    public synchronized void resolvePasswords() {
+        final DataSourceRegistry.DeferredPasswords passwords = this.deferredPasswords;
+        if (passwords != null) {
+            this.deferredPasswords = null;
+            ((DataSourceRegistry) registry).readDeferredPasswords(this, passwords);
+        }
     }
 
     @Override
@@ -676,6 +706,7 @@ public class DataSourceDescriptor
             return false;
         }
         log.debug("Connect with '" + getName() + "' (" + getId() + ")");
+        resolvePasswords();
 
         //final String oldName = getConnectionConfiguration().getUserName();
         //final String oldPassword = getConnectionConfiguration().getUserPassword();
@@ -1339,7 +1370,9 @@ public class DataSourceDescriptor
                 case RegistryConstants.VARIABLE_SERVER: return getActualConnectionConfiguration().getServerName();
                 case RegistryConstants.VARIABLE_DATABASE: return getActualConnectionConfiguration().getDatabaseName();
                 case RegistryConstants.VARIABLE_USER: return getActualConnectionConfiguration().getUserName();
-                case RegistryConstants.VARIABLE_PASSWORD: return getActualConnectionConfiguration().getUserPassword();
+                case RegistryConstants.VARIABLE_PASSWORD:
+                    resolvePasswords();
+                    return getActualConnectionConfiguration().getUserPassword();
                 case RegistryConstants.VARIABLE_URL: return getActualConnectionConfiguration().getUrl();
                 default: return SystemVariablesResolver.INSTANCE.get(name);
             }
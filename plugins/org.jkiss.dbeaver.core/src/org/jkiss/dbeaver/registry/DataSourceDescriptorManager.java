@@ -70,6 +70,7 @@ public class DataSourceDescriptorManager extends AbstractObjectManager<DataSourc
     {
         if (copyFrom != null) {
             DataSourceDescriptor dsTpl = (DataSourceDescriptor)copyFrom;
+            dsTpl.resolvePasswords();
             DBPDataSourceRegistry registry;
             DBPDataSourceFolder folder = null;
             if (parent instanceof DataSourceRegistry) {
@@ -17,6 +17,8 @@
 package org.jkiss.dbeaver.registry;
 
 import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.jkiss.code.Nullable;
 
 /**
  * DataSourceOrigin
@@ -25,10 +27,14 @@ class DataSourceOrigin
 {
     private final IFile sourceFile;
     private final boolean isDefault;
+    private final DataSourceConfigJournal journal;
+    // Modification stamp of the source file which was loaded or saved last time
+    private long modificationStamp = IResource.NULL_STAMP;
 
-    public DataSourceOrigin(IFile sourceFile, boolean isDefault) {
+    public DataSourceOrigin(IFile sourceFile, boolean isDefault, @Nullable DataSourceConfigJournal journal) {
         this.sourceFile = sourceFile;
         this.isDefault = isDefault;
+        this.journal = journal;
     }
 
     public String getName() {
@@ -43,6 +49,19 @@ class DataSourceOrigin
         return sourceFile;
     }
 
+    @Nullable
+    public DataSourceConfigJournal getJournal() {
+        return journal;
+    }
+
+    public long getModificationStamp() {
+        return modificationStamp;
+    }
+
+    public void setModificationStamp(long modificationStamp) {
+        this.modificationStamp = modificationStamp;
+    }
+
     @Override
     public String toString() {
         return sourceFile.getFullPath().toString();
@@ -56,7 +56,7 @@ public class DataSourcePreferenceStore extends SimplePreferenceStore
     public void save()
         throws IOException
     {
-        dataSourceDescriptor.getRegistry().flushConfig();
+        dataSourceDescriptor.persistConfiguration();
     }
 
 }
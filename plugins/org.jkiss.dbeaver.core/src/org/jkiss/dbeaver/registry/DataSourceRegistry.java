@@ -37,6 +37,7 @@ import org.jkiss.dbeaver.model.connection.DBPConnectionEventType;
 import org.jkiss.dbeaver.model.connection.DBPConnectionType;
 import org.jkiss.dbeaver.model.impl.preferences.SimplePreferenceStore;
 import org.jkiss.dbeaver.model.net.DBWHandlerConfiguration;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.runtime.DBRShellCommand;
@@ -57,13 +58,11 @@ import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.xml.SAXListener;
 import org.jkiss.utils.xml.SAXReader;
 import org.jkiss.utils.xml.XMLBuilder;
+import org.jkiss.utils.xml.XMLConstants;
 import org.jkiss.utils.xml.XMLException;
 import org.xml.sax.Attributes;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
@@ -77,6 +76,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
     public static final String DEFAULT_ACTIVE_OBJECT = "default.activeObject"; //$NON-NLS-1$
 
     private static final long DISCONNECT_ALL_TIMEOUT = 5000;
+    // Delay of config file save. All changes made during this time are saved at once.
+    private static final long CONFIG_SAVE_DELAY = 1000;
+
+    private static final String NETWORK_CREDENTIALS_NODE = "network/"; //$NON-NLS-1$
 
     private static final Log log = Log.getLog(DataSourceRegistry.class);
 
@@ -92,6 +95,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
     private final List<DBPEventListener> dataSourceListeners = new ArrayList<>();
     private final List<DataSourceFolder> dataSourceFolders = new ArrayList<>();
     private final List<DBSObjectFilter> savedFilters = new ArrayList<>();
+    // Serialized configs of data sources which weren't changed since last save
+    private final Map<DataSourceDescriptor, String> configFragments = new IdentityHashMap<>();
+    private final Set<DataSourceOrigin> modifiedOrigins = new LinkedHashSet<>();
+    private final ConfigSaveJob configSaveJob = new ConfigSaveJob();
     private volatile boolean saveInProgress = false;
 
     public DataSourceRegistry(DBPPlatform platform, IProject project)
@@ -111,6 +118,15 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
             }
             this.dataSourceListeners.clear();
         }
+        // Save pending changes (they are in config journal anyway)
+        configSaveJob.cancel();
+        boolean hasChanges;
+        synchronized (modifiedOrigins) {
+            hasChanges = !modifiedOrigins.isEmpty();
+        }
+        if (hasChanges && project.isOpen()) {
+            saveDataSources(false);
+        }
         // Disconnect in 5 seconds or die
         closeConnections(DISCONNECT_ALL_TIMEOUT);
         // Do not save config on shutdown.
@@ -156,12 +172,22 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                 }
             }
             IFile defFile = project.getFile(CONFIG_FILE_NAME);
-            DataSourceOrigin origin = new DataSourceOrigin(defFile, true);
+            DataSourceOrigin origin = createOrigin(defFile, true);
             origins.put(defFile, origin);
             return origin;
         }
     }
 
+    private DataSourceOrigin createOrigin(IFile configFile, boolean isDefault) {
+        DataSourceConfigJournal journal = null;
+        IPath workingLocation = project.getWorkingLocation(DBeaverCore.PLUGIN_ID);
+        if (workingLocation != null) {
+            journal = new DataSourceConfigJournal(
+                new File(workingLocation.toFile(), configFile.getName() + DataSourceConfigJournal.JOURNAL_FILE_EXT));
+        }
+        return new DataSourceOrigin(configFile, isDefault, journal);
+    }
+
     @NotNull
     public DBPPlatform getPlatform() {
         return platform;
@@ -353,7 +379,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
             this.dataSources.add(descriptor);
         }
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.persistDataSource(descriptor);
         }
         notifyDataSourceListeners(new DBPEvent(DBPEvent.Action.OBJECT_ADD, descriptor, true));
     }
@@ -365,7 +391,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
             this.dataSources.remove(descriptor);
         }
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.persistDataSourceRemove(descriptor);
         }
         try {
             this.fireDataSourceEvent(DBPEvent.Action.OBJECT_REMOVE, dataSource);
@@ -377,7 +403,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
     public void updateDataSource(DBPDataSourceContainer dataSource)
     {
         if (!dataSource.isTemporary()) {
-            this.saveDataSources();
+            this.persistDataSource((DataSourceDescriptor) dataSource);
         }
         this.fireDataSourceEvent(DBPEvent.Action.OBJECT_UPDATE, dataSource);
     }
@@ -385,7 +411,59 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
     @Override
     public void flushConfig()
     {
-        this.saveDataSources();
+        // We don't know what was changed (folders, filters, data sources) so rewrite everything
+        synchronized (configFragments) {
+            configFragments.clear();
+        }
+        this.saveDataSources(true);
+    }
+
+    /**
+     * Saves data source config change.
+     * Change is appended to the config journal immediately. Config file is rewritten later in background,
+     * so a series of changes causes a single save.
+     */
+    void persistDataSource(DataSourceDescriptor dataSource)
+    {
+        if (dataSource.isTemporary()) {
+            return;
+        }
+        synchronized (configFragments) {
+            configFragments.remove(dataSource);
+        }
+        final DataSourceConfigJournal journal = dataSource.getOrigin().getJournal();
+        if (journal != null) {
+            try {
+                journal.appendUpdate(getConfigFragment(dataSource));
+            } catch (IOException e) {
+                log.warn("Error writing datasource config journal", e);
+            }
+        }
+        scheduleSave(dataSource.getOrigin());
+    }
+
+    private void persistDataSourceRemove(DataSourceDescriptor dataSource)
+    {
+        synchronized (configFragments) {
+            configFragments.remove(dataSource);
+        }
+        final DataSourceConfigJournal journal = dataSource.getOrigin().getJournal();
+        if (journal != null) {
+            try {
+                journal.appendRemove(dataSource.getId());
+            } catch (IOException e) {
+                log.warn("Error writing datasource config journal", e);
+            }
+        }
+        scheduleSave(dataSource.getOrigin());
+    }
+
+    private void scheduleSave(DataSourceOrigin origin)
+    {
+        synchronized (modifiedOrigins) {
+            modifiedOrigins.add(origin);
+        }
+        configSaveJob.schedule(CONFIG_SAVE_DELAY);
     }
 
     @Override
@@ -465,8 +543,6 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         if (!project.isOpen()) {
             return;
         }
-        // Clear filters before reload
-        savedFilters.clear();
         // Parse with SAX
         ParseResults parseResults = new ParseResults();
         try {
@@ -475,9 +551,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                     IFile file = (IFile) res;
                     if (res.getName().startsWith(CONFIG_FILE_PREFIX) && res.getName().endsWith(CONFIG_FILE_EXT)) {
                         if (file.exists()) {
-                            if (file.exists()) {
-                                loadDataSources(file, refresh, parseResults);
-                            }
+                            loadDataSources(file, refresh, parseResults);
                         }
                     }
                 }
@@ -485,6 +559,13 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         } catch (CoreException e) {
             log.error("Error reading datasources configuration", e);
         }
+        if (!refresh) {
+            // Default config may be not saved yet while its changes are in journal
+            DataSourceOrigin defaultOrigin = getDefaultOrigin();
+            if (!defaultOrigin.getSourceFile().exists()) {
+                replayJournal(defaultOrigin, false, parseResults);
+            }
+        }
 
         // Reflect changes
         if (refresh) {
@@ -494,18 +575,28 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
             for (DataSourceDescriptor ds : parseResults.addedDataSources) {
                 fireDataSourceEvent(DBPEvent.Action.OBJECT_ADD, ds);
             }
+        }
 
-            List<DataSourceDescriptor> removedDataSource = new ArrayList<>();
+        List<DataSourceDescriptor> removedDataSource = new ArrayList<>();
+        synchronized (dataSources) {
             for (DataSourceDescriptor ds : dataSources) {
-                if (!parseResults.addedDataSources.contains(ds) && !parseResults.updatedDataSources.contains(ds)) {
+                if (!parseResults.addedDataSources.contains(ds) &&
+                    !parseResults.updatedDataSources.contains(ds) &&
+                    !parseResults.unchangedDataSources.contains(ds))
+                {
                     removedDataSource.add(ds);
                 }
             }
-            for (DataSourceDescriptor ds : removedDataSource) {
-                this.dataSources.remove(ds);
+            this.dataSources.removeAll(removedDataSource);
+        }
+        for (DataSourceDescriptor ds : removedDataSource) {
+            synchronized (configFragments) {
+                configFragments.remove(ds);
+            }
+            if (refresh) {
                 this.fireDataSourceEvent(DBPEvent.Action.OBJECT_REMOVE, ds);
-                ds.dispose();
             }
+            ds.dispose();
         }
     }
 
@@ -516,15 +607,26 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         synchronized (origins) {
             origin = origins.get(fromFile);
             if (origin == null) {
-                origin = new DataSourceOrigin(fromFile, !extraConfig);
+                origin = createOrigin(fromFile, !extraConfig);
                 origins.put(fromFile, origin);
             }
         }
         if (!fromFile.exists()) {
             return;
         }
+        if (refresh && fromFile.getModificationStamp() == origin.getModificationStamp()) {
+            // File wasn't changed since we loaded or saved it
+            parseResults.unchangedDataSources.addAll(getDataSources(origin));
+            return;
+        }
+        if (origin.isDefault()) {
+            // Clear filters before reload
+            savedFilters.clear();
+        }
         try (InputStream is = fromFile.getContents(true)) {
+            origin.setModificationStamp(fromFile.getModificationStamp());
             loadDataSources(is, origin, refresh, parseResults);
+            replayJournal(origin, refresh, parseResults);
         } catch (DBException ex) {
             log.warn("Error loading datasource config from " + fromFile.getFullPath(), ex);
         } catch (IOException ex) {
@@ -548,78 +650,197 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         updateProjectNature();
     }
 
-    private void saveDataSources()
+    /**
+     * Applies config changes which were journaled but not saved in config file
+     */
+    private void replayJournal(DataSourceOrigin origin, boolean refresh, ParseResults parseResults)
+    {
+        final DataSourceConfigJournal journal = origin.getJournal();
+        if (journal == null) {
+            return;
+        }
+        try {
+            int recordCount = journal.replay(new DataSourceConfigJournal.RecordHandler() {
+                @Override
+                public void updateDataSource(String configFragment) {
+                    String config = "<" + RegistryConstants.TAG_DATA_SOURCES + ">" + configFragment + "</" + RegistryConstants.TAG_DATA_SOURCES + ">";
+                    try {
+                        SAXReader parser = new SAXReader(new ByteArrayInputStream(config.getBytes(GeneralUtils.UTF8_CHARSET)));
+                        parser.parse(new DataSourcesParser(origin, refresh, parseResults));
+                    } catch (Exception e) {
+                        log.warn("Error parsing datasource config journal record", e);
+                    }
+                }
+
+                @Override
+                public void removeDataSource(String id) {
+                    DataSourceDescriptor dataSource = getDataSource(id);
+                    if (dataSource != null && dataSource.getOrigin() == origin) {
+                        parseResults.addedDataSources.remove(dataSource);
+                        parseResults.updatedDataSources.remove(dataSource);
+                    }
+                }
+            });
+            if (recordCount > 0) {
+                log.debug("Replayed " + recordCount + " datasource config change(s) from " + journal.getFile().getAbsolutePath());
+                scheduleSave(origin);
+            }
+        } catch (IOException e) {
+            log.warn("Error reading datasource config journal", e);
+        }
+    }
+
+    private synchronized void saveDataSources(boolean allOrigins)
     {
         updateProjectNature();
+        final List<DataSourceOrigin> saveOrigins;
+        synchronized (modifiedOrigins) {
+            if (allOrigins) {
+                synchronized (origins) {
+                    saveOrigins = new ArrayList<>(origins.values());
+                }
+            } else {
+                saveOrigins = new ArrayList<>(modifiedOrigins);
+            }
+            modifiedOrigins.clear();
+        }
         final IProgressMonitor progressMonitor = new NullProgressMonitor();
         saveInProgress = true;
         try {
-            for (DataSourceOrigin origin : origins.values()) {
-                List<DataSourceDescriptor> localDataSources = getDataSources(origin);
-                IFile configFile = origin.getSourceFile();
+            for (DataSourceOrigin origin : saveOrigins) {
+                saveDataSources(origin, progressMonitor);
+            }
+            try {
+                getSecurePreferences().flush();
+            } catch (Throwable e) {
+                log.error("Error saving secured preferences", e);
+            }
+        } finally {
+            saveInProgress = false;
+        }
+    }
+
+    private void saveDataSources(DataSourceOrigin origin, IProgressMonitor progressMonitor)
+    {
+        final DataSourceConfigJournal journal = origin.getJournal();
+        // Journal records written before this point will be in saved config
+        final long journalSize = journal == null ? 0 : journal.getSize();
+        List<DataSourceDescriptor> localDataSources = getDataSources(origin);
+        IFile configFile = origin.getSourceFile();
+        try {
+            if (localDataSources.isEmpty()) {
+                configFile.delete(true, false, progressMonitor);
+            } else {
+                // Save in temp memory to be safe (any error during direct write will corrupt configuration)
+                final byte[] configData;
                 try {
-                    if (localDataSources.isEmpty()) {
-                        configFile.delete(true, false, progressMonitor);
-                    } else {
-                        // Save in temp memory to be safe (any error during direct write will corrupt configuration)
-                        ByteArrayOutputStream tempStream = new ByteArrayOutputStream(10000);
-                        try {
-                            XMLBuilder xml = new XMLBuilder(tempStream, GeneralUtils.UTF8_ENCODING);
-                            xml.setButify(true);
-                            try (XMLBuilder.Element el1 = xml.startElement("data-sources")) {
-                                if (origin.isDefault()) {
-                                    // Folders (only for default origin)
-                                    for (DataSourceFolder folder : dataSourceFolders) {
-                                        saveFolder(xml, folder);
-                                    }
-                                }
+                    configData = renderConfig(origin, localDataSources).getBytes(GeneralUtils.UTF8_CHARSET);
+                } catch (IOException ex) {
+                    log.warn("IO error while saving datasources", ex);
+                    return;
+                }
+                InputStream ifs = new ByteArrayInputStream(configData);
+                if (!configFile.exists()) {
+                    configFile.create(ifs, true, progressMonitor);
+                    configFile.setHidden(true);
+                } else {
+                    configFile.setContents(ifs, true, false, progressMonitor);
+                }
+            }
+            origin.setModificationStamp(configFile.getModificationStamp());
+            if (journal != null) {
+                try {
+                    journal.discard(journalSize);
+                } catch (IOException e) {
+                    log.warn("Error truncating datasource config journal", e);
+                }
+            }
+        } catch (CoreException ex) {
+            log.error("Error saving datasources configuration", ex);
+        }
+    }
 
-                                // Datasources
-                                for (DataSourceDescriptor dataSource : localDataSources) {
-                                    // Skip temporary
-                                    if (!dataSource.isTemporary()) {
-                                        saveDataSource(xml, dataSource);
-                                    }
-                                }
+    /**
+     * Renders config file content.
+     * Data source configs are cached so only changed data sources are serialized.
+     * Result is the same as if the whole document was written by a single XMLBuilder.
+     */
+    private String renderConfig(DataSourceOrigin origin, List<DataSourceDescriptor> localDataSources) throws IOException
+    {
+        StringBuilder body = new StringBuilder();
+        if (origin.isDefault()) {
+            // Folders (only for default origin)
+            body.append(renderFragment(xml -> {
+                for (DataSourceFolder folder : dataSourceFolders) {
+                    saveFolder(xml, folder);
+                }
+            }));
+        }
 
-                                // Filters
-                                if (origin.isDefault()) {
-                                    try (XMLBuilder.Element ignored = xml.startElement(RegistryConstants.TAG_FILTERS)) {
-                                        for (DBSObjectFilter cf : savedFilters) {
-                                            if (!cf.isEmpty()) {
-                                                saveObjectFiler(xml, null, null, cf);
-                                            }
-                                        }
-                                    }
-                                }
+        // Datasources
+        for (DataSourceDescriptor dataSource : localDataSources) {
+            // Skip temporary
+            if (!dataSource.isTemporary()) {
+                body.append(getConfigFragment(dataSource));
+            }
+        }
 
-                            }
-                            xml.flush();
-                        } catch (IOException ex) {
-                            log.warn("IO error while saving datasources", ex);
-                        }
-                        InputStream ifs = new ByteArrayInputStream(tempStream.toByteArray());
-                        if (!configFile.exists()) {
-                            configFile.create(ifs, true, progressMonitor);
-                            configFile.setHidden(true);
-                        } else {
-                            configFile.setContents(ifs, true, false, progressMonitor);
+        // Filters
+        if (origin.isDefault()) {
+            body.append(renderFragment(xml -> {
+                try (XMLBuilder.Element ignored = xml.startElement(RegistryConstants.TAG_FILTERS)) {
+                    for (DBSObjectFilter cf : savedFilters) {
+                        if (!cf.isEmpty()) {
+                            saveObjectFiler(xml, null, null, cf);
                         }
                     }
-                    try {
-                        getSecurePreferences().flush();
-                    } catch (Throwable e) {
-                        log.error("Error saving secured preferences", e);
-                    }
-                } catch (CoreException ex) {
-                    log.error("Error saving datasources configuration", ex);
                 }
+            }));
+        }
+
+        StringBuilder config = new StringBuilder(body.length() + 100);
+        config.append(XMLConstants.XML_HEADER(GeneralUtils.UTF8_ENCODING)).append('\n');
+        config.append('<').append(RegistryConstants.TAG_DATA_SOURCES);
+        if (body.length() == 0) {
+            config.append("/>");
+        } else {
+            config.append('>').append(body).append('\n');
+            config.append("</").append(RegistryConstants.TAG_DATA_SOURCES).append('>');
+        }
+        return config.toString();
+    }
+
+    private String getConfigFragment(DataSourceDescriptor dataSource) throws IOException
+    {
+        synchronized (configFragments) {
+            String fragment = configFragments.get(dataSource);
+            if (fragment == null) {
+                fragment = renderFragment(xml -> saveDataSource(xml, dataSource));
+                configFragments.put(dataSource, fragment);
             }
-        } finally {
-            saveInProgress = false;
+            return fragment;
         }
     }
 
+    /**
+     * Renders config elements formatted as children of the root element
+     */
+    private static String renderFragment(ConfigWriter writer) throws IOException
+    {
+        StringWriter buffer = new StringWriter();
+        XMLBuilder xml = new XMLBuilder(buffer, GeneralUtils.UTF8_ENCODING, false);
+        xml.setButify(true);
+        xml.startElement(RegistryConstants.TAG_DATA_SOURCES);
+        writer.write(xml);
+        xml.endElement();
+        xml.flush();
+        // Strip root element tags and the line feed before the closing tag
+        String text = buffer.toString();
+        int start = text.indexOf('>') + 1;
+        int end = text.lastIndexOf("</") - 1;
+        return end > start ? text.substring(start, end) : "";
+    }
+
     private List<DataSourceDescriptor> getDataSources(DataSourceOrigin origin) {
         List<DataSourceDescriptor> result = new ArrayList<>();
         synchronized (dataSources) {
@@ -699,6 +920,12 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         if (!CommonUtils.isEmpty(lockPasswordHash)) {
             xml.addAttribute(RegistryConstants.ATTR_LOCK_PASSWORD, lockPasswordHash);
         }
+        DeferredPasswords deferredPasswords = dataSource.getDeferredPasswords();
+        if (deferredPasswords != null && deferredPasswords.hasEncryptedPasswords() && getPlatform().getSecureStorage().useSecurePreferences()) {
+            // Passwords from config file have to be moved to secure storage
+            dataSource.resolvePasswords();
+            deferredPasswords = null;
+        }
 
         {
             // Connection info
@@ -718,7 +945,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                 dataSource,
                 null,
                 connectionInfo.getUserName(),
-                dataSource.isSavePassword() ? connectionInfo.getUserPassword() : null);
+                dataSource.isSavePassword() ? connectionInfo.getUserPassword() : null,
+                dataSource.isSavePassword() ? deferredPasswords : null);
 
             if (!CommonUtils.isEmpty(connectionInfo.getClientHomeId())) {
                 xml.addAttribute(RegistryConstants.ATTR_HOME, connectionInfo.getClientHomeId());
@@ -777,9 +1005,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                     saveSecuredCredentials(
                         xml,
                         dataSource,
-                        "network/" + configuration.getId(),
+                        NETWORK_CREDENTIALS_NODE + configuration.getId(),
                         configuration.getUserName(),
-                        configuration.isSavePassword() ? configuration.getPassword() : null);
+                        configuration.isSavePassword() ? configuration.getPassword() : null,
+                        configuration.isSavePassword() ? deferredPasswords : null);
                 }
                 for (Map.Entry<String, String> entry : configuration.getProperties().entrySet()) {
                     if (CommonUtils.isEmpty(entry.getValue())) {
@@ -873,7 +1102,9 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         xml.endElement();
     }
 
-    private void saveSecuredCredentials(XMLBuilder xml, DataSourceDescriptor dataSource, String subNode, String userName, String password) throws IOException {
+    private void saveSecuredCredentials(XMLBuilder xml, DataSourceDescriptor dataSource, String subNode, String userName, String password, @Nullable DeferredPasswords deferredPasswords) throws IOException {
+        // Password which wasn't read yet is saved as is
+        final boolean passwordDeferred = deferredPasswords != null && deferredPasswords.hasPassword(subNode);
         boolean saved = false;
         final DBASecureStorage secureStorage = getPlatform().getSecureStorage();
         {
@@ -898,6 +1129,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                     if (!CommonUtils.isEmpty(password)) {
                         prefNode.put(RegistryConstants.ATTR_PASSWORD, password, true);
                         saved = true;
+                    } else if (passwordDeferred) {
+                        saved = true;
                     } else {
                         prefNode.remove(RegistryConstants.ATTR_PASSWORD);
                     }
@@ -913,6 +1146,8 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                 }
                 if (!CommonUtils.isEmpty(password)) {
                     xml.addAttribute(RegistryConstants.ATTR_PASSWORD, ENCRYPTOR.encrypt(password));
+                } else if (passwordDeferred && !CommonUtils.isEmpty(deferredPasswords.getEncryptedPassword(subNode))) {
+                    xml.addAttribute(RegistryConstants.ATTR_PASSWORD, deferredPasswords.getEncryptedPassword(subNode));
                 }
             } catch (EncryptionException e) {
                 log.error("Error encrypting password", e);
@@ -920,6 +1155,47 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         }
     }
 
+    /**
+     * Reads passwords which were skipped during config load
+     */
+    void readDeferredPasswords(DataSourceDescriptor dataSource, DeferredPasswords passwords) {
+        final DBPConnectionConfiguration connectionInfo = dataSource.getConnectionConfiguration();
+        for (Map.Entry<String, String> entry : passwords.encryptedPasswords.entrySet()) {
+            final String subNode = entry.getKey();
+            final String password = readSecuredPassword(dataSource, subNode, entry.getValue());
+            if (subNode == null) {
+                connectionInfo.setUserPassword(password);
+            } else if (subNode.startsWith(NETWORK_CREDENTIALS_NODE)) {
+                DBWHandlerConfiguration handler = connectionInfo.getHandler(subNode.substring(NETWORK_CREDENTIALS_NODE.length()));
+                if (handler != null) {
+                    handler.setPassword(password);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private String readSecuredPassword(DataSourceDescriptor dataSource, @Nullable String subNode, @Nullable String encPassword) {
+        String password = null;
+        if (getPlatform().getSecureStorage().useSecurePreferences()) {
+            try {
+                ISecurePreferences prefNode = dataSource.getSecurePreferences();
+                if (subNode != null) {
+                    for (String nodeName : subNode.split("/")) {
+                        prefNode = prefNode.node(nodeName);
+                    }
+                }
+                password = prefNode.get(RegistryConstants.ATTR_PASSWORD, null);
+            } catch (Throwable e) {
+                log.error("Can't read password from secure storage", e);
+            }
+        }
+        if (CommonUtils.isEmpty(password)) {
+            password = CommonUtils.isEmpty(encPassword) ? null : decryptPassword(encPassword);
+        }
+        return password;
+    }
+
     private void clearSecuredPasswords(DataSourceDescriptor dataSource) {
         try {
             dataSource.getSecurePreferences().removeNode();
@@ -983,6 +1259,58 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
     private static class ParseResults {
         Set<DataSourceDescriptor> updatedDataSources = new HashSet<>();
         Set<DataSourceDescriptor> addedDataSources = new HashSet<>();
+        // Data sources of config files which weren't changed since last load
+        Set<DataSourceDescriptor> unchangedDataSources = new HashSet<>();
+    }
+
+    /**
+     * Saved passwords which are read from secure storage (or decrypted) on first use.
+     * Maps credentials node (null for connection credentials) to the encrypted password from config file.
+     */
+    static class DeferredPasswords {
+        private final Map<String, String> encryptedPasswords = new LinkedHashMap<>();
+
+        boolean isEmpty() {
+            return encryptedPasswords.isEmpty();
+        }
+
+        boolean hasPassword(@Nullable String subNode) {
+            return encryptedPasswords.containsKey(subNode);
+        }
+
+        @Nullable
+        String getEncryptedPassword(@Nullable String subNode) {
+            return encryptedPasswords.get(subNode);
+        }
+
+        boolean hasEncryptedPasswords() {
+            for (String encPassword : encryptedPasswords.values()) {
+                if (!CommonUtils.isEmpty(encPassword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private interface ConfigWriter {
+        void write(XMLBuilder xml) throws IOException;
+    }
+
+    private class ConfigSaveJob extends AbstractJob {
+        ConfigSaveJob() {
+            super("Save datasources configuration");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (project.isOpen()) {
+                saveDataSources(false);
+            }
+            return Status.OK_STATUS;
+        }
     }
 
     private class DataSourcesParser implements SAXListener
@@ -995,6 +1323,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         private DBWHandlerConfiguration curNetworkHandler;
         private DBSObjectFilter curFilter;
         private StringBuilder curQuery;
+        private DeferredPasswords curPasswords;
         private ParseResults parseResults;
         private boolean passwordReadCanceled = false;
 
@@ -1049,6 +1378,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                         provider.addDriver(driver);
                     }
                     curDataSource = getDataSource(id);
+                    curPasswords = new DeferredPasswords();
                     boolean newDataSource = (curDataSource == null);
                     if (newDataSource) {
                         curDataSource = new DataSourceDescriptor(
@@ -1058,6 +1388,9 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                             driver,
                             new DBPConnectionConfiguration());
                     } else {
+                        synchronized (configFragments) {
+                            configFragments.remove(curDataSource);
+                        }
                         // Clean settings - they have to be loaded later by parser
                         curDataSource.getConnectionConfiguration().setProperties(Collections.emptyMap());
                         curDataSource.getConnectionConfiguration().setHandlers(Collections.emptyList());
@@ -1107,10 +1440,9 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                         config.setDatabaseName(atts.getValue(RegistryConstants.ATTR_DATABASE));
                         config.setUrl(atts.getValue(RegistryConstants.ATTR_URL));
                         if (!passwordReadCanceled) {
-                            final String[] creds = readSecuredCredentials(atts, curDataSource, null);
-                            config.setUserName(creds[0]);
+                            config.setUserName(readSecuredUserName(atts, curDataSource, null));
                             if (curDataSource.isSavePassword()) {
-                                config.setUserPassword(creds[1]);
+                                curPasswords.encryptedPasswords.put(null, atts.getValue(RegistryConstants.ATTR_PASSWORD));
                             }
                         }
                         config.setClientHomeId(atts.getValue(RegistryConstants.ATTR_HOME));
@@ -1232,10 +1564,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                         curNetworkHandler.setEnabled(CommonUtils.getBoolean(atts.getValue(RegistryConstants.ATTR_ENABLED)));
                         curNetworkHandler.setSavePassword(CommonUtils.getBoolean(atts.getValue(RegistryConstants.ATTR_SAVE_PASSWORD)));
                         if (!passwordReadCanceled) {
-                            final String[] creds = readSecuredCredentials(atts, curDataSource, "network/" + handlerId);
-                            curNetworkHandler.setUserName(creds[0]);
+                            final String subNode = NETWORK_CREDENTIALS_NODE + handlerId;
+                            curNetworkHandler.setUserName(readSecuredUserName(atts, curDataSource, subNode));
                             if (curNetworkHandler.isSavePassword()) {
-                                curNetworkHandler.setPassword(creds[1]);
+                                curPasswords.encryptedPasswords.put(subNode, atts.getValue(RegistryConstants.ATTR_PASSWORD));
                             }
                         }
 
@@ -1303,7 +1635,11 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
         {
             switch (localName) {
                 case RegistryConstants.TAG_DATA_SOURCE:
+                    if (curDataSource != null) {
+                        curDataSource.setDeferredPasswords(curPasswords.isEmpty() ? null : curPasswords);
+                    }
                     curDataSource = null;
+                    curPasswords = null;
                     break;
                 case RegistryConstants.TAG_NETWORK_HANDLER:
                     curNetworkHandler = null;
@@ -1321,8 +1657,11 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
             isDescription = false;
         }
 
-        private String[] readSecuredCredentials(Attributes xmlAttrs, DataSourceDescriptor dataSource, String subNode) {
-            String[] creds = new String[2];
+        /**
+         * Reads user name only. Passwords are read on first use (see DataSourceDescriptor.resolvePasswords).
+         */
+        private String readSecuredUserName(Attributes xmlAttrs, DataSourceDescriptor dataSource, String subNode) {
+            String userName = null;
             final DBASecureStorage secureStorage = getPlatform().getSecureStorage();
             {
                 try {
@@ -1333,8 +1672,7 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                                 prefNode = prefNode.node(nodeName);
                             }
                         }
-                        creds[0] = prefNode.get(RegistryConstants.ATTR_USER, null);
-                        creds[1] = prefNode.get(RegistryConstants.ATTR_PASSWORD, null);
+                        userName = prefNode.get(RegistryConstants.ATTR_USER, null);
                     }
                 } catch (Throwable e) {
                     // Most likely user canceled master password enter of failed by some other reason.
@@ -1343,14 +1681,10 @@ public class DataSourceRegistry implements DBPDataSourceRegistry
                     passwordReadCanceled = true;
                 }
             }
-            if (CommonUtils.isEmpty(creds[0])) {
-                creds[0] = xmlAttrs.getValue(RegistryConstants.ATTR_USER);
-            }
-            if (CommonUtils.isEmpty(creds[1])) {
-                final String encPassword = xmlAttrs.getValue(RegistryConstants.ATTR_PASSWORD);
-                creds[1] = CommonUtils.isEmpty(encPassword) ? null : decryptPassword(encPassword);
+            if (CommonUtils.isEmpty(userName)) {
+                userName = xmlAttrs.getValue(RegistryConstants.ATTR_USER);
             }
-            return creds;
+            return userName;
         }
 
     }
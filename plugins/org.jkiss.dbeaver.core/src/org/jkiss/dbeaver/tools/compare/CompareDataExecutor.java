@@ -0,0 +1,777 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDataSource;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.Pair;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares data of two tables.
+ *
+ * Rows are matched by the unique key of the source table, differences are passed to {@link CompareDataHandler}.
+ * If all key columns are numbers or dates then rows of both tables are read ordered by key and merged.
+ * Other keys (strings) are sorted by collations which differ between databases, so rows of the target table
+ * are read into memory and rows of the source table are matched with them by key.
+ *
+ * If both tables are in databases of the same dialect which can calculate hashes of rows
+ * (see {@link SQLDialect#getRowsHashExpression(String[])}) and the key is a single integer column then rows
+ * are not read at first. Key range is split into buckets, row count and hash of each bucket are calculated
+ * by servers. Only buckets which differ are split further and small differing buckets are compared row by row.
+ * So verification of equal tables transfers only a few hashes.
+ */
+public class CompareDataExecutor {
+
+    private static final Log log = Log.getLog(CompareDataExecutor.class);
+
+    // Number of buckets a differing key range is split into
+    static final int BUCKET_COUNT = 16;
+    // Ranges with fewer rows are compared row by row
+    static final long MAX_RANGE_ROWS_TO_READ = 1000;
+    private static final int FETCH_SIZE = 1000;
+
+    private final DBSEntity sourceTable;
+    private final DBSEntity targetTable;
+    private final CompareDataHandler[] handlers;
+
+    private final List<String> columnNames = new ArrayList<>();
+    private int keyCount;
+    private TableSide source;
+    private TableSide target;
+    private ExecutorService targetExecutor;
+
+    private long rowsEqual;
+    private long rowsMissing;
+    private long rowsExtra;
+    private long rowsChanged;
+    private long rowsRead;
+    private long hashQueries;
+
+    public CompareDataExecutor(DBSEntity sourceTable, DBSEntity targetTable, CompareDataHandler ... handlers)
+    {
+        this.sourceTable = sourceTable;
+        this.targetTable = targetTable;
+        this.handlers = handlers;
+    }
+
+    public DBSEntity getSourceTable()
+    {
+        return sourceTable;
+    }
+
+    public DBSEntity getTargetTable()
+    {
+        return targetTable;
+    }
+
+    /**
+     * Names of compared columns. Key columns go first.
+     */
+    public List<String> getColumnNames()
+    {
+        return columnNames;
+    }
+
+    public int getKeyCount()
+    {
+        return keyCount;
+    }
+
+    /**
+     * Target table columns, in the same order as compared columns
+     */
+    public List<DBSEntityAttribute> getTargetAttributes()
+    {
+        return target.attributes;
+    }
+
+    /**
+     * Number of equal rows (including rows of equal buckets which were not read)
+     */
+    public long getRowsEqual()
+    {
+        return rowsEqual;
+    }
+
+    public long getRowsMissing()
+    {
+        return rowsMissing;
+    }
+
+    public long getRowsExtra()
+    {
+        return rowsExtra;
+    }
+
+    public long getRowsChanged()
+    {
+        return rowsChanged;
+    }
+
+    /**
+     * Number of rows read from both tables
+     */
+    public long getRowsRead()
+    {
+        return rowsRead;
+    }
+
+    public long getHashQueries()
+    {
+        return hashQueries;
+    }
+
+    public void compareData(DBRProgressMonitor monitor) throws DBException, IOException
+    {
+        if (!(sourceTable.getDataSource() instanceof SQLDataSource) || !(targetTable.getDataSource() instanceof SQLDataSource)) {
+            throw new DBException("Data compare is supported only for SQL databases");
+        }
+        monitor.beginTask("Compare data of " + sourceTable.getName(), 1);
+        List<DBSEntityAttribute> targetAttributes = new ArrayList<>();
+        source = new TableSide(sourceTable, readColumns(monitor, targetAttributes));
+        target = new TableSide(targetTable, targetAttributes);
+        targetExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "Target data compare");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            source.open(monitor);
+            target.open(monitor);
+            for (CompareDataHandler handler : handlers) {
+                handler.compareStart(this);
+            }
+            if (isHashSupported()) {
+                compareHashes(monitor);
+            } else if (isKeyOrderSafe()) {
+                compareRows(monitor, null);
+            } else {
+                joinRows(monitor);
+            }
+            for (CompareDataHandler handler : handlers) {
+                handler.compareEnd();
+            }
+        } finally {
+            targetExecutor.shutdownNow();
+            source.close();
+            target.close();
+            monitor.done();
+        }
+    }
+
+    /**
+     * Reads key and other columns which exist in both tables. LOBs are not compared.
+     */
+    private List<DBSEntityAttribute> readColumns(DBRProgressMonitor monitor, List<DBSEntityAttribute> targetAttributes) throws DBException
+    {
+        Collection<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, sourceTable);
+        if (CommonUtils.isEmpty(identifier)) {
+            throw new DBException("Table " + DBUtils.getObjectFullName(sourceTable, DBPEvaluationContext.UI) + " has no unique key. Data can't be compared.");
+        }
+        Collection<? extends DBSEntityAttribute> targetColumns = targetTable.getAttributes(monitor);
+        List<DBSEntityAttribute> sourceAttributes = new ArrayList<>();
+        for (DBSEntityAttribute keyAttr : identifier) {
+            DBSEntityAttribute targetAttr = DBUtils.findObject(targetColumns, keyAttr.getName());
+            if (targetAttr == null) {
+                throw new DBException("Key column " + keyAttr.getName() + " not found in " + DBUtils.getObjectFullName(targetTable, DBPEvaluationContext.UI));
+            }
+            sourceAttributes.add(keyAttr);
+            targetAttributes.add(targetAttr);
+        }
+        keyCount = sourceAttributes.size();
+        for (DBSEntityAttribute attr : CommonUtils.safeCollection(sourceTable.getAttributes(monitor))) {
+            if (DBUtils.isHiddenObject(attr) || attr.getDataKind() == DBPDataKind.CONTENT || sourceAttributes.contains(attr)) {
+                continue;
+            }
+            DBSEntityAttribute targetAttr = DBUtils.findObject(targetColumns, attr.getName());
+            if (targetAttr != null) {
+                // Columns which exist only in one table are reported by structure compare
+                sourceAttributes.add(attr);
+                targetAttributes.add(targetAttr);
+            }
+        }
+        for (DBSEntityAttribute attr : sourceAttributes) {
+            columnNames.add(attr.getName());
+        }
+        return sourceAttributes;
+    }
+
+    private boolean isHashSupported()
+    {
+        SQLDialect sourceDialect = source.getDialect();
+        SQLDialect targetDialect = target.getDialect();
+        // Hashes are calculated from text presentation of rows, so it must be the same on both sides
+        // Differing buckets are merged, so the key must be order safe on both sides
+        return keyCount == 1 &&
+            source.attributes.get(0).getDataKind() == DBPDataKind.NUMERIC &&
+            isKeyOrderSafe() &&
+            sourceDialect.getClass() == targetDialect.getClass() &&
+            sourceDialect.getRowsHashExpression(source.columns) != null;
+    }
+
+    /**
+     * Numbers and dates are sorted in the same way by all databases and by {@link #compareValues(Object, Object)}
+     */
+    private boolean isKeyOrderSafe()
+    {
+        for (int i = 0; i < keyCount; i++) {
+            if (!isOrderSafe(source.attributes.get(i)) || !isOrderSafe(target.attributes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isOrderSafe(DBSEntityAttribute attribute)
+    {
+        DBPDataKind dataKind = attribute.getDataKind();
+        return dataKind == DBPDataKind.NUMERIC || dataKind == DBPDataKind.DATETIME;
+    }
+
+    private void compareHashes(DBRProgressMonitor monitor) throws DBException, IOException
+    {
+        // Whole table first, so equal tables are verified by a single query
+        Pair<RangeHash, RangeHash> tableHashes = queryBoth(this::readTableHash);
+        RangeHash sourceHash = tableHashes.getFirst();
+        RangeHash targetHash = tableHashes.getSecond();
+        if (sourceHash.isEqual(targetHash)) {
+            rowsEqual += sourceHash.count;
+            return;
+        }
+        if (sourceHash.count == 0 || targetHash.count == 0) {
+            compareRows(monitor, null);
+            return;
+        }
+        Long minKey = toLongKey(compareValues(sourceHash.minKey, targetHash.minKey) < 0 ? sourceHash.minKey : targetHash.minKey);
+        Long maxKey = toLongKey(compareValues(sourceHash.maxKey, targetHash.maxKey) > 0 ? sourceHash.maxKey : targetHash.maxKey);
+        if (minKey == null || maxKey == null || maxKey == Long.MAX_VALUE || maxKey + 1 - minKey <= 0) {
+            // Not an integer key or key range doesn't fit long
+            compareRows(monitor, null);
+            return;
+        }
+        compareRange(monitor, minKey, maxKey + 1, sourceHash.count, targetHash.count);
+    }
+
+    /**
+     * Compares rows with keys in range [lowKey, highKey)
+     */
+    void compareRange(DBRProgressMonitor monitor, long lowKey, long highKey, long sourceCount, long targetCount) throws DBException, IOException
+    {
+        if (monitor.isCanceled()) {
+            return;
+        }
+        if (sourceCount == 0 || targetCount == 0 ||
+            Math.max(sourceCount, targetCount) <= MAX_RANGE_ROWS_TO_READ ||
+            highKey - lowKey <= BUCKET_COUNT)
+        {
+            // Read rows. If one of ranges is empty then all rows of other one differ anyway.
+            compareRows(monitor, new long[] {lowKey, highKey});
+            return;
+        }
+        monitor.subTask("Compare keys " + lowKey + " - " + (highKey - 1));
+        long step = (highKey - lowKey + BUCKET_COUNT - 1) / BUCKET_COUNT;
+        Pair<RangeHash[], RangeHash[]> buckets = readBuckets(lowKey, highKey, step);
+        long bucketLow = lowKey;
+        for (int i = 0; i < BUCKET_COUNT && bucketLow < highKey; i++) {
+            long bucketHigh = highKey - bucketLow <= step ? highKey : bucketLow + step;
+            RangeHash sourceBucket = buckets.getFirst()[i];
+            RangeHash targetBucket = buckets.getSecond()[i];
+            if (sourceBucket != null && sourceBucket.isEqual(targetBucket)) {
+                rowsEqual += sourceBucket.count;
+            } else if (sourceBucket != null || targetBucket != null) {
+                compareRange(
+                    monitor,
+                    bucketLow,
+                    bucketHigh,
+                    sourceBucket == null ? 0 : sourceBucket.count,
+                    targetBucket == null ? 0 : targetBucket.count);
+            }
+            bucketLow = bucketHigh;
+        }
+    }
+
+    /**
+     * Reads row counts and hashes of BUCKET_COUNT buckets of range [lowKey, highKey) from both tables.
+     * Bucket i holds keys [lowKey + i * step, lowKey + (i + 1) * step), null means empty bucket.
+     */
+    Pair<RangeHash[], RangeHash[]> readBuckets(long lowKey, long highKey, long step) throws DBException
+    {
+        return queryBoth(side -> readBucketHashes(side, lowKey, highKey, step));
+    }
+
+    private RangeHash readTableHash(TableSide side) throws DBException
+    {
+        String keyColumn = side.columns[0];
+        List<Object[]> rows = readRows(side,
+            "SELECT MIN(" + keyColumn + "),MAX(" + keyColumn + "),COUNT(*)," + side.getHashExpression() +
+            " FROM " + side.tableName);
+        if (rows.isEmpty()) {
+            throw new DBException("Empty result of hash query for " + side.tableName);
+        }
+        Object[] row = rows.get(0);
+        RangeHash hash = new RangeHash(row[2], row[3]);
+        hash.minKey = row[0];
+        hash.maxKey = row[1];
+        return hash;
+    }
+
+    private RangeHash[] readBucketHashes(TableSide side, long lowKey, long highKey, long step) throws DBException
+    {
+        String keyColumn = side.columns[0];
+        String bucketExpr = "FLOOR((" + keyColumn + " - (" + lowKey + ")) / " + step + ")";
+        List<Object[]> rows = readRows(side,
+            "SELECT " + bucketExpr + ",COUNT(*)," + side.getHashExpression() +
+            " FROM " + side.tableName +
+            " WHERE " + makeRangeCondition(side, lowKey, highKey) +
+            " GROUP BY " + bucketExpr);
+        RangeHash[] buckets = new RangeHash[BUCKET_COUNT];
+        for (Object[] row : rows) {
+            int bucket = CommonUtils.toInt(row[0], -1);
+            if (bucket < 0 || bucket >= BUCKET_COUNT) {
+                throw new DBException("Bad bucket number " + row[0] + " in hash query result of " + side.tableName);
+            }
+            buckets[bucket] = new RangeHash(row[1], row[2]);
+        }
+        return buckets;
+    }
+
+    private <T> Pair<T, T> queryBoth(SideQuery<T> query) throws DBException
+    {
+        // Servers calculate hashes in parallel
+        Future<T> targetResult = targetExecutor.submit(() -> query.run(target));
+        T sourceValue = query.run(source);
+        try {
+            T targetValue = targetResult.get();
+            hashQueries += 2;
+            return new Pair<>(sourceValue, targetValue);
+        } catch (InterruptedException e) {
+            throw new DBException("Data compare interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DBException) {
+                throw (DBException) e.getCause();
+            }
+            throw new DBException("Error reading hashes of " + target.tableName, e.getCause());
+        }
+    }
+
+    /**
+     * Merges rows of both tables ordered by key. Key columns must be order safe (see {@link #isKeyOrderSafe()}).
+     * @param keyRange [low, high) range of single column key or null for all rows
+     */
+    void compareRows(DBRProgressMonitor monitor, @Nullable long[] keyRange) throws DBException, IOException
+    {
+        try (RowCursor sourceRows = new RowCursor(source, keyRange, true); RowCursor targetRows = new RowCursor(target, keyRange, true)) {
+            Object[] sourceRow = sourceRows.next();
+            Object[] targetRow = targetRows.next();
+            while ((sourceRow != null || targetRow != null) && !monitor.isCanceled()) {
+                int result = sourceRow == null ? 1 : targetRow == null ? -1 : compareKeys(sourceRow, targetRow);
+                if (result < 0) {
+                    reportMissing(sourceRow);
+                    sourceRow = sourceRows.next();
+                } else if (result > 0) {
+                    reportExtra(targetRow);
+                    targetRow = targetRows.next();
+                } else {
+                    reportMatched(sourceRow, targetRow);
+                    sourceRow = sourceRows.next();
+                    targetRow = targetRows.next();
+                }
+            }
+        }
+    }
+
+    /**
+     * Matches rows by key in memory, so the order of keys doesn't matter. All rows of the target table are kept in memory.
+     */
+    private void joinRows(DBRProgressMonitor monitor) throws DBException, IOException
+    {
+        Map<List<Object>, Object[]> targetRows = new LinkedHashMap<>();
+        try (RowCursor cursor = new RowCursor(target, null, false)) {
+            for (Object[] row = cursor.next(); row != null && !monitor.isCanceled(); row = cursor.next()) {
+                targetRows.put(makeRowKey(row, keyCount), row);
+            }
+        }
+        try (RowCursor cursor = new RowCursor(source, null, false)) {
+            for (Object[] row = cursor.next(); row != null && !monitor.isCanceled(); row = cursor.next()) {
+                Object[] targetRow = targetRows.remove(makeRowKey(row, keyCount));
+                if (targetRow == null) {
+                    reportMissing(row);
+                } else {
+                    reportMatched(row, targetRow);
+                }
+            }
+        }
+        for (Object[] row : targetRows.values()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            reportExtra(row);
+        }
+    }
+
+    private void reportMissing(Object[] sourceRow) throws IOException
+    {
+        rowsMissing++;
+        for (CompareDataHandler handler : handlers) {
+            handler.rowMissing(sourceRow);
+        }
+    }
+
+    private void reportExtra(Object[] targetRow) throws IOException
+    {
+        rowsExtra++;
+        for (CompareDataHandler handler : handlers) {
+            handler.rowExtra(targetRow);
+        }
+    }
+
+    private void reportMatched(Object[] sourceRow, Object[] targetRow) throws IOException
+    {
+        if (isEqualRows(sourceRow, targetRow)) {
+            rowsEqual++;
+        } else {
+            rowsChanged++;
+            for (CompareDataHandler handler : handlers) {
+                handler.rowChanged(sourceRow, targetRow);
+            }
+        }
+    }
+
+    private int compareKeys(Object[] sourceRow, Object[] targetRow)
+    {
+        for (int i = 0; i < keyCount; i++) {
+            int result = compareValues(sourceRow[i], targetRow[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    }
+
+    private boolean isEqualRows(Object[] sourceRow, Object[] targetRow)
+    {
+        for (int i = keyCount; i < sourceRow.length; i++) {
+            if (compareValues(sourceRow[i], targetRow[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares values of different drivers: numbers by value, dates by time
+     */
+    @SuppressWarnings("unchecked")
+    static int compareValues(@Nullable Object value1, @Nullable Object value2)
+    {
+        if (value1 == value2) {
+            return 0;
+        } else if (value1 == null) {
+            return -1;
+        } else if (value2 == null) {
+            return 1;
+        }
+        if (value1 instanceof Number && value2 instanceof Number) {
+            if (value1 instanceof Double || value1 instanceof Float || value2 instanceof Double || value2 instanceof Float) {
+                return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+            }
+            return toBigDecimal((Number) value1).compareTo(toBigDecimal((Number) value2));
+        }
+        if (value1 instanceof Date && value2 instanceof Date) {
+            int result = Long.compare(((Date) value1).getTime(), ((Date) value2).getTime());
+            if (result == 0 && value1 instanceof Timestamp && value2 instanceof Timestamp) {
+                result = Integer.compare(((Timestamp) value1).getNanos(), ((Timestamp) value2).getNanos());
+            }
+            return result;
+        }
+        if (value1 instanceof byte[] && value2 instanceof byte[]) {
+            byte[] bytes1 = (byte[]) value1, bytes2 = (byte[]) value2;
+            for (int i = 0; i < bytes1.length && i < bytes2.length; i++) {
+                int result = Integer.compare(bytes1[i] & 0xFF, bytes2[i] & 0xFF);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Integer.compare(bytes1.length, bytes2.length);
+        }
+        if (value1.getClass() == value2.getClass() && value1 instanceof Comparable) {
+            return ((Comparable<Object>) value1).compareTo(value2);
+        }
+        return value1.toString().compareTo(value2.toString());
+    }
+
+    /**
+     * Key of row which is equal for key values of different drivers, like {@link #compareValues(Object, Object)}
+     */
+    static List<Object> makeRowKey(Object[] row, int keyCount)
+    {
+        Object[] key = new Object[keyCount];
+        for (int i = 0; i < keyCount; i++) {
+            key[i] = normalizeKeyValue(row[i]);
+        }
+        return Arrays.asList(key);
+    }
+
+    @Nullable
+    private static Object normalizeKeyValue(@Nullable Object value)
+    {
+        if (value == null || value instanceof String) {
+            return value;
+        }
+        if (value instanceof Number) {
+            if (value instanceof Double || value instanceof Float) {
+                double doubleValue = ((Number) value).doubleValue();
+                if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                    return doubleValue;
+                }
+                return BigDecimal.valueOf(doubleValue).stripTrailingZeros();
+            }
+            return toBigDecimal((Number) value).stripTrailingZeros();
+        }
+        if (value instanceof Timestamp) {
+            return value;
+        }
+        if (value instanceof Date) {
+            // Timestamp equals only to Timestamp
+            return new Timestamp(((Date) value).getTime());
+        }
+        if (value instanceof byte[]) {
+            return ByteBuffer.wrap((byte[]) value);
+        }
+        return value.toString();
+    }
+
+    private static BigDecimal toBigDecimal(Number number)
+    {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else {
+            return BigDecimal.valueOf(number.longValue());
+        }
+    }
+
+    @Nullable
+    private static Long toLongKey(@Nullable Object value)
+    {
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof BigInteger || value instanceof BigDecimal) {
+            try {
+                return toBigDecimal((Number) value).longValueExact();
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static String makeRangeCondition(TableSide side, long lowKey, long highKey)
+    {
+        String keyColumn = side.columns[0];
+        return keyColumn + " >= " + lowKey + " AND " + keyColumn + " < " + highKey;
+    }
+
+    private List<Object[]> readRows(TableSide side, String query) throws DBException
+    {
+        List<Object[]> rows = new ArrayList<>();
+        try (DBCStatement statement = DBUtils.makeStatement(side.session, query, false)) {
+            if (statement.executeStatement()) {
+                try (DBCResultSet resultSet = statement.openResultSet()) {
+                    int columnCount = resultSet.getMeta().getAttributes().size();
+                    while (resultSet.nextRow()) {
+                        Object[] row = new Object[columnCount];
+                        for (int i = 0; i < columnCount; i++) {
+                            row[i] = resultSet.getAttributeValue(i);
+                        }
+                        rows.add(row);
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private interface SideQuery<T> {
+        T run(TableSide side) throws DBException;
+    }
+
+    /**
+     * Row count and hash of key range
+     */
+    static class RangeHash {
+        final long count;
+        final String hash;
+        Object minKey;
+        Object maxKey;
+
+        RangeHash(Object count, Object hash)
+        {
+            this.count = CommonUtils.toLong(count);
+            this.hash = hash instanceof BigDecimal ? ((BigDecimal) hash).toPlainString() : CommonUtils.toString(hash);
+        }
+
+        boolean isEqual(@Nullable RangeHash other)
+        {
+            return other != null && count == other.count && hash.equals(other.hash);
+        }
+    }
+
+    private static class TableSide {
+        final DBSEntity table;
+        final List<DBSEntityAttribute> attributes;
+        final String tableName;
+        final String[] columns;
+        DBCExecutionContext context;
+        boolean isolatedContext;
+        DBCSession session;
+
+        TableSide(DBSEntity table, List<DBSEntityAttribute> attributes)
+        {
+            this.table = table;
+            this.attributes = attributes;
+            this.tableName = DBUtils.getObjectFullName(table, DBPEvaluationContext.DML);
+            this.columns = new String[attributes.size()];
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = DBUtils.getQuotedIdentifier(attributes.get(i));
+            }
+        }
+
+        SQLDialect getDialect()
+        {
+            return ((SQLDataSource) table.getDataSource()).getSQLDialect();
+        }
+
+        String getHashExpression()
+        {
+            return getDialect().getRowsHashExpression(columns);
+        }
+
+        void open(DBRProgressMonitor monitor) throws DBException
+        {
+            // Separate connection with disabled auto-commit, otherwise some drivers fetch all rows into memory
+            isolatedContext = !table.getDataSource().getContainer().getDriver().isEmbedded();
+            context = isolatedContext ?
+                DBUtils.getObjectOwnerInstance(table).openIsolatedContext(monitor, "Data compare") :
+                DBUtils.getDefaultContext(table, false);
+            if (isolatedContext) {
+                DBCTransactionManager txnManager = DBUtils.getTransactionManager(context);
+                if (txnManager != null) {
+                    try {
+                        txnManager.setAutoCommit(monitor, false);
+                    } catch (DBCException e) {
+                        log.warn("Can't change auto-commit", e);
+                    }
+                }
+            }
+            session = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Compare data");
+        }
+
+        void close()
+        {
+            if (session != null) {
+                session.close();
+            }
+            if (context != null && isolatedContext) {
+                context.close();
+            }
+        }
+    }
+
+    private class RowCursor implements AutoCloseable {
+        private final DBCStatement statement;
+        private final DBCResultSet resultSet;
+        private final int columnCount;
+
+        RowCursor(TableSide side, @Nullable long[] keyRange, boolean ordered) throws DBException
+        {
+            StringBuilder query = new StringBuilder("SELECT ");
+            query.append(String.join(",", side.columns)).append(" FROM ").append(side.tableName);
+            if (keyRange != null) {
+                query.append(" WHERE ").append(makeRangeCondition(side, keyRange[0], keyRange[1]));
+            }
+            if (ordered) {
+                query.append(" ORDER BY ").append(String.join(",", Arrays.asList(side.columns).subList(0, keyCount)));
+            }
+            columnCount = side.columns.length;
+            statement = DBUtils.makeStatement(side.session, query.toString(), false);
+            try {
+                if (statement instanceof JDBCStatement) {
+                    try {
+                        ((JDBCStatement) statement).setFetchSize(FETCH_SIZE);
+                    } catch (SQLException e) {
+                        log.debug("Can't set fetch size", e);
+                    }
+                }
+                resultSet = statement.executeStatement() ? statement.openResultSet() : null;
+            } catch (DBException e) {
+                statement.close();
+                throw e;
+            }
+        }
+
+        @Nullable
+        Object[] next() throws DBCException
+        {
+            if (resultSet == null || !resultSet.nextRow()) {
+                return null;
+            }
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getAttributeValue(i);
+            }
+            rowsRead++;
+            return row;
+        }
+
+        @Override
+        public void close()
+        {
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            statement.close();
+        }
+    }
+
+}
@@ -0,0 +1,46 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare;
+
+import java.io.IOException;
+
+/**
+ * Receives row differences found by {@link CompareDataExecutor}.
+ * Rows contain values of compared columns (see {@link CompareDataExecutor#getColumnNames()}), key columns go first.
+ */
+interface CompareDataHandler {
+
+    void compareStart(CompareDataExecutor executor) throws IOException;
+
+    /**
+     * Row exists only in source table
+     */
+    void rowMissing(Object[] sourceRow) throws IOException;
+
+    /**
+     * Row exists only in target table
+     */
+    void rowExtra(Object[] targetRow) throws IOException;
+
+    /**
+     * Rows with the same key have different values
+     */
+    void rowChanged(Object[] sourceRow, Object[] targetRow) throws IOException;
+
+    void compareEnd() throws IOException;
+
+}
@@ -0,0 +1,111 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare;
+
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes row differences as plain text.
+ * Lines start with '-' for rows missing in target, '+' for extra target rows and '~' for changed rows.
+ */
+class CompareDataReportWriter implements CompareDataHandler {
+
+    private final Writer writer;
+
+    private CompareDataExecutor executor;
+    private List<String> columnNames;
+    private int keyCount;
+
+    CompareDataReportWriter(Writer writer)
+    {
+        this.writer = writer;
+    }
+
+    @Override
+    public void compareStart(CompareDataExecutor executor) throws IOException
+    {
+        this.executor = executor;
+        this.columnNames = executor.getColumnNames();
+        this.keyCount = executor.getKeyCount();
+        writer.write("Source: " + DBUtils.getObjectFullName(executor.getSourceTable(), DBPEvaluationContext.UI) + "\n");
+        writer.write("Target: " + DBUtils.getObjectFullName(executor.getTargetTable(), DBPEvaluationContext.UI) + "\n");
+        writer.write("Columns: " + String.join(", ", columnNames) + "\n\n");
+    }
+
+    @Override
+    public void rowMissing(Object[] sourceRow) throws IOException
+    {
+        writeRow('-', sourceRow);
+    }
+
+    @Override
+    public void rowExtra(Object[] targetRow) throws IOException
+    {
+        writeRow('+', targetRow);
+    }
+
+    @Override
+    public void rowChanged(Object[] sourceRow, Object[] targetRow) throws IOException
+    {
+        StringBuilder line = new StringBuilder("~ ");
+        appendKey(line, sourceRow);
+        for (int i = keyCount; i < sourceRow.length; i++) {
+            if (CompareDataExecutor.compareValues(sourceRow[i], targetRow[i]) != 0) {
+                line.append(" ").append(columnNames.get(i)).append(": ").append(sourceRow[i]).append(" -> ").append(targetRow[i]);
+            }
+        }
+        writer.write(line.append("\n").toString());
+    }
+
+    @Override
+    public void compareEnd() throws IOException
+    {
+        writer.write("\nEqual rows: " + executor.getRowsEqual() +
+            "\nMissing in target: " + executor.getRowsMissing() +
+            "\nExtra in target: " + executor.getRowsExtra() +
+            "\nChanged: " + executor.getRowsChanged() +
+            "\nRows read: " + executor.getRowsRead() +
+            "\nHash queries: " + executor.getHashQueries() + "\n");
+        writer.flush();
+    }
+
+    private void writeRow(char prefix, Object[] row) throws IOException
+    {
+        StringBuilder line = new StringBuilder().append(prefix).append(" ");
+        appendKey(line, row);
+        for (int i = keyCount; i < row.length; i++) {
+            line.append(" ").append(columnNames.get(i)).append(": ").append(row[i]);
+        }
+        writer.write(line.append("\n").toString());
+    }
+
+    private void appendKey(StringBuilder line, Object[] row)
+    {
+        line.append("[");
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) line.append(", ");
+            line.append(columnNames.get(i)).append("=").append(row[i]);
+        }
+        line.append("]");
+    }
+
+}
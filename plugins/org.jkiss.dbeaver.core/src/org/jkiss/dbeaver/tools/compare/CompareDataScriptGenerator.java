@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.sql.SQLDataSource;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Generates script which makes data of the target table equal to data of the source table
+ */
+class CompareDataScriptGenerator implements CompareDataHandler {
+
+    private final Writer writer;
+
+    private DBPDataSource dataSource;
+    private List<DBSEntityAttribute> attributes;
+    private int keyCount;
+    private String tableName;
+    private String[] columns;
+    private String delimiter;
+
+    CompareDataScriptGenerator(Writer writer)
+    {
+        this.writer = writer;
+    }
+
+    @Override
+    public void compareStart(CompareDataExecutor executor) throws IOException
+    {
+        dataSource = executor.getTargetTable().getDataSource();
+        attributes = executor.getTargetAttributes();
+        String[] columns = new String[attributes.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = DBUtils.getQuotedIdentifier(attributes.get(i));
+        }
+        init(
+            DBUtils.getObjectFullName(executor.getTargetTable(), DBPEvaluationContext.DML),
+            columns,
+            executor.getKeyCount(),
+            ((SQLDataSource) dataSource).getSQLDialect().getScriptDelimiter());
+        writer.write("-- Synchronize data of " + tableName + " with " +
+            DBUtils.getObjectFullName(executor.getSourceTable(), DBPEvaluationContext.UI) + "\n");
+    }
+
+    void init(String tableName, String[] columns, int keyCount, String delimiter)
+    {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.keyCount = keyCount;
+        this.delimiter = delimiter;
+    }
+
+    @Override
+    public void rowMissing(Object[] sourceRow) throws IOException
+    {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+        sql.append(String.join(",", columns)).append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(",");
+            sql.append(toSQL(i, sourceRow[i]));
+        }
+        sql.append(")");
+        writeStatement(sql);
+    }
+
+    @Override
+    public void rowExtra(Object[] targetRow) throws IOException
+    {
+        StringBuilder sql = new StringBuilder("DELETE FROM ").append(tableName);
+        appendKeyCondition(sql, targetRow);
+        writeStatement(sql);
+    }
+
+    @Override
+    public void rowChanged(Object[] sourceRow, Object[] targetRow) throws IOException
+    {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(tableName).append(" SET ");
+        boolean hasChanges = false;
+        for (int i = keyCount; i < columns.length; i++) {
+            if (CompareDataExecutor.compareValues(sourceRow[i], targetRow[i]) != 0) {
+                if (hasChanges) sql.append(",");
+                sql.append(columns[i]).append("=").append(toSQL(i, sourceRow[i]));
+                hasChanges = true;
+            }
+        }
+        appendKeyCondition(sql, targetRow);
+        writeStatement(sql);
+    }
+
+    @Override
+    public void compareEnd() throws IOException
+    {
+        writer.flush();
+    }
+
+    private void appendKeyCondition(StringBuilder sql, Object[] row)
+    {
+        sql.append(" WHERE ");
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) sql.append(" AND ");
+            sql.append(columns[i]).append("=").append(toSQL(i, row[i]));
+        }
+    }
+
+    String toSQL(int column, Object value)
+    {
+        return SQLUtils.convertValueToSQL(dataSource, attributes.get(column), value);
+    }
+
+    private void writeStatement(StringBuilder sql) throws IOException
+    {
+        writer.write(sql.append(delimiter).append("\n").toString());
+    }
+
+}
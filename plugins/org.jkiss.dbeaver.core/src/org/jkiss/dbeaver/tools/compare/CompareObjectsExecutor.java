@@ -21,78 +21,73 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBPSystemObject;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
-import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
-import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Compares object trees.
+ *
+ * Object trees of all compared sides are loaded first (sides of different data sources are loaded in parallel).
+ * While loading each object gets a structural fingerprint: hash of its name, non-lazy properties (except references
+ * to owner objects - they differ when different schemas are compared) and fingerprints of its children.
+ * Subtrees with equal fingerprints on all sides are reported as identical without reading their scripts - these are read
+ * only for mismatched objects. Fingerprint doesn't cover lazy properties, so if they are compared all objects are read.
+ */
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
-
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> objectProperties = new IdentityHashMap<>();
 
     private final DBRProgressListener initializeFinisher;
-    private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
     private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
 
-    private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private CompareReport report;
     private int reportDepth = 0;
     private CompareReportLine lastLine;
 
-    private void reportObjectsCompareBegin(List<DBNDatabaseNode> objects)
+    private void reportObjectsCompareBegin(List<NodeSnapshot> objects)
     {
         reportDepth++;
         lastLine = new CompareReportLine();
         lastLine.depth = reportDepth;
-        lastLine.structure = objects.get(0);
+        lastLine.structure = objects.get(0).node;
         lastLine.nodes = new DBNDatabaseNode[rootNodes.size()];
-        for (int i = 0; i < rootNodes.size(); i++) {
-            for (DBNDatabaseNode node : objects) {
-                if (node == rootNodes.get(i) || node.isChildOf(rootNodes.get(i))) {
-                    lastLine.nodes[i] = node;
-                    break;
-                }
-            }
-        }
-        for (DBNDatabaseNode node : lastLine.nodes) {
-            if (node == null) {
-                lastLine.hasDifference = true;
-                break;
-            }
+        for (NodeSnapshot object : objects) {
+            lastLine.nodes[object.side] = object.node;
         }
-        reportLines.add(lastLine);
+        lastLine.hasDifference = objects.size() != rootNodes.size();
+        report.addLine(lastLine);
     }
 
-    private void reportPropertyCompare(ObjectPropertyDescriptor property)
+    private void reportPropertyCompare(ObjectPropertyDescriptor property, List<NodeSnapshot> objects)
     {
         CompareReportProperty reportProperty = new CompareReportProperty(property);
         reportProperty.values = new Object[rootNodes.size()];
-        for (int i = 0; i < lastLine.nodes.length; i++) {
-            DBNDatabaseNode node = lastLine.nodes[i];
-            if (node == null) {
-                continue;
-            }
-            Map<DBPPropertyDescriptor, Object> valueMap = propertyValues.get(node.getObject());
-            if (valueMap != null) {
-                reportProperty.values[i] = valueMap.get(property);
+        for (NodeSnapshot object : objects) {
+            if (object.properties != null) {
+                reportProperty.values[object.side] = object.properties.get(property.getId());
             }
         }
         if (lastLine.properties == null) {
@@ -130,19 +125,6 @@ public class CompareObjectsExecutor {
                 }
             }
         };
-        lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
-            @Override
-            public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
-            {
-                synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
-                    if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
-                    }
-                }
-            }
-        };
-        PropertiesContributor.getInstance().addLazyListener(lazyPropertyLoadListener);
     }
 
     IStatus getInitializeError()
@@ -150,76 +132,137 @@ public class CompareObjectsExecutor {
         return initializeError;
     }
 
-    void dispose()
+    public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+        throws DBException, InterruptedException
     {
-        PropertiesContributor.getInstance().removeLazyListener(lazyPropertyLoadListener);
+        report = new CompareReport(rootNodes);
+        lastLine = null;
+
+        initializeNodes(monitor, nodes);
+        List<NodeSnapshot> snapshots = loadSnapshots(monitor, nodes);
+        compareNodes(monitor, snapshots, false);
+        return report;
     }
 
-    public CompareReport compareObjects(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    private void initializeNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    {
+        this.initializedCount = 0;
+        this.initializeError = null;
+
+        monitor.subTask("Initialize nodes");
+        for (DBNDatabaseNode node : nodes) {
+            node.initializeNode(null, initializeFinisher);
+            monitor.worked(1);
+        }
+        while (initializedCount != nodes.size()) {
+            if (initializeError != null) {
+                throw new DBException(initializeError.getMessage());
+            }
+            Thread.sleep(100);
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * Loads object trees of all compared nodes.
+     * Nodes of the same data source share its metadata connection, so they are loaded one by one.
+     */
+    private List<NodeSnapshot> loadSnapshots(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
         throws DBException, InterruptedException
     {
-        reportLines.clear();
-        lastLine = null;
+        Map<DBPDataSourceContainer, List<Integer>> dataSourceNodes = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            DBPDataSourceContainer container = nodes.get(i).getDataSourceContainer();
+            List<Integer> sides = dataSourceNodes.get(container);
+            if (sides == null) {
+                sides = new ArrayList<>();
+                dataSourceNodes.put(container, sides);
+            }
+            sides.add(i);
+        }
 
-        compareNodes(monitor, nodes);
-        return new CompareReport(rootNodes, reportLines);
+        NodeSnapshot[] snapshots = new NodeSnapshot[nodes.size()];
+        monitor.subTask("Load objects");
+        if (dataSourceNodes.size() == 1) {
+            for (int i = 0; i < nodes.size(); i++) {
+                snapshots[i] = new SnapshotLoader(monitor, i).loadNode(nodes.get(i));
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(dataSourceNodes.size(), r -> {
+                Thread thread = new Thread(r, "Compare objects loader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> results = new ArrayList<>();
+                for (List<Integer> sides : dataSourceNodes.values()) {
+                    results.add(executor.submit(() -> {
+                        for (int side : sides) {
+                            snapshots[side] = new SnapshotLoader(new LoaderProgressMonitor(monitor), side).loadNode(nodes.get(side));
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> result : results) {
+                    try {
+                        result.get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof DBException) {
+                            throw (DBException) cause;
+                        } else if (cause instanceof InterruptedException) {
+                            throw (InterruptedException) cause;
+                        }
+                        throw new DBException("Error loading objects for compare", cause);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return Arrays.asList(snapshots);
     }
 
-    private void compareNodes(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes)
+    private void compareNodes(DBRProgressMonitor monitor, List<NodeSnapshot> nodes, boolean identical)
         throws DBException, InterruptedException
     {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
         reportObjectsCompareBegin(nodes);
 
         try {
             if (nodes.size() > 1) {
                 // Go deeper only if we have more than one node
-                if (!settings.isCompareOnlyStructure() && !(nodes.get(0) instanceof DBNDatabaseFolder)) {
-                    compareProperties(monitor, nodes);
+                if (!identical && !settings.isCompareLazyProperties() && nodes.size() == rootNodes.size()) {
+                    identical = true;
+                    for (int i = 1; i < nodes.size(); i++) {
+                        if (nodes.get(i).fingerprint != nodes.get(0).fingerprint) {
+                            identical = false;
+                            break;
+                        }
+                    }
+                }
+                if (!settings.isCompareOnlyStructure() && !(nodes.get(0).node instanceof DBNDatabaseFolder)) {
+                    compareProperties(monitor, nodes, identical);
                 }
 
-                compareChildren(monitor, nodes);
+                compareChildren(monitor, nodes, identical);
             }
         } finally {
             reportObjectsCompareEnd();
         }
+        monitor.worked(1);
     }
 
-    private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareProperties(DBRProgressMonitor monitor, List<NodeSnapshot> nodes, boolean identical) throws DBException, InterruptedException
     {
-        // Clear compare singletons
-        this.initializedCount = 0;
-        this.initializeError = null;
-        this.propertyValues.clear();
-
-        StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
-            }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(100);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
-                }
-            }
-        }
-
-        monitor.subTask("Compare " + title.toString());
         boolean compareLazyProperties = false;
 
-        DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode));
+        DBNDatabaseNode firstNode = nodes.get(0).node;
+        List<ObjectPropertyDescriptor> properties = getObjectProperties(firstNode);
         for (ObjectPropertyDescriptor prop : properties) {
             if (prop.isLazy()) {
                 compareLazyProperties = true;
@@ -229,127 +272,83 @@ public class CompareObjectsExecutor {
         boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
         compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
+        // Identical subtrees have the same structure, so we don't read their scripts
+        if (!identical && (compareLazyProperties || compareScripts)) {
+            StringBuilder title = new StringBuilder();
+            for (NodeSnapshot node : nodes) {
+                if (title.length() > 0) title.append(", ");
+                title.append(node.node.getNodeFullName());
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                if (prop.isLazy()) {
+            monitor.subTask("Compare " + title.toString());
+
+            for (NodeSnapshot node : nodes) {
+                if (monitor.isCanceled()) {
+                    throw new InterruptedException();
+                }
+                DBSObject databaseObject = node.node.getObject();
+                PropertyCollector propertySource = new PropertyCollector(databaseObject, true);
+                for (ObjectPropertyDescriptor prop : properties) {
+                    if (!prop.isLazy()) {
+                        continue;
+                    }
                     if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) && !prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT)) {
-                                continue;
-                            }
-                        } else {
+                        // Only DBPScriptObject methods
+                        if (!prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) && !prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT)) {
                             continue;
                         }
                     }
-                } else {
-                    if (prop.isHidden()) {
-                        continue;
-                    }
-                }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop);
-                synchronized (PROPS_LOCK) {
+                    Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop);
                     if (propertyValue instanceof DBPNamedObject) {
                         // Compare just object names
                         propertyValue = ((DBPNamedObject) propertyValue).getName();
                     }
-                    nodeProperties.put(prop, propertyValue);
+                    node.properties.put(prop.getId(), propertyValue);
                 }
             }
-            monitor.worked(1);
         }
 
         // Compare properties
         for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+            reportPropertyCompare(prop, nodes);
         }
     }
 
-    private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
+    private void compareChildren(DBRProgressMonitor monitor, List<NodeSnapshot> nodes, boolean identical) throws DBException, InterruptedException
     {
-        // Compare children
-        int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
-            // Cache structure if possible
-            if (node.getObject() instanceof DBSObjectContainer) {
-                ((DBSObjectContainer) node.getObject()).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
-            }
-            try {
-                DBNDatabaseNode[] children = node.getChildren(monitor);
-                allChildren.add(children);
-            } catch (Exception e) {
-                log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
-            }
-        }
-
         Set<String> allChildNames = new LinkedHashSet<>();
-        for (DBNDatabaseNode[] childList : allChildren) {
-            if (childList == null) continue;
-            for (DBNDatabaseNode child : childList) {
-                DBXTreeNode meta = child.getMeta();
-                if (meta.isVirtual()) {
-                    // Skip virtual nodes
-                    continue;
-                }
-                if (settings.isSkipSystemObjects() && child.getObject() instanceof DBPSystemObject && ((DBPSystemObject) child.getObject()).isSystem()) {
-                    // Skip system objects
-                    continue;
-                }
-                allChildNames.add(child.getNodeName());
-            }
+        for (NodeSnapshot node : nodes) {
+            allChildNames.addAll(node.children.keySet());
         }
 
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
-                }
-            }
-
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+            List<NodeSnapshot> nodesToCompare = new ArrayList<>(nodes.size());
+            for (NodeSnapshot node : nodes) {
+                NodeSnapshot child = node.children.get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
             // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            compareNodes(monitor, nodesToCompare, identical);
         }
     }
 
+    private synchronized List<ObjectPropertyDescriptor> getObjectProperties(DBNDatabaseNode node)
+    {
+        DataSourcePropertyFilter filter = getDataSourceFilter(node);
+        Map<Class<?>, List<ObjectPropertyDescriptor>> classProperties = objectProperties.get(filter);
+        if (classProperties == null) {
+            classProperties = new HashMap<>();
+            objectProperties.put(filter, classProperties);
+        }
+        Class<?> objectClass = node.getObject().getClass();
+        List<ObjectPropertyDescriptor> properties = classProperties.get(objectClass);
+        if (properties == null) {
+            properties = ObjectPropertyDescriptor.extractAnnotations(null, objectClass, filter);
+            classProperties.put(objectClass, properties);
+        }
+        return properties;
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -365,4 +364,179 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
-}
\ No newline at end of file
+    /**
+     * Checks whether property refers to the object owner (schema, table, etc)
+     */
+    private static boolean isOwnerReference(DBSObject object, Object value)
+    {
+        if (!(value instanceof DBSObject)) {
+            return false;
+        }
+        for (DBSObject parent = object.getParentObject(); parent != null; parent = parent.getParentObject()) {
+            if (parent == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long getValueHash(Object value)
+    {
+        if (value == null) {
+            return 0x5BD1E995L;
+        }
+        String text = value.getClass().isArray() ? Arrays.deepToString(new Object[] { value }) : value.toString();
+        return mix(getStringHash(value.getClass().getName()) * 31 + getStringHash(text));
+    }
+
+    private static long getStringHash(String str)
+    {
+        if (str == null) {
+            return 0;
+        }
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            hash = (hash ^ str.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value)
+    {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Loaded object of one compared side
+     */
+    private static class NodeSnapshot {
+        final int side;
+        final DBNDatabaseNode node;
+        // Property values by property id
+        final Map<String, Object> properties = new HashMap<>();
+        final Map<String, NodeSnapshot> children = new LinkedHashMap<>();
+        long fingerprint;
+
+        NodeSnapshot(int side, DBNDatabaseNode node)
+        {
+            this.side = side;
+            this.node = node;
+        }
+    }
+
+    /**
+     * Loads object tree of one compared side
+     */
+    private class SnapshotLoader {
+
+        private final DBRProgressMonitor monitor;
+        private final int side;
+        private final Set<DBSObjectContainer> cachedContainers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        SnapshotLoader(DBRProgressMonitor monitor, int side)
+        {
+            this.monitor = monitor;
+            this.side = side;
+        }
+
+        NodeSnapshot loadNode(DBNDatabaseNode node) throws DBException, InterruptedException
+        {
+            if (monitor.isCanceled()) {
+                throw new InterruptedException();
+            }
+            NodeSnapshot snapshot = new NodeSnapshot(side, node);
+            long hash = mix(getStringHash(node.getNodeType()) * 31 + getStringHash(node.getNodeName()));
+
+            DBSObject databaseObject = node.getObject();
+            if (!settings.isCompareOnlyStructure() && !(node instanceof DBNDatabaseFolder)) {
+                PropertyCollector propertySource = new PropertyCollector(databaseObject, false);
+                for (ObjectPropertyDescriptor prop : getObjectProperties(node)) {
+                    if (prop.isLazy() || prop.isHidden()) {
+                        continue;
+                    }
+                    Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop);
+                    boolean ownerReference = isOwnerReference(databaseObject, propertyValue);
+                    if (propertyValue instanceof DBPNamedObject) {
+                        // Compare just object names
+                        propertyValue = ((DBPNamedObject) propertyValue).getName();
+                    }
+                    snapshot.properties.put(prop.getId(), propertyValue);
+                    if (!ownerReference) {
+                        hash = (hash ^ mix(getStringHash(prop.getId()) + getValueHash(propertyValue))) * 0x9E3779B97F4A7C15L;
+                    }
+                }
+            }
+
+            // Cache structure if possible
+            if (databaseObject instanceof DBSObjectContainer && cachedContainers.add((DBSObjectContainer) databaseObject)) {
+                ((DBSObjectContainer) databaseObject).cacheStructure(monitor, DBSObjectContainer.STRUCT_ALL);
+            }
+            DBNDatabaseNode[] children = null;
+            try {
+                children = node.getChildren(monitor);
+            } catch (Exception e) {
+                log.warn("Error reading child nodes for compare", e);
+            }
+            // Children fingerprints are combined regardless of their order
+            long childrenHash = 0;
+            if (children != null) {
+                for (DBNDatabaseNode child : children) {
+                    if (child.getMeta().isVirtual()) {
+                        // Skip virtual nodes
+                        continue;
+                    }
+                    if (settings.isSkipSystemObjects() && child.getObject() instanceof DBPSystemObject && ((DBPSystemObject) child.getObject()).isSystem()) {
+                        // Skip system objects
+                        continue;
+                    }
+                    if (snapshot.children.containsKey(child.getNodeName())) {
+                        continue;
+                    }
+                    NodeSnapshot childSnapshot = loadNode(child);
+                    snapshot.children.put(child.getNodeName(), childSnapshot);
+                    childrenHash += childSnapshot.fingerprint;
+                }
+            }
+            snapshot.fingerprint = mix(hash ^ mix(childrenHash + snapshot.children.size()));
+            monitor.worked(1);
+            return snapshot;
+        }
+    }
+
+    /**
+     * Loaders of different data sources run in parallel so they shouldn't change the main progress
+     */
+    private static class LoaderProgressMonitor extends ProxyProgressMonitor {
+
+        LoaderProgressMonitor(DBRProgressMonitor original)
+        {
+            super(original);
+        }
+
+        @Override
+        public void beginTask(String name, int totalWork)
+        {
+        }
+
+        @Override
+        public void done()
+        {
+        }
+
+        @Override
+        public void subTask(String name)
+        {
+        }
+
+        @Override
+        public void worked(int work)
+        {
+        }
+    }
+
+}
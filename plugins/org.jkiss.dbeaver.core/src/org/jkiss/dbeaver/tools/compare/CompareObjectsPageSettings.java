@@ -34,6 +34,8 @@ class CompareObjectsPageSettings extends ActiveWizardPage<CompareObjectsWizard>
     private Button compareLazyProperties;
     private Button compareOnlyStructure;
     private Button compareScriptProperties;
+    private Button compareData;
+    private Button generateSyncScript;
 
     CompareObjectsPageSettings() {
         super("Compare objects");
@@ -115,6 +117,32 @@ class CompareObjectsPageSettings extends ActiveWizardPage<CompareObjectsWizard>
                 }
             });
         }
+
+        if (settings.isDataCompareAvailable()) {
+            Group dataSettings = new Group(composite, SWT.NONE);
+            dataSettings.setText("Data compare");
+            dataSettings.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
+            dataSettings.setLayout(new GridLayout(1, false));
+
+            compareData = UIUtils.createCheckbox(dataSettings, "Compare table data (first table is the source)", settings.isCompareData());
+            compareData.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    settings.setCompareData(compareData.getSelection());
+                    generateSyncScript.setEnabled(compareData.getSelection());
+                }
+            });
+            generateSyncScript = UIUtils.createCheckbox(dataSettings, "Generate script which synchronizes target data", settings.isGenerateSyncScript());
+            generateSyncScript.setEnabled(settings.isCompareData());
+            generateSyncScript.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    settings.setGenerateSyncScript(generateSyncScript.getSelection());
+                }
+            });
+        }
         
         setControl(composite);
     }
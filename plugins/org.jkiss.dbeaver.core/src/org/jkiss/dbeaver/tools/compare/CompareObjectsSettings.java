@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.tools.compare;
 
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.ui.dialogs.DialogUtils;
 
 import java.util.List;
@@ -47,6 +48,8 @@ public class CompareObjectsSettings {
     private boolean compareOnlyStructure = false;
     private boolean compareScripts = false;
     private boolean showOnlyDifferences = false;
+    private boolean compareData = false;
+    private boolean generateSyncScript = false;
     private OutputType outputType = OutputType.BROWSER;
     private String outputFolder = DialogUtils.getCurDialogFolder();
 
@@ -98,6 +101,31 @@ public class CompareObjectsSettings {
         this.showOnlyDifferences = showOnlyDifferences;
     }
 
+    /**
+     * Data can be compared only for two tables
+     */
+    public boolean isDataCompareAvailable() {
+        return nodes.size() == 2 &&
+            nodes.get(0).getObject() instanceof DBSEntity &&
+            nodes.get(1).getObject() instanceof DBSEntity;
+    }
+
+    public boolean isCompareData() {
+        return compareData;
+    }
+
+    public void setCompareData(boolean compareData) {
+        this.compareData = compareData;
+    }
+
+    public boolean isGenerateSyncScript() {
+        return generateSyncScript;
+    }
+
+    public void setGenerateSyncScript(boolean generateSyncScript) {
+        this.generateSyncScript = generateSyncScript;
+    }
+
     public OutputType getOutputType() {
         return outputType;
     }
@@ -130,6 +158,12 @@ public class CompareObjectsSettings {
         if (dialogSettings.get("compareScripts") != null) {
             compareScripts = dialogSettings.getBoolean("compareScripts");
         }
+        if (dialogSettings.get("compareData") != null) {
+            compareData = dialogSettings.getBoolean("compareData");
+        }
+        if (dialogSettings.get("generateSyncScript") != null) {
+            generateSyncScript = dialogSettings.getBoolean("generateSyncScript");
+        }
         if (dialogSettings.get("outputType") != null) {
             outputType = OutputType.valueOf(dialogSettings.get("outputType"));
         }
@@ -144,6 +178,8 @@ public class CompareObjectsSettings {
         dialogSettings.put("compareStructure", compareOnlyStructure);
         dialogSettings.put("compareScripts", compareScripts);
         dialogSettings.put("showDifference", showOnlyDifferences);
+        dialogSettings.put("compareData", compareData);
+        dialogSettings.put("generateSyncScript", generateSyncScript);
         dialogSettings.put("outputType", outputType.name());
         dialogSettings.put("outputFolder", outputFolder);
     }
@@ -28,14 +28,13 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
+import java.io.*;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 public class CompareObjectsWizard extends Wizard implements IExportWizard {
@@ -103,7 +102,11 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
                         CompareReport report = generateReport(monitor, executor);
 
                         renderReport(monitor, report);
-                    } catch (DBException e) {
+
+                        if (settings.isCompareData() && settings.isDataCompareAvailable()) {
+                            compareData(monitor);
+                        }
+                    } catch (DBException | IOException e) {
                         throw new InvocationTargetException(e);
                     }
                 }
@@ -120,8 +123,6 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         } catch (InterruptedException e) {
             showError("Compare interrupted");
             return false;
-        } finally {
-            executor.dispose();
         }
 
         // Done
@@ -136,6 +137,28 @@ public class CompareObjectsWizard extends Wizard implements IExportWizard {
         return report;
     }
 
+    private void compareData(DBRProgressMonitor monitor) throws DBException, IOException
+    {
+        DBSEntity sourceTable = (DBSEntity) settings.getNodes().get(0).getObject();
+        DBSEntity targetTable = (DBSEntity) settings.getNodes().get(1).getObject();
+        File folder = settings.getOutputType() == CompareObjectsSettings.OutputType.FILE ?
+            new File(settings.getOutputFolder()) :
+            new File(System.getProperty("java.io.tmpdir"));
+        String fileName = "compare-" + CommonUtils.escapeIdentifier(sourceTable.getName()) +
+            "-" + CommonUtils.escapeIdentifier(targetTable.getName()) + "-data";
+        File reportFile = new File(folder, fileName + ".txt");
+        File scriptFile = new File(folder, fileName + "-sync.sql");
+        try (Writer reportWriter = new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8);
+             Writer scriptWriter = settings.isGenerateSyncScript() ? new OutputStreamWriter(new FileOutputStream(scriptFile), StandardCharsets.UTF_8) : null)
+        {
+            CompareDataExecutor executor = scriptWriter == null ?
+                new CompareDataExecutor(sourceTable, targetTable, new CompareDataReportWriter(reportWriter)) :
+                new CompareDataExecutor(sourceTable, targetTable, new CompareDataReportWriter(reportWriter), new CompareDataScriptGenerator(scriptWriter));
+            executor.compareData(monitor);
+        }
+        UIUtils.launchProgram(reportFile.getAbsolutePath());
+    }
+
     private void renderReport(DBRProgressMonitor monitor, CompareReport report)
     {
         try {
@@ -18,19 +18,29 @@ package org.jkiss.dbeaver.tools.compare;
 
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
-* Report
+* Report.
+* Lines are added while objects are compared.
 */
 class CompareReport {
     private List<DBNDatabaseNode> nodes;
-    private List<CompareReportLine> reportLines;
+    private final List<CompareReportLine> reportLines = new ArrayList<>();
+    private int maxDepth;
 
-    CompareReport(List<DBNDatabaseNode> nodes, List<CompareReportLine> reportLines)
+    CompareReport(List<DBNDatabaseNode> nodes)
     {
         this.nodes = nodes;
-        this.reportLines = reportLines;
+    }
+
+    void addLine(CompareReportLine line)
+    {
+        reportLines.add(line);
+        if (line.depth > maxDepth) {
+            maxDepth = line.depth;
+        }
     }
 
     public List<DBNDatabaseNode> getNodes()
@@ -42,4 +52,9 @@ class CompareReport {
     {
         return reportLines;
     }
+
+    public int getMaxDepth()
+    {
+        return maxDepth;
+    }
 }
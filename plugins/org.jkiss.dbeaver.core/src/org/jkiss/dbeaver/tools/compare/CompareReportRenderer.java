@@ -96,13 +96,7 @@ public class CompareReportRenderer {
 
     private void renderHeader() throws IOException
     {
-        int maxLevel = 0;
-        for (CompareReportLine line : report.getReportLines()) {
-            if (line.depth > maxLevel) {
-                maxLevel = line.depth;
-            }
-        }
-        maxLevel++;
+        int maxLevel = report.getMaxDepth() + 1;
         xml.startElement("style");
         StringBuilder styles = new StringBuilder();
         styles.append("table {font-family:\"Lucida Sans Unicode\", \"Lucida Grande\", Sans-Serif;font-size:12px;text-align:left;} ");
@@ -22,7 +22,6 @@ import org.eclipse.swt.graphics.*;
 import org.jkiss.dbeaver.core.DBeaverUI;
 import org.jkiss.dbeaver.model.DBPImage;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
-import org.jkiss.dbeaver.ui.TextUtils;
 import org.jkiss.dbeaver.ui.UIIcon;
 import org.jkiss.dbeaver.ui.UIUtils;
 
@@ -50,7 +49,7 @@ class GridCellRenderer extends AbstractRenderer
         colorLineFocused = grid.getDisplay().getSystemColor(SWT.COLOR_LIST_FOREGROUND);
     }
 
-    public void paint(GC gc, Rectangle bounds, boolean selected, boolean focus, Object col, Object row)
+    public void paint(GC gc, Rectangle bounds, boolean selected, boolean focus, Object col, Object row, GridCellTextCache.CellText cellText)
     {
         boolean drawBackground = true;
 
@@ -71,7 +70,7 @@ class GridCellRenderer extends AbstractRenderer
             gc.fillRectangle(bounds.x, bounds.y, bounds.width, bounds.height);
         }
 
-        String text = grid.getCellText(col, row);
+        String text = cellText.text;
         final int state = grid.getContentProvider().getCellState(col, row, text);
         int x = LEFT_MARGIN;
 
@@ -104,10 +103,8 @@ class GridCellRenderer extends AbstractRenderer
 
         // Get cell text
         if (text != null && !text.isEmpty()) {
-            // Get shortern version of string
-            text = TextUtils.getShortString(grid.fontMetrics, text, width);
-            // Replace linefeeds with space
-            text = TextUtils.getSingleLineString(text);
+            // Get shortern single line version of string (cached for current column width)
+            text = cellText.getShortText(grid.fontMetrics, width);
 
             gc.setFont(grid.normalFont);
 
@@ -125,10 +122,9 @@ class GridCellRenderer extends AbstractRenderer
                     } else {
                         gc.setClipping(bounds);
                     }
-                    Point textSize = gc.textExtent(text);
                     gc.drawString(
                             text,
-                            bounds.x + bounds.width - (textSize.x + RIGHT_MARGIN + imageMargin),
+                            bounds.x + bounds.width - (cellText.getShortTextWidth(gc) + RIGHT_MARGIN + imageMargin),
                             bounds.y + TEXT_TOP_MARGIN + TOP_MARGIN,
                             true);
                     gc.setClipping((Rectangle) null);
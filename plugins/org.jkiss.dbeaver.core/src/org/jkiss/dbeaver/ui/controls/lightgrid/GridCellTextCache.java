@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.eclipse.swt.graphics.FontMetrics;
+import org.eclipse.swt.graphics.GC;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ui.TextUtils;
+
+import java.util.Arrays;
+
+/**
+ * Cache of formatted and measured cell texts.
+ * Direct-mapped table of fixed size (so memory is bounded): each grid position has exactly one slot,
+ * a slot is reused by any other position with the same hash.
+ * Slots also keep row and column elements, so positions which now show other elements are never matched.
+ * Cache must be cleared when grid data, display format or font changes.
+ */
+class GridCellTextCache
+{
+    static final class CellText
+    {
+        private final int col;
+        private final int row;
+        private final Object colElement;
+        private final Object rowElement;
+        final String text;
+
+        private int textWidth = -1;
+        private int shortWidth = -1;
+        private String shortText;
+        private int shortTextWidth = -1;
+
+        CellText(int col, int row, Object colElement, Object rowElement, String text)
+        {
+            this.col = col;
+            this.row = row;
+            this.colElement = colElement;
+            this.rowElement = rowElement;
+            this.text = text;
+        }
+
+        /**
+         * Width of the full text
+         */
+        int getTextWidth(GC gc)
+        {
+            if (textWidth < 0) {
+                textWidth = gc.textExtent(text).x;
+            }
+            return textWidth;
+        }
+
+        /**
+         * Single line text shortened to fit in the specified width
+         */
+        String getShortText(FontMetrics fontMetrics, int width)
+        {
+            if (shortText == null || shortWidth != width) {
+                shortText = TextUtils.getSingleLineString(TextUtils.getShortString(fontMetrics, text, width));
+                shortWidth = width;
+                shortTextWidth = -1;
+            }
+            return shortText;
+        }
+
+        /**
+         * Width of the short text. Valid only after {@link #getShortText(FontMetrics, int)} call.
+         */
+        int getShortTextWidth(GC gc)
+        {
+            if (shortTextWidth < 0) {
+                shortTextWidth = gc.textExtent(shortText).x;
+            }
+            return shortTextWidth;
+        }
+    }
+
+    private final CellText[] slots;
+
+    GridCellTextCache(int size)
+    {
+        // Power of two
+        slots = new CellText[Integer.highestOneBit(Math.max(size, 16) - 1) << 1];
+    }
+
+    @Nullable
+    CellText get(int col, int row, Object colElement, Object rowElement)
+    {
+        CellText cellText = slots[getSlot(col, row)];
+        if (cellText != null && cellText.col == col && cellText.row == row &&
+            cellText.colElement == colElement && cellText.rowElement == rowElement)
+        {
+            return cellText;
+        }
+        return null;
+    }
+
+    CellText put(int col, int row, Object colElement, Object rowElement, String text)
+    {
+        CellText cellText = new CellText(col, row, colElement, rowElement, text);
+        slots[getSlot(col, row)] = cellText;
+        return cellText;
+    }
+
+    void clear()
+    {
+        Arrays.fill(slots, null);
+    }
+
+    private int getSlot(int col, int row)
+    {
+        int hash = row * 31 + col;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash & (slots.length - 1);
+    }
+
+}
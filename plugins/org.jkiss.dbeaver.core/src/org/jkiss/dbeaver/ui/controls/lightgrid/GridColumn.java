@@ -257,10 +257,11 @@ class GridColumn {
             // Calculate width of visible cells
             int topIndex = grid.getTopIndex();
             int bottomIndex = grid.getBottomIndex();
-            if (topIndex >= 0 && bottomIndex >= topIndex) {
+            int colIndex = getIndex();
+            if (topIndex >= 0 && bottomIndex >= topIndex && colIndex >= 0) {
                 int itemCount = grid.getItemCount();
                 for (int i = topIndex; i <= bottomIndex && i < itemCount; i++) {
-                    newWidth = Math.max(newWidth, computeCellWidth(element, grid.getRowElement(i)));
+                    newWidth = Math.max(newWidth, computeCellWidth(colIndex, i));
                 }
             }
         } else {
@@ -284,13 +285,15 @@ class GridColumn {
         }
 	}
 
-    private int computeCellWidth(Object col, Object row) {
+    private int computeCellWidth(int colIndex, int rowIndex) {
         int x = 0;
 
         x += leftMargin;
 
-        String cellText = grid.getCellText(col, row);
-        int state = grid.getContentProvider().getCellState(col, row, cellText);
+        // Formatted text and its width are cached, so they will be reused by paint
+        GridCellTextCache.CellText cellText = grid.getCachedCellText(colIndex, rowIndex);
+        Object col = element, row = grid.getRowElement(rowIndex);
+        int state = grid.getContentProvider().getCellState(col, row, cellText.text);
         Rectangle imageBounds;
         if (GridCellRenderer.isLinkState(state)) {
             imageBounds = GridCellRenderer.LINK_IMAGE_BOUNDS;
@@ -302,7 +305,7 @@ class GridColumn {
             x += imageBounds.width + insideMargin;
         }
 
-        x += grid.sizingGC.textExtent(cellText).x + rightMargin;
+        x += cellText.getTextWidth(grid.sizingGC) + rightMargin;
         return x;
     }
 
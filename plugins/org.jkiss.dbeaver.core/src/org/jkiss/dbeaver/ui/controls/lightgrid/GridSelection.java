@@ -0,0 +1,453 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.primitive.IntBitmap;
+
+import java.util.*;
+
+/**
+ * Grid cell selection.
+ * Cells are kept as a list of disjoint rectangles, so selecting whole rows, columns or the entire grid
+ * costs O(ranges) regardless of the number of cells.
+ * Iteration order is the same as in {@link GridPos.PosComparator} (first ordered by rows then by columns).
+ */
+public class GridSelection extends AbstractCollection<GridPos> {
+
+    /**
+     * Cells rectangle. Bounds are inclusive.
+     */
+    private static final class Range {
+        final int col1, row1, col2, row2;
+
+        Range(int col1, int row1, int col2, int row2)
+        {
+            this.col1 = col1;
+            this.row1 = row1;
+            this.col2 = col2;
+            this.row2 = row2;
+        }
+
+        long getCellCount()
+        {
+            return (long) (col2 - col1 + 1) * (row2 - row1 + 1);
+        }
+
+        boolean contains(int col, int row)
+        {
+            return col >= col1 && col <= col2 && row >= row1 && row <= row2;
+        }
+
+        boolean intersects(int c1, int r1, int c2, int r2)
+        {
+            return c1 <= col2 && c2 >= col1 && r1 <= row2 && r2 >= row1;
+        }
+
+        long getIntersectionCount(Range range)
+        {
+            int c1 = Math.max(col1, range.col1), c2 = Math.min(col2, range.col2);
+            int r1 = Math.max(row1, range.row1), r2 = Math.min(row2, range.row2);
+            if (c1 > c2 || r1 > r2) {
+                return 0;
+            }
+            return (long) (c2 - c1 + 1) * (r2 - r1 + 1);
+        }
+
+        @Override
+        public String toString()
+        {
+            return "[" + col1 + ":" + row1 + " - " + col2 + ":" + row2 + "]";
+        }
+    }
+
+    private final List<Range> ranges = new ArrayList<>();
+    private long cellCount;
+
+    public GridSelection()
+    {
+    }
+
+    public GridSelection(GridSelection source)
+    {
+        ranges.addAll(source.ranges);
+        cellCount = source.cellCount;
+    }
+
+    /**
+     * Number of selected cells.
+     */
+    public long getCellCount()
+    {
+        return cellCount;
+    }
+
+    /**
+     * Number of rectangles used to keep the selection.
+     */
+    public int getRangeCount()
+    {
+        return ranges.size();
+    }
+
+    @Override
+    public int size()
+    {
+        return (int) Math.min(cellCount, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return cellCount == 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        ranges.clear();
+        cellCount = 0;
+    }
+
+    public void set(GridSelection source)
+    {
+        if (source != this) {
+            ranges.clear();
+            ranges.addAll(source.ranges);
+            cellCount = source.cellCount;
+        }
+    }
+
+    public boolean contains(int col, int row)
+    {
+        for (int i = 0, size = ranges.size(); i < size; i++) {
+            if (ranges.get(i).contains(col, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+        return o instanceof GridPos && contains(((GridPos) o).col, ((GridPos) o).row);
+    }
+
+    @Override
+    public boolean add(GridPos pos)
+    {
+        if (contains(pos.col, pos.row)) {
+            return false;
+        }
+        appendRange(new Range(pos.col, pos.row, pos.col, pos.row));
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o)
+    {
+        if (!contains(o)) {
+            return false;
+        }
+        GridPos pos = (GridPos) o;
+        removeRange(pos.col, pos.row, pos.col, pos.row);
+        return true;
+    }
+
+    /**
+     * Selects all cells of the rectangle. Bounds are inclusive.
+     */
+    public void addRange(int col1, int row1, int col2, int row2)
+    {
+        if (col1 > col2 || row1 > row2) {
+            return;
+        }
+        removeRange(col1, row1, col2, row2);
+        appendRange(new Range(col1, row1, col2, row2));
+    }
+
+    /**
+     * Deselects all cells of the rectangle. Bounds are inclusive.
+     */
+    public void removeRange(int col1, int row1, int col2, int row2)
+    {
+        if (col1 > col2 || row1 > row2) {
+            return;
+        }
+        List<Range> pieces = null;
+        for (int i = ranges.size(); i-- > 0; ) {
+            Range range = ranges.get(i);
+            if (!range.intersects(col1, row1, col2, row2)) {
+                continue;
+            }
+            ranges.remove(i);
+            cellCount -= range.getCellCount();
+            if (pieces == null) {
+                pieces = new ArrayList<>();
+            }
+            // Keep parts of the range which lay outside of the removed rectangle
+            int top = Math.max(range.row1, row1), bottom = Math.min(range.row2, row2);
+            if (range.row1 < row1) {
+                pieces.add(new Range(range.col1, range.row1, range.col2, row1 - 1));
+            }
+            if (range.row2 > row2) {
+                pieces.add(new Range(range.col1, row2 + 1, range.col2, range.row2));
+            }
+            if (range.col1 < col1) {
+                pieces.add(new Range(range.col1, top, col1 - 1, bottom));
+            }
+            if (range.col2 > col2) {
+                pieces.add(new Range(col2 + 1, top, range.col2, bottom));
+            }
+        }
+        if (pieces != null) {
+            // Append pieces after all intersected ranges are removed, otherwise they may be merged with them
+            for (Range piece : pieces) {
+                appendRange(piece);
+            }
+        }
+    }
+
+    public void addAll(GridSelection selection)
+    {
+        for (Range range : new ArrayList<>(selection.ranges)) {
+            addRange(range.col1, range.row1, range.col2, range.row2);
+        }
+    }
+
+    public void removeAll(GridSelection selection)
+    {
+        for (Range range : new ArrayList<>(selection.ranges)) {
+            removeRange(range.col1, range.row1, range.col2, range.row2);
+        }
+    }
+
+    public boolean containsAll(GridSelection selection)
+    {
+        if (selection.cellCount > cellCount) {
+            return false;
+        }
+        // Our ranges are disjoint so it is enough to count covered cells
+        for (Range range : selection.ranges) {
+            long covered = 0;
+            for (Range ours : ranges) {
+                covered += ours.getIntersectionCount(range);
+            }
+            if (covered != range.getCellCount()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns first cell in rows-then-columns order
+     */
+    @Nullable
+    public GridPos getFirstCell()
+    {
+        Range first = null;
+        for (Range range : ranges) {
+            if (first == null || range.row1 < first.row1 || (range.row1 == first.row1 && range.col1 < first.col1)) {
+                first = range;
+            }
+        }
+        return first == null ? null : new GridPos(first.col1, first.row1);
+    }
+
+    public boolean isRowSelected(int row)
+    {
+        for (int i = 0, size = ranges.size(); i < size; i++) {
+            Range range = ranges.get(i);
+            if (row >= range.row1 && row <= range.row2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds indexes of all rows which have at least one selected cell
+     */
+    public void getSelectedRows(IntBitmap rows)
+    {
+        for (Range range : ranges) {
+            rows.addRange(range.row1, range.row2 + 1);
+        }
+    }
+
+    /**
+     * Sets bits of all columns which have at least one selected cell
+     */
+    public void getSelectedColumns(BitSet columns)
+    {
+        for (Range range : ranges) {
+            columns.set(range.col1, range.col2 + 1);
+        }
+    }
+
+    /**
+     * Sets bits of columns selected in the specified row
+     */
+    public void getSelectedColumns(int row, BitSet columns)
+    {
+        for (int i = 0, size = ranges.size(); i < size; i++) {
+            Range range = ranges.get(i);
+            if (row >= range.row1 && row <= range.row2) {
+                columns.set(range.col1, range.col2 + 1);
+            }
+        }
+    }
+
+    /**
+     * Iterates over a snapshot of the selection. Positions are created on the fly.
+     */
+    @Override
+    public Iterator<GridPos> iterator()
+    {
+        return new CellIterator(ranges.toArray(new Range[ranges.size()]));
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof GridSelection)) {
+            return false;
+        }
+        GridSelection selection = (GridSelection) obj;
+        return cellCount == selection.cellCount && containsAll(selection);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(cellCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        return ranges.toString();
+    }
+
+    private void appendRange(Range range)
+    {
+        // Merge with adjacent range of the same width/height to keep range list short
+        for (int i = ranges.size(); i-- > 0; ) {
+            Range next = ranges.get(i);
+            Range merged = null;
+            if (next.col1 == range.col1 && next.col2 == range.col2) {
+                if (next.row2 + 1 == range.row1) {
+                    merged = new Range(range.col1, next.row1, range.col2, range.row2);
+                } else if (range.row2 + 1 == next.row1) {
+                    merged = new Range(range.col1, range.row1, range.col2, next.row2);
+                }
+            } else if (next.row1 == range.row1 && next.row2 == range.row2) {
+                if (next.col2 + 1 == range.col1) {
+                    merged = new Range(next.col1, range.row1, range.col2, range.row2);
+                } else if (range.col2 + 1 == next.col1) {
+                    merged = new Range(range.col1, range.row1, next.col2, range.row2);
+                }
+            }
+            if (merged != null) {
+                ranges.remove(i);
+                cellCount -= next.getCellCount();
+                appendRange(merged);
+                return;
+            }
+        }
+        ranges.add(range);
+        cellCount += range.getCellCount();
+    }
+
+    /**
+     * Sweeps ranges by rows. For each row iterates over ranges which cover it (ordered by columns).
+     */
+    private static class CellIterator implements Iterator<GridPos> {
+        private final Range[] ranges;
+        private final List<Range> rowRanges = new ArrayList<>();
+        private int nextRange;
+        private int row;
+        private int rangeIndex;
+        private int col;
+
+        CellIterator(Range[] ranges)
+        {
+            Arrays.sort(ranges, Comparator.comparingInt(r -> r.row1));
+            this.ranges = ranges;
+            if (ranges.length > 0) {
+                startRow(ranges[0].row1);
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return rangeIndex < rowRanges.size();
+        }
+
+        @Override
+        public GridPos next()
+        {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GridPos pos = new GridPos(col, row);
+            if (col < rowRanges.get(rangeIndex).col2) {
+                col++;
+            } else if (++rangeIndex < rowRanges.size()) {
+                col = rowRanges.get(rangeIndex).col1;
+            } else {
+                nextRow();
+            }
+            return pos;
+        }
+
+        private void nextRow()
+        {
+            int curRow = row;
+            rowRanges.removeIf(range -> range.row2 <= curRow);
+            if (!rowRanges.isEmpty()) {
+                startRow(curRow + 1);
+            } else if (nextRange < ranges.length) {
+                startRow(ranges[nextRange].row1);
+            }
+        }
+
+        private void startRow(int newRow)
+        {
+            row = newRow;
+            boolean added = false;
+            while (nextRange < ranges.length && ranges[nextRange].row1 <= row) {
+                rowRanges.add(ranges[nextRange++]);
+                added = true;
+            }
+            if (added) {
+                rowRanges.sort(Comparator.comparingInt(r -> r.col1));
+            }
+            rangeIndex = 0;
+            if (!rowRanges.isEmpty()) {
+                col = rowRanges.get(0).col1;
+            }
+        }
+    }
+
+}
@@ -36,7 +36,7 @@ import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dnd.LocalObjectTransfer;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.IntKeyMap;
+import org.jkiss.utils.primitive.IntBitmap;
 
 import java.util.*;
 import java.util.List;
@@ -53,6 +53,7 @@ public abstract class LightGrid extends Canvas {
     private static final Log log = Log.getLog(LightGrid.class);
 
     private static final int MAX_TOOLTIP_LENGTH = 1000;
+    private static final int CELL_TEXT_CACHE_SIZE = 8192;
 
     protected static final int Event_ChangeSort = 1000;
     protected static final int Event_NavigateLink = 1001;
@@ -154,10 +155,12 @@ public abstract class LightGrid extends Canvas {
      */
     private int focusItem = -1;
 
-    private final Set<GridPos> selectedCells = new TreeSet<>(new GridPos.PosComparator());
-    private final List<GridPos> selectedCellsBeforeRangeSelect = new ArrayList<>();
+    private final GridSelection selectedCells = new GridSelection();
+    private final GridSelection selectedCellsBeforeRangeSelect = new GridSelection();
     private final List<GridColumn> selectedColumns = new ArrayList<>();
-    private final IntKeyMap<Boolean> selectedRows = new IntKeyMap<>();
+    private final IntBitmap selectedRows = new IntBitmap();
+
+    private final GridCellTextCache cellTextCache = new GridCellTextCache(CELL_TEXT_CACHE_SIZE);
 
     private boolean cellDragSelectionOccurring = false;
     private boolean cellRowDragSelectionOccurring = false;
@@ -625,6 +628,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     public void refreshRowsData() {
+        cellTextCache.clear();
         // Prepare rows
         Object[] initialElements = getContentProvider().getElements(false);
         this.rowNodes.clear();
@@ -1113,10 +1117,11 @@ public abstract class LightGrid extends Canvas {
      */
     public int getSelectionIndex()
     {
-        if (selectedCells.isEmpty())
+        GridPos firstCell = selectedCells.getFirstCell();
+        if (firstCell == null)
             return -1;
 
-        return selectedCells.iterator().next().row;
+        return firstCell.row;
     }
 
     /**
@@ -1398,7 +1403,8 @@ public abstract class LightGrid extends Canvas {
 
         if (index < 0 || index >= getItemCount()) return;
 
-        selectCells(getCells(index));
+        getCells(index, selectedCells);
+        updateSelectionCache();
 
         redraw();
     }
@@ -1426,15 +1432,9 @@ public abstract class LightGrid extends Canvas {
 
         if (selectionType == SWT.SINGLE && start != end) return;
 
-        for (int i = start; i <= end; i++) {
-            if (i < 0) {
-                continue;
-            }
-            if (i > getItemCount() - 1) {
-                break;
-            }
-
-            selectCells(getCells(i));
+        if (start <= end) {
+            getCells(start, end, selectedCells);
+            updateSelectionCache();
         }
 
         redraw();
@@ -1469,9 +1469,10 @@ public abstract class LightGrid extends Canvas {
 
         for (int j : indices) {
             if (j >= 0 && j < getItemCount()) {
-                selectCells(getCells(j));
+                getCells(j, selectedCells);
             }
         }
+        updateSelectionCache();
         redraw();
     }
 
@@ -1547,7 +1548,9 @@ public abstract class LightGrid extends Canvas {
 
         if (index >= 0 && index < getItemCount()) {
             selectedCells.clear();
-            selectCells(getCells(index));
+            getCells(index, selectedCells);
+            updateSelectionCache();
+            redraw();
         }
     }
 
@@ -1575,16 +1578,10 @@ public abstract class LightGrid extends Canvas {
 
         selectedCells.clear();
 
-        for (int i = start; i <= end; i++) {
-            if (i < 0) {
-                continue;
-            }
-            if (i > getItemCount() - 1) {
-                break;
-            }
-
-            selectCells(getCells(i));
+        if (start <= end) {
+            getCells(start, end, selectedCells);
         }
+        updateSelectionCache();
         redraw();
     }
 
@@ -1618,8 +1615,9 @@ public abstract class LightGrid extends Canvas {
                 break;
             }
 
-            selectCells(getCells(j));
+            getCells(j, selectedCells);
         }
+        updateSelectionCache();
         redraw();
     }
 
@@ -1801,9 +1799,9 @@ public abstract class LightGrid extends Canvas {
         if (scrollValuesObsolete)
             updateScrollbars();
 
-        if (selectedCells.isEmpty()) return;
+        GridPos cell = selectedCells.getFirstCell();
+        if (cell == null) return;
 
-        GridPos cell = selectedCells.iterator().next();
         showItem(cell.row);
         showColumn(cell.col);
     }
@@ -2151,7 +2149,7 @@ public abstract class LightGrid extends Canvas {
 
         int row = firstVisibleIndex;
         final int hScrollSelectionInPixels = getHScrollSelectionInPixels();
-        final GridPos testPos = new GridPos(-1, -1);
+        final BitSet rowSelectedColumns = new BitSet();
         final Rectangle cellBounds = new Rectangle(0, 0, 0, 0);
 
         for (int i = 0; i < visibleRows; i++) {
@@ -2163,7 +2161,11 @@ public abstract class LightGrid extends Canvas {
             // get the item to draw
             if (row >= 0 && row < getItemCount()) {
 
-                boolean cellInRowSelected = selectedRows.containsKey(row);
+                boolean cellInRowSelected = selectedRows.contains(row);
+                rowSelectedColumns.clear();
+                if (cellInRowSelected) {
+                    selectedCells.getSelectedColumns(row, rowSelectedColumns);
+                }
 
                 if (rowHeaderVisible) {
 
@@ -2184,15 +2186,14 @@ public abstract class LightGrid extends Canvas {
                         cellBounds.width = width;
                         cellBounds.height = getItemHeight();
 
-                        testPos.col = k;
-                        testPos.row = row;
                         cellRenderer.paint(
                             gc,
                             cellBounds,
-                            selectedCells.contains(testPos),
+                            rowSelectedColumns.get(k),
                             focusItem == row && focusColumn == column,
                             column.getElement(),
-                            rowElements[row]);
+                            rowElements[row],
+                            getCachedCellText(k, row));
 
                         //gc.setClipping((Rectangle) null);
                     }
@@ -2447,13 +2448,27 @@ public abstract class LightGrid extends Canvas {
             boolean reverseDuplicateSelections,
             EventSource eventSource)
     {
-        return updateCellSelection(Collections.singletonList(newCell), stateMask, dragging, reverseDuplicateSelections, eventSource);
+        GridSelection newCells = new GridSelection();
+        addCellRange(newCells, newCell.col, newCell.row, newCell.col, newCell.row);
+        return updateCellSelection(newCells, newCell, stateMask, dragging, reverseDuplicateSelections, eventSource);
+    }
+
+    @Nullable
+    private Event updateCellSelection(
+        @NotNull GridSelection newCells,
+        int stateMask,
+        boolean dragging,
+        boolean reverseDuplicateSelections,
+        EventSource eventSource)
+    {
+        return updateCellSelection(newCells, newCells.getFirstCell(), stateMask, dragging, reverseDuplicateSelections, eventSource);
     }
 
     /**
      * Updates cell selection.
      *
      * @param newCells                    newly clicked, navigated to cells.
+     * @param shiftCell                   cell which ends shift selection range.
      * @param stateMask                  state mask during preceeding mouse or key event.
      * @param dragging                   true if the user is dragging.
      * @param reverseDuplicateSelections true if the user is reversing selection rather than adding to.
@@ -2461,7 +2476,8 @@ public abstract class LightGrid extends Canvas {
      */
     @Nullable
     private Event updateCellSelection(
-        @NotNull List<GridPos> newCells,
+        @NotNull GridSelection newCells,
+        @Nullable GridPos shiftCell,
         int stateMask,
         boolean dragging,
         boolean reverseDuplicateSelections,
@@ -2478,26 +2494,20 @@ public abstract class LightGrid extends Canvas {
             shiftSelectionAnchorItem = -1;
         }
 
-        List<GridPos> oldSelection = null;
+        GridSelection oldSelection = null;
         if (!shift && !ctrl) {
-            if (newCells.size() == 1 &&
-                newCells.size() == selectedCells.size() &&
-                newCells.get(0).equals(selectedCells.iterator().next()))
-            {
+            if (newCells.getCellCount() == 1 && newCells.equals(selectedCells)) {
                 return null;
             }
 
-            selectedCells.clear();
-            for (GridPos newCell : newCells) {
-                addToCellSelection(newCell);
-            }
+            selectedCells.set(newCells);
 
         } else if (shift) {
 
-            GridPos newCell = newCells.get(0); //shift selection should only occur with one cell, ignoring others
-            oldSelection = new ArrayList<>(selectedCells);
+            GridPos newCell = shiftCell; //shift selection should only occur with one cell, ignoring others
+            oldSelection = new GridSelection(selectedCells);
 
-            if ((focusColumn == null) || (focusItem < 0)) {
+            if ((focusColumn == null) || (focusItem < 0) || newCell == null) {
                 return null;
             }
 
@@ -2505,8 +2515,7 @@ public abstract class LightGrid extends Canvas {
             shiftSelectionAnchorItem = newCell.row;
 
             if (ctrl) {
-                selectedCells.clear();
-                selectedCells.addAll(selectedCellsBeforeRangeSelect);
+                selectedCells.set(selectedCellsBeforeRangeSelect);
             } else {
                 selectedCells.clear();
             }
@@ -2520,56 +2529,12 @@ public abstract class LightGrid extends Canvas {
 
             Point newRange = getSelectionRange(currentItem, currentColumn, endItem, endColumn);
 
-            currentColumn = getColumn(newRange.x);
-            endColumn = getColumn(newRange.y);
-
-            GridColumn startCol = currentColumn;
-
-            if (currentItem > endItem) {
-                int temp = currentItem;
-                currentItem = endItem;
-                endItem = temp;
-            }
-
-            boolean firstLoop = true;
-            do {
-                if (!firstLoop) {
-                    currentItem++;
-                }
-
-                firstLoop = false;
-
-                boolean firstLoop2 = true;
-
-                currentColumn = startCol;
-
-                do {
-                    if (!firstLoop2) {
-                        int index = indexOf(currentColumn) + 1;
-
-                        if (index < columns.size()) {
-                            currentColumn = columns.get(index);
-                        } else {
-                            currentColumn = null;
-                        }
-
-                        if (currentColumn != null)
-                            if (indexOf(currentColumn) > indexOf(endColumn))
-                                currentColumn = null;
-                    }
-
-                    firstLoop2 = false;
-
-                    if (currentColumn != null) {
-                        GridPos cell = new GridPos(indexOf(currentColumn), currentItem);
-                        addToCellSelection(cell);
-                    }
-                } while (currentColumn != endColumn && currentColumn != null);
-            } while (currentItem != endItem);
-
-            if (selectedCells.equals(newCells)) {
-                return null;
-            }
+            addCellRange(
+                selectedCells,
+                newRange.x,
+                Math.min(currentItem, endItem),
+                newRange.y,
+                Math.max(currentItem, endItem));
 
         } else /*if (eventSource == EventSource.MOUSE)*/ {
             // Ctrl selection works only for mouse events
@@ -2578,19 +2543,16 @@ public abstract class LightGrid extends Canvas {
                 reverse = false;
 
             if (dragging) {
-                selectedCells.clear();
-                selectedCells.addAll(selectedCellsBeforeRangeSelect);
+                selectedCells.set(selectedCellsBeforeRangeSelect);
             }
 
             if (reverse) {
                 selectedCells.removeAll(newCells);
             } else {
-                for (GridPos newCell : newCells) {
-                    addToCellSelection(newCell);
-                }
+                selectedCells.addAll(newCells);
             }
         }
-        if (oldSelection != null && oldSelection.size() == selectedCells.size() && selectedCells.containsAll(oldSelection)) {
+        if (oldSelection != null && oldSelection.equals(selectedCells)) {
             return null;
         }
 
@@ -2608,15 +2570,16 @@ public abstract class LightGrid extends Canvas {
         return e;
     }
 
-    private boolean addToCellSelection(GridPos newCell)
+    /**
+     * Adds cells rectangle to the selection. Rectangle is clipped by grid bounds.
+     */
+    private void addCellRange(GridSelection cells, int col1, int row1, int col2, int row2)
     {
-        if (newCell.col < 0 || newCell.col >= columns.size())
-            return false;
-
-        if (newCell.row < 0 || newCell.row >= getItemCount())
-            return false;
-
-        return selectedCells.add(newCell);
+        cells.addRange(
+            Math.max(col1, 0),
+            Math.max(row1, 0),
+            Math.min(col2, columns.size() - 1),
+            Math.min(row2, getItemCount() - 1));
     }
 
     private void updateSelectionCache()
@@ -2625,13 +2588,11 @@ public abstract class LightGrid extends Canvas {
         selectedColumns.clear();
         selectedRows.clear();
 
-        IntKeyMap<Boolean> columnIndices = new IntKeyMap<>();
-        for (GridPos cell : selectedCells) {
-            columnIndices.put(cell.col, Boolean.TRUE);
-            selectedRows.put(cell.row, Boolean.TRUE);
-        }
-        for (Integer columnIndex : columnIndices.keySet()) {
-            selectedColumns.add(columns.get(columnIndex));
+        selectedCells.getSelectedRows(selectedRows);
+        BitSet columnIndices = new BitSet();
+        selectedCells.getSelectedColumns(columnIndices);
+        for (int i = columnIndices.nextSetBit(0); i >= 0; i = columnIndices.nextSetBit(i + 1)) {
+            selectedColumns.add(columns.get(i));
         }
         selectedColumns.sort(Comparator.comparingInt(GridColumn::getIndex));
     }
@@ -2817,7 +2778,7 @@ public abstract class LightGrid extends Canvas {
                     }
                 }
             } else if (hoveringOnRowHeader && hoveringRow != null) {
-                if (e.button == 1 && selectedRows.containsKey(hoveringRow) && dragDetect(e)) {
+                if (e.button == 1 && selectedRows.contains(hoveringRow) && dragDetect(e)) {
                     rowHeaderDragStarted = true;
                     return;
                 }
@@ -2831,7 +2792,7 @@ public abstract class LightGrid extends Canvas {
             col = getColumn(point);
             boolean isSelectedCell = false;
             if (col != null) {
-                isSelectedCell = selectedCells.contains(new GridPos(col.getIndex(), row));
+                isSelectedCell = selectedCells.contains(col.getIndex(), row);
             }
 
             if (col == null && rowHeaderVisible && e.x <= rowHeaderWidth) {
@@ -2852,7 +2813,7 @@ public abstract class LightGrid extends Canvas {
                         }
                     }
                 }
-                List<GridPos> cells = new ArrayList<>();
+                GridSelection cells = new GridSelection();
 
                 if (shift) {
                     getCells(row, focusItem, cells);
@@ -2915,7 +2876,7 @@ public abstract class LightGrid extends Canvas {
             if (getItemCount() == 0)
                 return;
 
-            List<GridPos> cells = new ArrayList<>();
+            GridSelection cells = new GridSelection();
             getCells(col, cells);
 
             selectionEvent = updateCellSelection(cells, e.stateMask, false, true, EventSource.MOUSE);
@@ -2980,7 +2941,8 @@ public abstract class LightGrid extends Canvas {
         if (focusItem > row) {
             focusItem = row;
         }
-        selectedCells.removeIf(pos -> pos.row > row);
+        cellTextCache.clear();
+        selectedCells.removeRange(0, row + 1, Integer.MAX_VALUE, Integer.MAX_VALUE);
         updateSelectionCache();
         computeHeaderSizes();
         this.scrollValuesObsolete = true;
@@ -3143,8 +3105,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.set(selectedCells);
                     }
                 }
                 if (!cellRowDragSelectionOccurring && cellRowSelectedOnLastMouseDown) {
@@ -3152,8 +3113,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.set(selectedCells);
                     }
                 }
 
@@ -3162,8 +3122,7 @@ public abstract class LightGrid extends Canvas {
                     setCursor(getDisplay().getSystemCursor(SWT.CURSOR_CROSS));
                     cellDragCTRL = ((e.stateMask & SWT.MOD1) != 0);
                     if (cellDragCTRL) {
-                        selectedCellsBeforeRangeSelect.clear();
-                        selectedCellsBeforeRangeSelect.addAll(selectedCells);
+                        selectedCellsBeforeRangeSelect.set(selectedCells);
                     }
                 }
 
@@ -3213,7 +3172,7 @@ public abstract class LightGrid extends Canvas {
                         }
                     }
 
-                    List<GridPos> cells = new ArrayList<>();
+                    GridSelection cells = new GridSelection();
 
                     getCells(intentItem, focusItem, cells);
 
@@ -3223,7 +3182,7 @@ public abstract class LightGrid extends Canvas {
                 final GridColumn prevHoveringColumn = hoveringColumn;
                 if (cellColumnDragSelectionOccurring && handleCellHover(e.x, e.y)) {
                     boolean dragging;
-                    List<GridPos> newSelected = new ArrayList<>();
+                    GridSelection newSelected = new GridSelection();
 
                     GridColumn iterCol = hoveringColumn;
                     if (iterCol != null) {
@@ -3917,7 +3876,9 @@ public abstract class LightGrid extends Canvas {
     {
         checkWidget();
 
-        addToCellSelection(cell);
+        if (isValidCell(cell)) {
+            selectedCells.add(cell);
+        }
         updateSelectionCache();
         redraw();
     }
@@ -3932,7 +3893,9 @@ public abstract class LightGrid extends Canvas {
         checkWidget();
 
         for (GridPos cell : cells) {
-            addToCellSelection(cell);
+            if (isValidCell(cell)) {
+                selectedCells.add(cell);
+            }
         }
 
         updateSelectionCache();
@@ -3968,7 +3931,7 @@ public abstract class LightGrid extends Canvas {
         focusColumn = columns.get(0);
         focusItem = 0;
 
-        List<GridPos> cells = new ArrayList<>();
+        GridSelection cells = new GridSelection();
         getAllCells(cells);
         Event selectionEvent = updateCellSelection(cells, stateMask, false, true, EventSource.KEYBOARD);
 
@@ -3996,7 +3959,7 @@ public abstract class LightGrid extends Canvas {
             SWT.error(SWT.ERROR_INVALID_ARGUMENT);
 
         selectedCells.clear();
-        addToCellSelection(cell);
+        selectedCells.add(cell);
         updateSelectionCache();
         redraw();
     }
@@ -4021,16 +3984,43 @@ public abstract class LightGrid extends Canvas {
         return Collections.unmodifiableCollection(selectedCells);
     }
 
-    public List<GridCell> getCellSelection()
+    /**
+     * Returns selected cells in rows-then-columns order.
+     * Cells are created during iteration so selection of any size costs nothing until it is read.
+     */
+    @NotNull
+    public Collection<GridCell> getCellSelection()
     {
         if (isDisposed() || selectedCells.isEmpty()) {
             return Collections.emptyList();
         }
-        List<GridCell> cells = new ArrayList<>(selectedCells.size());
-        for (GridPos pos : selectedCells) {
-            cells.add(posToCell(pos));
-        }
-        return cells;
+        final GridSelection selection = new GridSelection(selectedCells);
+        return new AbstractCollection<GridCell>() {
+            @Override
+            public Iterator<GridCell> iterator()
+            {
+                final Iterator<GridPos> posIterator = selection.iterator();
+                return new Iterator<GridCell>() {
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return posIterator.hasNext();
+                    }
+
+                    @Override
+                    public GridCell next()
+                    {
+                        return posToCell(posIterator.next());
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return selection.size();
+            }
+        };
     }
 
     @NotNull
@@ -4047,75 +4037,81 @@ public abstract class LightGrid extends Canvas {
     }
 
     /**
-     * Returns selected rows indexes
+     * Returns selected rows indexes in ascending order
      * @return indexes of selected rows
      */
+    @NotNull
     public Collection<Integer> getRowSelection()
     {
-        return Collections.unmodifiableCollection(selectedRows.keySet());
+        return new AbstractCollection<Integer>() {
+            @Override
+            public Iterator<Integer> iterator()
+            {
+                return new Iterator<Integer>() {
+                    private int next = selectedRows.nextSetBit(0);
+
+                    @Override
+                    public boolean hasNext()
+                    {
+                        return next >= 0;
+                    }
+
+                    @Override
+                    public Integer next()
+                    {
+                        if (next < 0) {
+                            throw new NoSuchElementException();
+                        }
+                        int row = next;
+                        next = selectedRows.nextSetBit(row + 1);
+                        return row;
+                    }
+                };
+            }
+
+            @Override
+            public int size()
+            {
+                return (int) selectedRows.cardinality();
+            }
+
+            @Override
+            public boolean contains(Object o)
+            {
+                return o instanceof Integer && selectedRows.contains((Integer) o);
+            }
+        };
     }
 
-    private void getCells(GridColumn col, List<GridPos> cells)
+    private void getCells(GridColumn col, GridSelection cells)
     {
         if (col.getChildren() != null) {
             // Get cells for all leafs
             for (int i = 0; i < columns.size(); i++) {
                 if (columns.get(i).isParent(col)) {
-                    for (int k = 0; k < getItemCount(); k++) {
-                        cells.add(new GridPos(i, k));
-                    }
+                    addCellRange(cells, i, 0, i, getItemCount() - 1);
                 }
             }
         } else {
             int colIndex = col.getIndex();
 
-            for (int i = 0; i < getItemCount(); i++) {
-                cells.add(new GridPos(colIndex, i));
-            }
+            addCellRange(cells, colIndex, 0, colIndex, getItemCount() - 1);
         }
     }
 
-    private void getCells(int row, List<GridPos> cells)
+    private void getCells(int row, GridSelection cells)
     {
-        for (int i = 0; i < columns.size(); i++) {
-            cells.add(new GridPos(i, row));
-        }
+        addCellRange(cells, 0, row, columns.size() - 1, row);
     }
 
-    private void getAllCells(List<GridPos> cells)
+    private void getAllCells(GridSelection cells)
     {
-        for (int i = 0; i < getItemCount(); i++) {
-            for (int k = 0; k < columns.size(); k++) {
-                cells.add(new GridPos(k, i));
-            }
-        }
+        addCellRange(cells, 0, 0, columns.size() - 1, getItemCount() - 1);
     }
 
-    private List<GridPos> getCells(int row)
+    private void getCells(int startRow, int endRow, GridSelection cells)
     {
-        List<GridPos> cells = new ArrayList<>();
-        getCells(row, cells);
-        return cells;
-    }
-
-
-    private void getCells(int startRow, int endRow, List<GridPos> cells)
-    {
-        boolean descending = (startRow < endRow);
-
-        int iterItem = endRow;
-
-        do {
-            getCells(iterItem, cells);
-
-            if (iterItem == startRow) break;
-
-            if (descending) {
-                iterItem--;
-            } else {
-                iterItem++;
-            }
-        } while (true);
+        addCellRange(cells, 0, Math.min(startRow, endRow), columns.size() - 1, Math.max(startRow, endRow));
     }
 
     /**
@@ -4202,6 +4198,7 @@ public abstract class LightGrid extends Canvas {
         sizingGC.setFont(font);
         fontMetrics = sizingGC.getFontMetrics();
         normalFont = font;
+        cellTextCache.clear();
     }
 
     public String getCellText(Object colElement, Object rowElement)
@@ -4215,6 +4212,29 @@ public abstract class LightGrid extends Canvas {
         return text;
     }
 
+    /**
+     * Returns formatted cell text. Content provider is asked for text only if it is not cached yet.
+     */
+    @NotNull
+    GridCellTextCache.CellText getCachedCellText(int col, int row)
+    {
+        Object colElement = columns.get(col).getElement();
+        Object rowElement = rowElements[row];
+        GridCellTextCache.CellText cellText = cellTextCache.get(col, row, colElement, rowElement);
+        if (cellText == null) {
+            cellText = cellTextCache.put(col, row, colElement, rowElement, getCellText(colElement, rowElement));
+        }
+        return cellText;
+    }
+
+    /**
+     * Drops cached cell texts. Must be called after cell values or display format change.
+     */
+    public void resetCellTextCache()
+    {
+        cellTextCache.clear();
+    }
+
     @Nullable
     private String getCellToolTip(GridColumn col, int row)
     {
@@ -4448,7 +4468,7 @@ public abstract class LightGrid extends Canvas {
                         if (isDragSingleRow()) {
                             elements.add(getRowElement(draggingRow));
                         } else {
-                            for (Integer row : selectedRows.keySet()) {
+                            for (Integer row : getRowSelection()) {
                                 elements.add(getRowElement(row));
                             }
                         }
@@ -4458,7 +4478,7 @@ public abstract class LightGrid extends Canvas {
                         if (columns.isEmpty()) {
                             columns = LightGrid.this.columns;
                         }
-                        Set<Integer> rows = selectedRows.keySet();
+                        Collection<Integer> rows = getRowSelection();
                         if (rows.isEmpty()) {
                             rows = Collections.singleton(draggingRow);
                         }
@@ -4587,7 +4607,7 @@ public abstract class LightGrid extends Canvas {
     }
 
     private boolean isDragSingleRow() {
-        return draggingRow != null && !selectedRows.containsKey(draggingRow);
+        return draggingRow != null && !selectedRows.contains(draggingRow);
     }
 
     public final static class GridColumnTransfer extends LocalObjectTransfer<List<Object>> {
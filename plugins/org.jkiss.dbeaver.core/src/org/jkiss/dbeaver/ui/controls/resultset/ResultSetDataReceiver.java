@@ -21,6 +21,7 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBindingMeta;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.data.DBDValueError;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
@@ -42,6 +43,7 @@ class ResultSetDataReceiver implements DBDDataReceiver {
     private ResultSetViewer resultSetViewer;
     private int columnsCount;
     private DBDAttributeBindingMeta[] metaColumns;
+    private DBDValueFetcher[] valueFetchers;
     private List<Object[]> rows = new ArrayList<>();
     private boolean hasMoreData;
     private boolean nextSegmentRead;
@@ -111,6 +113,17 @@ class ResultSetDataReceiver implements DBDDataReceiver {
 
             resultSetViewer.setMetaData(resultSet, metaColumns);
         }
+
+        // Fetchers are bound to result set so they are recreated for each segment
+        valueFetchers = new DBDValueFetcher[columnsCount];
+        for (int i = 0; i < columnsCount; i++) {
+            valueFetchers[i] = DBUtils.createValueFetcher(
+                session,
+                resultSet,
+                metaColumns[i].getValueHandler(),
+                metaColumns[i].getAttribute(),
+                metaColumns[i].getOrdinalPosition());
+        }
     }
 
     @Override
@@ -120,11 +133,7 @@ class ResultSetDataReceiver implements DBDDataReceiver {
         Object[] row = new Object[columnsCount];
         for (int i = 0; i < columnsCount; i++) {
             try {
-                row[i] = metaColumns[i].getValueHandler().fetchValueObject(
-                    session,
-                    resultSet,
-                    metaColumns[i].getAttribute(),
-                    metaColumns[i].getOrdinalPosition());
+                row[i] = valueFetchers[i].fetchValue(session);
             }
             catch (Throwable e) {
                 // Do not reports the same error multiple times
@@ -0,0 +1,620 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.Normalizer;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Client-side data filter.
+ *
+ * Evaluates attribute constraints of a data filter over already fetched rows.
+ * Conditions follow SQL semantics (comparisons never match NULLs).
+ * Column indexes (null bitmap, per-value bitmaps and sorted row order) are built lazily on first use.
+ *
+ * Column collation is unknown on the client side. String conditions are evaluated only if binary match
+ * gives the same rows as case and accent insensitive match (so any collation would give the same result).
+ * Otherwise (and for string ranges) filter falls back to the server.
+ * Condition values must be of the same type as column values (any numbers are compared by value).
+ * Rows keep their source order, so custom ORDER BY text and (with server-side ordering) changed ordering
+ * are also left to the server.
+ */
+class ResultSetLocalFilter {
+
+    private static final int MAX_BITMAP_INDEX_VALUES = 1000;
+    private static final Pattern DIACRITICAL_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ResultSetModel model;
+    private final List<ResultSetRow> rows;
+    private final Map<DBDAttributeBinding, ColumnIndex> columnIndexes = new IdentityHashMap<>();
+
+    ResultSetLocalFilter(@NotNull ResultSetModel model, @NotNull List<ResultSetRow> rows) {
+        this.model = model;
+        this.rows = rows;
+    }
+
+    @NotNull
+    List<ResultSetRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns rows matching filter conditions (in source order)
+     * or null if some condition or ordering can't be evaluated locally.
+     *
+     * @param currentFilter filter which source rows were read or filtered with
+     * @param serverSideOrdering rows must be ordered by server (with database collation)
+     */
+    @Nullable
+    List<ResultSetRow> filterRows(@NotNull DBDDataFilter filter, @Nullable DBDDataFilter currentFilter, boolean serverSideOrdering) {
+        if (!CommonUtils.isEmpty(filter.getWhere()) || !CommonUtils.isEmpty(filter.getOrder())) {
+            // Custom criteria text
+            return null;
+        }
+        if (serverSideOrdering && !isSameOrdering(filter, currentFilter)) {
+            return null;
+        }
+        BitSet result = null;
+        for (DBDAttributeConstraint constraint : filter.getConstraints()) {
+            if (!constraint.hasCondition()) {
+                continue;
+            }
+            BitSet matches = evaluateConstraint(constraint);
+            if (matches == null) {
+                return null;
+            }
+            if (result == null) {
+                result = matches;
+            } else if (filter.isAnyConstraint()) {
+                result.or(matches);
+            } else {
+                result.and(matches);
+            }
+        }
+        if (result == null) {
+            return new ArrayList<>(rows);
+        }
+        List<ResultSetRow> filtered = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            filtered.add(rows.get(i));
+        }
+        return filtered;
+    }
+
+    /**
+     * Checks that rows ordered by the current filter are ordered by the new one as well
+     */
+    static boolean isSameOrdering(@NotNull DBDDataFilter filter, @Nullable DBDDataFilter currentFilter) {
+        List<DBDAttributeConstraint> orderConstraints = filter.getOrderConstraints();
+        List<DBDAttributeConstraint> currentConstraints = currentFilter == null ? null : currentFilter.getOrderConstraints();
+        if (currentFilter != null && !CommonUtils.isEmpty(currentFilter.getOrder())) {
+            return false;
+        }
+        if (CommonUtils.isEmpty(orderConstraints) || CommonUtils.isEmpty(currentConstraints)) {
+            return CommonUtils.isEmpty(orderConstraints) && CommonUtils.isEmpty(currentConstraints);
+        }
+        if (orderConstraints.size() != currentConstraints.size()) {
+            return false;
+        }
+        for (int i = 0; i < orderConstraints.size(); i++) {
+            DBDAttributeConstraint constraint = orderConstraints.get(i);
+            DBDAttributeConstraint currentConstraint = currentConstraints.get(i);
+            if (!constraint.matches(currentConstraint.getAttribute(), true) ||
+                constraint.isOrderDescending() != currentConstraint.isOrderDescending())
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Nullable
+    private BitSet evaluateConstraint(DBDAttributeConstraint constraint) {
+        DBCLogicalOperator operator = constraint.getOperator();
+        if (!CommonUtils.isEmpty(constraint.getCriteria()) || operator == null) {
+            // Custom criteria string
+            return null;
+        }
+        DBDAttributeBinding binding = model.getAttributeBinding(constraint.getAttribute());
+        if (binding == null) {
+            return null;
+        }
+        ColumnIndex column = getColumnIndex(binding);
+        if (column == null) {
+            return null;
+        }
+        Object value = constraint.getValue();
+        boolean reverse = constraint.isReverseOperator();
+
+        // The same rules as in SQLUtils.getConstraintCondition
+        if (operator.getArgumentCount() == 0) {
+            switch (operator) {
+                case IS_NULL:
+                    return column.getNulls();
+                case IS_NOT_NULL:
+                    return column.getNotNulls();
+                default:
+                    return null;
+            }
+        }
+        if (DBUtils.isNullValue(value)) {
+            return reverse ? column.getNotNulls() : column.getNulls();
+        }
+        if (operator.getArgumentCount() < 0) {
+            if (operator != DBCLogicalOperator.IN) {
+                return null;
+            }
+            return evaluateIn(column, value, reverse);
+        }
+
+        BitSet matches;
+        switch (operator) {
+            case EQUALS:
+                matches = column.getEquals(value);
+                break;
+            case NOT_EQUALS:
+                matches = column.getEquals(value);
+                if (matches != null) {
+                    matches = not(column, matches);
+                }
+                break;
+            case GREATER:
+            case GREATER_EQUALS:
+            case LESS:
+            case LESS_EQUALS:
+                matches = column.getRange(operator, value);
+                break;
+            case LIKE:
+            case NOT_LIKE:
+                matches = column.getLike(value.toString());
+                if (matches != null && operator == DBCLogicalOperator.NOT_LIKE) {
+                    matches = not(column, matches);
+                }
+                break;
+            default:
+                // BETWEEN, REGEX, SOUNDS and other dialect-specific operators
+                return null;
+        }
+        if (matches != null && reverse) {
+            matches = not(column, matches);
+        }
+        return matches;
+    }
+
+    @Nullable
+    private BitSet evaluateIn(ColumnIndex column, Object value, boolean reverse) {
+        Object[] values;
+        if (value.getClass().isArray()) {
+            values = new Object[Array.getLength(value)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = Array.get(value, i);
+            }
+        } else {
+            values = new Object[] {value};
+        }
+        boolean hasNull = false, hasNotNull = false;
+        BitSet matches = new BitSet(rows.size());
+        for (Object item : values) {
+            if (DBUtils.isNullValue(item)) {
+                hasNull = true;
+                continue;
+            }
+            hasNotNull = true;
+            BitSet itemMatches = column.getEquals(item);
+            if (itemMatches == null) {
+                return null;
+            }
+            matches.or(itemMatches);
+        }
+        if (!hasNotNull) {
+            return column.getNulls();
+        }
+        if (reverse) {
+            if (hasNull) {
+                // Server query for this condition is not valid anyway
+                return null;
+            }
+            return not(column, matches);
+        }
+        if (hasNull) {
+            matches.or(column.getNulls());
+        }
+        return matches;
+    }
+
+    /**
+     * SQL negation: NULL values never match
+     */
+    private BitSet not(ColumnIndex column, BitSet matches) {
+        BitSet result = column.getNotNulls();
+        result.andNot(matches);
+        return result;
+    }
+
+    @Nullable
+    private ColumnIndex getColumnIndex(DBDAttributeBinding binding) {
+        ColumnIndex index = columnIndexes.get(binding);
+        if (index == null) {
+            Object[] values = new Object[rows.size()];
+            for (int i = 0; i < values.length; i++) {
+                Object value = model.getCellValue(binding, rows.get(i));
+                if (value instanceof DBDValue && !((DBDValue) value).isNull()) {
+                    // Complex values (LOBs, structures, etc) can be compared by server only
+                    return null;
+                }
+                values[i] = value;
+            }
+            index = new ColumnIndex(values);
+            columnIndexes.put(binding, index);
+        }
+        return index;
+    }
+
+    /**
+     * Compares two non-null values. Numbers are compared by value regardless of their classes.
+     * @throws ClassCastException if values are not comparable
+     */
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 instanceof Number && value2 instanceof Number && value1.getClass() != value2.getClass()) {
+            return compareNumbers((Number) value1, (Number) value2);
+        }
+        if (!(value1 instanceof Comparable)) {
+            throw new ClassCastException("Value " + value1.getClass().getName() + " is not comparable");
+        }
+        return ((Comparable<Object>) value1).compareTo(value2);
+    }
+
+    private static int compareNumbers(Number number1, Number number2) {
+        if (isIntegral(number1) && isIntegral(number2)) {
+            return Long.compare(number1.longValue(), number2.longValue());
+        }
+        if (isNonFinite(number1) || isNonFinite(number2)) {
+            // NaN and infinities have no BigDecimal form
+            return Double.compare(number1.doubleValue(), number2.doubleValue());
+        }
+        return toBigDecimal(number1).compareTo(toBigDecimal(number2));
+    }
+
+    private static boolean isNonFinite(Number number) {
+        return (number instanceof Double || number instanceof Float) &&
+            (Double.isNaN(number.doubleValue()) || Double.isInfinite(number.doubleValue()));
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte;
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        } else if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        } else if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        } else {
+            return new BigDecimal(number.toString());
+        }
+    }
+
+    /**
+     * Most permissive form of string used by case and accent insensitive collations.
+     * Trailing spaces are ignored in comparisons by PAD SPACE collations.
+     */
+    static String getLooseString(String value, boolean trimTrailingSpaces) {
+        String result = DIACRITICAL_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        result = result.toLowerCase(Locale.ROOT);
+        if (trimTrailingSpaces) {
+            int length = result.length();
+            while (length > 0 && result.charAt(length - 1) == ' ') {
+                length--;
+            }
+            result = result.substring(0, length);
+        }
+        return result;
+    }
+
+    private static Class<?> getValueKind(Object value) {
+        return value instanceof Number ? Number.class : value.getClass();
+    }
+
+    private static Pattern makeLikePattern(String like) {
+        StringBuilder result = new StringBuilder();
+        for (int i = 0; i < like.length(); i++) {
+            char c = like.charAt(i);
+            if (c == '%') {
+                result.append(".*");
+            } else if (c == '_') {
+                result.append('.');
+            } else {
+                result.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(result.toString(), Pattern.DOTALL);
+    }
+
+    static class ColumnIndex {
+        private final Object[] values;
+        private final BitSet nulls;
+        // Class of all non-null values (Number for numbers). Null if column has only nulls or values of different kinds.
+        private final Class<?> valueKind;
+        private final boolean mixedKinds;
+        // Number of values per loose string form (for string columns)
+        private Map<String, Integer> looseCounts;
+        // Bitmap per distinct value. Null if column has too many distinct values
+        private Map<Object, BitSet> valueBitmaps;
+        private boolean valueBitmapsBuilt;
+        // Row indexes of non-null values sorted by value
+        private int[] sortedRows;
+        private boolean sortedRowsBuilt;
+
+        ColumnIndex(Object[] values) {
+            this.values = values;
+            this.nulls = new BitSet(values.length);
+            Class<?> kind = null;
+            boolean mixed = false;
+            for (int i = 0; i < values.length; i++) {
+                if (DBUtils.isNullValue(values[i])) {
+                    nulls.set(i);
+                    values[i] = null;
+                } else if (!mixed) {
+                    Class<?> valueKind = getValueKind(values[i]);
+                    if (kind == null) {
+                        kind = valueKind;
+                    } else if (kind != valueKind) {
+                        mixed = true;
+                    }
+                }
+            }
+            this.valueKind = mixed ? null : kind;
+            this.mixedKinds = mixed;
+        }
+
+        /**
+         * Checks that condition value can be compared with column values exactly.
+         * E.g. java.util.Date value can't be compared with java.sql.Timestamp column locally.
+         */
+        private boolean isComparable(Object value) {
+            return !mixedKinds && (valueKind == null || valueKind == getValueKind(value));
+        }
+
+        BitSet getNulls() {
+            return (BitSet) nulls.clone();
+        }
+
+        BitSet getNotNulls() {
+            BitSet result = new BitSet(values.length);
+            result.set(0, values.length);
+            result.andNot(nulls);
+            return result;
+        }
+
+        @Nullable
+        BitSet getEquals(Object value) {
+            if (!isComparable(value)) {
+                return null;
+            }
+            BitSet matches = null;
+            if (!valueBitmapsBuilt) {
+                buildValueBitmaps();
+            }
+            if (valueBitmaps != null && !(value instanceof Number)) {
+                matches = valueBitmaps.get(value);
+                matches = matches == null ? new BitSet(values.length) : (BitSet) matches.clone();
+            } else {
+                if (!sortedRowsBuilt) {
+                    buildSortedRows();
+                }
+                if (sortedRows != null) {
+                    matches = getRange(value, true, value, true);
+                }
+            }
+            if (matches != null && value instanceof String) {
+                // Binary match is a subset of loose match. Equal counts mean the same rows.
+                Integer looseCount = getLooseCounts().get(getLooseString((String) value, true));
+                if ((looseCount == null ? 0 : looseCount) != matches.cardinality()) {
+                    // Result depends on collation
+                    return null;
+                }
+            }
+            return matches;
+        }
+
+        @Nullable
+        BitSet getRange(DBCLogicalOperator operator, Object value) {
+            if (!isComparable(value) || value instanceof String) {
+                // String order depends on collation
+                return null;
+            }
+            if (!sortedRowsBuilt) {
+                buildSortedRows();
+            }
+            if (sortedRows == null) {
+                return null;
+            }
+            switch (operator) {
+                case GREATER:
+                    return getRange(value, false, null, false);
+                case GREATER_EQUALS:
+                    return getRange(value, true, null, false);
+                case LESS:
+                    return getRange(null, false, value, false);
+                case LESS_EQUALS:
+                    return getRange(null, false, value, true);
+                default:
+                    return null;
+            }
+        }
+
+        @Nullable
+        private BitSet getRange(@Nullable Object from, boolean fromInclusive, @Nullable Object to, boolean toInclusive) {
+            int start, end;
+            try {
+                start = from == null ? 0 : lowerBound(from, fromInclusive);
+                end = to == null ? sortedRows.length : lowerBound(to, !toInclusive);
+            } catch (ClassCastException e) {
+                // Value type differs from column values
+                return null;
+            }
+            BitSet result = new BitSet(values.length);
+            for (int i = start; i < end; i++) {
+                result.set(sortedRows[i]);
+            }
+            return result;
+        }
+
+        /**
+         * First position in sorted rows which value is greater than (or equal to if inclusive) specified value
+         */
+        private int lowerBound(Object value, boolean inclusive) {
+            int low = 0, high = sortedRows.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareValues(values[sortedRows[mid]], value);
+                if (cmp < 0 || (!inclusive && cmp == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Nullable
+        BitSet getLike(String like) {
+            if (mixedKinds || (valueKind != null && valueKind != String.class)) {
+                return null;
+            }
+            Pattern pattern = makeLikePattern(like);
+            Pattern loosePattern = makeLikePattern(getLooseString(like, false));
+            BitSet result = new BitSet(values.length);
+            if (!valueBitmapsBuilt) {
+                buildValueBitmaps();
+            }
+            if (valueBitmaps != null) {
+                // Match each distinct value once
+                for (Map.Entry<Object, BitSet> entry : valueBitmaps.entrySet()) {
+                    Boolean matches = matchLike(pattern, loosePattern, (String) entry.getKey());
+                    if (matches == null) {
+                        return null;
+                    }
+                    if (matches) {
+                        result.or(entry.getValue());
+                    }
+                }
+                return result;
+            }
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                Boolean matches = matchLike(pattern, loosePattern, (String) value);
+                if (matches == null) {
+                    return null;
+                }
+                if (matches) {
+                    result.set(i);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns null if match result depends on collation
+         */
+        @Nullable
+        private Boolean matchLike(Pattern pattern, Pattern loosePattern, String value) {
+            boolean matches = pattern.matcher(value).matches();
+            if (matches != loosePattern.matcher(getLooseString(value, false)).matches()) {
+                return null;
+            }
+            return matches;
+        }
+
+        private Map<String, Integer> getLooseCounts() {
+            if (looseCounts == null) {
+                looseCounts = new HashMap<>();
+                for (Object value : values) {
+                    if (value instanceof String) {
+                        looseCounts.merge(getLooseString((String) value, true), 1, Integer::sum);
+                    }
+                }
+            }
+            return looseCounts;
+        }
+
+        private void buildValueBitmaps() {
+            valueBitmapsBuilt = true;
+            Map<Object, BitSet> bitmaps = new HashMap<>();
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                BitSet bitmap = bitmaps.get(value);
+                if (bitmap == null) {
+                    if (bitmaps.size() >= MAX_BITMAP_INDEX_VALUES) {
+                        // Too many distinct values
+                        return;
+                    }
+                    bitmap = new BitSet(values.length);
+                    bitmaps.put(value, bitmap);
+                }
+                bitmap.set(i);
+            }
+            valueBitmaps = bitmaps;
+        }
+
+        private void buildSortedRows() {
+            sortedRowsBuilt = true;
+            Integer[] order = new Integer[values.length - nulls.cardinality()];
+            int pos = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    order[pos++] = i;
+                }
+            }
+            try {
+                Arrays.sort(order, (o1, o2) -> compareValues(values[o1], values[o2]));
+            } catch (ClassCastException | IllegalArgumentException e) {
+                // Values of different types
+                return;
+            }
+            int[] rowIndexes = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                rowIndexes[i] = order[i];
+            }
+            sortedRows = rowIndexes;
+        }
+    }
+
+}
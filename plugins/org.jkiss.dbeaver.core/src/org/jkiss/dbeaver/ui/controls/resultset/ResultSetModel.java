@@ -58,6 +58,9 @@ public class ResultSetModel {
 
     // Data
     private List<ResultSetRow> curRows = new ArrayList<>();
+    // All fetched rows if current rows were filtered locally
+    private List<ResultSetRow> allRows = null;
+    private ResultSetLocalFilter localFilter = null;
     private Long totalRowCount = null;
     private int changesCount = 0;
     private volatile boolean hasData = false;
@@ -191,7 +194,7 @@ public class ResultSetModel {
 
     public void refreshChangeCount() {
         changesCount = 0;
-        for (ResultSetRow row : curRows) {
+        for (ResultSetRow row : allRows != null ? allRows : curRows) {
             if (row.getState() != ResultSetRow.STATE_NORMAL) {
                 changesCount++;
             } else if (row.changes != null) {
@@ -396,6 +399,8 @@ public class ResultSetModel {
                 // Both nulls - nothing to update
                 return false;
             }
+            // Column indexes are stale now
+            localFilter = null;
             // Check composite type
             if (ownerValue != null) {
                 if (!(ownerValue instanceof DBDComposite)) {
@@ -644,6 +649,9 @@ public class ResultSetModel {
                 new ResultSetRow(firstRowNum + i, rows.get(i)));
         }
         curRows.addAll(newRows);
+        if (allRows != null) {
+            allRows.addAll(newRows);
+        }
         updateRowColors(newRows);
     }
 
@@ -687,11 +695,15 @@ public class ResultSetModel {
 
     @NotNull
     ResultSetRow addNewRow(int rowNum, @NotNull Object[] data) {
-        ResultSetRow newRow = new ResultSetRow(curRows.size(), data);
+        ResultSetRow newRow = new ResultSetRow(allRows != null ? allRows.size() : curRows.size(), data);
         newRow.setVisualNumber(rowNum);
         newRow.setState(ResultSetRow.STATE_ADDED);
         shiftRows(newRow, 1);
         curRows.add(rowNum, newRow);
+        if (allRows != null) {
+            allRows.add(newRow);
+            localFilter = null;
+        }
         changesCount++;
         return newRow;
     }
@@ -718,6 +730,10 @@ public class ResultSetModel {
     void cleanupRow(@NotNull ResultSetRow row) {
         row.release();
         this.curRows.remove(row.getVisualNumber());
+        if (allRows != null) {
+            allRows.remove(row);
+            localFilter = null;
+        }
         this.shiftRows(row, -1);
     }
 
@@ -740,6 +756,8 @@ public class ResultSetModel {
             if (row.getVisualNumber() >= relative.getVisualNumber()) {
                 row.setVisualNumber(row.getVisualNumber() + delta);
             }
+        }
+        for (ResultSetRow row : allRows != null ? allRows : curRows) {
             if (row.getRowNumber() >= relative.getRowNumber()) {
                 row.setRowNumber(row.getRowNumber() + delta);
             }
@@ -747,8 +765,10 @@ public class ResultSetModel {
     }
 
     private void releaseAll() {
-        final List<ResultSetRow> oldRows = curRows;
+        final List<ResultSetRow> oldRows = allRows != null ? allRows : curRows;
         this.curRows = new ArrayList<>();
+        this.allRows = null;
+        this.localFilter = null;
         this.totalRowCount = null;
 
         // Cleanup in separate job.
@@ -806,6 +826,37 @@ public class ResultSetModel {
         return false;
     }
 
+    /**
+     * Filters fetched rows on the client side.
+     * Works only if all rows were fetched with no server-side conditions and all filter
+     * conditions can be evaluated locally.
+     *
+     * @param filter new data filter
+     * @param serverSideOrdering rows must be ordered by server. Then local filter keeps the current order.
+     * @return true if filter was applied. Otherwise data has to be refreshed from server.
+     */
+    boolean filterLocally(@NotNull DBDDataFilter filter, boolean serverSideOrdering) {
+        if (allRows == null && dataFilter != null && dataFilter.hasConditions()) {
+            // Current rows were filtered by server
+            return false;
+        }
+        List<ResultSetRow> sourceRows = allRows != null ? allRows : curRows;
+        if (localFilter == null || localFilter.getRows() != sourceRows) {
+            localFilter = new ResultSetLocalFilter(this, sourceRows);
+        }
+        List<ResultSetRow> filteredRows = localFilter.filterRows(filter, dataFilter, serverSideOrdering);
+        if (filteredRows == null) {
+            return false;
+        }
+        allRows = sourceRows;
+        curRows = filteredRows;
+        setDataFilter(filter);
+        if (!serverSideOrdering) {
+            resetOrdering();
+        }
+        return true;
+    }
+
     void updateDataFilter(DBDDataFilter filter) {
         this.visibleAttributes.clear();
         Collections.addAll(this.visibleAttributes, this.attributes);
@@ -2676,6 +2676,18 @@ public class ResultSetViewer extends Viewer
             return;
         }
 
+        if (!isHasMoreData() && model.hasData() && !model.isDirty()) {
+            // All data was fetched - try to filter it locally
+            final List<DBDAttributeBinding> oldVisibleAttributes = new ArrayList<>(model.getVisibleAttributes());
+            if (model.filterLocally(filter, getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_ORDER_SERVER_SIDE))) {
+                curRow = model.getRowCount() > 0 ? model.getRow(0) : null;
+                activePresentation.refreshData(!oldVisibleAttributes.equals(model.getVisibleAttributes()), false, true);
+                updateFiltersText();
+                updateStatusMessage();
+                return;
+            }
+        }
+
         DBSDataContainer dataContainer = getDataContainer();
         if (dataContainer != null) {
             dataReceiver.setNextSegmentRead(false);
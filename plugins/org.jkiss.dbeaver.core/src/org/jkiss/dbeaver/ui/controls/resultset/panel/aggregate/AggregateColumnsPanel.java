@@ -208,7 +208,9 @@ public class AggregateColumnsPanel implements IResultSetPanel {
         ResultSetModel model = presentation.getController().getModel();
         if (groupByColumns) {
             Map<DBDAttributeBinding, List<Object>> attrValues = new LinkedHashMap<>();
-            for (Object element : selection.toList()) {
+            // Iterate selection directly, do not copy all cells positions into list
+            for (Iterator<?> iter = selection.iterator(); iter.hasNext(); ) {
+                Object element = iter.next();
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 Object cellValue = model.getCellValue(attr, row);
@@ -225,7 +227,8 @@ public class AggregateColumnsPanel implements IResultSetPanel {
             }
         } else {
             List<Object> allValues = new ArrayList<>(selection.size());
-            for (Object element : selection.toList()) {
+            for (Iterator<?> iter = selection.iterator(); iter.hasNext(); ) {
+                Object element = iter.next();
                 DBDAttributeBinding attr = selection.getElementAttribute(element);
                 ResultSetRow row = selection.getElementRow(element);
                 Object cellValue = model.getCellValue(attr, row);
@@ -296,7 +296,7 @@ public class GroupingPanel implements IResultSetPanel {
                 return;
             }
             dataSource.getContainer().getPreferenceStore().setValue(DBeaverPreferences.RS_GROUPING_DEFAULT_SORTING, newValue);
-            dataSource.getContainer().getRegistry().flushConfig();
+            dataSource.getContainer().persistConfiguration();
             try {
                 resultsContainer.rebuildGrouping();
             } catch (DBException e) {
@@ -373,6 +373,8 @@ public class Spreadsheet extends LightGrid implements Listener {
 
     public void redrawGrid()
     {
+        // Values may be changed
+        resetCellTextCache();
         Rectangle bounds = super.getBounds();
         super.redraw(bounds.x, bounds.y, bounds.width, bounds.height, true);
     }
@@ -434,7 +434,13 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             tdt.append(rowDelimiter);
         }
 
-        List<GridCell> selectedCells = spreadsheet.getCellSelection();
+        // Selection may be huge so do not search columns in list for each cell
+        Map<Object, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < selectedColumns.size(); i++) {
+            columnIndexes.put(selectedColumns.get(i), i);
+        }
+
+        Collection<GridCell> selectedCells = spreadsheet.getCellSelection();
         boolean quoteCells = settings.isQuoteCells() && selectedCells.size() > 1;
         boolean forceQuotes = settings.isForceQuotes();
 
@@ -444,7 +450,7 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                 // Next row
                 if (prevCell != null && prevCell.col != cell.col) {
                     // Fill empty row tail
-                    int prevColIndex = selectedColumns.indexOf(prevCell.col);
+                    int prevColIndex = columnIndexes.getOrDefault(prevCell.col, -1);
                     for (int i = prevColIndex; i < selectedColumns.size() - 1; i++) {
                         tdt.append(columnDelimiter);
                     }
@@ -457,8 +463,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                 }
             }
             if (prevCell != null && prevCell.col != cell.col) {
-                int prevColIndex = selectedColumns.indexOf(prevCell.col);
-                int curColIndex = selectedColumns.indexOf(cell.col);
+                int prevColIndex = columnIndexes.getOrDefault(prevCell.col, -1);
+                int curColIndex = columnIndexes.getOrDefault(cell.col, -1);
                 for (int i = prevColIndex; i < curColIndex; i++) {
                     tdt.append(columnDelimiter);
                 }
@@ -1322,9 +1328,8 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
             if (controller.isRecordMode()) {
                 Object[] elements = spreadsheet.getContentProvider().getElements(false);
                 List<DBDAttributeBinding> attrs = new ArrayList<>();
-                List<Integer> rowSelection = new ArrayList<>(spreadsheet.getRowSelection());
-                Collections.sort(rowSelection);
-                for (Integer row : rowSelection) {
+                // Row selection is already sorted
+                for (Integer row : spreadsheet.getRowSelection()) {
                     if (row < elements.length) {
                         // Index may be out of bounds in case of complex attributes
                         attrs.add((DBDAttributeBinding) elements[row]);
@@ -1351,8 +1356,9 @@ public class SpreadsheetPresentation extends AbstractPresentation implements IRe
                 }
                 return Collections.singletonList(currentRow);
             } else {
-                List<ResultSetRow> rows = new ArrayList<>();
-                for (Integer row : spreadsheet.getRowSelection()) {
+                Collection<Integer> rowSelection = spreadsheet.getRowSelection();
+                List<ResultSetRow> rows = new ArrayList<>(rowSelection.size());
+                for (Integer row : rowSelection) {
                     rows.add(controller.getModel().getRow(row));
                 }
                 rows.sort(Comparator.comparingInt(ResultSetRow::getVisualNumber));
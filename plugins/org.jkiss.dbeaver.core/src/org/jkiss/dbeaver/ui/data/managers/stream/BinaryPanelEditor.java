@@ -27,8 +27,10 @@ import org.jkiss.dbeaver.core.DBeaverCore;
 import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRange;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.impl.BytesContentStorage;
+import org.jkiss.dbeaver.model.impl.TemporaryContentStorage;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceListener.PreferenceChangeEvent;
@@ -45,10 +47,13 @@ import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
 
 /**
 * ControlPanelEditor
@@ -57,6 +62,13 @@ public class BinaryPanelEditor implements IStreamValueEditor<HexEditControl> {
 
     private static final Log log = Log.getLog(BinaryPanelEditor.class);
 
+    // Contents bigger than this are saved through temp file
+    private static final int MAX_MEMORY_CONTENT_SIZE = 10 * 1024 * 1024;
+
+    // Storage which is shown in the control without copying
+    private DBDContentStorageRange rangeStorage;
+    private BinaryContent.RangeReader rangeReader;
+
     @Override
     public HexEditControl createControl(IValueController valueController){
     	
@@ -82,6 +94,12 @@ public class BinaryPanelEditor implements IStreamValueEditor<HexEditControl> {
         monitor.beginTask("Prime content value", 1);
         try {
             DBDContentStorage data = value.getContents(monitor);
+            if (data instanceof DBDContentStorageRange && !((DBDContentStorageRange) data).isText()) {
+                primeRangeValue(control, (DBDContentStorageRange) data);
+                return;
+            }
+            rangeStorage = null;
+            rangeReader = null;
             String charset = null;
             monitor.subTask("Read binary value");
             ByteArrayOutputStream buffer = new ByteArrayOutputStream();
@@ -113,10 +131,40 @@ public class BinaryPanelEditor implements IStreamValueEditor<HexEditControl> {
         }
     }
 
+    /**
+     * Big values are read by the control on demand. Only visible part is fetched from the database.
+     */
+    private void primeRangeValue(@NotNull HexEditControl control, @NotNull DBDContentStorageRange storage)
+    {
+        if (storage == rangeStorage && control.getContent() != null && !control.getContent().isDirty()) {
+            return;
+        }
+        rangeStorage = storage;
+        rangeReader = new BinaryContent.RangeReader() {
+            @Override
+            public long length() {
+                return storage.getContentLength();
+            }
+
+            @Override
+            public int read(long position, byte[] buffer, int offset, int length) throws IOException {
+                return storage.readBytes(position, buffer, offset, length);
+            }
+        };
+        BinaryContent.RangeReader reader = rangeReader;
+        UIUtils.syncExec(() -> {
+            control.setContent(reader, storage.getCharset(), false);
+        });
+    }
+
     @Override
     public void extractEditorValue(@NotNull DBRProgressMonitor monitor, @NotNull HexEditControl control, @NotNull DBDContent value) throws DBException
     {
         BinaryContent binaryContent = control.getContent();
+        if (rangeStorage != null) {
+            extractRangeValue(monitor, binaryContent, value);
+            return;
+        }
         ByteBuffer buffer = ByteBuffer.allocate((int) binaryContent.length());
         try {
             binaryContent.get(buffer, 0);
@@ -128,6 +176,36 @@ public class BinaryPanelEditor implements IStreamValueEditor<HexEditControl> {
             new BytesContentStorage(buffer.array(), GeneralUtils.getDefaultFileEncoding()));
     }
 
+    private void extractRangeValue(@NotNull DBRProgressMonitor monitor, @NotNull BinaryContent binaryContent, @NotNull DBDContent value) throws DBException
+    {
+        try {
+            SortedMap<Long, byte[]> parts = binaryContent.getOverwrittenParts(rangeReader);
+            if (parts != null) {
+                if (parts.isEmpty()) {
+                    return;
+                }
+                // Changed bytes are kept in the storage and written in place when the value is saved
+                for (Map.Entry<Long, byte[]> part : parts.entrySet()) {
+                    rangeStorage.overwriteBytes(part.getKey(), part.getValue());
+                }
+                value.updateContents(monitor, rangeStorage);
+                return;
+            }
+            // Content was resized - write the whole value
+            if (binaryContent.length() <= MAX_MEMORY_CONTENT_SIZE) {
+                ByteBuffer buffer = ByteBuffer.allocate((int) binaryContent.length());
+                binaryContent.get(buffer, 0);
+                value.updateContents(monitor, new BytesContentStorage(buffer.array(), rangeStorage.getCharset()));
+            } else {
+                File tempFile = ContentUtils.createTempContentFile(monitor, DBeaverCore.getInstance(), "blob" + value.hashCode());
+                binaryContent.get(tempFile);
+                value.updateContents(monitor, new TemporaryContentStorage(DBeaverCore.getInstance(), tempFile, rangeStorage.getCharset()));
+            }
+        } catch (IOException e) {
+            throw new DBException("Error saving binary value", e);
+        }
+    }
+
     @Override
     public void contributeActions(@NotNull IContributionManager manager, @NotNull final HexEditControl control) throws DBCException {
         manager.add(new Action("Switch Insert/Overwrite mode", DBeaverIcons.getImageDescriptor(UIIcon.CURSOR)) {
@@ -39,6 +39,7 @@ import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableWithProgress;
 import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.registry.DataSourceDescriptor;
 import org.jkiss.dbeaver.runtime.ProgressStreamReader;
 import org.jkiss.dbeaver.runtime.ui.DBUserInterface;
 import org.jkiss.dbeaver.ui.UIUtils;
@@ -91,6 +92,10 @@ public abstract class AbstractToolWizard<BASE_OBJECT extends DBSObject, PROCESS_
                 throw new IllegalArgumentException("Objects from different data sources");
             }
             dataSourceContainer = object.getDataSource().getContainer();
+            if (dataSourceContainer instanceof DataSourceDescriptor) {
+                // Tools pass saved credentials to native clients, registry reads them on demand
+                ((DataSourceDescriptor) dataSourceContainer).resolvePasswords();
+            }
             connectionInfo = dataSourceContainer.getActualConnectionConfiguration();
         }
 
@@ -53,7 +53,20 @@ public class BinaryContent {
 
 
     /**
-     * A subset of data contained in a ByteBuffer or a File
+     * Source of data which is read by ranges on demand (e.g. database LOB)
+     */
+    public interface RangeReader {
+        long length();
+
+        /**
+         * @return number of read bytes
+         */
+        int read(long position, byte[] buffer, int offset, int length) throws IOException;
+    }
+
+
+    /**
+     * A subset of data contained in a ByteBuffer, a File or a RangeReader
      */
     final static class Range implements Comparable<Range>, Cloneable {
         long position = -1L;
@@ -86,6 +99,13 @@ public class BinaryContent {
             dirty = isDirty;
         }
 
+        Range(long aPosition, RangeReader aReader, boolean isDirty)
+        {
+            this(aPosition, aReader.length());
+            data = aReader;
+            dirty = isDirty;
+        }
+
         @Override
         public Object clone()
         {
@@ -161,6 +181,20 @@ public class BinaryContent {
         ranges.add(new Range(0L, aFile, false));
     }
 
+    /**
+     * Create new content which reads data from the reader. Only requested parts are read.
+     *
+     * @param reader the backing content provider
+     */
+    BinaryContent(RangeReader reader)
+    {
+        this();
+        if (reader.length() < 1L)
+            return;
+
+        ranges.add(new Range(0L, reader, false));
+    }
+
 
     void actionsOn(boolean on)
     {
@@ -411,6 +445,18 @@ public class BinaryContent {
             src.getChannel().read(dst, start);
             if (limit > 0)
                 dst.limit(limit);
+        } else if (sourceRange.data instanceof RangeReader) {
+            RangeReader src = (RangeReader) sourceRange.data;
+            long start = sourceRange.dataOffset + overlapBytes;
+            int length = (int) Math.min(Math.min(sourceRange.length - overlapBytes, maxCopyLength), dst.remaining());
+            if (dst.hasArray()) {
+                int read = src.read(start, dst.array(), dst.arrayOffset() + dst.position(), length);
+                dst.position(dst.position() + Math.max(read, 0));
+            } else {
+                byte[] buffer = new byte[length];
+                int read = src.read(start, buffer, 0, length);
+                dst.put(buffer, 0, Math.max(read, 0));
+            }
         }
 
         return dst.position() - dstInitialPosition;
@@ -616,6 +662,11 @@ public class BinaryContent {
                 RandomAccessFile randomFile = (RandomAccessFile) value;
                 randomFile.seek(position);
                 result = randomFile.read();
+            } else if (value instanceof RangeReader) {
+                byte[] buffer = new byte[1];
+                if (((RangeReader) value).read(range.dataOffset + position - range.position, buffer, 0, 1) > 0) {
+                    result = buffer[0] & 0x0ff;
+                }
             }
         }
 
@@ -738,6 +789,38 @@ public class BinaryContent {
     }
 
 
+    /**
+     * Collects parts of the content which were overwritten since it was created from the reader.
+     *
+     * @param source original content reader
+     * @return modified parts by position, or null if bytes were inserted or deleted
+     * (so original data was moved and content can't be updated in place)
+     */
+    public SortedMap<Long, byte[]> getOverwrittenParts(RangeReader source)
+        throws IOException
+    {
+        if (actions != null)
+            actions.endAction();
+        commitChanges();
+
+        if (length() != source.length()) return null;
+
+        SortedMap<Long, byte[]> parts = new TreeMap<>();
+        for (Range range : ranges) {
+            if (range.data == source) {
+                if (range.dataOffset != range.position) return null;
+                continue;
+            }
+            if (range.length > Integer.MAX_VALUE) return null;
+            ByteBuffer buffer = ByteBuffer.allocate((int) range.length);
+            fillWithPartOfRange(buffer, range, 0L, (int) range.length);
+            parts.put(range.position, buffer.array());
+        }
+
+        return parts;
+    }
+
+
     /**
      * Tells whether changes have been done to the original content
      *
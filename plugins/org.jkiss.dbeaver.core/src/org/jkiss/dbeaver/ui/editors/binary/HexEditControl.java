@@ -1828,6 +1828,17 @@ public class HexEditControl extends Composite {
         setContent(data, charset, true);
     }
 
+    /**
+     * Sets content which is read from the reader on demand (only visible part is read)
+     */
+    public void setContent(BinaryContent.RangeReader reader, String charset, boolean notify)
+    {
+        if (charset != null) {
+            setCharset(charset);
+        }
+        setContentProvider(new BinaryContent(reader), notify);
+    }
+
     public void setContent(byte[] data, String charset, boolean notify)
     {
         BinaryContent binaryContent = new BinaryContent();
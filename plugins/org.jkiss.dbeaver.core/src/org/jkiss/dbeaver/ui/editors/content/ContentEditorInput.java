@@ -35,6 +35,7 @@ import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentCached;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDContentStorageLocal;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRange;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
 import org.jkiss.dbeaver.model.impl.BytesContentStorage;
@@ -65,11 +66,15 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
 {
     private static final Log log = Log.getLog(ContentEditorInput.class);
 
+    // Only beginning of bigger values is copied from range storages
+    private static final int MAX_RANGE_PREVIEW_SIZE = 10 * 1024 * 1024;
+
     private IValueController valueController;
     private IEditorPart[] editorParts;
     private IEditorPart defaultPart;
 
     private boolean contentDetached = false;
+    private boolean contentTruncated = false;
     private File contentFile;
     private String fileCharset;
     private StringEditorInput.StringStorage stringStorage;
@@ -219,7 +224,7 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
         }
 
         // Mark file as readonly
-        if (valueController.isReadOnly()) {
+        if (isReadOnly()) {
             markReadOnly(true);
         }
     }
@@ -250,7 +255,7 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
     }
 
     public boolean isReadOnly() {
-        return valueController.isReadOnly();
+        return valueController.isReadOnly() || contentTruncated;
     }
 
     void saveToExternalFile(File file, IProgressMonitor monitor)
@@ -319,6 +324,7 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
         DBDContentStorage storage = contents.getContents(monitor);
 
         markReadOnly(false);
+        contentTruncated = false;
 
         try (OutputStream os = new FileOutputStream(contentFile)) {
             if (contents.isNull()) {
@@ -329,18 +335,37 @@ public class ContentEditorInput implements IPathEditorInput, IStatefulEditorInpu
                     return;
                 }
                 try (InputStream is = storage.getContentStream()) {
-                    ContentUtils.copyStreams(is, storage.getContentLength(), os, monitor);
+                    if (storage instanceof DBDContentStorageRange && storage.getContentLength() > MAX_RANGE_PREVIEW_SIZE) {
+                        // Do not download the whole value. Its beginning is shown in read-only mode.
+                        copyStreamPart(is, MAX_RANGE_PREVIEW_SIZE, os);
+                        contentTruncated = true;
+                    } else {
+                        ContentUtils.copyStreams(is, storage.getContentLength(), os, monitor);
+                    }
                 }
             }
         }
 
-        markReadOnly(valueController.isReadOnly());
+        markReadOnly(isReadOnly());
+    }
+
+    private static void copyStreamPart(InputStream is, int maxLength, OutputStream os) throws IOException
+    {
+        byte[] buffer = new byte[64 * 1024];
+        for (int copied = 0; copied < maxLength; ) {
+            int count = is.read(buffer, 0, Math.min(buffer.length, maxLength - copied));
+            if (count <= 0) {
+                break;
+            }
+            os.write(buffer, 0, count);
+            copied += count;
+        }
     }
 
     public void updateContentFromFile(DBRProgressMonitor monitor, Object value)
         throws DBException
     {
-        if (valueController.isReadOnly()) {
+        if (isReadOnly()) {
             throw new DBCException("Can't update read-only value");
         }
 
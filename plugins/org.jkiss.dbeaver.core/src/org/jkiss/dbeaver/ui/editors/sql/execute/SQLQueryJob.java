@@ -41,6 +41,8 @@ import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFetchSizeController;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
 import org.jkiss.dbeaver.model.impl.local.StatResultSet;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.qm.QMUtils;
@@ -735,6 +737,12 @@ public class SQLQueryJob extends DataSourceJob
             }
             if (updateStatistics) {
                 statistics.addFetchTime(System.currentTimeMillis() - fetchStartTime);
+                if (resultSet instanceof JDBCResultSetImpl) {
+                    JDBCFetchSizeController fetchSizeController = ((JDBCResultSetImpl) resultSet).getFetchSizeController();
+                    if (fetchSizeController != null) {
+                        fetchSizeController.fillStatistics(statistics);
+                    }
+                }
             }
         }
         finally {
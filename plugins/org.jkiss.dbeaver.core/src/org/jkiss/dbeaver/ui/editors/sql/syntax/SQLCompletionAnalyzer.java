@@ -31,7 +31,6 @@ import org.jkiss.dbeaver.model.sql.*;
 import org.jkiss.dbeaver.ui.editors.sql.syntax.parser.SQLWordPartDetector;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.ui.DBeaverIcons;
-import org.jkiss.dbeaver.ui.TextUtils;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
 import org.jkiss.dbeaver.ui.editors.sql.SQLPreferenceConstants;
 import org.jkiss.dbeaver.ui.navigator.NavigatorUtils;
@@ -50,6 +49,8 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
     private static final Log log = Log.getLog(SQLCompletionAnalyzer.class);
 
     private static final String MATCH_ANY_PATTERN = "%";
+    // Max time (ms) spent on FK reading for JOIN proposals filter
+    private static final long JOIN_FILTER_TIME_BUDGET = 500;
 
     static class CompletionRequest {
         final SQLEditorBase editor;
@@ -61,8 +62,11 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
         String wordPart;
         SQLCompletionProcessor.QueryType queryType;
 
-        final List<SQLCompletionProposal> proposals = new ArrayList<>();
+        // Proposals may be read by UI thread while search is still in progress
+        final List<SQLCompletionProposal> proposals = Collections.synchronizedList(new ArrayList<>());
         boolean searchFinished = false;
+        // Partial results were shown because search took too long
+        volatile boolean partial = false;
 
         CompletionRequest(SQLEditorBase editor, int documentOffset, boolean simpleMode) {
             this.editor = editor;
@@ -161,6 +165,9 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
                 }
             }
 
+            if (monitor.isCanceled()) {
+                return;
+            }
             if (!request.simpleMode &&
                 (request.queryType ==  SQLCompletionProcessor.QueryType.EXEC ||
                     (request.queryType == SQLCompletionProcessor.QueryType.COLUMN && dataSource.getContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.SHOW_COLUMN_PROCEDURES))) &&
@@ -185,7 +192,7 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
             //makeDataSourceProposals();
         }
 
-        if (!emptyWord) {
+        if (!emptyWord && !monitor.isCanceled()) {
             makeProposalsFromQueryParts();
         }
     }
@@ -267,20 +274,36 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
 
     private void filterNonJoinableProposals(DBSEntity leftTable) {
         // Remove all table proposals which don't have FKs between them and leftTable
-        List<SQLCompletionProposal> proposals = request.proposals;
+        List<SQLCompletionProposal> proposals;
+        synchronized (request.proposals) {
+            proposals = new ArrayList<>(request.proposals);
+        }
         List<SQLCompletionProposal> joinableProposals = new ArrayList<>();
+        long startTime = System.currentTimeMillis();
         for (SQLCompletionProposal proposal : proposals) {
+            if (monitor.isCanceled()) {
+                return;
+            }
+            if (System.currentTimeMillis() - startTime > JOIN_FILTER_TIME_BUDGET) {
+                // Reading FKs takes too long. Leave all tables.
+                log.debug("Join proposals filter time budget exceeded");
+                return;
+            }
             if (proposal.getObject() instanceof DBSEntity) {
                 DBSEntity rightTable = (DBSEntity) proposal.getObject();
                 if (tableHaveJoins(rightTable, leftTable) || tableHaveJoins(leftTable, rightTable)) {
-                    proposal.setReplacementAfter(" ON");
                     joinableProposals.add(proposal);
                 }
             }
         }
         if (!joinableProposals.isEmpty()) {
-            request.proposals.clear();
-            request.proposals.addAll(joinableProposals);
+            for (SQLCompletionProposal proposal : joinableProposals) {
+                proposal.setReplacementAfter(" ON");
+            }
+            synchronized (request.proposals) {
+                request.proposals.clear();
+                request.proposals.addAll(joinableProposals);
+            }
         }
     }
 
@@ -403,7 +426,7 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
                     }
                 }
 
-                if (request.proposals.isEmpty() && !request.simpleMode) {
+                if (request.proposals.isEmpty() && !request.simpleMode && !monitor.isCanceled()) {
                     // At last - try to find child tables by pattern
                     DBSStructureAssistant structureAssistant = null;
                     for (DBSObject object = childObject; object != null; object =  object.getParentObject()) {
@@ -550,32 +573,38 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
                 }
             }
             StringBuilder combinedMatch = new StringBuilder();
-            for (DBSObject child : children) {
-                if (DBUtils.isHiddenObject(child)) {
-                    // Skip hidden
-                    continue;
-                }
-                if (allObjects) {
-                    if (combinedMatch.length() > 0) {
-                        combinedMatch.append(", ");
-                        if (objPrefix != null) combinedMatch.append(objPrefix);
+            if (allObjects || CommonUtils.isEmpty(startPart)) {
+                for (DBSObject child : children) {
+                    if (DBUtils.isHiddenObject(child)) {
+                        // Skip hidden
+                        continue;
                     }
-                    combinedMatch.append(DBUtils.getQuotedIdentifier(child));
-                } else {
-                    if (dataSource != null && !dataSource.getContainer().getPreferenceStore().getBoolean(SQLPreferenceConstants.PROPOSALS_MATCH_CONTAINS)) {
-                        // startsWith
-                        if (CommonUtils.isEmpty(startPart) || CommonUtils.startsWithIgnoreCase(child.getName(), startPart)) {
-                            matchedObjects.add(child);
+                    if (allObjects) {
+                        if (combinedMatch.length() > 0) {
+                            combinedMatch.append(", ");
+                            if (objPrefix != null) combinedMatch.append(objPrefix);
                         }
+                        combinedMatch.append(DBUtils.getQuotedIdentifier(child));
                     } else {
-                        // Use fuzzy search for contains
-                        int score = CommonUtils.isEmpty(startPart) ? 1 : TextUtils.fuzzyScore(child.getName(), startPart);
-                        if (score > 0) {
-                            matchedObjects.add(child);
-                            scoredMatches.put(child.getName(), score);
+                        matchedObjects.add(child);
+                        if (matchContains) {
+                            scoredMatches.put(child.getName(), 1);
                         }
                     }
                 }
+            } else {
+                // Use name index instead of full children scan
+                SQLCompletionIndex index = SQLCompletionIndex.getIndex(dataSource);
+                SQLCompletionIndex.NameTable nameTable = index != null ?
+                    index.getNameTable(parent, children) :
+                    new SQLCompletionIndex.NameTable(children);
+                if (dataSource != null && !matchContains) {
+                    // startsWith
+                    nameTable.findByPrefix(startPart, matchedObjects);
+                } else {
+                    // Use fuzzy search for contains
+                    nameTable.findFuzzy(startPart, matchedObjects, scoredMatches);
+                }
             }
             if (combinedMatch.length() > 0) {
                 String replaceString = combinedMatch.toString();
@@ -624,11 +653,6 @@ class SQLCompletionAnalyzer implements DBRRunnableParametrized<DBRProgressMonito
         }
     }
 
-    private boolean objectNameMatches(@Nullable String startPart, DBSObject child, boolean matchContains) {
-        String nameCI = child.getName().toUpperCase(Locale.ENGLISH);
-        return matchContains ? nameCI.contains(startPart) : nameCI.startsWith(startPart);
-    }
-
     private void makeProposalsFromAssistant(
             DBPDataSource dataSource,
             DBSStructureAssistant assistant,
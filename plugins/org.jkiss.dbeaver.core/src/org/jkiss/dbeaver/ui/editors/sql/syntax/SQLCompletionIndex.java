@@ -0,0 +1,242 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.editors.sql.syntax;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.*;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.jkiss.dbeaver.ui.TextUtils;
+
+import java.util.*;
+
+/**
+ * Completion name index.
+ *
+ * Keeps case-folded, sorted name tables of container children so that completion does not
+ * rescan (and re-fold) all object names on each keystroke.
+ * Indexes are built lazily from metadata caches and dropped on data source events.
+ */
+class SQLCompletionIndex {
+
+    private static final int MAX_INDEXED_PARENTS = 200;
+
+    private static final Map<DBPDataSourceContainer, SQLCompletionIndex> INDEX_CACHE = new HashMap<>();
+
+    private final Map<DBPObject, NameTable> tables = new LinkedHashMap<DBPObject, NameTable>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<DBPObject, NameTable> eldest) {
+            return size() > MAX_INDEXED_PARENTS;
+        }
+    };
+
+    @Nullable
+    static SQLCompletionIndex getIndex(@Nullable DBPDataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        final DBPDataSourceContainer container = dataSource.getContainer();
+        synchronized (INDEX_CACHE) {
+            SQLCompletionIndex index = INDEX_CACHE.get(container);
+            if (index == null) {
+                index = new SQLCompletionIndex();
+                INDEX_CACHE.put(container, index);
+
+                final SQLCompletionIndex containerIndex = index;
+                container.getRegistry().addDataSourceListener(new DBPEventListener() {
+                    @Override
+                    public void handleDataSourceEvent(DBPEvent event) {
+                        if (event.getObject() == container && event.getAction() == DBPEvent.Action.OBJECT_UPDATE && Boolean.FALSE.equals(event.getEnabled())) {
+                            // Disconnect
+                            synchronized (INDEX_CACHE) {
+                                INDEX_CACHE.remove(container);
+                                container.getRegistry().removeDataSourceListener(this);
+                            }
+                        } else if (event.getAction() != DBPEvent.Action.OBJECT_SELECT) {
+                            containerIndex.invalidate(event.getObject());
+                        }
+                    }
+                });
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Returns name table for specified parent. Table is rebuilt if children collection was reloaded.
+     */
+    @NotNull
+    NameTable getNameTable(@NotNull DBPObject parent, @NotNull Collection<? extends DBSObject> children) {
+        synchronized (tables) {
+            NameTable table = tables.get(parent);
+            if (table == null || table.source != children || table.sourceSize != children.size()) {
+                table = new NameTable(children);
+                tables.put(parent, table);
+            }
+            return table;
+        }
+    }
+
+    private void invalidate(@Nullable DBSObject object) {
+        synchronized (tables) {
+            if (object == null || object instanceof DBPDataSourceContainer) {
+                tables.clear();
+                return;
+            }
+            tables.remove(object);
+            if (object.getParentObject() != null) {
+                tables.remove(object.getParentObject());
+            }
+        }
+    }
+
+    /**
+     * Case-folded object names sorted for prefix search.
+     * Each name also keeps its word initials (split by case change and separators) for camel-case matching
+     * and a mask of its characters, so fuzzy search scores only names which contain all query characters.
+     */
+    static class NameTable {
+        private final Collection<? extends DBSObject> source;
+        private final int sourceSize;
+        private final String[] names;
+        private final String[] initials;
+        private final long[] charMasks;
+        private final DBSObject[] objects;
+        private final int[] positions;
+
+        NameTable(Collection<? extends DBSObject> children) {
+            this.source = children;
+            this.sourceSize = children.size();
+
+            List<DBSObject> visible = new ArrayList<>(children.size());
+            for (DBSObject child : children) {
+                if (!DBUtils.isHiddenObject(child)) {
+                    visible.add(child);
+                }
+            }
+            int count = visible.size();
+            String[] folded = new String[count];
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                folded[i] = visible.get(i).getName().toLowerCase(Locale.ENGLISH);
+                order[i] = i;
+            }
+            Arrays.sort(order, (o1, o2) -> folded[o1].compareTo(folded[o2]));
+
+            this.names = new String[count];
+            this.initials = new String[count];
+            this.charMasks = new long[count];
+            this.objects = new DBSObject[count];
+            this.positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                DBSObject object = visible.get(order[i]);
+                this.names[i] = folded[order[i]];
+                this.initials[i] = makeInitials(object.getName());
+                this.charMasks[i] = makeCharMask(this.names[i]);
+                this.objects[i] = object;
+                this.positions[i] = order[i];
+            }
+        }
+
+        int size() {
+            return objects.length;
+        }
+
+        /**
+         * Objects which names start with specified part (case insensitive).
+         * Result keeps the original children order.
+         */
+        void findByPrefix(@NotNull String startPart, @NotNull List<DBSObject> result) {
+            String prefix = startPart.toLowerCase(Locale.ENGLISH);
+            int first = Arrays.binarySearch(names, prefix);
+            if (first < 0) {
+                first = -first - 1;
+            }
+            int last = first;
+            while (last < names.length && names[last].startsWith(prefix)) {
+                last++;
+            }
+            if (last == first) {
+                return;
+            }
+            // Restore natural order (e.g. ordinal position of columns)
+            Integer[] byPosition = new Integer[last - first];
+            for (int i = 0; i < byPosition.length; i++) {
+                byPosition[i] = first + i;
+            }
+            Arrays.sort(byPosition, Comparator.comparingInt(o -> positions[o]));
+            for (Integer index : byPosition) {
+                result.add(objects[index]);
+            }
+        }
+
+        /**
+         * Fuzzy search. Camel-case (word initials) matches are scored above any plain fuzzy match.
+         */
+        void findFuzzy(@NotNull String query, @NotNull List<DBSObject> result, @NotNull Map<String, Integer> scores) {
+            String queryCI = query.toUpperCase(Locale.ENGLISH);
+            String queryLC = query.toLowerCase(Locale.ENGLISH);
+            long queryMask = makeCharMask(queryLC);
+            for (int i = 0; i < objects.length; i++) {
+                int score;
+                if (initials[i].length() > 1 && queryCI.length() > 1 && initials[i].startsWith(queryCI)) {
+                    score = Integer.MAX_VALUE / 2 - initials[i].length();
+                } else if ((queryMask & ~charMasks[i]) != 0) {
+                    // Some query character is missing in the name
+                    continue;
+                } else {
+                    score = TextUtils.fuzzyScoreLowerCase(names[i], queryLC);
+                }
+                if (score > 0) {
+                    result.add(objects[i]);
+                    scores.put(objects[i].getName(), score);
+                }
+            }
+        }
+
+        /**
+         * Bit per character (modulo 64). Name may match query only if its mask covers query mask.
+         */
+        private static long makeCharMask(String name) {
+            long mask = 0;
+            for (int i = 0; i < name.length(); i++) {
+                mask |= 1L << (name.charAt(i) & 63);
+            }
+            return mask;
+        }
+
+        private static String makeInitials(String name) {
+            StringBuilder buf = new StringBuilder();
+            boolean wordStart = true;
+            char prevChar = 0;
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (!Character.isLetterOrDigit(c)) {
+                    wordStart = true;
+                } else {
+                    if (wordStart || (Character.isUpperCase(c) && Character.isLowerCase(prevChar))) {
+                        buf.append(Character.toUpperCase(c));
+                    }
+                    wordStart = false;
+                }
+                prevChar = c;
+            }
+            return buf.toString();
+        }
+    }
+
+}
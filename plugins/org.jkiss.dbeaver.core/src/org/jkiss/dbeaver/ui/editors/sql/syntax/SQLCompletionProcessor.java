@@ -20,6 +20,7 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.jface.text.*;
 import org.eclipse.jface.text.contentassist.*;
+import org.eclipse.jface.text.source.ISourceViewer;
 import org.eclipse.jface.text.templates.Template;
 import org.eclipse.jface.text.templates.TemplateProposal;
 import org.jkiss.code.NotNull;
@@ -83,6 +84,8 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
     }
 
     private final SQLEditorBase editor;
+    private volatile ProposalSearchJob activeSearchJob;
+    private SQLCompletionAnalyzer.CompletionRequest completedRequest;
 
     public SQLCompletionProcessor(SQLEditorBase editor)
     {
@@ -144,16 +147,40 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         }
         request.wordPart = searchPrefix;
         DBPDataSource dataSource = editor.getDataSource();
+        List<SQLCompletionProposal> proposals = request.proposals;
+        boolean searchFinished = false;
         if (request.wordPart != null) {
             if (dataSource != null) {
-                ProposalSearchJob searchJob = new ProposalSearchJob(request);
-                searchJob.schedule();
-                // Wait until job finished
-                UIUtils.waitJobCompletion(searchJob);
+                SQLCompletionAnalyzer.CompletionRequest lateRequest = takeCompletedRequest(request);
+                if (lateRequest != null) {
+                    // Search was finished in background after partial results were shown
+                    proposals = lateRequest.proposals;
+                    searchFinished = lateRequest.searchFinished;
+                } else {
+                    cancelActiveSearch();
+                    ProposalSearchJob searchJob = new ProposalSearchJob(request);
+                    activeSearchJob = searchJob;
+                    searchJob.schedule();
+                    // Wait until job finished (or search timeout is reached)
+                    int searchTimeout = editor.getActivePreferenceStore().getInt(SQLPreferenceConstants.PROPOSALS_SEARCH_TIMEOUT);
+                    if (searchTimeout <= 0) {
+                        UIUtils.waitJobCompletion(searchJob);
+                    } else if (!UIUtils.waitJobCompletion(searchJob, searchTimeout)) {
+                        // Show what we have found so far. Popup will be refreshed when search finishes.
+                        request.partial = true;
+                        synchronized (request.proposals) {
+                            proposals = new ArrayList<>(request.proposals);
+                        }
+                    }
+                    if (!request.partial) {
+                        activeSearchJob = null;
+                        searchFinished = request.searchFinished;
+                    }
+                }
             }
         }
 
-        if (!request.searchFinished && !CommonUtils.isEmpty(request.wordPart))  {
+        if (!searchFinished && !CommonUtils.isEmpty(request.wordPart))  {
             // Keyword assist
             List<String> matchedKeywords = editor.getSyntaxManager().getDialect().getMatchedKeywords(request.wordPart);
             if (!request.simpleMode) {
@@ -169,7 +196,7 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                     if (request.queryType == QueryType.COLUMN && !(keywordType == DBPKeywordType.FUNCTION || keywordType == DBPKeywordType.KEYWORD)) {
                         continue;
                     }
-                    request.proposals.add(
+                    proposals.add(
                         SQLCompletionAnalyzer.createCompletionProposal(
                             request,
                             keyWord,
@@ -182,19 +209,66 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                 }
             }
         }
-        filterProposals(request, dataSource);
+        filterProposals(proposals, dataSource);
+
+        return ArrayUtils.toArray(ICompletionProposal.class, proposals);
+    }
+
+    private void cancelActiveSearch() {
+        ProposalSearchJob searchJob = activeSearchJob;
+        if (searchJob != null) {
+            activeSearchJob = null;
+            if (!searchJob.isFinished()) {
+                searchJob.cancel();
+            }
+        }
+    }
+
+    /**
+     * Returns results of the background search if it was made for the same position and word
+     */
+    @Nullable
+    private SQLCompletionAnalyzer.CompletionRequest takeCompletedRequest(SQLCompletionAnalyzer.CompletionRequest request) {
+        SQLCompletionAnalyzer.CompletionRequest lateRequest = completedRequest;
+        completedRequest = null;
+        if (lateRequest != null &&
+            lateRequest.documentOffset == request.documentOffset &&
+            CommonUtils.equalObjects(lateRequest.wordPart, request.wordPart) &&
+            lateRequest.queryType == request.queryType)
+        {
+            return lateRequest;
+        }
+        return null;
+    }
 
-        return ArrayUtils.toArray(ICompletionProposal.class, request.proposals);
+    private void showLateProposals(ProposalSearchJob searchJob) {
+        if (activeSearchJob != searchJob || !searchJob.request.partial) {
+            // Results were already shown or search was superseded by another one
+            return;
+        }
+        activeSearchJob = null;
+        if (!searchJob.completed) {
+            return;
+        }
+        TextViewer textViewer = editor.getTextViewer();
+        if (textViewer == null || textViewer.getTextWidget() == null || textViewer.getTextWidget().isDisposed() ||
+            textViewer.getSelectedRange().x != searchJob.request.documentOffset)
+        {
+            // Cursor was moved
+            return;
+        }
+        completedRequest = searchJob.request;
+        textViewer.doOperation(ISourceViewer.CONTENTASSIST_PROPOSALS);
     }
 
-    private void filterProposals(SQLCompletionAnalyzer.CompletionRequest request, DBPDataSource dataSource) {
+    private void filterProposals(List<SQLCompletionProposal> proposals, DBPDataSource dataSource) {
 
         // Remove duplications
-        final Set<String> proposalMap = new HashSet<>(request.proposals.size());
-        for (int i = 0; i < request.proposals.size(); ) {
-            SQLCompletionProposal proposal = request.proposals.get(i);
+        final Set<String> proposalMap = new HashSet<>(proposals.size());
+        for (int i = 0; i < proposals.size(); ) {
+            SQLCompletionProposal proposal = proposals.get(i);
             if (proposalMap.contains(proposal.getDisplayString())) {
-                request.proposals.remove(i);
+                proposals.remove(i);
                 continue;
             }
             proposalMap.add(proposal.getDisplayString());
@@ -204,14 +278,14 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
         DBSObject selectedObject = dataSource == null ? null: DBUtils.getActiveInstanceObject(dataSource.getDefaultInstance());
         boolean hideDups = editor.getActivePreferenceStore().getBoolean(SQLPreferenceConstants.HIDE_DUPLICATE_PROPOSALS) && selectedObject != null;
         if (hideDups) {
-            for (int i = 0; i < request.proposals.size(); i++) {
-                SQLCompletionProposal proposal = request.proposals.get(i);
-                for (int j = 0; j < request.proposals.size(); ) {
-                    SQLCompletionProposal proposal2 = request.proposals.get(j);
+            for (int i = 0; i < proposals.size(); i++) {
+                SQLCompletionProposal proposal = proposals.get(i);
+                for (int j = 0; j < proposals.size(); ) {
+                    SQLCompletionProposal proposal2 = proposals.get(j);
                     if (i != j && proposal.hasStructObject() && proposal2.hasStructObject() &&
                             CommonUtils.equalObjects(proposal.getObject().getName(), proposal2.getObject().getName()) &&
                             proposal.getObjectContainer() == selectedObject) {
-                        request.proposals.remove(j);
+                        proposals.remove(j);
                     } else {
                         j++;
                     }
@@ -350,6 +424,7 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
 
     private class ProposalSearchJob extends AbstractJob {
         private final SQLCompletionAnalyzer.CompletionRequest request;
+        private volatile boolean completed;
 
         ProposalSearchJob(SQLCompletionAnalyzer.CompletionRequest request) {
             super("Search proposals...");
@@ -368,11 +443,19 @@ public class SQLCompletionProcessor implements IContentAssistProcessor
                 } finally {
                     monitor.done();
                 }
+                if (monitor.isCanceled()) {
+                    return Status.CANCEL_STATUS;
+                }
                 applyFilters();
+                completed = true;
                 return Status.OK_STATUS;
             } catch (Throwable e) {
-                log.error(e);
+                if (!monitor.isCanceled()) {
+                    log.error(e);
+                }
                 return Status.CANCEL_STATUS;
+            } finally {
+                UIUtils.asyncExec(() -> showLateProposals(this));
             }
         }
 
@@ -40,6 +40,7 @@ public class PrefPageMetaData extends TargetPrefPage
     private Button separateMetaConnectionCheck;
     private Button caseSensitiveNamesCheck;
     private Button serverSideFiltersCheck;
+    private Button prefetchFoldersCheck;
 
     private Button ignoreColumnLabelCheck;
 
@@ -57,6 +58,7 @@ public class PrefPageMetaData extends TargetPrefPage
             store.contains(ModelPreferences.META_SEPARATE_CONNECTION) ||
             store.contains(ModelPreferences.META_CASE_SENSITIVE) ||
             store.contains(ModelPreferences.META_USE_SERVER_SIDE_FILTERS) ||
+            store.contains(ModelPreferences.META_PREFETCH_FOLDERS) ||
 
             store.contains(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL)
             ;
@@ -79,6 +81,7 @@ public class PrefPageMetaData extends TargetPrefPage
             caseSensitiveNamesCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names, CoreMessages.pref_page_database_general_checkbox_case_sensitive_names_tip, false, 1);
             readExpensiveCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_checkbox_show_row_count, CoreMessages.pref_page_database_general_checkbox_show_row_count_tip, false, 1);
             serverSideFiltersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_server_side_object_filters, CoreMessages.pref_page_database_general_server_side_object_filters_tip, false, 1);
+            prefetchFoldersCheck = UIUtils.createCheckbox(metadataGroup, CoreMessages.pref_page_database_general_prefetch_folders, CoreMessages.pref_page_database_general_prefetch_folders_tip, false, 1);
         }
 
         {
@@ -98,6 +101,7 @@ public class PrefPageMetaData extends TargetPrefPage
             separateMetaConnectionCheck.setSelection(store.getBoolean(ModelPreferences.META_SEPARATE_CONNECTION));
             caseSensitiveNamesCheck.setSelection(store.getBoolean(ModelPreferences.META_CASE_SENSITIVE));
             serverSideFiltersCheck.setSelection(store.getBoolean(ModelPreferences.META_USE_SERVER_SIDE_FILTERS));
+            prefetchFoldersCheck.setSelection(store.getBoolean(ModelPreferences.META_PREFETCH_FOLDERS));
 
             ignoreColumnLabelCheck.setSelection(store.getBoolean(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL));
         } catch (Exception e) {
@@ -113,6 +117,7 @@ public class PrefPageMetaData extends TargetPrefPage
             store.setValue(ModelPreferences.META_SEPARATE_CONNECTION, separateMetaConnectionCheck.getSelection());
             store.setValue(ModelPreferences.META_CASE_SENSITIVE, caseSensitiveNamesCheck.getSelection());
             store.setValue(ModelPreferences.META_USE_SERVER_SIDE_FILTERS, serverSideFiltersCheck.getSelection());
+            store.setValue(ModelPreferences.META_PREFETCH_FOLDERS, prefetchFoldersCheck.getSelection());
 
             store.setValue(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL, ignoreColumnLabelCheck.getSelection());
         } catch (Exception e) {
@@ -128,6 +133,7 @@ public class PrefPageMetaData extends TargetPrefPage
         store.setToDefault(ModelPreferences.META_SEPARATE_CONNECTION);
         store.setToDefault(ModelPreferences.META_CASE_SENSITIVE);
         store.setToDefault(ModelPreferences.META_USE_SERVER_SIDE_FILTERS);
+        store.setToDefault(ModelPreferences.META_PREFETCH_FOLDERS);
 
         store.setToDefault(ModelPreferences.RESULT_SET_IGNORE_COLUMN_LABEL);
     }
@@ -23,6 +23,7 @@ import org.eclipse.core.runtime.Status;
 import org.eclipse.search.ui.ISearchQuery;
 import org.eclipse.search.ui.ISearchResult;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.core.DBeaverCore;
@@ -40,6 +41,7 @@ import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.ui.search.AbstractSearchResult;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.ArrayUtils;
@@ -47,13 +49,19 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.*;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    // Maximum number of connections used to search in a single database instance
+    private static final int MAX_INSTANCE_CONNECTIONS = 4;
+    private static final long RESULT_POLL_TIMEOUT = 100;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
+    private volatile boolean searchFinished;
 
     private SearchDataQuery(SearchDataParams params)
     {
@@ -87,12 +95,19 @@ public class SearchDataQuery implements ISearchQuery {
     @Override
     public IStatus run(IProgressMonitor m) throws OperationCanceledException {
         try {
+            searchFinished = false;
             String searchString = params.getSearchString();
 
             //monitor.subTask("Collect tables");
             Set<DBPDataSource> dataSources = new HashSet<>();
+            // Tables are searched in parallel - each database instance has its own queue and connections
+            Map<DBSInstance, Queue<DBSDataContainer>> instanceTables = new LinkedHashMap<>();
             for (DBSDataContainer searcher : params.sources) {
                 dataSources.add(searcher.getDataSource());
+                DBSInstance instance = DBUtils.getObjectOwnerInstance(searcher);
+                if (instance != null) {
+                    instanceTables.computeIfAbsent(instance, i -> new ConcurrentLinkedQueue<>()).add(searcher);
+                }
             }
 
             // Search
@@ -105,17 +120,42 @@ public class SearchDataQuery implements ISearchQuery {
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
+            BlockingQueue<TableSearchResult> results = new LinkedBlockingQueue<>();
+            ExecutorService executor = Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "Data search worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            int tableCount = 0;
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
+                for (Map.Entry<DBSInstance, Queue<DBSDataContainer>> entry : instanceTables.entrySet()) {
+                    DBSInstance instance = entry.getKey();
+                    Queue<DBSDataContainer> tables = entry.getValue();
+                    tableCount += tables.size();
+                    int workerCount = instance.getDataSource().getContainer().getDriver().isEmbedded() ?
+                        1 : Math.min(MAX_INSTANCE_CONNECTIONS, tables.size());
+                    for (int i = 0; i < workerCount; i++) {
+                        executor.submit(new SearchWorker(monitor, dbnModel, instance, tables, i > 0, results));
+                    }
+                }
+                // Collect results as they arrive
+                for (int processed = 0; processed < tableCount && !monitor.isCanceled(); ) {
+                    TableSearchResult result = results.poll(RESULT_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if (result == null) {
+                        continue;
                     }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
+                    processed++;
+                    monitor.subTask("Searched in '" + result.objectName + "'");
+                    if (result.object != null) {
+                        searchResult.addObjects(Collections.singletonList(result.object));
                         totalObjects++;
                     }
                     monitor.worked(1);
                 }
             } finally {
+                searchFinished = true;
+                // Workers stop after the current table (read is canceled by monitor)
+                executor.shutdown();
                 monitor.done();
             }
 
@@ -127,21 +167,24 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    @Nullable
+    private SearchDataObject searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, @Nullable DBCExecutionContext context, DBSDataContainer dataContainer) {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
-            return false;
+            return null;
         }
 
         String objectName = DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
         DBNDatabaseNode node = dbnModel.findNode(dataContainer);
         if (node == null) {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
-            return false;
+            return null;
         }
-        monitor.subTask("Search in '" + objectName + "'");
         log.debug("Search in '" + objectName + "'");
         SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
+        try (DBCSession session = context != null ?
+            context.openSession(searchMonitor, DBCExecutionPurpose.UTIL, "Search rows in " + objectName) :
+            DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName))
+        {
             TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
             try {
                 findRows(session, dataContainer, dataReceiver);
@@ -152,11 +195,9 @@ public class SearchDataQuery implements ISearchQuery {
             }
 
             if (dataReceiver.rowCount > 0) {
-                SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
-                return true;
+                return new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
             }
-            return false;
+            return null;
         }
     }
 
@@ -175,11 +216,12 @@ public class SearchDataQuery implements ISearchQuery {
         try {
 
             List<DBDAttributeConstraint> constraints = new ArrayList<>();
+            // Conditions on indexed columns go first, so databases which evaluate OR lazily check them first
+            int indexedCount = 0;
             for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(session.getProgressMonitor()))) {
-                if (params.fastSearch) {
-                    if (DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) == null) {
-                        continue;
-                    }
+                boolean indexed = DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) != null;
+                if (params.fastSearch && !indexed) {
+                    continue;
                 }
                 if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
                     continue;
@@ -261,7 +303,11 @@ public class SearchDataQuery implements ISearchQuery {
                 constraint.setOperator(operator);
                 constraint.setValue(value);
                 constraint.setVisible(true);
-                constraints.add(constraint);
+                if (indexed) {
+                    constraints.add(indexedCount++, constraint);
+                } else {
+                    constraints.add(constraint);
+                }
             }
             if (constraints.isEmpty()) {
                 return null;
@@ -269,7 +315,8 @@ public class SearchDataQuery implements ISearchQuery {
             dataReceiver.filter = new DBDDataFilter(constraints);
             dataReceiver.filter.setAnyConstraint(true);
             DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0);
+            // Limit result set on server side - we never need more than maxResults rows
+            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, params.maxResults, 0);
         } catch (DBException e) {
             throw new DBCException("Error finding rows", e);
         }
@@ -292,7 +339,72 @@ public class SearchDataQuery implements ISearchQuery {
 
         @Override
         public boolean isCanceled() {
-            return canceled || baseMonitor.isCanceled();
+            return canceled || searchFinished || baseMonitor.isCanceled();
+        }
+    }
+
+    private static class TableSearchResult {
+        private final String objectName;
+        @Nullable
+        private final SearchDataObject object;
+
+        private TableSearchResult(String objectName, @Nullable SearchDataObject object) {
+            this.objectName = objectName;
+            this.object = object;
+        }
+    }
+
+    /**
+     * Searches tables of a single database instance.
+     * First worker uses instance default context, others open isolated contexts.
+     */
+    private class SearchWorker implements Runnable {
+
+        private final DBRProgressMonitor monitor;
+        private final DBNModel dbnModel;
+        private final DBSInstance instance;
+        private final Queue<DBSDataContainer> tables;
+        private final boolean isolated;
+        private final BlockingQueue<TableSearchResult> results;
+
+        private SearchWorker(DBRProgressMonitor monitor, DBNModel dbnModel, DBSInstance instance, Queue<DBSDataContainer> tables, boolean isolated, BlockingQueue<TableSearchResult> results) {
+            this.monitor = monitor;
+            this.dbnModel = dbnModel;
+            this.instance = instance;
+            this.tables = tables;
+            this.isolated = isolated;
+            this.results = results;
+        }
+
+        @Override
+        public void run() {
+            DBCExecutionContext context = null;
+            if (isolated) {
+                try {
+                    context = instance.openIsolatedContext(new SearchTableMonitor(monitor), "Data search");
+                } catch (Throwable e) {
+                    // Other workers will search in remaining tables
+                    log.debug("Can't open isolated context for data search", e);
+                    return;
+                }
+            }
+            try {
+                for (DBSDataContainer dataContainer = tables.poll(); dataContainer != null; dataContainer = tables.poll()) {
+                    SearchDataObject object = null;
+                    try {
+                        if (!monitor.isCanceled() && !searchFinished) {
+                            object = searchDataInContainer(monitor, dbnModel, context, dataContainer);
+                        }
+                    } catch (Throwable e) {
+                        log.debug("Data search failed in '" + dataContainer.getName() + "'", e);
+                    }
+                    results.add(new TableSearchResult(DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.UI), object));
+                }
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
         }
     }
 
@@ -42,6 +42,9 @@ import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPObject;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.admin.activity.DBAServerActivityHistory;
+import org.jkiss.dbeaver.model.admin.activity.DBAServerActivitySample;
+import org.jkiss.dbeaver.model.admin.activity.DBAServerActivitySampler;
 import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
 import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionDetails;
 import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionDetailsProvider;
@@ -61,6 +64,7 @@ import org.jkiss.dbeaver.ui.*;
 import org.jkiss.dbeaver.ui.controls.ListContentProvider;
 import org.jkiss.dbeaver.ui.controls.autorefresh.AutoRefreshControl;
 import org.jkiss.dbeaver.ui.controls.itemlist.DatabaseObjectListControl;
+import org.jkiss.dbeaver.ui.dialogs.EditTextDialog;
 import org.jkiss.dbeaver.ui.editors.StringEditorInput;
 import org.jkiss.dbeaver.ui.editors.SubEditorSite;
 import org.jkiss.dbeaver.ui.editors.sql.SQLEditorBase;
@@ -70,6 +74,7 @@ import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.lang.reflect.InvocationTargetException;
+import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -312,6 +317,81 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
 
     }
 
+    private void contributeActivityActions(IContributionManager contributionManager)
+    {
+        final DBPDataSource dataSource = sessionManager.getDataSource();
+        Action samplingAction = new Action("Sample server activity in background", Action.AS_CHECK_BOX) {
+            @Override
+            public void run()
+            {
+                if (isChecked()) {
+                    DBAServerActivitySampler.startSampling(dataSource);
+                } else {
+                    DBAServerActivitySampler.stopSampling(dataSource.getContainer());
+                }
+            }
+        };
+        samplingAction.setImageDescriptor(DBeaverIcons.getImageDescriptor(UIIcon.CHART_LINE));
+        DBAServerActivitySampler sampler = DBAServerActivitySampler.getSampler(dataSource.getContainer());
+        samplingAction.setChecked(sampler != null && sampler.isRunning());
+        contributionManager.add(samplingAction);
+        contributionManager.add(new Action("Show activity history", DBeaverIcons.getImageDescriptor(UIIcon.CHART_BAR)) {
+            @Override
+            public void run()
+            {
+                showActivityHistory();
+            }
+        });
+    }
+
+    private void showActivityHistory()
+    {
+        DBAServerActivitySampler sampler = DBAServerActivitySampler.getSampler(sessionManager.getDataSource().getContainer());
+        if (sampler == null || sampler.getHistory().size() == 0) {
+            UIUtils.showMessageBox(sessionTable.getShell(), "Activity history", "No activity samples. Turn on background activity sampling first.", SWT.ICON_INFORMATION);
+            return;
+        }
+        EditTextDialog.showText(sessionTable.getShell(), "Server activity history", formatActivityHistory(sampler));
+    }
+
+    private static String formatActivityHistory(DBAServerActivitySampler sampler)
+    {
+        SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        DBAServerActivityHistory history = sampler.getHistory();
+        List<DBAServerActivitySample> samples = history.getSamples(0, Long.MAX_VALUE);
+        long fromTime = samples.get(0).getTimestamp();
+        long toTime = samples.get(samples.size() - 1).getTimestamp();
+
+        StringBuilder text = new StringBuilder();
+        text.append("Period: ").append(timeFormat.format(new Date(fromTime))).append(" - ").append(timeFormat.format(new Date(toTime)))
+            .append(" (").append(samples.size()).append(" samples, every ").append(sampler.getInterval() / 1000).append("s)\n");
+        text.append("Max blocked sessions: ").append(history.getMaxBlockedCount(fromTime, toTime)).append("\n");
+
+        text.append("\nTop waits (session samples):\n");
+        for (Map.Entry<String, Integer> wait : history.getTopWaits(fromTime, toTime, DBAServerActivitySampler.TOP_COUNT)) {
+            text.append("    ").append(wait.getKey()).append(": ").append(wait.getValue()).append("\n");
+        }
+        text.append("\nTop blockers (blocked session samples):\n");
+        for (Map.Entry<String, Integer> blocker : history.getTopBlockers(fromTime, toTime, DBAServerActivitySampler.TOP_COUNT)) {
+            text.append("    ").append(blocker.getKey()).append(": ").append(blocker.getValue()).append("\n");
+        }
+        text.append("\nLongest queries:\n");
+        for (DBAServerActivitySample.QueryInfo query : history.getLongestQueries(fromTime, toTime, DBAServerActivitySampler.TOP_COUNT)) {
+            text.append("    ").append(query.getSessionId()).append(" (").append(query.getDuration() / 1000).append("s): ")
+                .append(CommonUtils.truncateString(CommonUtils.notEmpty(query.getQuery()).replaceAll("\\s+", " "), 200)).append("\n");
+        }
+
+        text.append("\nTime                   Sessions  Active  Blocked\n");
+        for (DBAServerActivitySample sample : samples) {
+            text.append(String.format("%-21s  %8d  %6d  %7d\n",
+                timeFormat.format(new Date(sample.getTimestamp())),
+                sample.getSessionCount(),
+                sample.getActiveCount(),
+                sample.getBlockedCount()));
+        }
+        return text.toString();
+    }
+
     public DBAServerSession getSelectedSession()
     {
         ISelection selection = sessionTable.getSelectionProvider().getSelection();
@@ -418,6 +498,7 @@ public class SessionManagerViewer<SESSION_TYPE extends DBAServerSession>
         @Override
         public void fillCustomActions(IContributionManager contributionManager) {
             contributeToToolbar(getSessionManager(), contributionManager);
+            contributeActivityActions(contributionManager);
             refreshControl.populateRefreshButton(contributionManager);
             contributionManager.add(new Action("Refresh sessions", DBeaverIcons.getImageDescriptor(UIIcon.REFRESH)) {
                 @Override
@@ -0,0 +1,153 @@
+package org.jkiss.dbeaver.registry;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks config journal record format and recovery
+ */
+public class DataSourceConfigJournalTest {
+
+    private static final String FRAGMENT_1 = "<data-source id=\"postgres-1\" name=\"Local\">\n\t<connection host=\"localhost\"/>\n</data-source>";
+    private static final String FRAGMENT_2 = "<data-source id=\"mysql-2\" name=\"\u0422\u0435\u0441\u0442 \u00e9\"/>";
+
+    @Test
+    public void testRecordFormat() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate("<a/>");
+        journal.appendRemove("mysql-2");
+        assertEquals("U 4\n<a/>\nR 7\nmysql-2\n", readFile(journal));
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate(FRAGMENT_1);
+        journal.appendRemove("postgres-1");
+        journal.appendUpdate(FRAGMENT_2);
+        journal.appendUpdate("");
+
+        Recorder recorder = new Recorder();
+        assertEquals(4, journal.replay(recorder));
+        assertEquals(Arrays.asList("U:" + FRAGMENT_1, "R:postgres-1", "U:" + FRAGMENT_2, "U:"), recorder.records);
+    }
+
+    @Test
+    public void testNoJournal() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        assertEquals(0, journal.replay(new Recorder()));
+        assertEquals(0, journal.getSize());
+        journal.discard(100);
+        assertFalse(journal.getFile().exists());
+    }
+
+    @Test
+    public void testTruncatedTail() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate(FRAGMENT_1);
+        long firstSize = journal.getSize();
+        journal.appendUpdate(FRAGMENT_2);
+        long fullSize = journal.getSize();
+
+        // Crash at any point of the second record write
+        for (long size = firstSize; size < fullSize; size++) {
+            truncate(journal, size);
+            Recorder recorder = new Recorder();
+            assertEquals(1, journal.replay(recorder));
+            assertEquals(Arrays.asList("U:" + FRAGMENT_1), recorder.records);
+            // Broken tail is cut off
+            assertEquals(firstSize, journal.getSize());
+            journal.appendUpdate(FRAGMENT_2);
+        }
+    }
+
+    @Test
+    public void testAppendAfterRecovery() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate(FRAGMENT_1);
+        journal.appendRemove("postgres-1");
+        truncate(journal, journal.getSize() - 3);
+        assertEquals(1, journal.replay(new Recorder()));
+
+        journal.appendRemove("mysql-2");
+        Recorder recorder = new Recorder();
+        assertEquals(2, journal.replay(recorder));
+        assertEquals(Arrays.asList("U:" + FRAGMENT_1, "R:mysql-2"), recorder.records);
+    }
+
+    @Test
+    public void testBrokenHeader() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate(FRAGMENT_1);
+        Files.write(journal.getFile().toPath(), "U x1\n<a/>\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        Recorder recorder = new Recorder();
+        assertEquals(1, journal.replay(recorder));
+        assertEquals(Arrays.asList("U:" + FRAGMENT_1), recorder.records);
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        DataSourceConfigJournal journal = createJournal();
+        journal.appendUpdate(FRAGMENT_1);
+        journal.appendRemove("postgres-1");
+        // Config was saved with these two records
+        long savedSize = journal.getSize();
+        journal.appendUpdate(FRAGMENT_2);
+
+        journal.discard(savedSize);
+        Recorder recorder = new Recorder();
+        assertEquals(1, journal.replay(recorder));
+        assertEquals(Arrays.asList("U:" + FRAGMENT_2), recorder.records);
+        // Remaining records are written aside and moved over the journal
+        assertFalse(new File(journal.getFile().getParentFile(), journal.getFile().getName() + ".tmp").exists());
+
+        journal.discard(journal.getSize());
+        assertFalse(journal.getFile().exists());
+        assertEquals(0, journal.replay(new Recorder()));
+    }
+
+    private static DataSourceConfigJournal createJournal() throws IOException {
+        File file = File.createTempFile("data-sources", DataSourceConfigJournal.JOURNAL_FILE_EXT);
+        file.deleteOnExit();
+        if (!file.delete()) {
+            throw new IOException("Can't delete " + file);
+        }
+        return new DataSourceConfigJournal(file);
+    }
+
+    private static String readFile(DataSourceConfigJournal journal) throws IOException {
+        return new String(Files.readAllBytes(journal.getFile().toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static void truncate(DataSourceConfigJournal journal, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(journal.getFile(), "rw")) {
+            raf.setLength(size);
+        }
+    }
+
+    private static class Recorder implements DataSourceConfigJournal.RecordHandler {
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void updateDataSource(String configFragment) {
+            records.add("U:" + configFragment);
+        }
+
+        @Override
+        public void removeDataSource(String id) {
+            records.add("R:" + id);
+        }
+    }
+
+}
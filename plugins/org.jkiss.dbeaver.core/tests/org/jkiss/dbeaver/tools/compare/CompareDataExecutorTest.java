@@ -0,0 +1,217 @@
+package org.jkiss.dbeaver.tools.compare;
+
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.utils.Pair;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks value comparison and bucket recursion of data compare
+ */
+public class CompareDataExecutorTest {
+
+    private static final int ROW_COUNT = 100000;
+
+    @Test
+    public void testCompareNumbers() {
+        assertEquals(0, CompareDataExecutor.compareValues(1, 1L));
+        assertEquals(0, CompareDataExecutor.compareValues(new BigDecimal("1.00"), 1));
+        assertEquals(0, CompareDataExecutor.compareValues(BigInteger.TEN, 10L));
+        assertEquals(0, CompareDataExecutor.compareValues(2.5d, new BigDecimal("2.5")));
+        assertTrue(CompareDataExecutor.compareValues(2, 10L) < 0);
+        assertTrue(CompareDataExecutor.compareValues(new BigDecimal("-0.5"), -1) > 0);
+        assertTrue(CompareDataExecutor.compareValues(Long.MAX_VALUE, new BigDecimal(Long.MAX_VALUE).add(BigDecimal.ONE)) < 0);
+    }
+
+    @Test
+    public void testCompareNulls() {
+        assertEquals(0, CompareDataExecutor.compareValues(null, null));
+        assertTrue(CompareDataExecutor.compareValues(null, 1) < 0);
+        assertTrue(CompareDataExecutor.compareValues("a", null) > 0);
+    }
+
+    @Test
+    public void testCompareDates() {
+        long time = 1500000000123L;
+        assertEquals(0, CompareDataExecutor.compareValues(new java.sql.Date(time), new Timestamp(time)));
+        assertEquals(0, CompareDataExecutor.compareValues(new java.util.Date(time), new Timestamp(time)));
+        Timestamp timestamp1 = new Timestamp(time);
+        Timestamp timestamp2 = new Timestamp(time);
+        timestamp2.setNanos(timestamp1.getNanos() + 1);
+        assertTrue(CompareDataExecutor.compareValues(timestamp1, timestamp2) < 0);
+        assertTrue(CompareDataExecutor.compareValues(new Timestamp(time + 1), new java.util.Date(time)) > 0);
+    }
+
+    @Test
+    public void testCompareBytesAndStrings() {
+        assertEquals(0, CompareDataExecutor.compareValues(new byte[]{1, 2}, new byte[]{1, 2}));
+        // Bytes are unsigned
+        assertTrue(CompareDataExecutor.compareValues(new byte[]{1, 2}, new byte[]{1, -1}) < 0);
+        assertTrue(CompareDataExecutor.compareValues(new byte[]{1, 2, 0}, new byte[]{1, 2}) > 0);
+        assertTrue(CompareDataExecutor.compareValues("abc", "abd") < 0);
+        assertTrue(CompareDataExecutor.compareValues("B", "a") < 0);
+        // Different types are compared as strings
+        assertEquals(0, CompareDataExecutor.compareValues("true", Boolean.TRUE));
+    }
+
+    @Test
+    public void testRowKeys() {
+        long time = 1500000000123L;
+        assertEquals(
+            CompareDataExecutor.makeRowKey(new Object[]{1, new java.sql.Date(time), new byte[]{1, 2}, "x"}, 3),
+            CompareDataExecutor.makeRowKey(new Object[]{new BigDecimal("1.00"), new Timestamp(time), new byte[]{1, 2}, "y"}, 3));
+        assertEquals(
+            CompareDataExecutor.makeRowKey(new Object[]{2.0d}, 1),
+            CompareDataExecutor.makeRowKey(new Object[]{2L}, 1));
+        assertEquals(
+            CompareDataExecutor.makeRowKey(new Object[]{null, "a"}, 2),
+            CompareDataExecutor.makeRowKey(new Object[]{null, "a"}, 2));
+        // Strings are matched exactly, whatever collation of database is
+        assertNotEquals(
+            CompareDataExecutor.makeRowKey(new Object[]{"a"}, 1),
+            CompareDataExecutor.makeRowKey(new Object[]{"A"}, 1));
+        assertNotEquals(
+            CompareDataExecutor.makeRowKey(new Object[]{"a "}, 1),
+            CompareDataExecutor.makeRowKey(new Object[]{"a"}, 1));
+    }
+
+    @Test
+    public void testEqualTables() throws Exception {
+        BucketExecutor executor = new BucketExecutor();
+        executor.fill(0, ROW_COUNT);
+        executor.compare();
+        assertTrue(executor.readRanges.isEmpty());
+        assertEquals(ROW_COUNT, executor.getRowsEqual());
+    }
+
+    @Test
+    public void testChangedRow() throws Exception {
+        BucketExecutor executor = new BucketExecutor();
+        executor.fill(0, ROW_COUNT);
+        executor.target.put(54321L, "changed");
+        executor.compare();
+        executor.checkRead(54321L);
+        // Only the differing bucket is read
+        assertEquals(1, executor.readRanges.size());
+        assertTrue(executor.rowsRead <= CompareDataExecutor.MAX_RANGE_ROWS_TO_READ);
+        assertEquals(ROW_COUNT, executor.getRowsEqual() + executor.rowsRead);
+    }
+
+    @Test
+    public void testMissingAndExtraRows() throws Exception {
+        BucketExecutor executor = new BucketExecutor();
+        executor.fill(-ROW_COUNT / 2, ROW_COUNT / 2);
+        for (long key = 100; key < 110; key++) {
+            executor.target.remove(key);
+        }
+        executor.target.remove((long) -ROW_COUNT / 2);
+        executor.target.put(ROW_COUNT / 2 + 100L, "extra");
+        executor.target.put(-7L, "changed");
+        executor.compare();
+        executor.checkRead(100L, 109L, -ROW_COUNT / 2, ROW_COUNT / 2 + 100L, -7L);
+        assertEquals(executor.source.size(), executor.getRowsEqual() + executor.readRows(executor.source));
+        assertEquals(executor.target.size(), executor.getRowsEqual() + executor.readRows(executor.target));
+    }
+
+    @Test
+    public void testEmptyBucketsAndSparseKeys() throws Exception {
+        BucketExecutor executor = new BucketExecutor();
+        // Two dense clusters, nothing between them
+        executor.fill(0, 5000);
+        executor.fill(1000000000000L, 1000000005000L);
+        executor.target.put(1000000004999L, "changed");
+        executor.target.put(500000000000L, "extra");
+        executor.compare();
+        executor.checkRead(1000000004999L, 500000000000L);
+        assertEquals(executor.source.size(), executor.getRowsEqual() + executor.readRows(executor.source));
+        assertTrue(executor.readRows(executor.source) <= 2 * CompareDataExecutor.MAX_RANGE_ROWS_TO_READ);
+    }
+
+    /**
+     * Executor over in-memory tables. Buckets are calculated like GROUP BY query does.
+     */
+    private static class BucketExecutor extends CompareDataExecutor {
+        final TreeMap<Long, String> source = new TreeMap<>();
+        final TreeMap<Long, String> target = new TreeMap<>();
+        final List<long[]> readRanges = new ArrayList<>();
+        long rowsRead;
+
+        BucketExecutor() {
+            super(null, null);
+        }
+
+        void fill(long lowKey, long highKey) {
+            for (long key = lowKey; key < highKey; key++) {
+                source.put(key, "value" + key);
+                target.put(key, "value" + key);
+            }
+        }
+
+        void compare() throws Exception {
+            long lowKey = Math.min(source.firstKey(), target.firstKey());
+            long highKey = Math.max(source.lastKey(), target.lastKey()) + 1;
+            compareRange(new VoidProgressMonitor(), lowKey, highKey, source.size(), target.size());
+        }
+
+        void checkRead(long... keys) {
+            for (long key : keys) {
+                boolean found = false;
+                for (long[] range : readRanges) {
+                    found |= key >= range[0] && key < range[1];
+                }
+                assertTrue("Key " + key + " was not compared", found);
+            }
+        }
+
+        long readRows(TreeMap<Long, String> table) {
+            long count = 0;
+            for (long[] range : readRanges) {
+                count += table.subMap(range[0], range[1]).size();
+            }
+            return count;
+        }
+
+        @Override
+        Pair<RangeHash[], RangeHash[]> readBuckets(long lowKey, long highKey, long step) {
+            return new Pair<>(makeBuckets(source, lowKey, highKey, step), makeBuckets(target, lowKey, highKey, step));
+        }
+
+        @Override
+        void compareRows(DBRProgressMonitor monitor, long[] keyRange) {
+            assertNotNull(keyRange);
+            for (long[] range : readRanges) {
+                assertTrue("Range is read twice", keyRange[1] <= range[0] || keyRange[0] >= range[1]);
+            }
+            readRanges.add(keyRange);
+            rowsRead += Math.max(source.subMap(keyRange[0], keyRange[1]).size(), target.subMap(keyRange[0], keyRange[1]).size());
+        }
+
+        private static RangeHash[] makeBuckets(TreeMap<Long, String> table, long lowKey, long highKey, long step) {
+            long[] counts = new long[CompareDataExecutor.BUCKET_COUNT];
+            long[] hashes = new long[CompareDataExecutor.BUCKET_COUNT];
+            for (Map.Entry<Long, String> row : table.subMap(lowKey, highKey).entrySet()) {
+                int bucket = (int) ((row.getKey() - lowKey) / step);
+                counts[bucket]++;
+                hashes[bucket] += row.getKey() * 31 + row.getValue().hashCode();
+            }
+            RangeHash[] buckets = new RangeHash[CompareDataExecutor.BUCKET_COUNT];
+            for (int i = 0; i < buckets.length; i++) {
+                if (counts[i] > 0) {
+                    buckets[i] = new RangeHash(counts[i], hashes[i]);
+                }
+            }
+            return buckets;
+        }
+    }
+
+}
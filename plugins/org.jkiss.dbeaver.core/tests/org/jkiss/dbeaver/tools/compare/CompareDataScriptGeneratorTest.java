@@ -0,0 +1,60 @@
+package org.jkiss.dbeaver.tools.compare;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks statements of data synchronization script
+ */
+public class CompareDataScriptGeneratorTest {
+
+    @Test
+    public void testInsert() throws Exception {
+        StringWriter writer = new StringWriter();
+        makeGenerator(writer, 1).rowMissing(new Object[]{1, "pen", null});
+        assertEquals("INSERT INTO s.items (id,name,price) VALUES (1,'pen',NULL);\n", writer.toString());
+    }
+
+    @Test
+    public void testDelete() throws Exception {
+        StringWriter writer = new StringWriter();
+        makeGenerator(writer, 2).rowExtra(new Object[]{1, "pen", 10});
+        assertEquals("DELETE FROM s.items WHERE id=1 AND name='pen';\n", writer.toString());
+    }
+
+    @Test
+    public void testUpdateChangedColumnsOnly() throws Exception {
+        StringWriter writer = new StringWriter();
+        CompareDataScriptGenerator generator = makeGenerator(writer, 1);
+        generator.rowChanged(new Object[]{1, "pen", new BigDecimal("10.50")}, new Object[]{1L, "Pen", 10.5d});
+        generator.rowChanged(new Object[]{2, null, 3}, new Object[]{2, "pencil", 3L});
+        assertEquals(
+            "UPDATE s.items SET name='pen' WHERE id=1;\n" +
+            "UPDATE s.items SET name=NULL WHERE id=2;\n",
+            writer.toString());
+    }
+
+    @Test
+    public void testUpdateUsesTargetKey() throws Exception {
+        StringWriter writer = new StringWriter();
+        // Keys are equal by value but have different types
+        makeGenerator(writer, 1).rowChanged(new Object[]{new BigDecimal("7.0"), "a", 1}, new Object[]{7L, "a", 2});
+        assertEquals("UPDATE s.items SET price=1 WHERE id=7;\n", writer.toString());
+    }
+
+    private static CompareDataScriptGenerator makeGenerator(StringWriter writer, int keyCount) {
+        CompareDataScriptGenerator generator = new CompareDataScriptGenerator(writer) {
+            @Override
+            String toSQL(int column, Object value) {
+                return value == null ? "NULL" : value instanceof String ? "'" + value + "'" : value.toString();
+            }
+        };
+        generator.init("s.items", new String[]{"id", "name", "price"}, keyCount, ";");
+        return generator;
+    }
+
+}
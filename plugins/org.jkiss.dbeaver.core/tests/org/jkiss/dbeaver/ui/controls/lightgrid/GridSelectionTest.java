@@ -0,0 +1,206 @@
+package org.jkiss.dbeaver.ui.controls.lightgrid;
+
+import org.jkiss.utils.primitive.IntBitmap;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks range based cell selection against a plain set of cells
+ */
+public class GridSelectionTest {
+
+    @Test
+    public void testRemoveSplitsRange() {
+        GridSelection selection = new GridSelection();
+        selection.addRange(0, 0, 9, 9);
+        // Hole in the middle leaves four pieces around it
+        selection.removeRange(3, 3, 5, 5);
+        assertEquals(91, selection.getCellCount());
+        assertEquals(4, selection.getRangeCount());
+        assertFalse(selection.contains(4, 4));
+        assertTrue(selection.contains(2, 4));
+        assertTrue(selection.contains(6, 4));
+        assertTrue(selection.contains(4, 2));
+        assertTrue(selection.contains(4, 6));
+
+        // Filling the hole merges pieces back
+        selection.addRange(3, 3, 5, 5);
+        assertEquals(100, selection.getCellCount());
+        assertEquals(1, selection.getRangeCount());
+    }
+
+    @Test
+    public void testAddMergesAdjacentCells() {
+        GridSelection selection = new GridSelection();
+        for (int col = 0; col < 5; col++) {
+            assertTrue(selection.add(new GridPos(col, 3)));
+        }
+        assertFalse(selection.add(new GridPos(2, 3)));
+        assertEquals(1, selection.getRangeCount());
+        // Row below with the same columns
+        selection.addRange(0, 4, 4, 4);
+        assertEquals(1, selection.getRangeCount());
+        assertEquals(10, selection.getCellCount());
+
+        assertTrue(selection.remove(new GridPos(0, 3)));
+        assertFalse(selection.remove(new GridPos(0, 3)));
+        assertFalse(selection.remove("0:3"));
+        assertEquals(9, selection.getCellCount());
+    }
+
+    @Test
+    public void testOverlappingRanges() {
+        GridSelection selection = new GridSelection();
+        selection.addRange(0, 0, 4, 4);
+        selection.addRange(2, 2, 6, 6);
+        assertEquals(25 + 25 - 9, selection.getCellCount());
+        // Empty rectangles are ignored
+        selection.addRange(5, 0, 4, 0);
+        selection.removeRange(0, 5, 0, 4);
+        assertEquals(41, selection.getCellCount());
+        selection.removeRange(Integer.MIN_VALUE, 3, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(15 + 2, selection.getCellCount());
+        assertEquals(new GridPos(0, 0), selection.getFirstCell());
+    }
+
+    @Test
+    public void testContainsAllAndEquals() {
+        GridSelection selection1 = new GridSelection();
+        selection1.addRange(0, 0, 3, 1);
+        GridSelection selection2 = new GridSelection();
+        // Same cells kept as different ranges
+        selection2.addRange(0, 0, 1, 1);
+        selection2.addRange(2, 1, 3, 1);
+        selection2.add(new GridPos(2, 0));
+        selection2.add(new GridPos(3, 0));
+        assertEquals(selection1, selection2);
+        assertEquals(selection1.hashCode(), selection2.hashCode());
+        assertTrue(selection1.containsAll(selection2));
+
+        GridSelection part = new GridSelection();
+        part.addRange(1, 0, 2, 1);
+        assertTrue(selection1.containsAll(part));
+        assertFalse(part.containsAll(selection1));
+        assertNotEquals(selection1, part);
+
+        // Same count, different cells
+        GridSelection shifted = new GridSelection();
+        shifted.addRange(1, 0, 4, 1);
+        assertFalse(selection1.containsAll(shifted));
+        assertNotEquals(selection1, shifted);
+
+        selection2.removeAll(part);
+        assertEquals(4, selection2.getCellCount());
+        selection2.addAll(part);
+        assertEquals(selection1, selection2);
+        assertEquals(selection1, new GridSelection(selection2));
+    }
+
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(12345);
+        GridSelection selection = new GridSelection();
+        TreeSet<GridPos> cells = new TreeSet<>(new GridPos.PosComparator());
+        for (int step = 0; step < 2000; step++) {
+            int col1 = random.nextInt(20), row1 = random.nextInt(30);
+            int col2 = col1 + random.nextInt(6), row2 = row1 + random.nextInt(8);
+            switch (random.nextInt(4)) {
+                case 0:
+                    selection.addRange(col1, row1, col2, row2);
+                    forEachCell(col1, row1, col2, row2, cells, true);
+                    break;
+                case 1:
+                    selection.removeRange(col1, row1, col2, row2);
+                    forEachCell(col1, row1, col2, row2, cells, false);
+                    break;
+                case 2:
+                    GridPos pos = new GridPos(col1, row1);
+                    assertEquals(cells.add(pos), selection.add(pos));
+                    break;
+                default:
+                    pos = new GridPos(col1, row1);
+                    assertEquals(cells.remove(pos), selection.remove(pos));
+                    break;
+            }
+            if (step % 50 == 0) {
+                checkSameCells(cells, selection);
+            }
+        }
+        checkSameCells(cells, selection);
+    }
+
+    @Test
+    public void testIterationOrder() {
+        GridSelection selection = new GridSelection();
+        TreeSet<GridPos> cells = new TreeSet<>(new GridPos.PosComparator());
+        // Ranges added in reverse order, interleaved by rows
+        selection.addRange(5, 10, 6, 12);
+        forEachCell(5, 10, 6, 12, cells, true);
+        selection.addRange(0, 11, 1, 11);
+        forEachCell(0, 11, 1, 11, cells, true);
+        selection.addRange(3, 2, 8, 4);
+        forEachCell(3, 2, 8, 4, cells, true);
+        selection.add(new GridPos(9, 0));
+        cells.add(new GridPos(9, 0));
+        checkSameCells(cells, selection);
+        assertEquals(new GridPos(9, 0), selection.getFirstCell());
+
+        Iterator<GridPos> iterator = new GridSelection().iterator();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testSelectedRowsAndColumns() {
+        GridSelection selection = new GridSelection();
+        selection.addRange(1, 2, 2, 3);
+        selection.addRange(5, 3, 5, 7);
+        assertTrue(selection.isRowSelected(7));
+        assertFalse(selection.isRowSelected(8));
+
+        IntBitmap rows = new IntBitmap();
+        selection.getSelectedRows(rows);
+        assertArrayEquals(new int[]{2, 3, 4, 5, 6, 7}, rows.toArray());
+
+        BitSet columns = new BitSet();
+        selection.getSelectedColumns(columns);
+        assertEquals("{1, 2, 5}", columns.toString());
+        columns.clear();
+        selection.getSelectedColumns(5, columns);
+        assertEquals("{5}", columns.toString());
+    }
+
+    private static void forEachCell(int col1, int row1, int col2, int row2, TreeSet<GridPos> cells, boolean add) {
+        for (int row = row1; row <= row2; row++) {
+            for (int col = col1; col <= col2; col++) {
+                if (add) {
+                    cells.add(new GridPos(col, row));
+                } else {
+                    cells.remove(new GridPos(col, row));
+                }
+            }
+        }
+    }
+
+    private static void checkSameCells(TreeSet<GridPos> cells, GridSelection selection) {
+        assertEquals(cells.size(), selection.getCellCount());
+        List<GridPos> iterated = new ArrayList<>();
+        for (GridPos pos : selection) {
+            iterated.add(pos);
+        }
+        // Same cells in the same order
+        assertEquals(new ArrayList<>(cells), iterated);
+        for (GridPos pos : cells) {
+            assertTrue(selection.contains(pos));
+        }
+        assertEquals(cells.isEmpty() ? null : cells.first(), selection.getFirstCell());
+    }
+
+}
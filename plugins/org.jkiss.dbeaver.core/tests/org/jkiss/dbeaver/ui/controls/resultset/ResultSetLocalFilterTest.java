@@ -0,0 +1,132 @@
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.exec.DBCLogicalOperator;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.util.BitSet;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that client-side filter falls back to the server when result may depend on collation or value types
+ */
+public class ResultSetLocalFilterTest {
+
+    @Test
+    public void testCollationIndependentStrings() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {"apple", "pear", null, "plum", "apple"});
+        assertEquals(bits(0, 4), column.getEquals("apple"));
+        assertEquals(bits(), column.getEquals("cherry"));
+        assertEquals(bits(1, 3), column.getLike("p%"));
+    }
+
+    @Test
+    public void testCaseSensitiveStrings() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {"Apple", "apple", "pear"});
+        // Case insensitive collation would match both rows
+        assertNull(column.getEquals("apple"));
+        assertNull(column.getEquals("APPLE"));
+        assertNull(column.getLike("a%"));
+        assertEquals(bits(2), column.getEquals("pear"));
+        assertEquals(bits(2), column.getLike("p%"));
+    }
+
+    @Test
+    public void testAccentsAndTrailingSpaces() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {"cafe", "caf\u00e9", "tea ", "milk"});
+        assertNull(column.getEquals("cafe"));
+        assertNull(column.getLike("cafe%"));
+        // Any collation matches both rows
+        assertEquals(bits(0, 1), column.getLike("caf_"));
+        // PAD SPACE collations ignore trailing spaces
+        assertNull(column.getEquals("tea"));
+        assertEquals(bits(3), column.getEquals("milk"));
+    }
+
+    @Test
+    public void testHighCardinalityStrings() {
+        Object[] values = new Object[3000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = "value" + i;
+        }
+        values[10] = "VALUE5";
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(values);
+        assertEquals(bits(7), column.getEquals("value7"));
+        assertNull(column.getEquals("value5"));
+    }
+
+    @Test
+    public void testStringRangesUseServer() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {"a", "B", "c"});
+        assertNull(column.getRange(DBCLogicalOperator.GREATER, "a"));
+    }
+
+    @Test
+    public void testNumberTypes() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {1, 2L, 3, null, 2});
+        assertEquals(bits(1, 4), column.getEquals(2L));
+        assertEquals(bits(1, 4), column.getEquals(2));
+        assertEquals(bits(2), column.getRange(DBCLogicalOperator.GREATER, 2.5d));
+        // Strings are not compared with numbers
+        assertNull(column.getEquals("2"));
+    }
+
+    @Test
+    public void testDateTypes() {
+        long time = 1500000000000L;
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {new Timestamp(time), new Timestamp(time + 1000)});
+        assertEquals(bits(0), column.getEquals(new Timestamp(time)));
+        // java.util.Date is never equal to Timestamp in Java
+        assertNull(column.getEquals(new Date(time)));
+        assertNull(column.getRange(DBCLogicalOperator.LESS, new Date(time + 1000)));
+    }
+
+    @Test
+    public void testMixedTypes() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {"1", 1, null});
+        assertNull(column.getEquals(1));
+        assertNull(column.getLike("1%"));
+        assertEquals(bits(2), column.getNulls());
+    }
+
+    @Test
+    public void testNonFiniteNumbers() {
+        ResultSetLocalFilter.ColumnIndex column = new ResultSetLocalFilter.ColumnIndex(
+            new Object[] {1.5d, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, null});
+        // Integer value is compared with doubles which have no BigDecimal form
+        assertEquals(bits(0, 1, 2), column.getRange(DBCLogicalOperator.GREATER, 1));
+        assertEquals(bits(3), column.getRange(DBCLogicalOperator.LESS, 0L));
+        assertEquals(bits(1), column.getEquals(Double.NaN));
+    }
+
+    @Test
+    public void testCustomOrderUsesServer() {
+        DBDDataFilter filter = new DBDDataFilter();
+        assertTrue(ResultSetLocalFilter.isSameOrdering(filter, null));
+        assertTrue(ResultSetLocalFilter.isSameOrdering(filter, new DBDDataFilter()));
+
+        DBDDataFilter orderedFilter = new DBDDataFilter();
+        orderedFilter.setOrder("name COLLATE \"C\"");
+        // Rows were ordered by the custom ORDER BY
+        assertFalse(ResultSetLocalFilter.isSameOrdering(filter, orderedFilter));
+    }
+
+    private static BitSet bits(int... indexes) {
+        BitSet result = new BitSet();
+        for (int index : indexes) {
+            result.set(index);
+        }
+        return result;
+    }
+
+}
@@ -45,6 +45,7 @@ import java.io.IOException;
 import java.io.Reader;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -72,7 +73,9 @@ public class DataExporterXLSX extends StreamExporterAbstract {
     private static final String PROP_SPLIT_BYROWCOUNT = "splitByRowCount";
     private static final String PROP_SPLIT_BYCOL = "splitByColNum";
 
-    private static final int EXCEL2007MAXROWS = 1048575;
+    private static final String PROP_STREAMING = "streaming";
+
+    private static final int EXCEL2007MAXROWS = 1048576;
     private boolean showDescription;
 
     enum FontStyleProp {NONE, BOLD, ITALIC, STRIKEOUT, UNDERLINE}
@@ -102,6 +105,9 @@ public class DataExporterXLSX extends StreamExporterAbstract {
 
     private HashMap<Object, Worksheet> worksheets;
 
+    // Used instead of workbook in streaming mode
+    private XLSXStreamWriter streamWriter;
+
     public static Map<Object, Object> getDefaultProperties() {
         Map<Object, Object> properties = new HashMap<>();
         properties.put(DataExporterXLSX.PROP_ROWNUMBER, false);
@@ -115,6 +121,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         properties.put(DataExporterXLSX.PROP_SPLIT_SQLTEXT, false);
         properties.put(DataExporterXLSX.PROP_SPLIT_BYROWCOUNT, EXCEL2007MAXROWS);
         properties.put(DataExporterXLSX.PROP_SPLIT_BYCOL, 0);
+        properties.put(DataExporterXLSX.PROP_STREAMING, false);
         return properties;
     }
 
@@ -173,13 +180,12 @@ public class DataExporterXLSX extends StreamExporterAbstract {
             splitByCol = -1;
         }
 
-
-        wb = new SXSSFWorkbook(ROW_WINDOW);
-
-        worksheets = new HashMap<>(1);
-
-        styleHeader = (XSSFCellStyle) wb.createCellStyle();
-
+        boolean streaming;
+        try {
+            streaming = (Boolean) site.getProperties().get(PROP_STREAMING);
+        } catch (Exception e) {
+            streaming = false;
+        }
 
         BorderStyle border;
 
@@ -205,6 +211,23 @@ public class DataExporterXLSX extends StreamExporterAbstract {
 
         }
 
+        this.rowCount = 0;
+
+        if (streaming && splitByCol <= 0) {
+            // Grouping by column value needs several open sheets, it is supported by POI workbook only
+            streamWriter = new XLSXStreamWriter(
+                site.getOutputStream(),
+                border == BorderStyle.NONE ? null : border.name().toLowerCase(Locale.ENGLISH),
+                getHeaderFontElement(fontStyle));
+            super.init(site);
+            return;
+        }
+
+        wb = new SXSSFWorkbook(ROW_WINDOW);
+
+        worksheets = new HashMap<>(1);
+
+        styleHeader = (XSSFCellStyle) wb.createCellStyle();
 
         styleHeader.setBorderTop(border);
         styleHeader.setBorderBottom(border);
@@ -242,13 +265,32 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         style.setBorderBottom(border);
         style.setBorderLeft(border);
         style.setBorderRight(border);
-        this.rowCount = 0;
 
         super.init(site);
     }
 
+    private static String getHeaderFontElement(FontStyleProp fontStyle) {
+        switch (fontStyle) {
+            case BOLD:
+                return "<b/>";
+            case ITALIC:
+                return "<i/>";
+            case STRIKEOUT:
+                return "<strike/>";
+            case UNDERLINE:
+                return "<u val=\"singleAccounting\"/>";
+            default:
+                return "";
+        }
+    }
+
     @Override
     public void dispose() {
+        if (streamWriter != null) {
+            disposeStreaming();
+            super.dispose();
+            return;
+        }
 
         try {
             if (exportSql) {
@@ -290,6 +332,25 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         super.dispose();
     }
 
+    private void disposeStreaming() {
+        try {
+            if (exportSql) {
+                streamWriter.startSheet();
+                String sqlText = getSite().getSource().getName();
+                String[] lines = splitSqlText ? sqlText.split("\n", XLSXStreamWriter.MAX_SHEET_ROWS) : new String[] { sqlText };
+                for (String line : lines) {
+                    streamWriter.startRow();
+                    streamWriter.addString(line, XLSXStreamWriter.STYLE_DEFAULT);
+                    streamWriter.endRow();
+                }
+            }
+            streamWriter.finish();
+        } catch (IOException e) {
+            log.error("Dispose error", e);
+        }
+        streamWriter = null;
+    }
+
     @Override
     public void exportHeader(DBCSession session) throws DBException, IOException {
 
@@ -297,9 +358,9 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         showDescription = session.getDataSource().getContainer().getPreferenceStore().getBoolean(DBeaverPreferences.RESULT_SET_SHOW_DESCRIPTION);
     }
 
-    private void printHeader(DBCResultSet resultSet, Worksheet wsh) throws DBException {
+    private boolean readDescriptions(DBCResultSet resultSet) throws DBException {
         boolean hasDescription = false;
-        if (showDescription) {
+        if (showDescription && resultSet != null) {
             // Read bindings to extract column descriptions
             boolean bindingsOk = true;
             DBDAttributeBindingMeta[] bindings = new DBDAttributeBindingMeta[columns.size()];
@@ -326,20 +387,31 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 }
             }
         }
+        return hasDescription;
+    }
+
+    private static String getColumnName(DBDAttributeBinding column) {
+        String colName = column.getLabel();
+        if (CommonUtils.isEmpty(colName)) {
+            colName = column.getName();
+        }
+        return colName;
+    }
+
+    private void printHeader(DBCResultSet resultSet, Worksheet wsh) throws DBException {
+        boolean hasDescription = readDescriptions(resultSet);
 
         SXSSFSheet  sh = (SXSSFSheet)wsh.getSh();
         Row row = sh.createRow(wsh.getCurrentRow());
 
         int startCol = rowNumber ? 1 : 0;
 
+        // Column widths are estimated from header lengths. autoSizeColumn does the same
+        // (only header rows are in memory at this point) but it lays out text with AWT fonts which is very slow.
+        int[] widths = new int[columns.size()];
         for (int i = 0, columnsSize = columns.size(); i < columnsSize; i++) {
-            sh.trackColumnForAutoSizing(i);
-            DBDAttributeBinding column = columns.get(i);
-
-            String colName = column.getLabel();
-            if (CommonUtils.isEmpty(colName)) {
-                colName = column.getName();
-            }
+            String colName = getColumnName(columns.get(i));
+            widths[i] = colName.length();
             Cell cell = row.createCell(i + startCol, CellType.STRING);
             cell.setCellValue(colName);
             cell.setCellStyle(styleHeader);
@@ -354,20 +426,61 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 if (CommonUtils.isEmpty(description)) {
                     description = "";
                 }
+                widths[i] = Math.max(widths[i], description.length());
                 descCell.setCellValue(description);
                 descCell.setCellStyle(styleHeader);
             }
         }
 
-        for (int i = 0, columnsSize = columns.size(); i < columnsSize; i++) {
-            sh.autoSizeColumn(i);
+        for (int i = 0; i < widths.length; i++) {
+            // Width is in 1/256 of a character, Excel allows 255 characters at most
+            sh.setColumnWidth(i + startCol, Math.min(widths[i] + 2, 255) * 256);
         }
 
         wsh.incRow();
     }
 
 
-    private void writeCellValue(Cell cell, Reader reader) throws IOException {
+    private void printStreamHeader(DBCResultSet resultSet) throws DBException, IOException {
+        boolean hasDescription = readDescriptions(resultSet);
+
+        streamWriter.startRow();
+        if (rowNumber) {
+            streamWriter.addEmpty(XLSXStreamWriter.STYLE_DEFAULT);
+        }
+        for (DBDAttributeBinding column : columns) {
+            streamWriter.addString(getColumnName(column), XLSXStreamWriter.STYLE_HEADER);
+        }
+        streamWriter.endRow();
+
+        if (hasDescription) {
+            streamWriter.startRow();
+            if (rowNumber) {
+                streamWriter.addEmpty(XLSXStreamWriter.STYLE_DEFAULT);
+            }
+            for (DBDAttributeBinding column : columns) {
+                streamWriter.addString(CommonUtils.notEmpty(column.getDescription()), XLSXStreamWriter.STYLE_HEADER);
+            }
+            streamWriter.endRow();
+        }
+    }
+
+    private String getContentString(DBCSession session, DBDContent content) throws DBException, IOException {
+        try {
+            DBDContentStorage cs = content.getContents(session.getProgressMonitor());
+            if (cs == null) {
+                return DBConstants.NULL_VALUE_LABEL;
+            } else if (ContentUtils.isTextContent(content)) {
+                return readContent(cs.getContentReader());
+            } else {
+                return BINARY_FIXED;
+            }
+        } finally {
+            content.release();
+        }
+    }
+
+    private String readContent(Reader reader) throws IOException {
         try {
             StringBuilder sb = new StringBuilder();
             char buffer[] = new char[2000];
@@ -379,7 +492,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                 sb.append(buffer, 0, count);
             }
 
-            cell.setCellValue(sb.toString());
+            return sb.toString();
 
         } finally {
             ContentUtils.close(reader);
@@ -414,6 +527,11 @@ public class DataExporterXLSX extends StreamExporterAbstract {
     public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row)
         throws DBException, IOException {
 
+        if (streamWriter != null) {
+            exportStreamRow(session, resultSet, row);
+            return;
+        }
+
         Worksheet wsh = getWsh(resultSet, row);
 
         Row rowX = wsh.getSh().createRow(wsh.getCurrentRow());
@@ -424,7 +542,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
 
             Cell cell = rowX.createCell(startCol, CellType.NUMERIC);
             cell.setCellStyle(style);
-            cell.setCellValue(String.valueOf(wsh.getCurrentRow()));
+            cell.setCellValue(wsh.getCurrentRow());
             startCol++;
         }
 
@@ -440,19 +558,7 @@ public class DataExporterXLSX extends StreamExporterAbstract {
                     cell.setCellValue("");
                 }
             } else if (row[i] instanceof DBDContent) {
-                DBDContent content = (DBDContent) row[i];
-                try {
-                    DBDContentStorage cs = content.getContents(session.getProgressMonitor());
-                    if (cs == null) {
-                        cell.setCellValue(DBConstants.NULL_VALUE_LABEL);
-                    } else if (ContentUtils.isTextContent(content)) {
-                        writeCellValue(cell, cs.getContentReader());
-                    } else {
-                        cell.setCellValue(BINARY_FIXED);
-                    }
-                } finally {
-                    content.release();
-                }
+                cell.setCellValue(getContentString(session, (DBDContent) row[i]));
             } else if (row[i] instanceof Boolean) {
 
                 if (booleRedefined) {
@@ -476,6 +582,47 @@ public class DataExporterXLSX extends StreamExporterAbstract {
         rowCount++;
     }
 
+    private void exportStreamRow(DBCSession session, DBCResultSet resultSet, Object[] row)
+        throws DBException, IOException {
+
+        int maxRows = splitByRowCount > 0 ? Math.min(splitByRowCount, XLSXStreamWriter.MAX_SHEET_ROWS) : XLSXStreamWriter.MAX_SHEET_ROWS;
+        if (!streamWriter.isSheetOpen() || streamWriter.getSheetRows() >= maxRows) {
+            streamWriter.startSheet();
+            if (printHeader) {
+                printStreamHeader(resultSet);
+            }
+        }
+
+        streamWriter.startRow();
+        if (rowNumber) {
+            streamWriter.addNumber(streamWriter.getSheetRows(), XLSXStreamWriter.STYLE_CELL);
+        }
+        for (int i = 0; i < row.length; i++) {
+            Object value = row[i];
+            if (DBUtils.isNullValue(value)) {
+                if (!CommonUtils.isEmpty(nullString)) {
+                    streamWriter.addString(nullString, XLSXStreamWriter.STYLE_CELL);
+                } else {
+                    streamWriter.addEmpty(XLSXStreamWriter.STYLE_CELL);
+                }
+            } else if (value instanceof DBDContent) {
+                streamWriter.addString(getContentString(session, (DBDContent) value), XLSXStreamWriter.STYLE_CELL);
+            } else if (value instanceof Boolean) {
+                if (booleRedefined) {
+                    streamWriter.addString((Boolean) value ? boolTrue : boolFalse, XLSXStreamWriter.STYLE_CELL);
+                } else {
+                    streamWriter.addBoolean((Boolean) value, XLSXStreamWriter.STYLE_CELL);
+                }
+            } else if (value instanceof Number) {
+                streamWriter.addNumber((Number) value, XLSXStreamWriter.STYLE_CELL);
+            } else {
+                streamWriter.addString(super.getValueDisplayString(columns.get(i), value), XLSXStreamWriter.STYLE_CELL);
+            }
+        }
+        streamWriter.endRow();
+        rowCount++;
+    }
+
     private CellType getCellType(DBDAttributeBinding column) {
         switch (column.getDataKind()) {
             case NUMERIC:
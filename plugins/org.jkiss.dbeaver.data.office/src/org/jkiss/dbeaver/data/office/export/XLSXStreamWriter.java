@@ -0,0 +1,366 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.export;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Writes XLSX file directly, without Apache POI object model.
+ *
+ * Sheet XML is streamed into the zip entry right away. Strings are written inline (there is no shared strings
+ * table which would have to be kept in memory), all cells use one of a few fixed styles.
+ * Column widths are estimated from value lengths of the first rows of each sheet - these rows are buffered
+ * until widths are known. So memory usage doesn't depend on the number of rows.
+ * Sheets are written one after another, only the last started sheet is open.
+ */
+class XLSXStreamWriter {
+
+    static final int MAX_SHEET_ROWS = 1048576;
+
+    static final int STYLE_DEFAULT = 0;
+    static final int STYLE_CELL = 1;
+    static final int STYLE_HEADER = 2;
+
+    private static final int MAX_CELL_LENGTH = 32767;
+    private static final int SAMPLE_ROWS = 100;
+    private static final int MIN_COLUMN_WIDTH = 8;
+    private static final int MAX_COLUMN_WIDTH = 80;
+    // Integers which are stored in double exactly
+    private static final long MAX_EXACT_INTEGER = 1L << 53;
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String NS_DOC_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final ZipOutputStream zip;
+    private final Writer writer;
+    private final String borderStyle;
+    private final String headerFont;
+    private final List<String> sheetNames = new ArrayList<>();
+    private final List<String> columnRefs = new ArrayList<>();
+
+    private boolean sheetOpen;
+    private int sheetRows;
+    private StringBuilder sampleRows;
+    private int[] columnWidths = new int[0];
+    private final StringBuilder row = new StringBuilder(1024);
+    private int cellIndex;
+
+    /**
+     * @param borderStyle cell border style name (see ST_BorderStyle) or null for no borders
+     * @param headerFont  header font elements (e.g. "&lt;b/&gt;") or empty string
+     */
+    XLSXStreamWriter(OutputStream out, String borderStyle, String headerFont)
+    {
+        this.zip = new ZipOutputStream(out);
+        this.writer = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.borderStyle = borderStyle;
+        this.headerFont = headerFont;
+    }
+
+    /**
+     * Finishes the current sheet (if any) and starts a new one
+     */
+    void startSheet() throws IOException
+    {
+        endSheet();
+        sheetNames.add("Sheet" + sheetNames.size());
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetNames.size() + ".xml"));
+        sheetOpen = true;
+        sheetRows = 0;
+        sampleRows = new StringBuilder();
+        Arrays.fill(columnWidths, 0);
+    }
+
+    boolean isSheetOpen()
+    {
+        return sheetOpen;
+    }
+
+    /**
+     * Number of rows in the current sheet
+     */
+    int getSheetRows()
+    {
+        return sheetRows;
+    }
+
+    void startRow()
+    {
+        row.setLength(0);
+        row.append("<row r=\"").append(sheetRows + 1).append("\">");
+        cellIndex = 0;
+    }
+
+    void endRow() throws IOException
+    {
+        row.append("</row>");
+        sheetRows++;
+        if (sampleRows != null) {
+            sampleRows.append(row);
+            if (sheetRows >= SAMPLE_ROWS) {
+                writeSheetStart();
+            }
+        } else {
+            writer.append(row);
+        }
+    }
+
+    void addString(String value, int style)
+    {
+        if (value.length() > MAX_CELL_LENGTH) {
+            // Excel limit
+            value = value.substring(0, MAX_CELL_LENGTH);
+        }
+        sampleLength(value.length());
+        startCell(style).append(" t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        appendXml(row, value);
+        row.append("</t></is></c>");
+        cellIndex++;
+    }
+
+    void addNumber(Number value, int style)
+    {
+        double doubleValue = value.doubleValue();
+        if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+            addString(value.toString(), style);
+            return;
+        }
+        String text;
+        if ((value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof BigInteger) &&
+            Math.abs(doubleValue) < MAX_EXACT_INTEGER)
+        {
+            text = Long.toString(value.longValue());
+        } else {
+            text = Double.toString(doubleValue);
+        }
+        sampleLength(text.length());
+        startCell(style).append("><v>").append(text).append("</v></c>");
+        cellIndex++;
+    }
+
+    void addBoolean(boolean value, int style)
+    {
+        sampleLength(5);
+        startCell(style).append(" t=\"b\"><v>").append(value ? '1' : '0').append("</v></c>");
+        cellIndex++;
+    }
+
+    void addEmpty(int style)
+    {
+        startCell(style).append("/>");
+        cellIndex++;
+    }
+
+    /**
+     * Finishes the last sheet and writes workbook parts. Doesn't close the underlying stream.
+     */
+    void finish() throws IOException
+    {
+        if (sheetNames.isEmpty()) {
+            // Workbook must have at least one sheet
+            startSheet();
+        }
+        endSheet();
+
+        StringBuilder xml = new StringBuilder(XML_HEADER);
+        xml.append("<workbook xmlns=\"").append(NS_MAIN).append("\" xmlns:r=\"").append(NS_DOC_RELATIONSHIPS).append("\"><sheets>");
+        for (int i = 0; i < sheetNames.size(); i++) {
+            xml.append("<sheet name=\"").append(sheetNames.get(i)).append("\" sheetId=\"").append(i + 1).append("\" r:id=\"rId").append(i + 1).append("\"/>");
+        }
+        xml.append("</sheets></workbook>");
+        writeEntry("xl/workbook.xml", xml);
+
+        xml = new StringBuilder(XML_HEADER);
+        xml.append("<Relationships xmlns=\"").append(NS_RELATIONSHIPS).append("\">");
+        for (int i = 0; i < sheetNames.size(); i++) {
+            xml.append("<Relationship Id=\"rId").append(i + 1).append("\" Type=\"").append(NS_DOC_RELATIONSHIPS)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(i + 1).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetNames.size() + 1).append("\" Type=\"").append(NS_DOC_RELATIONSHIPS)
+            .append("/styles\" Target=\"styles.xml\"/>");
+        xml.append("</Relationships>");
+        writeEntry("xl/_rels/workbook.xml.rels", xml);
+
+        writeEntry("xl/styles.xml", makeStyles());
+
+        xml = new StringBuilder(XML_HEADER);
+        xml.append("<Relationships xmlns=\"").append(NS_RELATIONSHIPS).append("\">");
+        xml.append("<Relationship Id=\"rId1\" Type=\"").append(NS_DOC_RELATIONSHIPS).append("/officeDocument\" Target=\"xl/workbook.xml\"/>");
+        xml.append("</Relationships>");
+        writeEntry("_rels/.rels", xml);
+
+        xml = new StringBuilder(XML_HEADER);
+        xml.append("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">");
+        xml.append("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>");
+        xml.append("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+        xml.append("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+        for (int i = 0; i < sheetNames.size(); i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i + 1)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        xml.append("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        xml.append("</Types>");
+        writeEntry("[Content_Types].xml", xml);
+
+        zip.finish();
+    }
+
+    private void endSheet() throws IOException
+    {
+        if (!sheetOpen) {
+            return;
+        }
+        if (sampleRows != null) {
+            writeSheetStart();
+        }
+        writer.write("</sheetData></worksheet>");
+        writer.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    /**
+     * Writes sheet header with estimated column widths and buffered rows
+     */
+    private void writeSheetStart() throws IOException
+    {
+        writer.write(XML_HEADER);
+        writer.write("<worksheet xmlns=\"" + NS_MAIN + "\">");
+        boolean hasColumns = false;
+        for (int i = 0; i < columnWidths.length; i++) {
+            if (columnWidths[i] == 0) {
+                continue;
+            }
+            if (!hasColumns) {
+                writer.write("<cols>");
+                hasColumns = true;
+            }
+            int width = Math.max(MIN_COLUMN_WIDTH, Math.min(MAX_COLUMN_WIDTH, columnWidths[i] + 2));
+            writer.write("<col min=\"" + (i + 1) + "\" max=\"" + (i + 1) + "\" width=\"" + width + "\" customWidth=\"1\"/>");
+        }
+        if (hasColumns) {
+            writer.write("</cols>");
+        }
+        writer.write("<sheetData>");
+        writer.append(sampleRows);
+        sampleRows = null;
+    }
+
+    private void sampleLength(int length)
+    {
+        if (sampleRows == null) {
+            return;
+        }
+        if (cellIndex >= columnWidths.length) {
+            columnWidths = Arrays.copyOf(columnWidths, cellIndex + 1);
+        }
+        if (length > columnWidths[cellIndex]) {
+            columnWidths[cellIndex] = length;
+        }
+    }
+
+    private StringBuilder startCell(int style)
+    {
+        row.append("<c r=\"").append(getColumnRef(cellIndex)).append(sheetRows + 1).append('"');
+        if (style != STYLE_DEFAULT) {
+            row.append(" s=\"").append(style).append('"');
+        }
+        return row;
+    }
+
+    private String getColumnRef(int index)
+    {
+        while (columnRefs.size() <= index) {
+            int number = columnRefs.size() + 1;
+            StringBuilder ref = new StringBuilder();
+            while (number > 0) {
+                number--;
+                ref.insert(0, (char) ('A' + number % 26));
+                number /= 26;
+            }
+            columnRefs.add(ref.toString());
+        }
+        return columnRefs.get(index);
+    }
+
+    private CharSequence makeStyles()
+    {
+        String border = borderStyle == null ?
+            "<border><left/><right/><top/><bottom/><diagonal/></border>" :
+            "<border>" +
+                "<left style=\"" + borderStyle + "\"><color auto=\"1\"/></left>" +
+                "<right style=\"" + borderStyle + "\"><color auto=\"1\"/></right>" +
+                "<top style=\"" + borderStyle + "\"><color auto=\"1\"/></top>" +
+                "<bottom style=\"" + borderStyle + "\"><color auto=\"1\"/></bottom>" +
+                "<diagonal/></border>";
+        return XML_HEADER +
+            "<styleSheet xmlns=\"" + NS_MAIN + "\">" +
+            "<fonts count=\"2\">" +
+            "<font><sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>" +
+            "<font>" + headerFont + "<sz val=\"11\"/><name val=\"Calibri\"/><family val=\"2\"/></font>" +
+            "</fonts>" +
+            "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>" +
+            "<borders count=\"2\"><border><left/><right/><top/><bottom/><diagonal/></border>" + border + "</borders>" +
+            "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>" +
+            "<cellXfs count=\"3\">" +
+            "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>" +
+            "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyBorder=\"1\"/>" +
+            "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"1\" xfId=\"0\" applyFont=\"1\" applyBorder=\"1\"/>" +
+            "</cellXfs>" +
+            "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>" +
+            "</styleSheet>";
+    }
+
+    private void writeEntry(String name, CharSequence content) throws IOException
+    {
+        zip.putNextEntry(new ZipEntry(name));
+        writer.append(content);
+        writer.flush();
+        zip.closeEntry();
+    }
+
+    private static void appendXml(StringBuilder out, String text)
+    {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': out.append("&amp;"); break;
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '"': out.append("&quot;"); break;
+                default:
+                    if ((c < 0x20 && c != '\t' && c != '\n' && c != '\r') || c == 0xFFFE || c == 0xFFFF) {
+                        // Not allowed in XML. Excel escape.
+                        out.append("_x").append(String.format("%04X", (int) c)).append('_');
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,153 @@
+package org.jkiss.dbeaver.data.office.export;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that streamed XLSX parts are well-formed and cells have proper references and values.
+ */
+public class XLSXStreamWriterTest {
+
+    private static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    // More rows than the writer buffers to estimate column widths
+    private static final int SECOND_SHEET_ROWS = 150;
+
+    @Test
+    public void testWorkbookParts() throws Exception {
+        Map<String, Document> parts = parseParts(writeWorkbook());
+
+        assertTrue(parts.containsKey("[Content_Types].xml"));
+        assertTrue(parts.containsKey("_rels/.rels"));
+        assertTrue(parts.containsKey("xl/_rels/workbook.xml.rels"));
+        assertTrue(parts.containsKey("xl/styles.xml"));
+        assertTrue(parts.containsKey("xl/worksheets/sheet1.xml"));
+        assertTrue(parts.containsKey("xl/worksheets/sheet2.xml"));
+
+        NodeList sheets = parts.get("xl/workbook.xml").getElementsByTagNameNS(NS_MAIN, "sheet");
+        assertEquals(2, sheets.getLength());
+    }
+
+    @Test
+    public void testCellValues() throws Exception {
+        Document sheet = parseParts(writeWorkbook()).get("xl/worksheets/sheet1.xml");
+        NodeList rows = sheet.getElementsByTagNameNS(NS_MAIN, "row");
+        assertEquals(2, rows.getLength());
+
+        Element valueRow = (Element) rows.item(1);
+        NodeList cells = valueRow.getElementsByTagNameNS(NS_MAIN, "c");
+        assertEquals("a&b<c>\"d", getCellText((Element) cells.item(0)));
+        // Control characters are not allowed in XML and are escaped the way Excel does
+        assertEquals("x_x0001_y_x001F_z\tw", getCellText((Element) cells.item(1)));
+        assertEquals("NaN", getCellText((Element) cells.item(2)));
+        assertEquals("inlineStr", ((Element) cells.item(2)).getAttribute("t"));
+        assertEquals("Infinity", getCellText((Element) cells.item(3)));
+        assertEquals("42", getCellValue((Element) cells.item(4)));
+        // Longs which don't fit in double mantissa are written as doubles
+        assertEquals((double) Long.MAX_VALUE, Double.parseDouble(getCellValue((Element) cells.item(5))), 0);
+        assertEquals("1.5", getCellValue((Element) cells.item(6)));
+        assertEquals("1", getCellValue((Element) cells.item(7)));
+        assertEquals("b", ((Element) cells.item(7)).getAttribute("t"));
+        assertFalse(((Element) cells.item(8)).hasChildNodes());
+    }
+
+    @Test
+    public void testCellReferences() throws Exception {
+        Map<String, Document> parts = parseParts(writeWorkbook());
+        for (int sheetNumber = 1; sheetNumber <= 2; sheetNumber++) {
+            NodeList rows = parts.get("xl/worksheets/sheet" + sheetNumber + ".xml").getElementsByTagNameNS(NS_MAIN, "row");
+            for (int i = 0; i < rows.getLength(); i++) {
+                Element row = (Element) rows.item(i);
+                // Each sheet starts from the first row
+                assertEquals(String.valueOf(i + 1), row.getAttribute("r"));
+                NodeList cells = row.getElementsByTagNameNS(NS_MAIN, "c");
+                for (int k = 0; k < cells.getLength(); k++) {
+                    assertEquals(getColumnName(k) + (i + 1), ((Element) cells.item(k)).getAttribute("r"));
+                }
+            }
+        }
+        NodeList rows = parts.get("xl/worksheets/sheet2.xml").getElementsByTagNameNS(NS_MAIN, "row");
+        assertEquals(SECOND_SHEET_ROWS, rows.getLength());
+        NodeList lastCells = ((Element) rows.item(SECOND_SHEET_ROWS - 1)).getElementsByTagNameNS(NS_MAIN, "c");
+        assertEquals("AD" + SECOND_SHEET_ROWS, ((Element) lastCells.item(29)).getAttribute("r"));
+    }
+
+    private static byte[] writeWorkbook() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        XLSXStreamWriter writer = new XLSXStreamWriter(out, "thin", "<b/>");
+
+        writer.startSheet();
+        writer.startRow();
+        for (int i = 0; i < 9; i++) {
+            writer.addString("Column" + i, XLSXStreamWriter.STYLE_HEADER);
+        }
+        writer.endRow();
+        writer.startRow();
+        writer.addString("a&b<c>\"d", XLSXStreamWriter.STYLE_CELL);
+        writer.addString("x\u0001y\u001Fz\tw", XLSXStreamWriter.STYLE_CELL);
+        writer.addNumber(Double.NaN, XLSXStreamWriter.STYLE_CELL);
+        writer.addNumber(Double.POSITIVE_INFINITY, XLSXStreamWriter.STYLE_CELL);
+        writer.addNumber(42L, XLSXStreamWriter.STYLE_CELL);
+        writer.addNumber(Long.MAX_VALUE, XLSXStreamWriter.STYLE_CELL);
+        writer.addNumber(1.5, XLSXStreamWriter.STYLE_CELL);
+        writer.addBoolean(true, XLSXStreamWriter.STYLE_CELL);
+        writer.addEmpty(XLSXStreamWriter.STYLE_CELL);
+        writer.endRow();
+
+        // Split
+        writer.startSheet();
+        for (int i = 0; i < SECOND_SHEET_ROWS; i++) {
+            writer.startRow();
+            for (int k = 0; k < 30; k++) {
+                writer.addNumber(i * 30 + k, XLSXStreamWriter.STYLE_DEFAULT);
+            }
+            writer.endRow();
+        }
+        writer.finish();
+        return out.toByteArray();
+    }
+
+    private static Map<String, Document> parseParts(byte[] workbook) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        Map<String, Document> parts = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(workbook))) {
+            for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                for (int count = zip.read(buffer); count > 0; count = zip.read(buffer)) {
+                    content.write(buffer, 0, count);
+                }
+                // Throws an exception if part is not a well-formed XML
+                parts.put(entry.getName(), factory.newDocumentBuilder().parse(new ByteArrayInputStream(content.toByteArray())));
+            }
+        }
+        return parts;
+    }
+
+    private static String getCellText(Element cell) {
+        return cell.getElementsByTagNameNS(NS_MAIN, "t").item(0).getTextContent();
+    }
+
+    private static String getCellValue(Element cell) {
+        return cell.getElementsByTagNameNS(NS_MAIN, "v").item(0).getTextContent();
+    }
+
+    private static String getColumnName(int index) {
+        return index < 26 ? String.valueOf((char) ('A' + index)) : String.valueOf((char) ('A' + index / 26 - 1)) + (char) ('A' + index % 26);
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * Persistent progress of a single data transfer pipe.
+ *
+ * Consumer updates checkpoint when its data becomes durable: database consumer after transaction commit,
+ * stream consumer after output file part is finished. Producer uses checkpoint of the previous (failed) run
+ * to skip already transferred rows by the last committed key. Sources without a single column unique key
+ * have no deterministic rows order, so their transfer is restarted from the beginning.
+ *
+ * Checkpoint is saved right after commit (not in the same transaction), so in the worst case
+ * the last committed batch is transferred again after resume.
+ */
+public class DataTransferCheckpoint {
+
+    private static final Log log = Log.getLog(DataTransferCheckpoint.class);
+
+    private static final String PROP_PIPE_ID = "pipe";
+    private static final String PROP_KEY_ATTRIBUTE = "keyAttribute";
+    private static final String PROP_LAST_KEY = "lastKey";
+    private static final String PROP_ROW_COUNT = "rowCount";
+    private static final String PROP_PART_NUMBER = "partNumber";
+    private static final String PROP_BYTES_WRITTEN = "bytesWritten";
+    private static final String PROP_OUTPUT_FILE_NAME = "outputFileName";
+
+    private final File file;
+    private final String pipeId;
+    private boolean resumed;
+
+    private String keyAttribute;
+    private String lastKey;
+    private long rowCount;
+    private int partNumber;
+    private long bytesWritten;
+    private String outputFileName;
+
+    private DataTransferCheckpoint(File file, String pipeId, boolean resumed) {
+        this.file = file;
+        this.pipeId = pipeId;
+        this.resumed = resumed;
+    }
+
+    /**
+     * Pipe id. Identifies the same pipe in different runs of the transfer.
+     */
+    public String getPipeId() {
+        return pipeId;
+    }
+
+    /**
+     * Checkpoint was loaded from previous run, some data was already transferred
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Name of unique key attribute used for keyed resume. Producer sets it on the first run, then source rows are
+     * read in the order of this key.
+     */
+    @Nullable
+    public String getKeyAttribute() {
+        return keyAttribute;
+    }
+
+    public void setKeyAttribute(@Nullable String keyAttribute) {
+        this.keyAttribute = keyAttribute;
+    }
+
+    /**
+     * Last committed key value as SQL literal
+     */
+    @Nullable
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    /**
+     * Number of committed rows
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of finished output file parts (stream consumers)
+     */
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Nullable
+    public String getOutputFileName() {
+        return outputFileName;
+    }
+
+    public void setOutputFileName(@Nullable String outputFileName) {
+        this.outputFileName = outputFileName;
+    }
+
+    /**
+     * Registers committed rows and saves checkpoint.
+     * @param rows    number of rows committed since the previous commit
+     * @param lastKey SQL literal of the last committed key or null if transfer is not keyed
+     */
+    public synchronized void commit(long rows, @Nullable String lastKey) {
+        this.rowCount += rows;
+        this.lastKey = lastKey;
+        save();
+    }
+
+    /**
+     * Registers finished output file part and saves checkpoint
+     */
+    public synchronized void commitPart(long rows, long bytes, @Nullable String lastKey) {
+        this.partNumber++;
+        this.bytesWritten += bytes;
+        commit(rows, lastKey);
+    }
+
+    /**
+     * Discards progress of the previous run, so transfer starts from the beginning
+     */
+    public synchronized void restart() {
+        this.resumed = false;
+        this.keyAttribute = null;
+        this.lastKey = null;
+        this.rowCount = 0;
+        this.partNumber = 0;
+        this.bytesWritten = 0;
+        this.outputFileName = null;
+        delete();
+    }
+
+    /**
+     * Deletes checkpoint. Called when transfer is finished successfully.
+     */
+    public synchronized void delete() {
+        if (file.exists() && !file.delete()) {
+            log.warn("Can't delete data transfer checkpoint '" + file.getAbsolutePath() + "'");
+        }
+    }
+
+    private void save() {
+        Properties props = new Properties();
+        props.setProperty(PROP_PIPE_ID, pipeId);
+        if (keyAttribute != null) {
+            props.setProperty(PROP_KEY_ATTRIBUTE, keyAttribute);
+        }
+        if (lastKey != null) {
+            props.setProperty(PROP_LAST_KEY, lastKey);
+        }
+        props.setProperty(PROP_ROW_COUNT, String.valueOf(rowCount));
+        props.setProperty(PROP_PART_NUMBER, String.valueOf(partNumber));
+        props.setProperty(PROP_BYTES_WRITTEN, String.valueOf(bytesWritten));
+        if (outputFileName != null) {
+            props.setProperty(PROP_OUTPUT_FILE_NAME, outputFileName);
+        }
+        // Write new checkpoint aside and then replace the old one, so checkpoint is never corrupted
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try {
+            try (OutputStream out = new FileOutputStream(tempFile)) {
+                props.store(out, null);
+            }
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Transfer itself is fine, it just can't be resumed from this point
+            log.warn("Can't save data transfer checkpoint '" + file.getAbsolutePath() + "'", e);
+        }
+    }
+
+    /**
+     * Opens checkpoint of the specified pipe.
+     * @param folder checkpoints folder
+     * @param resume load checkpoint of the previous run (if any). Otherwise previous checkpoint is discarded.
+     */
+    @NotNull
+    public static DataTransferCheckpoint open(@NotNull File folder, @NotNull String pipeId, boolean resume) {
+        if (!folder.exists() && !folder.mkdirs()) {
+            log.warn("Can't create checkpoints folder '" + folder.getAbsolutePath() + "'");
+        }
+        File file = new File(folder, makeFileName(pipeId));
+        if (resume && file.exists()) {
+            Properties props = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                props.load(in);
+            } catch (IOException e) {
+                log.warn("Can't load data transfer checkpoint '" + file.getAbsolutePath() + "'", e);
+            }
+            if (pipeId.equals(props.getProperty(PROP_PIPE_ID))) {
+                DataTransferCheckpoint checkpoint = new DataTransferCheckpoint(file, pipeId, true);
+                checkpoint.keyAttribute = props.getProperty(PROP_KEY_ATTRIBUTE);
+                checkpoint.lastKey = props.getProperty(PROP_LAST_KEY);
+                checkpoint.rowCount = CommonUtils.toLong(props.getProperty(PROP_ROW_COUNT));
+                checkpoint.partNumber = CommonUtils.toInt(props.getProperty(PROP_PART_NUMBER));
+                checkpoint.bytesWritten = CommonUtils.toLong(props.getProperty(PROP_BYTES_WRITTEN));
+                checkpoint.outputFileName = props.getProperty(PROP_OUTPUT_FILE_NAME);
+                return checkpoint;
+            }
+        }
+        DataTransferCheckpoint checkpoint = new DataTransferCheckpoint(file, pipeId, false);
+        checkpoint.delete();
+        return checkpoint;
+    }
+
+    private static String makeFileName(String pipeId) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(pipeId.getBytes(StandardCharsets.UTF_8));
+            StringBuilder name = new StringBuilder(hash.length * 2 + 11);
+            for (byte b : hash) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return name.append(".checkpoint").toString();
+        } catch (NoSuchAlgorithmException e) {
+            return Integer.toHexString(pipeId.hashCode()) + ".checkpoint";
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Transfer node which can resume interrupted transfer from checkpoint.
+ * Transfer is resumable only if both producer and consumer support it.
+ */
+public interface IDataTransferResumable {
+
+    /**
+     * Identifies node in checkpoints. Must be the same in different runs of the same transfer.
+     */
+    @NotNull
+    String getCheckpointId();
+
+    void setCheckpoint(@Nullable DataTransferCheckpoint checkpoint);
+
+}
@@ -37,6 +37,7 @@ import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.ui.DBUserInterface;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
+import org.jkiss.dbeaver.tools.transfer.internal.DTActivator;
 import org.jkiss.dbeaver.tools.transfer.wizard.DataTransferPipe;
 import org.jkiss.dbeaver.tools.transfer.wizard.DataTransferSettings;
 import org.jkiss.utils.CommonUtils;
@@ -233,6 +234,21 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         }
     }
 
+    /**
+     * Saves watermark of the finished incremental transfer, so the next run continues from it.
+     * Called from transfer jobs (possibly in parallel).
+     */
+    public synchronized void saveWatermark(DatabaseMappingContainer mappingContainer) {
+        DBSDataContainer sourceDatacontainer = mappingContainer.getSource();
+        if (dialogSettings == null || sourceDatacontainer == null) {
+            return;
+        }
+        IDialogSettings mappings = DialogSettings.getOrCreateSection(dialogSettings, "mappings");
+        mappingContainer.saveWatermark(
+            DialogSettings.getOrCreateSection(mappings, DBUtils.getObjectFullId(sourceDatacontainer)));
+        DTActivator.getDefault().saveDialogSettings();
+    }
+
     private void checkContainerConnection(IRunnableContext runnableContext) {
         // If container node is datasource (this may happen if datasource do not support schemas/catalogs)
         // then we need to check connection
@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.tools.transfer.database;
 
 import org.eclipse.jface.dialogs.IDialogSettings;
 import org.eclipse.jface.operation.IRunnableContext;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
@@ -50,6 +51,8 @@ public class DatabaseMappingContainer implements DatabaseMappingObject {
     private String targetName;
     private DatabaseMappingType mappingType;
     private List<DatabaseMappingAttribute> attributeMappings = new ArrayList<>();
+    private String watermarkAttribute;
+    private String watermarkValue;
 
     public DatabaseMappingContainer(DatabaseConsumerSettings consumerSettings, DBSDataContainer source) {
         this.consumerSettings = consumerSettings;
@@ -136,6 +139,35 @@ public class DatabaseMappingContainer implements DatabaseMappingObject {
         this.targetName = targetName;
     }
 
+    /**
+     * Source attribute with monotonically increasing values (e.g. update timestamp or sequence).
+     * If set then only rows changed since the previous transfer are read and they are upserted into the target.
+     */
+    @Nullable
+    public String getWatermarkAttribute() {
+        return watermarkAttribute;
+    }
+
+    public void setWatermarkAttribute(@Nullable String watermarkAttribute) {
+        if (!CommonUtils.equalObjects(this.watermarkAttribute, watermarkAttribute)) {
+            // Other column - start from the scratch
+            this.watermarkValue = null;
+        }
+        this.watermarkAttribute = watermarkAttribute;
+    }
+
+    /**
+     * Max watermark value transferred by the previous run (SQL literal). Null means full copy.
+     */
+    @Nullable
+    public String getWatermarkValue() {
+        return watermarkValue;
+    }
+
+    public void setWatermarkValue(@Nullable String watermarkValue) {
+        this.watermarkValue = watermarkValue;
+    }
+
     public DatabaseMappingAttribute getAttributeMapping(DBSAttributeBase sourceAttr) {
         for (DatabaseMappingAttribute attr : attributeMappings) {
             if (attr.getSource().getName().equalsIgnoreCase(sourceAttr.getName())) {
@@ -206,6 +238,7 @@ public class DatabaseMappingContainer implements DatabaseMappingObject {
         if (mappingType != null) {
             settings.put("mappingType", mappingType.name());
         }
+        saveWatermark(settings);
         if (!attributeMappings.isEmpty()) {
             IDialogSettings attrsSection = settings.addNewSection("attributes");
             for (DatabaseMappingAttribute attrMapping : attributeMappings) {
@@ -218,8 +251,15 @@ public class DatabaseMappingContainer implements DatabaseMappingObject {
         }
     }
 
+    void saveWatermark(IDialogSettings settings) {
+        settings.put("watermarkAttribute", watermarkAttribute);
+        settings.put("watermarkValue", watermarkValue);
+    }
+
     public void loadSettings(IRunnableContext context, IDialogSettings settings) {
         targetName = settings.get("targetName");
+        watermarkAttribute = settings.get("watermarkAttribute");
+        watermarkValue = settings.get("watermarkValue");
         if (settings.get("mappingType") != null) {
             try {
                 DatabaseMappingType newMappingType = DatabaseMappingType.valueOf(settings.get("mappingType"));
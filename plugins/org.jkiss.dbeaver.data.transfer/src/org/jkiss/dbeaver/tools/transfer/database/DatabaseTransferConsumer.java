@@ -22,6 +22,7 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
@@ -32,8 +33,12 @@ import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoint;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferResumable;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.dialogs.exec.ExecutionQueueErrorJob;
 import org.jkiss.dbeaver.ui.dialogs.exec.ExecutionQueueErrorResponse;
@@ -44,7 +49,7 @@ import java.util.*;
 /**
 * Stream transfer consumer
 */
-public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseConsumerSettings, IDataTransferProcessor> {
+public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseConsumerSettings, IDataTransferProcessor>, IDataTransferResumable {
 
     private static final Log log = Log.getLog(DatabaseTransferConsumer.class);
 
@@ -61,10 +66,28 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private List<DBSEntityAttribute> targetAttributes;
     private boolean useIsolatedConnection;
 
+    private DataTransferCheckpoint checkpoint;
+    // Source key of the last added row (for keyed checkpoints)
+    private int keyIndex = -1;
+    private DBCAttributeMetaData keyAttribute;
+    private Object lastKeyValue;
+    private DBPDataSource sourceDataSource;
+    private long rowsCommitted = 0;
+
+    // Incremental sync: watermark range of rows in the current batch, max watermark of committed rows
+    // and min watermark of failed rows (skipped in ignore errors mode)
+    private int watermarkIndex = -1;
+    private DBCAttributeMetaData watermarkAttribute;
+    private Object batchMinWatermark;
+    private Object batchMaxWatermark;
+    private Object maxWatermarkValue;
+    private Object minFailedWatermark;
+
     private static class ColumnMapping {
         DBCAttributeMetaData sourceAttr;
         DatabaseMappingAttribute targetAttr;
         DBDValueHandler sourceValueHandler;
+        DBDValueFetcher sourceValueFetcher;
         DBDValueHandler targetValueHandler;
         int targetIndex = -1;
 
@@ -88,12 +111,41 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         return targetObject;
     }
 
+    @NotNull
+    @Override
+    public String getCheckpointId() {
+        if (targetObject != null) {
+            return DBUtils.getObjectFullName(targetObject, DBPEvaluationContext.DML);
+        }
+        // Mapping type is changed after target table creation, so only target name is used
+        DatabaseMappingContainer dataMapping = settings.getDataMapping(sourceObject);
+        return DBUtils.getObjectFullName(settings.getContainer(), DBPEvaluationContext.DML) + "." +
+            (dataMapping == null ? "?" : dataMapping.getTargetName());
+    }
+
+    @Override
+    public void setCheckpoint(@Nullable DataTransferCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    /**
+     * Mapping of the source object or null if there are no explicit mappings
+     */
+    @Nullable
+    public DatabaseMappingContainer getDataMapping() {
+        return settings == null || sourceObject == null ? null : settings.getDataMapping(sourceObject);
+    }
+
     @Override
     public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException
     {
         initExporter(session.getProgressMonitor());
 
-        if (offset == 0 && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
+        boolean resumed = checkpoint != null && checkpoint.isResumed();
+        String watermarkName = containerMapping == null ? null : containerMapping.getWatermarkAttribute();
+        // Incremental run updates previously transferred data
+        boolean incremental = watermarkName != null && containerMapping.getWatermarkValue() != null;
+        if (offset == 0 && !resumed && !incremental && settings.isTruncateBeforeLoad() && (containerMapping == null || containerMapping.getMappingType() == DatabaseMappingType.existing)) {
             // Truncate target tables
             if ((targetObject.getSupportedFeatures() & DBSDataManipulator.DATA_TRUNCATE) != 0) {
                 targetObject.truncateData(
@@ -106,6 +158,33 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
         DBCResultSetMetaData metaData = resultSet.getMeta();
         List<DBCAttributeMetaData> rsAttributes = metaData.getAttributes();
+        keyIndex = -1;
+        keyAttribute = null;
+        sourceDataSource = session.getDataSource();
+        if (checkpoint != null && checkpoint.getKeyAttribute() != null) {
+            for (int i = 0; i < rsAttributes.size(); i++) {
+                if (rsAttributes.get(i).getName().equalsIgnoreCase(checkpoint.getKeyAttribute())) {
+                    keyIndex = i;
+                    keyAttribute = rsAttributes.get(i);
+                    break;
+                }
+            }
+        }
+        watermarkIndex = -1;
+        watermarkAttribute = null;
+        if (watermarkName != null) {
+            for (int i = 0; i < rsAttributes.size(); i++) {
+                if (rsAttributes.get(i).getName().equalsIgnoreCase(watermarkName)) {
+                    watermarkIndex = i;
+                    watermarkAttribute = rsAttributes.get(i);
+                    break;
+                }
+            }
+            if (watermarkIndex < 0) {
+                throw new DBCException("Watermark column [" + watermarkName + "] not found in " +
+                    DBUtils.getObjectFullName(sourceObject, DBPEvaluationContext.UI));
+            }
+        }
         columnMappings = new ColumnMapping[rsAttributes.size()];
         targetAttributes = new ArrayList<>(columnMappings.length);
         for (int i = 0; i < rsAttributes.size(); i++) {
@@ -148,6 +227,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
             if (session.getDataSource() != null) {
                 columnMapping.sourceValueHandler = DBUtils.findValueHandler(session.getDataSource(), columnMapping.sourceAttr);
+                columnMapping.sourceValueFetcher = DBUtils.createValueFetcher(session, resultSet, columnMapping.sourceValueHandler, columnMapping.sourceAttr, i);
             }
             columnMapping.targetValueHandler = DBUtils.findValueHandler(targetSession.getDataSource(), targetAttr);
             columnMapping.targetIndex = targetAttributes.size();
@@ -157,11 +237,82 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             targetAttributes.add(targetAttr);
         }
 
-        executeBatch = targetObject.insertData(
-            targetSession,
-            targetAttributes.toArray(new DBSAttributeBase[0]),
-            null,
-            new AbstractExecutionSource(sourceObject, targetContext, this));
+        DBSAttributeBase[] attributes = targetAttributes.toArray(new DBSAttributeBase[0]);
+        AbstractExecutionSource executionSource = new AbstractExecutionSource(sourceObject, targetContext, this);
+        DBSAttributeBase[] keyAttributes = watermarkName == null ? null : getUpsertKey(session.getProgressMonitor());
+        if (keyAttributes != null) {
+            // Changed rows may already exist in target
+            executeBatch = targetObject.upsertData(targetSession, attributes, keyAttributes, executionSource);
+        } else if (incremental) {
+            throw new DBCException("Incremental sync of " + DBUtils.getObjectFullName(targetObject, DBPEvaluationContext.UI) +
+                " requires unique key (with all its columns mapped) and UPSERT/MERGE support in target database");
+        } else {
+            executeBatch = targetObject.insertData(targetSession, attributes, null, executionSource);
+        }
+    }
+
+    /**
+     * Returns target unique key if target supports upsert and all key columns are transferred
+     */
+    @Nullable
+    private DBSAttributeBase[] getUpsertKey(DBRProgressMonitor monitor) throws DBCException
+    {
+        if ((targetObject.getSupportedFeatures() & DBSDataManipulator.DATA_UPSERT) == 0 || !(targetObject instanceof DBSEntity)) {
+            return null;
+        }
+        Collection<? extends DBSEntityAttribute> identifier;
+        try {
+            identifier = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) targetObject);
+        } catch (DBException e) {
+            throw new DBCException("Can't read unique key of " + targetObject.getName(), e);
+        }
+        if (CommonUtils.isEmpty(identifier)) {
+            return null;
+        }
+        List<DBSAttributeBase> keyAttributes = new ArrayList<>(identifier.size());
+        for (DBSEntityAttribute keyAttr : identifier) {
+            DBSEntityAttribute targetAttr = DBUtils.findObject(targetAttributes, keyAttr.getName());
+            if (targetAttr == null) {
+                return null;
+            }
+            keyAttributes.add(targetAttr);
+        }
+        return keyAttributes.toArray(new DBSAttributeBase[0]);
+    }
+
+    private void updateWatermark(Object value)
+    {
+        if (!(value instanceof Comparable)) {
+            return;
+        }
+        if (batchMinWatermark == null || compareWatermarks(value, batchMinWatermark) < 0) {
+            batchMinWatermark = value;
+        }
+        if (batchMaxWatermark == null || compareWatermarks(value, batchMaxWatermark) > 0) {
+            batchMaxWatermark = value;
+        }
+    }
+
+    /**
+     * Watermark moves only after committed rows. Failed batch limits it, so its rows are read again by the next run.
+     */
+    private void finishBatchWatermark(boolean failed)
+    {
+        if (failed) {
+            if (batchMinWatermark != null && (minFailedWatermark == null || compareWatermarks(batchMinWatermark, minFailedWatermark) < 0)) {
+                minFailedWatermark = batchMinWatermark;
+            }
+        } else if (batchMaxWatermark != null && (maxWatermarkValue == null || compareWatermarks(batchMaxWatermark, maxWatermarkValue) > 0)) {
+            maxWatermarkValue = batchMaxWatermark;
+        }
+        batchMinWatermark = null;
+        batchMaxWatermark = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int compareWatermarks(Object value1, Object value2)
+    {
+        return ((Comparable<Object>) value1).compareTo(value2);
     }
 
     @Override
@@ -171,15 +322,27 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         for (int i = 0; i < columnMappings.length; i++) {
             ColumnMapping column = columnMappings[i];
             if (column == null || column.targetIndex < 0) {
+                if (i == keyIndex) {
+                    lastKeyValue = resultSet.getAttributeValue(i);
+                }
+                if (i == watermarkIndex) {
+                    updateWatermark(resultSet.getAttributeValue(i));
+                }
                 continue;
             }
             final Object attrValue;
-            if (column.sourceValueHandler != null) {
-                attrValue = column.sourceValueHandler.fetchValueObject(session, resultSet, column.sourceAttr, i);
+            if (column.sourceValueFetcher != null) {
+                attrValue = column.sourceValueFetcher.fetchValue(session);
             } else {
                 // No value handler - get raw value
                 attrValue = resultSet.getAttributeValue(i);
             }
+            if (i == keyIndex) {
+                lastKeyValue = attrValue;
+            }
+            if (i == watermarkIndex) {
+                updateWatermark(attrValue);
+            }
             DatabaseMappingAttribute targetAttr = column.targetAttr;
             rowValues[column.targetIndex] = column.targetValueHandler.getValueFromObject(
                 targetSession,
@@ -199,14 +362,17 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private void insertBatch(boolean force) throws DBCException
     {
         boolean needCommit = force || ((rowsExported % settings.getCommitAfterRows()) == 0);
+        boolean batchFailed = false;
         if (needCommit && executeBatch != null) {
             boolean retryInsert;
             do {
                 retryInsert = false;
+                batchFailed = false;
                 try {
                     executeBatch.execute(targetSession);
                 } catch (Throwable e) {
                     log.error("Error inserting row", e);
+                    batchFailed = true;
                     if (!ignoreErrors) {
                         ExecutionQueueErrorResponse response = ExecutionQueueErrorJob.showError(
                             DBUtils.getObjectFullName(targetObject, DBPEvaluationContext.UI) + " data load",
@@ -239,6 +405,22 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 txnManager.commit(targetSession);
             }
         }
+        if (needCommit) {
+            finishBatchWatermark(batchFailed);
+        }
+        if (checkpoint != null && needCommit && rowsExported > rowsCommitted) {
+            saveCheckpoint();
+        }
+    }
+
+    private void saveCheckpoint()
+    {
+        String lastKey = null;
+        if (keyAttribute != null && lastKeyValue != null && sourceDataSource != null) {
+            lastKey = SQLUtils.convertValueToSQL(sourceDataSource, keyAttribute, lastKeyValue);
+        }
+        checkpoint.commit(rowsExported - rowsCommitted, lastKey);
+        rowsCommitted = rowsExported;
     }
 
     @Override
@@ -490,6 +672,15 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     @Override
     public void finishTransfer(DBRProgressMonitor monitor, boolean last)
     {
+        Object watermarkValue = maxWatermarkValue;
+        if (minFailedWatermark != null && (watermarkValue == null || compareWatermarks(minFailedWatermark, watermarkValue) < 0)) {
+            watermarkValue = minFailedWatermark;
+        }
+        if (!last && containerMapping != null && watermarkValue != null && sourceDataSource != null && !monitor.isCanceled()) {
+            // All changed rows are committed (or failed rows will be read again). Next run starts from them.
+            containerMapping.setWatermarkValue(SQLUtils.convertValueToSQL(sourceDataSource, watermarkAttribute, watermarkValue));
+            settings.saveWatermark(containerMapping);
+        }
         if (!last && settings.isOpenTableOnFinish()) {
             if (containerMapping != null && containerMapping.getTarget() != null) {
                 UIUtils.syncExec(() -> {
@@ -30,15 +30,18 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.tools.transfer.*;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.Collection;
 
 /**
  * Data container transfer producer
  */
-public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseProducerSettings> {
+public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseProducerSettings>, IDataTransferResumable {
 
     private static final Log log = Log.getLog(DatabaseTransferProducer.class);
 
@@ -46,6 +49,8 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
     private DBSDataContainer dataContainer;
     @Nullable
     private DBDDataFilter dataFilter;
+    @Nullable
+    private DataTransferCheckpoint checkpoint;
 
     public DatabaseTransferProducer() {
     }
@@ -72,6 +77,21 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         return DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
     }
 
+    @NotNull
+    @Override
+    public String getCheckpointId() {
+        String id = DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
+        if (dataFilter != null && dataFilter.hasFilters()) {
+            id += " [" + dataFilter.getWhere() + "]";
+        }
+        return dataContainer.getDataSource().getContainer().getId() + ":" + id;
+    }
+
+    @Override
+    public void setCheckpoint(@Nullable DataTransferCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     @Override
     public void transferData(
         DBRProgressMonitor monitor,
@@ -117,11 +137,15 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     }
 
                 }
+                DBDDataFilter readFilter = dataFilter;
+                if (consumer instanceof DatabaseTransferConsumer && !selectiveExportFromUI) {
+                    readFilter = makeWatermarkFilter(((DatabaseTransferConsumer) consumer).getDataMapping(), dataSource);
+                }
                 long totalRows = 0;
                 if (settings.isQueryRowCount() && (dataContainer.getSupportedFeatures() & DBSDataContainer.DATA_COUNT) != 0) {
                     monitor.beginTask(DTMessages.data_transfer_wizard_job_task_retrieve, 1);
                     try {
-                        totalRows = dataContainer.countData(transferSource, session, dataFilter, readFlags);
+                        totalRows = dataContainer.countData(transferSource, session, readFilter, readFlags);
                     } catch (Throwable e) {
                         log.warn("Can't retrieve row count from '" + dataContainer.getName() + "'", e);
                         try {
@@ -137,20 +161,29 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                     }
                 }
 
+                if (checkpoint != null && !selectiveExportFromUI) {
+                    if (checkpoint.isResumed() && (checkpoint.getKeyAttribute() == null || checkpoint.getLastKey() == null)) {
+                        // Without key rows order isn't deterministic, so committed rows can't be skipped by offset
+                        log.warn("Transfer of '" + dataContainer.getName() + "' can't be resumed without unique key, it is restarted");
+                        checkpoint.restart();
+                    }
+                    readFilter = makeCheckpointFilter(monitor, dataSource, readFilter);
+                }
+
                 monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) totalRows);
 
                 try {
                     // Perform export
                     if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                         // Just do it in single query
-                        dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags);
+                        dataContainer.readData(transferSource, session, consumer, readFilter, -1, -1, readFlags);
                     } else {
                         // Read all data by segments
                         long offset = 0;
                         int segmentSize = settings.getSegmentSize();
                         for (; ; ) {
                             DBCStatistics statistics = dataContainer.readData(
-                                transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags);
+                                transferSource, session, consumer, readFilter, offset, segmentSize, readFlags);
                             if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                 // Done
                                 break;
@@ -180,4 +213,56 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         }
     }
 
+    /**
+     * Keyed transfer reads rows in the order of a single column unique key, so all rows up to the last committed key
+     * are transferred. Resumed transfer reads only rows after the last committed key.
+     */
+    private DBDDataFilter makeCheckpointFilter(DBRProgressMonitor monitor, DBPDataSource dataSource, @Nullable DBDDataFilter baseFilter) {
+        assert checkpoint != null;
+        if (!checkpoint.isResumed()) {
+            checkpoint.setKeyAttribute(null);
+            // Key condition can't be combined with user's ordering or OR-ed filter constraints
+            if (dataContainer instanceof DBSEntity && (baseFilter == null || (!baseFilter.hasOrdering() && !baseFilter.isAnyConstraint()))) {
+                try {
+                    Collection<? extends DBSEntityAttribute> identifier = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+                    if (identifier.size() == 1) {
+                        checkpoint.setKeyAttribute(identifier.iterator().next().getName());
+                    }
+                } catch (DBException e) {
+                    log.debug("Can't find unique key of '" + dataContainer.getName() + "'", e);
+                }
+            }
+        }
+        String keyAttribute = checkpoint.getKeyAttribute();
+        if (keyAttribute == null) {
+            return baseFilter;
+        }
+        DBDDataFilter filter = baseFilter == null ? new DBDDataFilter() : new DBDDataFilter(baseFilter);
+        String keyName = DBUtils.getQuotedIdentifier(dataSource, keyAttribute);
+        filter.setOrder(keyName);
+        if (checkpoint.isResumed() && checkpoint.getLastKey() != null) {
+            addCondition(filter, keyName + " > " + checkpoint.getLastKey());
+        }
+        return filter;
+    }
+
+    /**
+     * Incremental sync reads only rows with watermark greater than or equal to the watermark of the previous run.
+     * Rows with the same watermark may be committed in source after the previous run read them, so they are read
+     * again (target rows are upserted, so it is safe).
+     */
+    private DBDDataFilter makeWatermarkFilter(@Nullable DatabaseMappingContainer dataMapping, DBPDataSource dataSource) {
+        if (dataMapping == null || dataMapping.getWatermarkAttribute() == null || dataMapping.getWatermarkValue() == null) {
+            return dataFilter;
+        }
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        addCondition(filter,
+            DBUtils.getQuotedIdentifier(dataSource, dataMapping.getWatermarkAttribute()) + " >= " + dataMapping.getWatermarkValue());
+        return filter;
+    }
+
+    private static void addCondition(DBDDataFilter filter, String condition) {
+        filter.setWhere(CommonUtils.isEmpty(filter.getWhere()) ? condition : "(" + filter.getWhere() + ") AND " + condition);
+    }
+
 }
@@ -171,7 +171,7 @@ public class DatabaseConsumerPageMapping extends ActiveWizardPage<DataTransferWi
         {
             // Control buttons
             Composite buttonsPanel = new Composite(composite, SWT.NONE);
-            buttonsPanel.setLayout(new GridLayout(4, false));
+            buttonsPanel.setLayout(new GridLayout(5, false));
             buttonsPanel.setLayoutData(new GridData(GridData.FILL_HORIZONTAL));
 
             final Button mapTableButton = new Button(buttonsPanel, SWT.PUSH);
@@ -228,6 +228,21 @@ public class DatabaseConsumerPageMapping extends ActiveWizardPage<DataTransferWi
                 }
             });
 
+            final Button syncButton = new Button(buttonsPanel, SWT.PUSH);
+            syncButton.setText("Incremental sync ...");
+            syncButton.setToolTipText("Transfer only rows changed since the previous transfer (by monotonically increasing column)");
+            syncButton.setEnabled(false);
+            syncButton.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e)
+                {
+                    DatabaseMappingObject selectedMapping = getSelectedMapping();
+                    setWatermark(selectedMapping instanceof DatabaseMappingContainer ?
+                        (DatabaseMappingContainer) selectedMapping :
+                        ((DatabaseMappingAttribute)selectedMapping).getParent());
+                }
+            });
+
             mappingViewer.getTree().addKeyListener(new KeyAdapter() {
                 @Override
                 public void keyReleased(KeyEvent e) {
@@ -290,6 +305,7 @@ public class DatabaseConsumerPageMapping extends ActiveWizardPage<DataTransferWi
                     (mapping instanceof DatabaseMappingAttribute && ((DatabaseMappingAttribute) mapping).getParent().getMappingType() != DatabaseMappingType.unspecified);
                 columnsButton.setEnabled(hasMappings);
                 ddlButton.setEnabled(hasMappings);
+                syncButton.setEnabled(hasMappings);
             });
             mappingViewer.addDoubleClickListener(event -> {
                 DatabaseMappingObject selectedMapping = getSelectedMapping();
@@ -661,6 +677,18 @@ public class DatabaseConsumerPageMapping extends ActiveWizardPage<DataTransferWi
 
     }
 
+    private void setWatermark(DatabaseMappingContainer mapping)
+    {
+        String watermark = EnterNameDialog.chooseName(
+            getShell(),
+            "Watermark column (empty for full copy)",
+            CommonUtils.notEmpty(mapping.getWatermarkAttribute()));
+        if (watermark != null) {
+            watermark = watermark.trim();
+            mapping.setWatermarkAttribute(watermark.isEmpty() ? null : watermark);
+        }
+    }
+
     private void showDDL(DatabaseMappingContainer mapping)
     {
         final DatabaseConsumerSettings settings = getDatabaseConsumerSettings();
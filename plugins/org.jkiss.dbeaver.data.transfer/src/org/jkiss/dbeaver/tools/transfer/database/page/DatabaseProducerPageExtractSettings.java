@@ -41,6 +41,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button resumeCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
 
@@ -131,6 +132,15 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
                 }
             });
 
+            resumeCheckbox = UIUtils.createCheckbox(generalSettings, "Resume interrupted transfer",
+                "Save transfer progress and continue interrupted transfer from the last committed rows", false, 4);
+            resumeCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setResumeTransfer(resumeCheckbox.getSelection());
+                }
+            });
+
             IStructuredSelection curSelection = getWizard().getCurrentSelection();
             boolean hasSelection = curSelection != null && !curSelection.isEmpty() && curSelection.getFirstElement() instanceof DBDCellValue;
 
@@ -174,6 +184,7 @@ public class DatabaseProducerPageExtractSettings extends ActiveWizardPage<DataTr
 
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        resumeCheckbox.setSelection(getWizard().getSettings().isResumeTransfer());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
@@ -0,0 +1,237 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * GZIP output stream which compresses data in several threads (like pigz).
+ *
+ * Data is split into blocks which are deflated independently. Each block uses the tail of the previous block
+ * as a dictionary and ends with a sync flush, so compressed blocks form a single deflate stream which
+ * can be read by any gzip implementation. Compression ratio is almost the same as of single-threaded gzip.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+
+    private static final int BLOCK_SIZE = 128 * 1024;
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+    private static final byte[] GZIP_HEADER = { 0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0 };
+
+    private final OutputStream out;
+    private final int level;
+    private final ExecutorService executor;
+    private final int maxPendingBlocks;
+    private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final CRC32 crc = new CRC32();
+    private long totalSize;
+
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int blockLength;
+    private byte[] dictionary;
+    private boolean finished;
+
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException
+    {
+        this(out, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelGZIPOutputStream(OutputStream out, int level, int threads) throws IOException
+    {
+        this.out = out;
+        this.level = level;
+        this.maxPendingBlocks = threads * 2;
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "GZIP compressor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        out.write(GZIP_HEADER);
+    }
+
+    @Override
+    public void write(int b) throws IOException
+    {
+        write(new byte[] { (byte) b }, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+        if (finished) {
+            throw new IOException("Stream is finished");
+        }
+        crc.update(b, off, len);
+        totalSize += len;
+        while (len > 0) {
+            int count = Math.min(len, block.length - blockLength);
+            System.arraycopy(b, off, block, blockLength, count);
+            blockLength += count;
+            off += count;
+            len -= count;
+            if (blockLength == block.length) {
+                submitBlock(false);
+            }
+        }
+    }
+
+    /**
+     * Writes already compressed blocks. Data of the current block is not flushed, otherwise
+     * frequent flushes (e.g. by auto-flush writers) would break compression ratio.
+     */
+    @Override
+    public void flush() throws IOException
+    {
+        writeBlocks(false);
+        out.flush();
+    }
+
+    public void finish() throws IOException
+    {
+        if (finished) {
+            return;
+        }
+        try {
+            submitBlock(true);
+            writeBlocks(true);
+
+            long crcValue = crc.getValue();
+            byte[] trailer = new byte[8];
+            for (int i = 0; i < 4; i++) {
+                trailer[i] = (byte) (crcValue >> (i * 8));
+                trailer[i + 4] = (byte) (totalSize >> (i * 8));
+            }
+            out.write(trailer);
+            out.flush();
+        } finally {
+            finished = true;
+            release();
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void submitBlock(boolean last) throws IOException
+    {
+        final byte[] data = block;
+        final int length = blockLength;
+        final byte[] blockDictionary = dictionary;
+        pendingBlocks.add(executor.submit(() -> compressBlock(data, length, blockDictionary, last)));
+        if (!last) {
+            dictionary = Arrays.copyOfRange(data, length - DICTIONARY_SIZE, length);
+            block = new byte[BLOCK_SIZE];
+            blockLength = 0;
+        }
+        while (pendingBlocks.size() >= maxPendingBlocks) {
+            writeBlock(pendingBlocks.poll());
+        }
+        writeBlocks(false);
+    }
+
+    /**
+     * Writes compressed blocks in their original order
+     * @param all wait for all blocks, otherwise writes only already compressed ones
+     */
+    private void writeBlocks(boolean all) throws IOException
+    {
+        while (!pendingBlocks.isEmpty() && (all || pendingBlocks.peek().isDone())) {
+            writeBlock(pendingBlocks.poll());
+        }
+    }
+
+    private void writeBlock(Future<byte[]> compressedBlock) throws IOException
+    {
+        try {
+            out.write(compressedBlock.get());
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Compression interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Compression error", e.getCause());
+        }
+    }
+
+    private byte[] compressBlock(byte[] data, int length, byte[] blockDictionary, boolean last)
+    {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            if (blockDictionary != null) {
+                deflater.setDictionary(blockDictionary);
+            }
+            deflater.setInput(data, 0, length);
+            byte[] result = new byte[length / 2 + 1024];
+            int resultLength = 0;
+            if (last) {
+                deflater.finish();
+            }
+            for (;;) {
+                if (resultLength == result.length) {
+                    result = Arrays.copyOf(result, result.length * 2);
+                }
+                int count = last ?
+                    deflater.deflate(result, resultLength, result.length - resultLength) :
+                    deflater.deflate(result, resultLength, result.length - resultLength, Deflater.SYNC_FLUSH);
+                resultLength += count;
+                if (last ? deflater.finished() : resultLength < result.length) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(result, resultLength);
+        } finally {
+            deflater.reset();
+            deflaters.add(deflater);
+        }
+    }
+
+    private void release()
+    {
+        for (Future<byte[]> pendingBlock : pendingBlocks) {
+            pendingBlock.cancel(true);
+        }
+        pendingBlocks.clear();
+        executor.shutdown();
+        try {
+            // Deflaters can be ended only after all tasks are done
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Deflater deflater; (deflater = deflaters.poll()) != null; ) {
+            deflater.end();
+        }
+    }
+
+}
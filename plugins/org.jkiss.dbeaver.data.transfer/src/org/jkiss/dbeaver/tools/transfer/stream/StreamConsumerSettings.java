@@ -43,6 +43,21 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         BINARY
     }
 
+    public enum CompressionFormat {
+        ZIP("zip"),
+        GZIP("gz");
+
+        private final String extension;
+
+        CompressionFormat(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
     public static final String PROP_EXTRACT_IMAGES = "extractImages";
     public static final String PROP_FILE_EXTENSION = "extension";
     public static final String PROP_FORMAT = "format";
@@ -59,6 +74,10 @@ public class StreamConsumerSettings implements IDataTransferSettings {
 
     private boolean outputClipboard = false;
     private boolean compressResults = false;
+    private CompressionFormat compressionFormat = CompressionFormat.ZIP;
+    private boolean splitOutFiles = false;
+    private long maxOutFileSize = 100 * 1024 * 1024;
+    private long maxOutFileRows = 0;
     private boolean openFolderOnFinish = true;
     private boolean executeProcessOnFinish = false;
     private String finishProcessCommand = null;
@@ -127,6 +146,44 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.compressResults = compressResults;
     }
 
+    public CompressionFormat getCompressionFormat() {
+        return compressionFormat;
+    }
+
+    public void setCompressionFormat(CompressionFormat compressionFormat) {
+        this.compressionFormat = compressionFormat;
+    }
+
+    public boolean isSplitOutFiles() {
+        return splitOutFiles;
+    }
+
+    public void setSplitOutFiles(boolean splitOutFiles) {
+        this.splitOutFiles = splitOutFiles;
+    }
+
+    /**
+     * Maximum size of output file part in bytes (0 means no limit)
+     */
+    public long getMaxOutFileSize() {
+        return maxOutFileSize;
+    }
+
+    public void setMaxOutFileSize(long maxOutFileSize) {
+        this.maxOutFileSize = maxOutFileSize;
+    }
+
+    /**
+     * Maximum number of rows in output file part (0 means no limit)
+     */
+    public long getMaxOutFileRows() {
+        return maxOutFileRows;
+    }
+
+    public void setMaxOutFileRows(long maxOutFileRows) {
+        this.maxOutFileRows = maxOutFileRows;
+    }
+
     public boolean isOpenFolderOnFinish() {
         return openFolderOnFinish;
     }
@@ -195,6 +252,22 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         if (!CommonUtils.isEmpty(dialogSettings.get("compressResults"))) {
             compressResults = dialogSettings.getBoolean("compressResults");
         }
+        if (!CommonUtils.isEmpty(dialogSettings.get("compressionFormat"))) {
+            try {
+                compressionFormat = CompressionFormat.valueOf(dialogSettings.get("compressionFormat"));
+            } catch (IllegalArgumentException e) {
+                compressionFormat = CompressionFormat.ZIP;
+            }
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("splitOutFiles"))) {
+            splitOutFiles = dialogSettings.getBoolean("splitOutFiles");
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("maxOutFileSize"))) {
+            maxOutFileSize = CommonUtils.toLong(dialogSettings.get("maxOutFileSize"));
+        }
+        if (!CommonUtils.isEmpty(dialogSettings.get("maxOutFileRows"))) {
+            maxOutFileRows = CommonUtils.toLong(dialogSettings.get("maxOutFileRows"));
+        }
         if (dialogSettings.get("openFolderOnFinish") != null) {
             openFolderOnFinish = dialogSettings.getBoolean("openFolderOnFinish");
         }
@@ -222,6 +295,10 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         dialogSettings.put("outputClipboard", outputClipboard);
 
         dialogSettings.put("compressResults", compressResults);
+        dialogSettings.put("compressionFormat", compressionFormat.name());
+        dialogSettings.put("splitOutFiles", splitOutFiles);
+        dialogSettings.put("maxOutFileSize", String.valueOf(maxOutFileSize));
+        dialogSettings.put("maxOutFileRows", String.valueOf(maxOutFileRows));
 
         dialogSettings.put("openFolderOnFinish", openFolderOnFinish);
         dialogSettings.put("executeProcessOnFinish", executeProcessOnFinish);
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2018 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import java.io.*;
+import java.util.function.IntFunction;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Output stream of stream exporters.
+ *
+ * Exporters always write into the same sink, while sink writes data into output file parts.
+ * Each part is compressed separately (if compression is enabled), so each part is a complete file.
+ * Consumer checks {@link #isPartFull()} after each row and switches to the next part when current one is full.
+ */
+public class StreamOutputSink extends OutputStream {
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private final StreamConsumerSettings settings;
+    private final IntFunction<File> partFileProvider;
+    private final IntFunction<String> entryNameProvider;
+
+    private int partNumber;
+    private File partFile;
+    private long partSize;
+    private long partRows;
+    private OutputStream partStream;
+
+    /**
+     * @param partFileProvider provides output file for the specified part number (starting from 1)
+     * @param entryNameProvider provides name of archive entry for the specified part number
+     * @param firstPart number of the first part (greater than 1 if export is resumed after finished parts)
+     */
+    public StreamOutputSink(StreamConsumerSettings settings, IntFunction<File> partFileProvider, IntFunction<String> entryNameProvider, int firstPart)
+        throws IOException
+    {
+        this.settings = settings;
+        this.partFileProvider = partFileProvider;
+        this.entryNameProvider = entryNameProvider;
+        this.partNumber = firstPart - 1;
+        startPart();
+    }
+
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public File getPartFile() {
+        return partFile;
+    }
+
+    public long getPartRows() {
+        return partRows;
+    }
+
+    public void addRow() {
+        partRows++;
+    }
+
+    /**
+     * Checks part limits. Size is checked against bytes written to the file (i.e. after compression),
+     * data buffered by writers and compressors is not counted.
+     */
+    public boolean isPartFull() {
+        if (!settings.isSplitOutFiles()) {
+            return false;
+        }
+        return (settings.getMaxOutFileRows() > 0 && partRows >= settings.getMaxOutFileRows()) ||
+            (settings.getMaxOutFileSize() > 0 && partSize >= settings.getMaxOutFileSize());
+    }
+
+    /**
+     * Finishes current part file and opens the next one
+     */
+    public void nextPart() throws IOException {
+        finishPart();
+        startPart();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        partStream.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        partStream.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (partStream != null) {
+            partStream.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finishPart();
+    }
+
+    private void startPart() throws IOException {
+        partNumber++;
+        partFile = partFileProvider.apply(partNumber);
+        partSize = 0;
+        partRows = 0;
+
+        OutputStream fileStream = new FilterOutputStream(new BufferedOutputStream(new FileOutputStream(partFile), FILE_BUFFER_SIZE)) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                partSize++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                partSize += len;
+            }
+        };
+        if (!settings.isCompressResults()) {
+            partStream = fileStream;
+            return;
+        }
+        try {
+            switch (settings.getCompressionFormat()) {
+                case GZIP:
+                    if (Runtime.getRuntime().availableProcessors() > 1) {
+                        partStream = new ParallelGZIPOutputStream(fileStream);
+                    } else {
+                        partStream = new GZIPOutputStream(fileStream, FILE_BUFFER_SIZE);
+                    }
+                    break;
+                default:
+                    ZipOutputStream zipStream = new ZipOutputStream(fileStream);
+                    zipStream.putNextEntry(new ZipEntry(entryNameProvider.apply(partNumber)));
+                    partStream = zipStream;
+                    break;
+            }
+        } catch (IOException e) {
+            fileStream.close();
+            throw e;
+        }
+    }
+
+    private void finishPart() throws IOException {
+        if (partStream != null) {
+            // Compressed streams write their trailers on close
+            OutputStream stream = partStream;
+            partStream = null;
+            stream.close();
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import org.eclipse.swt.dnd.Clipboard;
 import org.eclipse.swt.dnd.TextTransfer;
 import org.eclipse.swt.dnd.Transfer;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
@@ -30,6 +31,7 @@ import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
 import org.jkiss.dbeaver.model.exec.DBCAttributeMetaData;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
@@ -39,11 +41,14 @@ import org.jkiss.dbeaver.model.runtime.DBRProcessDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRShellCommand;
 import org.jkiss.dbeaver.model.sql.SQLDataSource;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.runtime.ui.DBUserInterface;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoint;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferResumable;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
@@ -53,13 +58,11 @@ import org.jkiss.utils.IOUtils;
 
 import java.io.*;
 import java.util.*;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 /**
  * Stream transfer consumer
  */
-public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsumerSettings, IStreamDataExporter> {
+public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsumerSettings, IStreamDataExporter>, IDataTransferResumable {
 
     private static final Log log = Log.getLog(StreamTransferConsumer.class);
 
@@ -78,9 +81,10 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private StreamConsumerSettings settings;
     private DBSObject sourceObject;
     private OutputStream outputStream;
-    private ZipOutputStream zipStream;
+    private StreamOutputSink outputSink;
     private PrintWriter writer;
     private List<DBDAttributeBinding> metaColumns;
+    private DBDValueFetcher[] valueFetchers;
     private Object[] row;
     private File lobDirectory;
     private long lobCount;
@@ -91,9 +95,31 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private boolean isBinary;
     private boolean initialized = false;
 
+    private DataTransferCheckpoint checkpoint;
+    // Source key of the last exported row (for keyed checkpoints)
+    private int keyIndex = -1;
+    private Object lastKeyValue;
+    private DBPDataSource sourceDataSource;
+
     public StreamTransferConsumer() {
     }
 
+    @NotNull
+    @Override
+    public String getCheckpointId() {
+        Object extension = processorProperties == null ? null : processorProperties.get(StreamConsumerSettings.PROP_FILE_EXTENSION);
+        return new File(settings.getOutputFolder(), settings.getOutputFilePattern()).getPath() + "." + extension;
+    }
+
+    /**
+     * Export is resumed from the first unfinished output file part, so only split output can be resumed
+     * from the middle. Each finished part is checkpointed.
+     */
+    @Override
+    public void setCheckpoint(@Nullable DataTransferCheckpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     @Override
     public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
         if (!initialized) {
@@ -108,7 +134,22 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             DBDAttributeBinding columnBinding = DBUtils.getAttributeBinding(session, attribute);
             metaColumns.add(columnBinding);
         }
+        valueFetchers = new DBDValueFetcher[metaColumns.size()];
+        for (int i = 0; i < valueFetchers.length; i++) {
+            DBDAttributeBinding column = metaColumns.get(i);
+            valueFetchers[i] = DBUtils.createValueFetcher(session, resultSet, column.getValueHandler(), column.getAttribute(), column.getOrdinalPosition());
+        }
         row = new Object[metaColumns.size()];
+        keyIndex = -1;
+        sourceDataSource = session.getDataSource();
+        if (checkpoint != null && checkpoint.getKeyAttribute() != null) {
+            for (int i = 0; i < metaColumns.size(); i++) {
+                if (metaColumns.get(i).getName().equalsIgnoreCase(checkpoint.getKeyAttribute())) {
+                    keyIndex = i;
+                    break;
+                }
+            }
+        }
 
         if (!initialized) {
             try {
@@ -132,7 +173,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 DBDAttributeBinding column = metaColumns.get(i);
                 Object value;
                 try {
-                    value = column.getValueHandler().fetchValueObject(session, resultSet, column.getAttribute(), column.getOrdinalPosition());
+                    value = valueFetchers[i].fetchValue(session);
                 } catch (DBCException e) {
                     log.debug("Error fetching '" + column.getAttribute().getName() + "' value: " + e.getMessage());
                     value = null;//new DBDValueError(e);
@@ -159,6 +200,16 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             // Export row
             processor.exportRow(session, resultSet, row);
+            if (keyIndex >= 0) {
+                lastKeyValue = row[keyIndex];
+            }
+
+            if (outputSink != null && !isBinary) {
+                outputSink.addRow();
+                if (outputSink.isPartFull()) {
+                    startNextPart(session);
+                }
+            }
         } catch (IOException e) {
             throw new DBCException("IO error", e);
         } catch (Throwable e) {
@@ -210,32 +261,28 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
         // Open output streams
         boolean outputClipboard = settings.isOutputClipboard();
-        outputFile = !isBinary && outputClipboard ? null : makeOutputFile();
         try {
             if (outputClipboard) {
                 this.outputBuffer = new StringWriter(2048);
                 this.writer = new PrintWriter(this.outputBuffer, true);
             } else {
-                this.outputStream = new BufferedOutputStream(
-                    new FileOutputStream(outputFile),
-                    10000);
-                if (settings.isCompressResults()) {
-                    zipStream = new ZipOutputStream(this.outputStream);
-                    zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-                    StreamTransferConsumer.this.outputStream = zipStream;
+                // Name is translated once, so all parts have the same timestamp
+                boolean resumed = checkpoint != null && checkpoint.isResumed() && checkpoint.getOutputFileName() != null;
+                final String fileName = resumed ? checkpoint.getOutputFileName() : translateOutputPattern();
+                if (checkpoint != null) {
+                    checkpoint.setOutputFileName(fileName);
                 }
+                this.outputSink = new StreamOutputSink(
+                    settings,
+                    part -> makeOutputFile(fileName, part),
+                    part -> makeOutputFileName(fileName, part),
+                    resumed ? checkpoint.getPartNumber() + 1 : 1);
+                this.outputStream = outputSink;
+                this.outputFile = outputSink.getPartFile();
                 if (!isBinary) {
                     this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
                 }
-            }
-
-            // Check for BOM
-            if (!isBinary && !outputClipboard && settings.isOutputEncodingBOM()) {
-                byte[] bom = GeneralUtils.getCharsetBOM(settings.getOutputEncoding());
-                if (bom != null) {
-                    outputStream.write(bom);
-                    outputStream.flush();
-                }
+                writeBOM();
             }
         } catch (IOException e) {
             closeExporter();
@@ -250,6 +297,41 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
+    private void writeBOM() throws IOException {
+        if (!isBinary && settings.isOutputEncodingBOM()) {
+            byte[] bom = GeneralUtils.getCharsetBOM(settings.getOutputEncoding());
+            if (bom != null) {
+                outputStream.write(bom);
+                outputStream.flush();
+            }
+        }
+    }
+
+    /**
+     * Closes current output file part and continues export in the next one.
+     * Each part gets its own header and footer, so it can be read independently.
+     */
+    private void startNextPart(DBCSession session) throws DBException, IOException {
+        processor.exportFooter(session.getProgressMonitor());
+        exportSite.flush();
+        long partRows = outputSink.getPartRows();
+        outputSink.nextPart();
+        if (checkpoint != null) {
+            String lastKey = null;
+            if (keyIndex >= 0 && lastKeyValue != null && sourceDataSource != null && !(lastKeyValue instanceof DBDContent)) {
+                lastKey = SQLUtils.convertValueToSQL(sourceDataSource, metaColumns.get(keyIndex), lastKeyValue);
+            }
+            checkpoint.commitPart(partRows, outputFile.length(), lastKey);
+        }
+        if (settings.isExecuteProcessOnFinish()) {
+            // Output file still refers to the finished part
+            executeFinishCommand();
+        }
+        outputFile = outputSink.getPartFile();
+        writeBOM();
+        processor.exportHeader(session);
+    }
+
     private void closeExporter() {
         if (exportSite != null) {
             try {
@@ -265,28 +347,17 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             processor = null;
         }
 
-        // Finish zip stream
-        if (zipStream != null) {
-            try {
-                zipStream.closeEntry();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-            try {
-                zipStream.finish();
-            } catch (IOException e) {
-                log.debug(e);
-            }
-        }
         if (this.writer != null) {
             ContentUtils.close(this.writer);
             this.writer = null;
         }
 
+        // Finishes compression of the last part
         if (outputStream != null) {
             ContentUtils.close(outputStream);
             outputStream = null;
         }
+        outputSink = null;
     }
 
     @Override
@@ -358,10 +429,27 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     }
 
     public String getOutputFileName() {
-        Object extension = processorProperties.get(StreamConsumerSettings.PROP_FILE_EXTENSION);
-        String fileName = translatePattern(
+        return makeOutputFileName(translateOutputPattern(), 1);
+    }
+
+    public File makeOutputFile() {
+        return makeOutputFile(translateOutputPattern(), 1);
+    }
+
+    private String translateOutputPattern() {
+        return translatePattern(
             settings.getOutputFilePattern(),
             null).trim();
+    }
+
+    /**
+     * Parts after the first one get a number suffix: table.csv, table_2.csv, table_3.csv, ...
+     */
+    private String makeOutputFileName(String fileName, int part) {
+        if (part > 1) {
+            fileName += "_" + part;
+        }
+        Object extension = processorProperties.get(StreamConsumerSettings.PROP_FILE_EXTENSION);
         if (extension != null) {
             return fileName + "." + extension;
         } else {
@@ -369,16 +457,16 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    public File makeOutputFile() {
+    private File makeOutputFile(String fileName, int part) {
         File dir = new File(settings.getOutputFolder());
         if (!dir.exists() && !dir.mkdirs()) {
             log.error("Can't create output directory '" + dir.getAbsolutePath() + "'");
         }
-        String fileName = getOutputFileName();
+        String outputFileName = makeOutputFileName(fileName, part);
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            outputFileName += "." + settings.getCompressionFormat().getExtension();
         }
-        return new File(dir, fileName);
+        return new File(dir, outputFileName);
     }
 
     private String translatePattern(String pattern, final File targetFile) {
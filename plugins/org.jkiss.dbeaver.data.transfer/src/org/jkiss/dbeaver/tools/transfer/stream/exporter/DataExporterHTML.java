@@ -67,6 +67,7 @@ public class DataExporterHTML extends StreamExporterAbstract {
     public void exportHeader(DBCSession session) throws DBException, IOException
     {
         columns = getSite().getAttributes();
+        rowCount = 0;
         printHeader();
     }
 
@@ -74,6 +74,7 @@ public class DataExporterJSON extends StreamExporterAbstract {
     {
         columns = getSite().getAttributes();
         tableName = getSite().getSource().getName();
+        rowNum = 0;
         printHeader();
     }
 
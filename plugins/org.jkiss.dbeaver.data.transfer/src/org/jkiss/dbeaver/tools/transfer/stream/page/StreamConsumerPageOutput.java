@@ -42,6 +42,10 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionFormatCombo;
+    private Button splitFilesCheckbox;
+    private Text maxFileSizeText;
+    private Text maxFileRowsText;
     private Button showFolderCheckbox;
     private Button execProcessCheckbox;
     private Text execProcessText;
@@ -141,13 +145,42 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
             }
 
             compressCheckbox = UIUtils.createLabelCheckbox(generalSettings, DTMessages.data_transfer_wizard_output_checkbox_compress, false);
-            compressCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, true, false, 4, 1));
+            compressCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 1, 1));
             compressCheckbox.addSelectionListener(new SelectionAdapter() {
                 @Override
                 public void widgetSelected(SelectionEvent e) {
                     settings.setCompressResults(compressCheckbox.getSelection());
+                    toggleClipboardOutput();
+                }
+            });
+            compressionFormatCombo = UIUtils.createLabelCombo(generalSettings, "Compression format", SWT.DROP_DOWN | SWT.READ_ONLY);
+            compressionFormatCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 2, 1));
+            for (StreamConsumerSettings.CompressionFormat format : StreamConsumerSettings.CompressionFormat.values()) {
+                compressionFormatCombo.add(format.getExtension());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamConsumerSettings.CompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                }
+            });
+
+            splitFilesCheckbox = UIUtils.createLabelCheckbox(generalSettings, "Split output files", "Write output into several files of limited size", false);
+            splitFilesCheckbox.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 4, 1));
+            splitFilesCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setSplitOutFiles(splitFilesCheckbox.getSelection());
+                    toggleClipboardOutput();
                 }
             });
+            maxFileSizeText = UIUtils.createLabelText(generalSettings, "Maximum file size (MB)", "");
+            maxFileSizeText.setToolTipText("Approximate size of each output file. 0 means no limit");
+            maxFileSizeText.addModifyListener(e -> settings.setMaxOutFileSize(CommonUtils.toLong(maxFileSizeText.getText()) * 1024 * 1024));
+            maxFileRowsText = UIUtils.createLabelText(generalSettings, "Maximum rows", "");
+            maxFileRowsText.setToolTipText("Maximum number of rows in each output file. 0 means no limit");
+            maxFileRowsText.setLayoutData(new GridData(GridData.FILL, GridData.BEGINNING, true, false, 2, 1));
+            maxFileRowsText.addModifyListener(e -> settings.setMaxOutFileRows(CommonUtils.toLong(maxFileRowsText.getText())));
         }
 
         {
@@ -214,6 +247,11 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard);
+        compressionFormatCombo.setEnabled(!clipboard && compressCheckbox.getSelection());
+        // Binary formats can't be split on row boundaries
+        splitFilesCheckbox.setEnabled(!isBinary && !clipboard);
+        maxFileSizeText.setEnabled(!isBinary && !clipboard && splitFilesCheckbox.getSelection());
+        maxFileRowsText.setEnabled(!isBinary && !clipboard && splitFilesCheckbox.getSelection());
         encodingCombo.setEnabled(!isBinary && !clipboard);
         encodingBOMLabel.setEnabled(!isBinary && !clipboard);
         encodingBOMCheckbox.setEnabled(!isBinary && !clipboard);
@@ -239,6 +277,10 @@ public class StreamConsumerPageOutput extends ActiveWizardPage<DataTransferWizar
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
+        maxFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize() / (1024 * 1024)));
+        maxFileRowsText.setText(String.valueOf(settings.getMaxOutFileRows()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
         encodingBOMCheckbox.setSelection(settings.isOutputEncodingBOM());
         showFolderCheckbox.setSelection(settings.isOpenFolderOnFinish());
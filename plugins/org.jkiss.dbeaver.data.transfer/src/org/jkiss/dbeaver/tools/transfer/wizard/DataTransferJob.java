@@ -25,20 +25,22 @@ import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
-import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
+import org.jkiss.dbeaver.tools.transfer.*;
+import org.jkiss.dbeaver.tools.transfer.internal.DTActivator;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
 import org.jkiss.utils.CommonUtils;
 
+import java.io.File;
+
 /**
  * Data transfer job
  */
 public class DataTransferJob extends AbstractJob {
 
+    private static final String CHECKPOINTS_FOLDER = "checkpoints";
+
     private DataTransferSettings settings;
 
     public DataTransferJob(DataTransferSettings settings)
@@ -108,6 +110,7 @@ public class DataTransferJob extends AbstractJob {
             CommonUtils.truncateString(consumer.getObjectName(), 200)));
 
         IDataTransferSettings nodeSettings = settings.getNodeSettings(producer);
+        DataTransferCheckpoint checkpoint = openCheckpoint(producer, consumer);
         try {
             //consumer.initTransfer(producer.getDatabaseObject(), consumerSettings, );
 
@@ -118,6 +121,9 @@ public class DataTransferJob extends AbstractJob {
                 processor,
                 nodeSettings);
             consumer.finishTransfer(monitor, false);
+            if (checkpoint != null && !monitor.isCanceled()) {
+                checkpoint.delete();
+            }
             return true;
         } catch (Exception e) {
             new DataTransferErrorJob(e).schedule();
@@ -126,4 +132,21 @@ public class DataTransferJob extends AbstractJob {
 
     }
 
+    /**
+     * Checkpoint is shared by producer and consumer of the pipe.
+     * It stays on disk until the pipe is finished, so the next run with resume option continues from it.
+     */
+    private DataTransferCheckpoint openCheckpoint(IDataTransferProducer producer, IDataTransferConsumer consumer)
+    {
+        if (!settings.isResumeTransfer() || !(producer instanceof IDataTransferResumable) || !(consumer instanceof IDataTransferResumable)) {
+            return null;
+        }
+        String pipeId = ((IDataTransferResumable) producer).getCheckpointId() + " -> " + ((IDataTransferResumable) consumer).getCheckpointId();
+        File folder = new File(DTActivator.getDefault().getStateLocation().toFile(), CHECKPOINTS_FOLDER);
+        DataTransferCheckpoint checkpoint = DataTransferCheckpoint.open(folder, pipeId, true);
+        ((IDataTransferResumable) producer).setCheckpoint(checkpoint);
+        ((IDataTransferResumable) consumer).setCheckpoint(checkpoint);
+        return checkpoint;
+    }
+
 }
@@ -79,6 +79,7 @@ public class DataTransferSettings {
     private transient int curPipeNum = 0;
 
     private boolean showFinalMessage = true;
+    private boolean resumeTransfer = false;
 
     public DataTransferSettings(@Nullable IDataTransferProducer[] producers, @Nullable IDataTransferConsumer[] consumers) {
         dataPipes = new ArrayList<>();
@@ -368,6 +369,17 @@ public class DataTransferSettings {
         this.showFinalMessage = showFinalMessage;
     }
 
+    /**
+     * Save checkpoints during transfer and resume interrupted transfers from their checkpoints
+     */
+    public boolean isResumeTransfer() {
+        return resumeTransfer;
+    }
+
+    public void setResumeTransfer(boolean resumeTransfer) {
+        this.resumeTransfer = resumeTransfer;
+    }
+
     void loadFrom(IRunnableContext runnableContext, IDialogSettings dialogSettings) {
         try {
             maxJobCount = dialogSettings.getInt("maxJobCount");
@@ -377,6 +389,9 @@ public class DataTransferSettings {
         if (dialogSettings.get("showFinalMessage") != null) {
             showFinalMessage = dialogSettings.getBoolean("showFinalMessage");
         }
+        if (dialogSettings.get("resumeTransfer") != null) {
+            resumeTransfer = dialogSettings.getBoolean("resumeTransfer");
+        }
 
         if (consumerOptional || producerOptional) {
             DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, savedNode = null;
@@ -449,6 +464,7 @@ public class DataTransferSettings {
     void saveTo(IDialogSettings dialogSettings) {
         dialogSettings.put("maxJobCount", maxJobCount);
         dialogSettings.put("showFinalMessage", showFinalMessage);
+        dialogSettings.put("resumeTransfer", resumeTransfer);
         // Save nodes' settings
         for (Map.Entry<Class, NodeSettings> entry : nodeSettings.entrySet()) {
             IDialogSettings nodeSection = DialogSettings.getOrCreateSection(dialogSettings, entry.getKey().getSimpleName());
@@ -56,6 +56,7 @@ public class DelegatingLayoutManager implements LayoutManager {
 
     public void rearrange(IFigure container)
     {
+        graphLayoutManager.resetLayout();
         graphLayoutManager.layout(container);
         xyLayoutManager.cleanupConstraints();
     }
@@ -25,19 +25,25 @@ import org.eclipse.draw2d.IFigure;
 import org.eclipse.draw2d.geometry.Dimension;
 import org.eclipse.draw2d.geometry.Rectangle;
 import org.jkiss.dbeaver.ext.erd.layout.algorithm.direct.DirectedGraphLayoutVisitor;
+import org.jkiss.dbeaver.ext.erd.layout.algorithm.force.ForceDirectedLayoutVisitor;
 import org.jkiss.dbeaver.ext.erd.part.DiagramPart;
 
 import java.util.List;
 
 
 /**
- * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram
+ * Uses the DirectedGraphLayoutVisitor to automatically lay out figures on diagram.
+ * Big diagrams are laid out with ForceDirectedLayoutVisitor in background.
  * @author Serge Rider
  */
 public class GraphLayoutAuto extends AbstractLayout
 {
 
+	// Directed graph layout is too slow for bigger diagrams
+	private static final int MAX_DIRECTED_LAYOUT_ENTITIES = 200;
+
 	private DiagramPart diagram;
+	private ForceDirectedLayoutVisitor forceLayout;
 
 	public GraphLayoutAuto(DiagramPart diagram)
 	{
@@ -61,6 +67,10 @@ public class GraphLayoutAuto extends AbstractLayout
 	@Override
     public void layout(IFigure container)
 	{
+        if (diagram.getChildren().size() > MAX_DIRECTED_LAYOUT_ENTITIES) {
+            layoutBigDiagram();
+            return;
+        }
         Animation.markBegin();
 /*
 		GraphAnimation.recordInitialState(container);
@@ -75,5 +85,31 @@ public class GraphLayoutAuto extends AbstractLayout
 
         Animation.run(400);
 	}
-	
+
+	/**
+	 * Drops previous layout results so next layout will be calculated from scratch
+	 */
+	public void resetLayout()
+	{
+		if (forceLayout != null) {
+			forceLayout.cancel();
+			forceLayout = null;
+		}
+	}
+
+	private void layoutBigDiagram()
+	{
+		// Layout is invalidated often (e.g. on scroll or zoom) - reuse results while graph remains the same
+		if (forceLayout != null && forceLayout.isSameGraph(diagram)) {
+			if (forceLayout.isFinished()) {
+				forceLayout.applyDiagramResults();
+			}
+		} else {
+			resetLayout();
+			forceLayout = new ForceDirectedLayoutVisitor(diagram.getDiagram().getDecorator());
+			forceLayout.layoutDiagram(diagram);
+		}
+		diagram.setTableModelBounds();
+	}
+
 }
\ No newline at end of file
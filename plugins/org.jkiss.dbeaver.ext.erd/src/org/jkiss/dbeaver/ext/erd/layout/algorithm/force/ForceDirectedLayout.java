@@ -0,0 +1,534 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.erd.layout.algorithm.force;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Multilevel force-directed layout.
+ *
+ * Graph is coarsened by merging matched neighbour nodes until it becomes small. The coarsest graph is laid out
+ * from scratch, then each finer level starts from positions of its coarse nodes and is refined with fewer iterations.
+ * Repulsive forces are approximated with Barnes-Hut quadtree, so each iteration takes O(N log N).
+ * Finally node boxes are moved apart to remove overlaps.
+ *
+ * This class doesn't depend on UI and may be used in any thread.
+ */
+public class ForceDirectedLayout {
+
+    private static final int MIN_COARSE_NODES = 30;
+    private static final int COARSEST_ITERATIONS = 300;
+    private static final int REFINE_ITERATIONS = 60;
+    private static final double BARNES_HUT_THETA = 0.8;
+    // Weak repulsion makes layout compact, overlaps are resolved afterwards
+    private static final double REPULSION = 0.1;
+    private static final double GRAVITY = 0.2;
+    private static final int OVERLAP_REMOVAL_PASSES = 50;
+    private static final double OVERLAP_SCALE_FACTOR = 1.2;
+
+    private final int nodeCount;
+    private final int[] widths;
+    private final int[] heights;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final double[] x;
+    private final double[] y;
+    private int spacing = 20;
+    private long seed = 1;
+    private volatile boolean canceled;
+
+    /**
+     * @param widths node widths
+     * @param heights node heights
+     * @param edgeSources edge source node indexes
+     * @param edgeTargets edge target node indexes
+     */
+    public ForceDirectedLayout(int[] widths, int[] heights, int[] edgeSources, int[] edgeTargets) {
+        if (widths.length != heights.length || edgeSources.length != edgeTargets.length) {
+            throw new IllegalArgumentException("Bad graph dimensions");
+        }
+        this.nodeCount = widths.length;
+        this.widths = widths;
+        this.heights = heights;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.x = new double[nodeCount];
+        this.y = new double[nodeCount];
+    }
+
+    public int getSpacing() {
+        return spacing;
+    }
+
+    /**
+     * Minimal gap between node boxes
+     */
+    public void setSpacing(int spacing) {
+        this.spacing = spacing;
+    }
+
+    /**
+     * Random seed. The same seed produces the same layout of the same graph.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public void cancel() {
+        canceled = true;
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    /**
+     * X coordinate of node top-left corner
+     */
+    public int getX(int node) {
+        return (int) Math.round(x[node] - widths[node] / 2.0);
+    }
+
+    /**
+     * Y coordinate of node top-left corner
+     */
+    public int getY(int node) {
+        return (int) Math.round(y[node] - heights[node] / 2.0);
+    }
+
+    public void layout() {
+        if (nodeCount == 0) {
+            return;
+        }
+        Random random = new Random(seed);
+
+        // Finest level
+        double[] mass = new double[nodeCount];
+        double sizeSum = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            mass[i] = 1;
+            sizeSum += Math.sqrt((double) widths[i] * widths[i] + (double) heights[i] * heights[i]);
+        }
+        // Ideal edge length: average node diagonal plus spacing
+        double idealLength = sizeSum / nodeCount + spacing * 2;
+
+        List<Level> levels = new ArrayList<>();
+        Level level = new Level(nodeCount, mass, edgeSources, edgeTargets);
+        levels.add(level);
+        while (level.nodeCount > MIN_COARSE_NODES) {
+            Level coarse = level.coarsen(random);
+            if (coarse == null) {
+                break;
+            }
+            levels.add(coarse);
+            level = coarse;
+        }
+
+        // Layout the coarsest level
+        Level coarsest = levels.get(levels.size() - 1);
+        double radius = idealLength * Math.sqrt(nodeCount);
+        for (int i = 0; i < coarsest.nodeCount; i++) {
+            coarsest.x[i] = (random.nextDouble() - 0.5) * radius;
+            coarsest.y[i] = (random.nextDouble() - 0.5) * radius;
+        }
+        coarsest.layout(idealLength, COARSEST_ITERATIONS, radius / 4, random);
+
+        // Refine
+        for (int i = levels.size() - 2; i >= 0 && !canceled; i--) {
+            Level fine = levels.get(i);
+            Level coarse = levels.get(i + 1);
+            for (int k = 0; k < fine.nodeCount; k++) {
+                int parent = fine.parents[k];
+                fine.x[k] = coarse.x[parent] + (random.nextDouble() - 0.5) * idealLength * 0.2;
+                fine.y[k] = coarse.y[parent] + (random.nextDouble() - 0.5) * idealLength * 0.2;
+            }
+            fine.layout(idealLength, REFINE_ITERATIONS, idealLength * 2, random);
+        }
+
+        Level finest = levels.get(0);
+        System.arraycopy(finest.x, 0, x, 0, nodeCount);
+        System.arraycopy(finest.y, 0, y, 0, nodeCount);
+
+        // If boxes are too dense to be moved apart locally then spread the whole layout
+        while (!canceled && !removeOverlaps()) {
+            for (int i = 0; i < nodeCount; i++) {
+                x[i] *= OVERLAP_SCALE_FACTOR;
+                y[i] *= OVERLAP_SCALE_FACTOR;
+            }
+        }
+        normalizePositions();
+    }
+
+    /**
+     * Moves overlapping boxes apart along the axis of the smallest overlap.
+     * Candidate pairs are found with a sweep over boxes sorted by left edge.
+     * @return false if some overlaps remain
+     */
+    private boolean removeOverlaps() {
+        Integer[] order = new Integer[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            order[i] = i;
+        }
+        for (int pass = 0; pass < OVERLAP_REMOVAL_PASSES && !canceled; pass++) {
+            Arrays.sort(order, (o1, o2) -> Double.compare(left(o1), left(o2)));
+            boolean moved = false;
+            for (int i = 0; i < nodeCount; i++) {
+                int a = order[i];
+                double aRight = left(a) + widths[a] + spacing;
+                for (int k = i + 1; k < nodeCount; k++) {
+                    int b = order[k];
+                    if (left(b) >= aRight) {
+                        break;
+                    }
+                    double overlapX = (widths[a] + widths[b]) / 2.0 + spacing - Math.abs(x[a] - x[b]);
+                    double overlapY = (heights[a] + heights[b]) / 2.0 + spacing - Math.abs(y[a] - y[b]);
+                    if (overlapX <= 0 || overlapY <= 0) {
+                        continue;
+                    }
+                    moved = true;
+                    if (overlapX < overlapY) {
+                        double shift = overlapX / 2 + 0.5;
+                        if (x[a] <= x[b]) {
+                            x[a] -= shift;
+                            x[b] += shift;
+                        } else {
+                            x[a] += shift;
+                            x[b] -= shift;
+                        }
+                    } else {
+                        double shift = overlapY / 2 + 0.5;
+                        if (y[a] <= y[b]) {
+                            y[a] -= shift;
+                            y[b] += shift;
+                        } else {
+                            y[a] += shift;
+                            y[b] -= shift;
+                        }
+                    }
+                }
+            }
+            if (!moved) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double left(int node) {
+        return x[node] - widths[node] / 2.0;
+    }
+
+    private void normalizePositions() {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        for (int i = 0; i < nodeCount; i++) {
+            minX = Math.min(minX, x[i] - widths[i] / 2.0);
+            minY = Math.min(minY, y[i] - heights[i] / 2.0);
+        }
+        for (int i = 0; i < nodeCount; i++) {
+            x[i] += spacing - minX;
+            y[i] += spacing - minY;
+        }
+    }
+
+    /**
+     * Graph of one coarsening level
+     */
+    private class Level {
+        final int nodeCount;
+        final double[] mass;
+        // Adjacency lists (CSR)
+        final int[] adjOffsets;
+        final int[] adjTargets;
+        final double[] adjWeights;
+        // Parent node index in the coarser level
+        int[] parents;
+        final double[] x;
+        final double[] y;
+
+        Level(int nodeCount, double[] mass, int[] sources, int[] targets) {
+            this(nodeCount, mass, sources, targets, null);
+        }
+
+        Level(int nodeCount, double[] mass, int[] sources, int[] targets, double[] weights) {
+            this.nodeCount = nodeCount;
+            this.mass = mass;
+            this.x = new double[nodeCount];
+            this.y = new double[nodeCount];
+
+            int[] degrees = new int[nodeCount];
+            for (int i = 0; i < sources.length; i++) {
+                if (sources[i] != targets[i]) {
+                    degrees[sources[i]]++;
+                    degrees[targets[i]]++;
+                }
+            }
+            adjOffsets = new int[nodeCount + 1];
+            for (int i = 0; i < nodeCount; i++) {
+                adjOffsets[i + 1] = adjOffsets[i] + degrees[i];
+            }
+            adjTargets = new int[adjOffsets[nodeCount]];
+            adjWeights = new double[adjOffsets[nodeCount]];
+            int[] fill = Arrays.copyOf(adjOffsets, nodeCount);
+            for (int i = 0; i < sources.length; i++) {
+                int s = sources[i], t = targets[i];
+                if (s == t) {
+                    continue;
+                }
+                double weight = weights == null ? 1 : weights[i];
+                adjTargets[fill[s]] = t;
+                adjWeights[fill[s]++] = weight;
+                adjTargets[fill[t]] = s;
+                adjWeights[fill[t]++] = weight;
+            }
+        }
+
+        /**
+         * Merges each node with its unmatched neighbour of the smallest mass.
+         * Returns null if graph can't be reduced significantly.
+         */
+        Level coarsen(Random random) {
+            int[] order = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                order[i] = i;
+            }
+            for (int i = nodeCount - 1; i > 0; i--) {
+                int k = random.nextInt(i + 1);
+                int tmp = order[i];
+                order[i] = order[k];
+                order[k] = tmp;
+            }
+            int[] match = new int[nodeCount];
+            Arrays.fill(match, -1);
+            int coarseCount = 0;
+            parents = new int[nodeCount];
+            for (int node : order) {
+                if (match[node] != -1) {
+                    continue;
+                }
+                int best = -1;
+                for (int i = adjOffsets[node]; i < adjOffsets[node + 1]; i++) {
+                    int neighbour = adjTargets[i];
+                    if (match[neighbour] == -1 && neighbour != node && (best == -1 || mass[neighbour] < mass[best])) {
+                        best = neighbour;
+                    }
+                }
+                match[node] = best == -1 ? node : best;
+                parents[node] = coarseCount;
+                if (best != -1) {
+                    match[best] = node;
+                    parents[best] = coarseCount;
+                }
+                coarseCount++;
+            }
+            if (coarseCount > nodeCount * 0.9) {
+                parents = null;
+                return null;
+            }
+
+            double[] coarseMass = new double[coarseCount];
+            for (int i = 0; i < nodeCount; i++) {
+                coarseMass[parents[i]] += mass[i];
+            }
+            // Coarse edges (duplicates are kept - they just increase attraction)
+            int edgeCount = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                for (int k = adjOffsets[i]; k < adjOffsets[i + 1]; k++) {
+                    int t = adjTargets[k];
+                    if (i < t && parents[i] != parents[t]) {
+                        edgeCount++;
+                    }
+                }
+            }
+            int[] sources = new int[edgeCount], targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            int pos = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                for (int k = adjOffsets[i]; k < adjOffsets[i + 1]; k++) {
+                    int t = adjTargets[k];
+                    if (i < t && parents[i] != parents[t]) {
+                        sources[pos] = parents[i];
+                        targets[pos] = parents[t];
+                        weights[pos++] = adjWeights[k];
+                    }
+                }
+            }
+            return new Level(coarseCount, coarseMass, sources, targets, weights);
+        }
+
+        void layout(double idealLength, int iterations, double initialTemperature, Random random) {
+            double[] fx = new double[nodeCount];
+            double[] fy = new double[nodeCount];
+            double temperature = initialTemperature;
+            double cooling = Math.pow(idealLength / 10 / initialTemperature, 1.0 / iterations);
+            for (int iteration = 0; iteration < iterations; iteration++) {
+                if (canceled) {
+                    return;
+                }
+                Arrays.fill(fx, 0);
+                Arrays.fill(fy, 0);
+
+                // Repulsion
+                QuadTree tree = new QuadTree(this);
+                for (int i = 0; i < nodeCount; i++) {
+                    tree.addRepulsion(i, idealLength, fx, fy, random);
+                }
+                // Attraction
+                for (int i = 0; i < nodeCount; i++) {
+                    for (int k = adjOffsets[i]; k < adjOffsets[i + 1]; k++) {
+                        int t = adjTargets[k];
+                        double dx = x[t] - x[i], dy = y[t] - y[i];
+                        double distance = Math.sqrt(dx * dx + dy * dy);
+                        // Aggregated nodes are bigger - their ideal distance is bigger too
+                        double length = idealLength * Math.sqrt((mass[i] + mass[t]) / 2);
+                        double force = adjWeights[k] * distance / length;
+                        fx[i] += dx * force;
+                        fy[i] += dy * force;
+                    }
+                    // Gravity keeps disconnected components together
+                    fx[i] -= GRAVITY * mass[i] * x[i];
+                    fy[i] -= GRAVITY * mass[i] * y[i];
+                }
+                // Move
+                for (int i = 0; i < nodeCount; i++) {
+                    double force = Math.sqrt(fx[i] * fx[i] + fy[i] * fy[i]);
+                    if (force > 0) {
+                        double step = Math.min(force / mass[i], temperature);
+                        x[i] += fx[i] / force * step;
+                        y[i] += fy[i] / force * step;
+                    }
+                }
+                temperature *= cooling;
+            }
+        }
+    }
+
+    /**
+     * Barnes-Hut quadtree
+     */
+    private static class QuadTree {
+        private static final int MAX_DEPTH = 40;
+
+        private final Level level;
+        private final Cell root;
+
+        private static class Cell {
+            final double centerX, centerY, halfSize;
+            double mass, massX, massY;
+            int body = -1;
+            Cell[] children;
+
+            Cell(double centerX, double centerY, double halfSize) {
+                this.centerX = centerX;
+                this.centerY = centerY;
+                this.halfSize = halfSize;
+            }
+        }
+
+        QuadTree(Level level) {
+            this.level = level;
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < level.nodeCount; i++) {
+                minX = Math.min(minX, level.x[i]);
+                minY = Math.min(minY, level.y[i]);
+                maxX = Math.max(maxX, level.x[i]);
+                maxY = Math.max(maxY, level.y[i]);
+            }
+            double halfSize = Math.max(maxX - minX, maxY - minY) / 2 + 1;
+            root = new Cell((minX + maxX) / 2, (minY + maxY) / 2, halfSize);
+            for (int i = 0; i < level.nodeCount; i++) {
+                insert(root, i, 0);
+            }
+        }
+
+        private void insert(Cell cell, int body, int depth) {
+            double bodyMass = level.mass[body];
+            if (cell.mass == 0 && cell.children == null) {
+                cell.body = body;
+            } else {
+                if (cell.children == null && depth < MAX_DEPTH) {
+                    // Split leaf
+                    cell.children = new Cell[4];
+                    int oldBody = cell.body;
+                    cell.body = -1;
+                    insert(getChild(cell, oldBody), oldBody, depth + 1);
+                }
+                if (cell.children != null) {
+                    insert(getChild(cell, body), body, depth + 1);
+                }
+            }
+            double newMass = cell.mass + bodyMass;
+            cell.massX = (cell.massX * cell.mass + level.x[body] * bodyMass) / newMass;
+            cell.massY = (cell.massY * cell.mass + level.y[body] * bodyMass) / newMass;
+            cell.mass = newMass;
+        }
+
+        private Cell getChild(Cell cell, int body) {
+            int index = (level.x[body] >= cell.centerX ? 1 : 0) + (level.y[body] >= cell.centerY ? 2 : 0);
+            Cell child = cell.children[index];
+            if (child == null) {
+                double half = cell.halfSize / 2;
+                child = new Cell(
+                    cell.centerX + ((index & 1) != 0 ? half : -half),
+                    cell.centerY + ((index & 2) != 0 ? half : -half),
+                    half);
+                cell.children[index] = child;
+            }
+            return child;
+        }
+
+        void addRepulsion(int body, double idealLength, double[] fx, double[] fy, Random random) {
+            addRepulsion(root, body, idealLength * idealLength * REPULSION, fx, fy, random);
+        }
+
+        private void addRepulsion(Cell cell, int body, double k2, double[] fx, double[] fy, Random random) {
+            if (cell == null || cell.mass == 0 || cell.body == body) {
+                return;
+            }
+            double dx = level.x[body] - cell.massX;
+            double dy = level.y[body] - cell.massY;
+            double distance2 = dx * dx + dy * dy;
+            boolean isLeaf = cell.children == null;
+            if (isLeaf || (cell.halfSize * 2) * (cell.halfSize * 2) < BARNES_HUT_THETA * BARNES_HUT_THETA * distance2) {
+                if (distance2 < 0.01) {
+                    // Coincident nodes - push in random direction
+                    dx = random.nextDouble() - 0.5;
+                    dy = random.nextDouble() - 0.5;
+                    distance2 = dx * dx + dy * dy;
+                }
+                double cellMass = cell.mass;
+                if (isLeaf && cell.body == -1) {
+                    // Leaf at max depth contains body itself
+                    cellMass -= level.mass[body];
+                    if (cellMass <= 0) {
+                        return;
+                    }
+                }
+                double force = k2 * level.mass[body] * cellMass / distance2;
+                fx[body] += dx * force;
+                fy[body] += dy * force;
+            } else {
+                for (Cell child : cell.children) {
+                    addRepulsion(child, body, k2, fx, fy, random);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.erd.layout.algorithm.force;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.draw2d.IFigure;
+import org.eclipse.draw2d.PolylineConnection;
+import org.eclipse.draw2d.geometry.Dimension;
+import org.eclipse.draw2d.geometry.Insets;
+import org.eclipse.draw2d.geometry.Rectangle;
+import org.eclipse.gef.GraphicalEditPart;
+import org.eclipse.gef.editparts.AbstractConnectionEditPart;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.erd.model.ERDDecorator;
+import org.jkiss.dbeaver.ext.erd.part.DiagramPart;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.ui.UIUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lays out big diagrams with force-directed layout.
+ *
+ * Node sizes and edges are collected in UI thread, then layout is calculated in background job.
+ * Until then nodes are placed in a simple grid. Results are applied in UI thread.
+ */
+public class ForceDirectedLayoutVisitor {
+
+    private static final Log log = Log.getLog(ForceDirectedLayoutVisitor.class);
+
+    private final ERDDecorator decorator;
+    private final List<GraphicalEditPart> nodeParts = new ArrayList<>();
+    private final List<AbstractConnectionEditPart> connectionParts = new ArrayList<>();
+    private ForceDirectedLayout layout;
+    private volatile boolean finished;
+
+    public ForceDirectedLayoutVisitor(ERDDecorator decorator) {
+        this.decorator = decorator;
+    }
+
+    public void layoutDiagram(DiagramPart diagram)
+    {
+        Map<Object, Integer> partIndexes = new IdentityHashMap<>();
+        for (Object child : diagram.getChildren()) {
+            partIndexes.put(child, nodeParts.size());
+            nodeParts.add((GraphicalEditPart) child);
+        }
+        int[] widths = new int[nodeParts.size()];
+        int[] heights = new int[nodeParts.size()];
+        for (int i = 0; i < nodeParts.size(); i++) {
+            Dimension preferredSize = nodeParts.get(i).getFigure().getPreferredSize(-1, -1);
+            widths[i] = preferredSize.width;
+            heights[i] = preferredSize.height;
+        }
+        List<int[]> edges = new ArrayList<>();
+        for (GraphicalEditPart nodePart : nodeParts) {
+            for (Object connection : nodePart.getSourceConnections()) {
+                AbstractConnectionEditPart connectionPart = (AbstractConnectionEditPart) connection;
+                connectionParts.add(connectionPart);
+                Integer source = partIndexes.get(connectionPart.getSource());
+                Integer target = partIndexes.get(connectionPart.getTarget());
+                if (source == null || target == null) {
+                    log.warn("Source or target node not found");
+                    continue;
+                }
+                edges.add(new int[] { source, target });
+            }
+        }
+        int[] edgeSources = new int[edges.size()];
+        int[] edgeTargets = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            edgeSources[i] = edges.get(i)[0];
+            edgeTargets[i] = edges.get(i)[1];
+        }
+
+        Insets insets = decorator.getDefaultEntityInsets();
+        layout = new ForceDirectedLayout(widths, heights, edgeSources, edgeTargets);
+        layout.setSpacing(Math.max(insets.getWidth(), insets.getHeight()));
+
+        applyGridLayout(widths, heights, layout.getSpacing());
+
+        new LayoutJob(diagram).schedule();
+    }
+
+    /**
+     * Checks that diagram has the same nodes and connections as laid out graph
+     */
+    public boolean isSameGraph(DiagramPart diagram)
+    {
+        List<?> children = diagram.getChildren();
+        if (children.size() != nodeParts.size()) {
+            return false;
+        }
+        int connectionCount = 0;
+        for (int i = 0; i < children.size(); i++) {
+            if (children.get(i) != nodeParts.get(i)) {
+                return false;
+            }
+            connectionCount += nodeParts.get(i).getSourceConnections().size();
+        }
+        return connectionCount == connectionParts.size();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public void cancel() {
+        if (layout != null) {
+            layout.cancel();
+        }
+    }
+
+    /**
+     * Applies layout results to figures. Connections are drawn as straight lines.
+     */
+    public void applyDiagramResults()
+    {
+        for (int i = 0; i < nodeParts.size(); i++) {
+            IFigure figure = nodeParts.get(i).getFigure();
+            Dimension preferredSize = figure.getPreferredSize();
+            figure.setBounds(new Rectangle(layout.getX(i), layout.getY(i), preferredSize.width, preferredSize.height));
+        }
+        for (AbstractConnectionEditPart connectionPart : connectionParts) {
+            if (connectionPart.getConnectionFigure() instanceof PolylineConnection) {
+                ((PolylineConnection) connectionPart.getConnectionFigure()).setRoutingConstraint(Collections.emptyList());
+            }
+        }
+    }
+
+    /**
+     * Temporary layout which is shown while force-directed layout is being calculated
+     */
+    private void applyGridLayout(int[] widths, int[] heights, int spacing)
+    {
+        int columns = (int) Math.ceil(Math.sqrt(nodeParts.size()));
+        int x = spacing, y = spacing, rowHeight = 0;
+        for (int i = 0; i < nodeParts.size(); i++) {
+            if (i > 0 && i % columns == 0) {
+                x = spacing;
+                y += rowHeight + spacing;
+                rowHeight = 0;
+            }
+            nodeParts.get(i).getFigure().setBounds(new Rectangle(x, y, widths[i], heights[i]));
+            x += widths[i] + spacing;
+            rowHeight = Math.max(rowHeight, heights[i]);
+        }
+    }
+
+    private class LayoutJob extends AbstractJob {
+
+        private final DiagramPart diagram;
+
+        LayoutJob(DiagramPart diagram) {
+            super("Diagram layout");
+            this.diagram = diagram;
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            long startTime = System.currentTimeMillis();
+            try {
+                layout.layout();
+            } catch (Exception e) {
+                log.error("Diagram layout error", e);
+                return Status.OK_STATUS;
+            }
+            if (layout.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+            log.debug("Diagram layout of " + nodeParts.size() + " entities took " + (System.currentTimeMillis() - startTime) + "ms");
+            finished = true;
+            UIUtils.asyncExec(() -> {
+                if (layout.isCanceled() || !diagram.isActive() || !isSameGraph(diagram)) {
+                    return;
+                }
+                applyDiagramResults();
+                diagram.setTableModelBounds();
+                // Update constraints in case diagram already switched to XY layout
+                diagram.setTableFigureBounds(true);
+                diagram.getFigure().revalidate();
+            });
+            return Status.OK_STATUS;
+        }
+
+        @Override
+        protected void canceling() {
+            cancel();
+        }
+    }
+
+}
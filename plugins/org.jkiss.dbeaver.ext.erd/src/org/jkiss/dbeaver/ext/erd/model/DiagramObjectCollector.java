@@ -20,6 +20,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ext.erd.ERDActivator;
 import org.jkiss.dbeaver.ext.erd.ERDConstants;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -38,6 +39,9 @@ public class DiagramObjectCollector {
 
     private static final Log log = Log.getLog(DiagramObjectCollector.class);
 
+    // Read metadata of all container's tables in one pass if diagram contains many tables from it
+    private static final int BULK_LOAD_MIN_TABLES = 10;
+
     private final EntityDiagram diagram;
     private final List<ERDEntity> erdEntities = new ArrayList<>();
 
@@ -117,6 +121,7 @@ public class DiagramObjectCollector {
     {
         boolean showViews = ERDActivator.getDefault().getPreferenceStore().getBoolean(ERDConstants.PREF_DIAGRAM_SHOW_VIEWS);
         Collection<DBSEntity> tables = collectTables(monitor, roots);
+        preloadTableStructure(monitor, tables);
         for (DBSEntity table : tables) {
             if (DBUtils.isHiddenObject(table)) {
                 // Skip hidden tables
@@ -130,11 +135,46 @@ public class DiagramObjectCollector {
         }
 
         // Add new relations
+        monitor.subTask("Read relations");
         for (ERDEntity erdEntity : erdEntities) {
+            if (monitor.isCanceled()) {
+                break;
+            }
             erdEntity.addModelRelations(monitor, diagram, true, false);
         }
     }
 
+    /**
+     * Reads columns and foreign keys of all tables of each container at once.
+     * Otherwise they are read table by table which is very slow for big schemas.
+     */
+    private static void preloadTableStructure(DBRProgressMonitor monitor, Collection<DBSEntity> tables)
+    {
+        Map<DBSObjectContainer, Integer> containerTables = new IdentityHashMap<>();
+        for (DBSEntity table : tables) {
+            DBSObject parent = table.getParentObject();
+            if (parent instanceof DBSObjectContainer) {
+                containerTables.merge((DBSObjectContainer) parent, 1, Integer::sum);
+            }
+        }
+        for (Map.Entry<DBSObjectContainer, Integer> entry : containerTables.entrySet()) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (entry.getValue() < BULK_LOAD_MIN_TABLES) {
+                continue;
+            }
+            DBSObjectContainer container = entry.getKey();
+            monitor.subTask("Read structure of " + DBUtils.getObjectFullName(container, DBPEvaluationContext.UI));
+            try {
+                container.cacheStructure(monitor, DBSObjectContainer.STRUCT_ATTRIBUTES | DBSObjectContainer.STRUCT_ASSOCIATIONS);
+            } catch (DBException e) {
+                // Not fatal - structure will be read table by table
+                log.debug("Can't cache structure of '" + container.getName() + "': " + e.getMessage());
+            }
+        }
+    }
+
     private void addDiagramEntity(DBRProgressMonitor monitor, DBSEntity table)
     {
         if (diagram.containsTable(table) && !diagram.getDecorator().allowEntityDuplicates()) {
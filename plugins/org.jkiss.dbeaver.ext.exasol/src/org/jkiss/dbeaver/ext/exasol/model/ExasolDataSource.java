@@ -29,11 +29,13 @@ import org.jkiss.dbeaver.ext.exasol.ExasolSQLDialect;
 import org.jkiss.dbeaver.ext.exasol.ExasolSysTablePrefix;
 import org.jkiss.dbeaver.ext.exasol.manager.security.*;
 import org.jkiss.dbeaver.ext.exasol.model.app.ExasolServerSessionManager;
+import org.jkiss.dbeaver.ext.exasol.model.lock.ExasolLockManager;
 import org.jkiss.dbeaver.ext.exasol.model.plan.ExasolPlanAnalyser;
 import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPDataSourceInfo;
 import org.jkiss.dbeaver.model.DBPErrorAssistant;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLockManager;
 import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionManager;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
@@ -296,6 +298,8 @@ public class ExasolDataSource extends JDBCDataSource
 			return adapter.cast(new ExasolStructureAssistant(this));
 		} else if (adapter == DBAServerSessionManager.class) {
 			return adapter.cast(new ExasolServerSessionManager(this));
+		} else if (adapter == DBAServerLockManager.class) {
+			return adapter.cast(new ExasolLockManager(this));
 		}
 		return super.getAdapter(adapter);
 	}
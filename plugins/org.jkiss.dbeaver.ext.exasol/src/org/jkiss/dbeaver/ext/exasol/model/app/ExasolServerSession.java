@@ -17,9 +17,10 @@
  */
 package org.jkiss.dbeaver.ext.exasol.model.app;
 
-import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.sql.ResultSet;
@@ -28,7 +29,7 @@ import java.sql.Timestamp;
 /**
  * @author Karl Griesser
  */
-public class ExasolServerSession implements DBAServerSession {
+public class ExasolServerSession implements DBAServerSessionActivity {
 
     private BigDecimal sessionID;
     private String userName;
@@ -93,6 +94,39 @@ public class ExasolServerSession implements DBAServerSession {
         }
     }
 
+    @Override
+    public Object getSessionId() {
+        return sessionID;
+    }
+
+    @Override
+    public boolean isActive() {
+        return status != null && !status.equals("IDLE");
+    }
+
+    @Override
+    public String getWaitEvent() {
+        // Status of active session (EXECUTE SQL, QUEUED, WAITING FOR CLIENT, etc)
+        return isActive() ? status : null;
+    }
+
+    @Override
+    public long getActiveDuration() {
+        if (!isActive() || CommonUtils.isEmpty(Duration)) {
+            return -1;
+        }
+        // Duration is in HH:MM:SS format
+        long seconds = 0;
+        for (String part : Duration.trim().split(":")) {
+            try {
+                seconds = seconds * 60 + Long.parseLong(part.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return seconds * 1000;
+    }
+
     @Property(viewable = true, editable = false, order = 1)
     public BigDecimal getSessionID() {
         return sessionID;
@@ -17,9 +17,13 @@
  */
 package org.jkiss.dbeaver.ext.exasol.model.plan;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanCostNode;
 import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.utils.CommonUtils;
 
 import java.sql.ResultSet;
 import java.util.ArrayList;
@@ -28,7 +32,7 @@ import java.util.Collection;
 /**
  * @author Karl Griesser
  */
-public class ExasolPlanNode implements DBCPlanNode {
+public class ExasolPlanNode implements DBCPlanCostNode {
 
     private ExasolPlanNode parent;
     private Collection<ExasolPlanNode> listNestedNodes = new ArrayList<>(64);
@@ -93,6 +97,53 @@ public class ExasolPlanNode implements DBCPlanNode {
         return listNestedNodes;
     }
 
+    @NotNull
+    @Override
+    public String getNodeType() {
+        return CommonUtils.notEmpty(partName);
+    }
+
+    @NotNull
+    @Override
+    public DBCPlanNodeKind getNodeKind() {
+        if (partName == null) {
+            return DBCPlanNodeKind.DEFAULT;
+        }
+        if (partName.contains("JOIN")) {
+            return DBCPlanNodeKind.JOIN;
+        } else if (partName.startsWith("SCAN")) {
+            return DBCPlanNodeKind.TABLE_SCAN;
+        } else if (partName.startsWith("GROUP BY")) {
+            return DBCPlanNodeKind.AGGREGATE;
+        } else if (partName.startsWith("ORDER BY")) {
+            return DBCPlanNodeKind.SORT;
+        } else if (partName.startsWith("INSERT") || partName.startsWith("UPDATE") || partName.startsWith("DELETE") || partName.startsWith("MERGE")) {
+            return DBCPlanNodeKind.MODIFY;
+        }
+        return DBCPlanNodeKind.DEFAULT;
+    }
+
+    @Override
+    public String getNodeName() {
+        return objectName;
+    }
+
+    @Override
+    public double getNodeCost() {
+        // Profile contains execution statistics only
+        return -1;
+    }
+
+    @Override
+    public long getNodeRowCount() {
+        return -1;
+    }
+
+    @Override
+    public long getNodeActualRowCount() {
+        return outRows == null ? -1 : outRows.longValue();
+    }
+
 
     @Property(order = 0, viewable = true)
     public int getStmtId() {
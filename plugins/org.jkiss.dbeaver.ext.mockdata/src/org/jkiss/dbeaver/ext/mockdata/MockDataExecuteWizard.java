@@ -25,11 +25,12 @@ import org.eclipse.ui.IImportWizard;
 import org.eclipse.ui.IWorkbench;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ext.mockdata.generator.FKGenerator;
 import org.jkiss.dbeaver.ext.mockdata.internal.MDActivator;
 import org.jkiss.dbeaver.ext.mockdata.model.MockGeneratorDescriptor;
 import org.jkiss.dbeaver.ext.mockdata.model.MockValueGenerator;
 import org.jkiss.dbeaver.model.DBUtils;
-import org.jkiss.dbeaver.model.data.DBDAttributeValue;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
@@ -43,6 +44,10 @@ import org.jkiss.utils.CommonUtils;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulator, DBSDataManipulator> implements IImportWizard
 {
@@ -139,58 +144,110 @@ public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulato
         super.createPageControls(pageContainer);
     }
 
-    private Map<String, MockValueGenerator> generators = new HashMap<>();
+    private boolean schemaGenerated;
 
     @Override
     public boolean executeProcess(DBRProgressMonitor monitor, DBSDataManipulator dataManipulator) throws IOException {
+        if (getDatabaseObjects().size() > 1) {
+            // All tables are generated at once, in dependency order
+            if (!schemaGenerated) {
+                schemaGenerated = true;
+                try {
+                    new MockDataSchemaGenerator(this, mockDataSettings, getDatabaseObjects()).generate(monitor);
+                } catch (DBException e) {
+                    processGeneratorException(e);
+                }
+            }
+            return true;
+        }
+        generateTableData(
+            monitor,
+            DBUtils.getDefaultContext(dataManipulator, false),
+            dataManipulator,
+            mockDataSettings,
+            mockDataSettings.isRemoveOldData(),
+            null);
+        return true;
+    }
 
-        DBCExecutionContext context = DBUtils.getDefaultContext(dataManipulator, false);
+    /**
+     * Removes all rows from the table
+     * @return false on error
+     */
+    boolean removeTableData(DBRProgressMonitor monitor, DBCExecutionContext context, DBSDataManipulator dataManipulator) {
         try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.USER, MockDataMessages.tools_mockdata_wizard_task_generate_data)) {
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
-            boolean autoCommit;
-            try {
-                autoCommit = txnManager == null || txnManager.isAutoCommit();
-            } catch (DBCException e) {
-                log.error(e);
-                autoCommit = true;
+            AbstractExecutionSource executionSource = new AbstractExecutionSource(dataManipulator, session.getExecutionContext(), this);
+            return removeTableData(monitor, session, txnManager, isAutoCommit(txnManager), dataManipulator, executionSource);
+        }
+    }
+
+    private boolean removeTableData(DBRProgressMonitor monitor, DBCSession session, DBCTransactionManager txnManager, boolean autoCommit, DBSDataManipulator dataManipulator, AbstractExecutionSource executionSource) {
+        boolean success = true;
+        ArrayList<DBEPersistAction> persistActions = new ArrayList<>();
+        logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_removing_from, dataManipulator.getName()));
+        monitor.subTask(MockDataMessages.tools_mockdata_wizard_log_cleaning);
+        DBCStatistics deleteStats = new DBCStatistics();
+        try {
+            dataManipulator.truncateData(session, executionSource);
+            if (txnManager != null && !autoCommit) {
+                txnManager.commit(session);
             }
+        } catch (Exception e) {
+            success = false;
+            String message = MockDataMessages.tools_mockdata_wizard_log_removing_error + "\n" + e.getMessage();
+            log.error(message, e);
+            logPage.appendLog(message + "\n\n", true);
+        }
+        if (JUST_GENERATE_SCRIPT) {
+            String scriptText = SQLUtils.generateScript(
+                    dataManipulator.getDataSource(),
+                    persistActions.toArray(new DBEPersistAction[persistActions.size()]),
+                    false);
+            logPage.appendLog("    The insert data script:\n " + scriptText + "\n\n");
+        }
+        // logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_rows_updated, deleteStats.getRowsUpdated())); no reason because trancate
+        logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_duration, deleteStats.getExecuteTime()));
+        return success;
+    }
+
+    private static boolean isAutoCommit(DBCTransactionManager txnManager) {
+        try {
+            return txnManager == null || txnManager.isAutoCommit();
+        } catch (DBCException e) {
+            log.error(e);
+            return true;
+        }
+    }
+
+    /**
+     * Generates mock data for a single table
+     * @param keyPools pools of keys generated for referenced tables. Keys of inserted rows of this table are added to them too.
+     * @return false if generation failed (error is logged). Keys of rows which weren't inserted are not published.
+     */
+    boolean generateTableData(
+        DBRProgressMonitor monitor,
+        DBCExecutionContext context,
+        DBSDataManipulator dataManipulator,
+        MockDataSettings settings,
+        boolean removeOldData,
+        @Nullable Map<DBSEntityAttribute, MockDataValuePool> keyPools) throws IOException
+    {
+        try (DBCSession session = context.openSession(monitor, DBCExecutionPurpose.USER, MockDataMessages.tools_mockdata_wizard_task_generate_data)) {
+            DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+            boolean autoCommit = isAutoCommit(txnManager);
             AbstractExecutionSource executionSource = new AbstractExecutionSource(dataManipulator, session.getExecutionContext(), this);
 
-            boolean success = true;
             monitor.beginTask(MockDataMessages.tools_mockdata_wizard_task_generate_data, 3);
             ArrayList<DBEPersistAction> persistActions = new ArrayList<>();
-            if (mockDataSettings.isRemoveOldData()) {
-                logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_removing_from, dataManipulator.getName()));
-                monitor.subTask(MockDataMessages.tools_mockdata_wizard_log_cleaning);
-                DBCStatistics deleteStats = new DBCStatistics();
-                try {
-                    dataManipulator.truncateData(session, executionSource);
-                    if (txnManager != null && !autoCommit) {
-                        txnManager.commit(session);
-                    }
-                } catch (Exception e) {
-                    success = false;
-                    String message = MockDataMessages.tools_mockdata_wizard_log_removing_error + "\n" + e.getMessage();
-                    log.error(message, e);
-                    logPage.appendLog(message + "\n\n", true);
+            if (removeOldData) {
+                if (!removeTableData(monitor, session, txnManager, autoCommit, dataManipulator, executionSource)) {
+                    return false;
                 }
-                if (JUST_GENERATE_SCRIPT) {
-                    String scriptText = SQLUtils.generateScript(
-                            dataManipulator.getDataSource(),
-                            persistActions.toArray(new DBEPersistAction[persistActions.size()]),
-                            false);
-                    logPage.appendLog("    The insert data script:\n " + scriptText + "\n\n");
-                }
-                // logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_rows_updated, deleteStats.getRowsUpdated())); no reason because trancate
-                logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_duration, deleteStats.getExecuteTime()));
             } else {
                 logPage.appendLog(MockDataMessages.tools_mockdata_wizard_log_not_removed);
             }
 
-            if (!success) {
-                return true;
-            }
-
             try {
                 monitor.subTask(MockDataMessages.tools_mockdata_wizard_task_insert_data);
 
@@ -198,19 +255,22 @@ public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulato
                 DBCStatistics insertStats = new DBCStatistics();
 
                 // build and init the generators
-                generators.clear();
+                Map<String, MockValueGenerator> generators = new HashMap<>();
                 DBSEntity dbsEntity = (DBSEntity) dataManipulator;
                 List<DBSAttributeBase> attributes = new ArrayList<>();
-                for (MockDataSettings.AttributeGeneratorProperties attributeProps : mockDataSettings.getAttributeGenerators().values()) {
+                for (MockDataSettings.AttributeGeneratorProperties attributeProps : settings.getAttributeGenerators().values()) {
                     MockGeneratorDescriptor attrGenerator = attributeProps.getSelectedGenerator();
                     if (attrGenerator != null) {
                         MockValueGenerator generatorInstance = attrGenerator.createGenerator();
                         DBSAttributeBase attribute = attributeProps.getAttribute();
-                        MockDataSettings.AttributeGeneratorProperties generatorPropertySource = this.mockDataSettings.getAttributeGeneratorProperties(attribute);
+                        MockDataSettings.AttributeGeneratorProperties generatorPropertySource = settings.getAttributeGeneratorProperties(attribute);
                         PropertySourceCustom generatorProperties = generatorPropertySource.getGeneratorProperties();
                         if (generatorProperties != null) {
                             Map<Object, Object> propValues = generatorProperties.getPropertiesWithDefaults();
                             generatorInstance.init(dataManipulator, attribute, propValues);
+                            if (keyPools != null && generatorInstance instanceof FKGenerator) {
+                                ((FKGenerator) generatorInstance).setKeyPools(keyPools);
+                            }
                             generators.put(attribute.getName(), generatorInstance);
                         }
                         attributes.add(attribute);
@@ -219,128 +279,99 @@ public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulato
 
                 monitor.done();
 
-                long rowsNumber = mockDataSettings.getRowsNumber();
-                int batchSize = mockDataSettings.getBatchSize();
+                long rowsNumber = settings.getRowsNumber();
+                int batchSize = settings.getBatchSize();
                 if (batchSize <= 0) {
                     batchSize = 1;
                 }
-                long quotient = rowsNumber / batchSize;
-                long modulo = rowsNumber % batchSize;
-                if (modulo > 0) {
-                    quotient++;
-                }
-                int counter = 0;
 
                 monitor.beginTask(MockDataMessages.tools_mockdata_wizard_task_insert_data, (int) rowsNumber);
 
-                boolean hasMiltiUniqs = false;
-                Set<String> miltiUniqColumns = new HashSet<>();
+                List<DBSAttributeBase> generatedAttributes = new ArrayList<>();
+                List<MockValueGenerator> attributeGenerators = new ArrayList<>();
                 for (DBSAttributeBase attribute : attributes) {
-                    if (MockDataUtils.checkUnique(monitor, dbsEntity, attribute) == MockDataUtils.UNIQ_TYPE.MULTI) {
-                        hasMiltiUniqs = true;
-
-                        // collect the columns from multi-uniqs
-                        DBSEntityReferrer constraint = (DBSEntityReferrer) DBUtils.getConstraint(monitor, dbsEntity, attribute);
-                        for (DBSEntityAttributeRef attributeRef : constraint.getAttributeReferences(monitor)) {
-                            miltiUniqColumns.add(attributeRef.getAttribute().getName());
-                        }
+                    MockValueGenerator generator = generators.get(attribute.getName());
+                    if (generator != null) {
+                        generatedAttributes.add(attribute);
+                        attributeGenerators.add(generator);
                     }
                 }
-                List<List<DBDAttributeValue>> valuesCacheForUniqs = new ArrayList<>();
+                MockDataRowGenerator rowGenerator = new MockDataRowGenerator(generatedAttributes, attributeGenerators);
+                rowGenerator.initUniqueKeys(monitor, dbsEntity, rowsNumber);
+                if (keyPools != null) {
+                    rowGenerator.initKeyPools(keyPools);
+                }
+
+                // Next batch is generated in a separate thread while the current one is inserted
+                ExecutorService generatorExecutor = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "Mock data generator");
+                    thread.setDaemon(true);
+                    return thread;
+                });
 
                 // generate and insert the data
                 session.enableLogging(false);
-                DBSDataManipulator.ExecuteBatch batch = null;
-                for (int q = 0; q < quotient; q++) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (counter > 0) {
-                        if (txnManager != null && !autoCommit) {
-                            txnManager.commit(session);
+                long startTime = System.currentTimeMillis();
+                long counter = 0;
+                try {
+                    Future<List<Object[]>> nextRows = submitGenerateRows(generatorExecutor, rowGenerator, monitor, Math.min(batchSize, rowsNumber));
+                    while (nextRows != null) {
+                        List<Object[]> rows;
+                        try {
+                            rows = nextRows.get();
+                        } catch (InterruptedException e) {
+                            return false;
+                        } catch (ExecutionException e) {
+                            processGeneratorException(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                            return false;
                         }
-
-                        monitor.subTask(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_inserted_rows, String.valueOf(counter)));
-                        //monitor.worked(batchSize);
-                    }
-
-                    try {
-                        for (int i = 0; (i < batchSize && counter < rowsNumber); i++) {
-                            if (monitor.isCanceled()) {
-                                break;
-                            }
-                            List<DBDAttributeValue> attributeValues = new ArrayList<>();
-                            try {
-                                for (DBSAttributeBase attribute : attributes) {
-                                    MockValueGenerator generator = generators.get(attribute.getName());
-                                    if (generator != null) {
-                                        //((AbstractMockValueGenerator) generator).checkUnique(monitor);
-                                        Object value = generator.generateValue(monitor);
-                                        attributeValues.add(new DBDAttributeValue(attribute, value));
-                                    }
-                                }
-                            } catch (DBException e) {
-                                processGeneratorException(e);
-                                return true;
-                            }
-
-                            // skip duplicate records for uniqs
-                            if (hasMiltiUniqs) {
-                                boolean collision = false;
-                                for (List<DBDAttributeValue> valueList : valuesCacheForUniqs) {
-                                    boolean theSame = true;
-                                    for (int j = 0; j < valueList.size(); j++) {
-                                        if (miltiUniqColumns.contains(valueList.get(j).getAttribute().getName())) {
-                                            if (!CommonUtils.equalObjects(valueList.get(j), attributeValues.get(j))) {
-                                                theSame = false;
-                                                break;
-                                            }
-                                        }
-                                    }
-                                    if (theSame) {
-                                        collision = true;
-                                        break;
-                                    }
-                                }
-                                if (collision) {
-                                    continue;
-                                } else {
-                                    valuesCacheForUniqs.add(attributeValues);
-                                }
-                            }
-
-                            if (batch == null) {
-                                batch = dataManipulator.insertData(
-                                        session,
-                                        DBDAttributeValue.getAttributes(attributeValues),
-                                        null,
-                                        executionSource);
-                            }
-                            if (counter++ < rowsNumber) {
-                                batch.add(DBDAttributeValue.getValues(attributeValues));
-                            }
-                            monitor.worked(1);
+                        if (rows.isEmpty() || monitor.isCanceled()) {
+                            break;
                         }
-                        if (batch != null) {
+                        counter += rows.size();
+                        nextRows = counter < rowsNumber ?
+                            submitGenerateRows(generatorExecutor, rowGenerator, monitor, Math.min(batchSize, rowsNumber - counter)) :
+                            null;
+
+                        DBSDataManipulator.ExecuteBatch batch = null;
+                        try {
+                            batch = dataManipulator.insertData(
+                                    session,
+                                    rowGenerator.getAttributes(),
+                                    null,
+                                    executionSource);
+                            for (Object[] row : rows) {
+                                batch.add(row);
+                            }
                             if (JUST_GENERATE_SCRIPT) {
                                 batch.generatePersistActions(session, persistActions);
                             } else {
                                 insertStats.accumulate(batch.execute(session));
                             }
                         }
-                    }
-                    catch (Exception e) {
-                        processGeneratorException(e);
-                        if (e instanceof DBException) {
-                            throw e;
+                        catch (Exception e) {
+                            processGeneratorException(e);
+                            if (e instanceof DBException) {
+                                throw e;
+                            }
+                            return false;
                         }
-                    }
-                    finally {
-                        if (batch != null) {
-                            batch.close();
-                            batch = null;
+                        finally {
+                            if (batch != null) {
+                                batch.close();
+                            }
+                        }
+                        monitor.worked(rows.size());
+
+                        if (txnManager != null && !autoCommit) {
+                            txnManager.commit(session);
                         }
+                        // Rows of this batch are inserted, referencing tables may use their keys
+                        rowGenerator.publishKeys(rows);
+                        monitor.subTask(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_inserted_rows, String.valueOf(counter)));
                     }
+                } finally {
+                    generatorExecutor.shutdownNow();
                 }
 
                 if (txnManager != null && !autoCommit) {
@@ -355,8 +386,12 @@ public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulato
                     logPage.appendLog("    The insert data script:\n " + scriptText + "\n\n");
                 }
                 logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_rows_updated, insertStats.getRowsUpdated()));
+                long duration = Math.max(1, System.currentTimeMillis() - startTime);
+                logPage.appendLog(NLS.bind(
+                    MockDataMessages.tools_mockdata_wizard_log_throughput,
+                    new Object[] { dataManipulator.getName(), counter, counter * 1000 / duration }));
                 logPage.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_duration, insertStats.getExecuteTime()));
-
+                return true;
             } catch (DBException e) {
                 String message = NLS.bind(MockDataMessages.tools_mockdata_wizard_log_error_inserting, e.getMessage());
                 log.error(message, e);
@@ -367,10 +402,18 @@ public class MockDataExecuteWizard  extends AbstractToolWizard<DBSDataManipulato
             monitor.done();
         }
 
-        return true;
+        return false;
+    }
+
+    private static Future<List<Object[]>> submitGenerateRows(ExecutorService executor, MockDataRowGenerator rowGenerator, DBRProgressMonitor monitor, long count) {
+        return executor.submit(() -> rowGenerator.generateRows(monitor, (int) count));
+    }
+
+    void appendLog(String line) {
+        logPage.appendLog(line);
     }
 
-    private void processGeneratorException(Exception e) {
+    void processGeneratorException(Exception e) {
         String message = NLS.bind(MockDataMessages.tools_mockdata_wizard_log_error_generating, e.getMessage());
         log.error(message, e);
         logPage.appendLog(message + "\n\n", true);
@@ -81,6 +81,8 @@ public class MockDataMessages extends NLS {
     public static String tools_mockdata_wizard_log_inserted_rows;
     public static String tools_mockdata_wizard_log_error_inserting;
     public static String tools_mockdata_wizard_log_error_generating;
+    public static String tools_mockdata_wizard_log_throughput;
+    public static String tools_mockdata_wizard_log_generation_order;
 
     public static String tools_mockdata_attribute_generator_skip;
 
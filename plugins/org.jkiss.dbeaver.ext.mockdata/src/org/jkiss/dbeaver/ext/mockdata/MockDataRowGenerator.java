@@ -0,0 +1,149 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mockdata;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.mockdata.generator.AbstractMockValueGenerator;
+import org.jkiss.dbeaver.ext.mockdata.model.MockValueGenerator;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates rows of mock data for a single table.
+ * Rows which duplicate keys of multi-column unique constraints are skipped and generated again.
+ */
+class MockDataRowGenerator {
+
+    private final DBSAttributeBase[] attributes;
+    private final MockValueGenerator[] generators;
+    private final List<MockDataUniqueKeySet> uniqueKeys = new ArrayList<>();
+    // Pools which collect generated keys for dependent tables
+    private final List<MockDataValuePool> keyPools = new ArrayList<>();
+    private final List<Integer> keyPoolIndexes = new ArrayList<>();
+
+    MockDataRowGenerator(List<DBSAttributeBase> attributes, List<MockValueGenerator> generators) {
+        this.attributes = attributes.toArray(new DBSAttributeBase[attributes.size()]);
+        this.generators = generators.toArray(new MockValueGenerator[generators.size()]);
+    }
+
+    DBSAttributeBase[] getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * Registers multi-column unique constraints of the entity.
+     * Constraint columns which are not generated are ignored.
+     */
+    void initUniqueKeys(DBRProgressMonitor monitor, DBSEntity entity, long rowsNumber) throws DBException {
+        for (DBSEntityConstraint constraint : CommonUtils.safeCollection(entity.getConstraints(monitor))) {
+            if (!constraint.getConstraintType().isUnique() || !(constraint instanceof DBSEntityReferrer)) {
+                continue;
+            }
+            List<? extends DBSEntityAttributeRef> refs = ((DBSEntityReferrer) constraint).getAttributeReferences(monitor);
+            if (refs == null || refs.size() < 2) {
+                // Single column keys are checked by value generators
+                continue;
+            }
+            List<Integer> indexes = new ArrayList<>();
+            for (DBSEntityAttributeRef ref : refs) {
+                for (int i = 0; i < attributes.length; i++) {
+                    if (attributes[i].getName().equals(ref.getAttribute().getName())) {
+                        indexes.add(i);
+                        break;
+                    }
+                }
+            }
+            if (!indexes.isEmpty()) {
+                int[] keyIndexes = new int[indexes.size()];
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    keyIndexes[i] = indexes.get(i);
+                }
+                uniqueKeys.add(new MockDataUniqueKeySet(keyIndexes, rowsNumber));
+            }
+        }
+    }
+
+    /**
+     * Registers pools for generated values of referenced attributes
+     */
+    void initKeyPools(Map<DBSEntityAttribute, MockDataValuePool> pools) {
+        for (int i = 0; i < attributes.length; i++) {
+            MockDataValuePool pool = pools.get(attributes[i]);
+            if (pool != null) {
+                keyPools.add(pool);
+                keyPoolIndexes.add(i);
+            }
+        }
+    }
+
+    /**
+     * Adds keys of inserted rows to the key pools
+     */
+    void publishKeys(List<Object[]> rows) {
+        for (int i = 0; i < keyPools.size(); i++) {
+            MockDataValuePool pool = keyPools.get(i);
+            int index = keyPoolIndexes.get(i);
+            for (Object[] row : rows) {
+                pool.add(row[index]);
+            }
+        }
+    }
+
+    /**
+     * Generates next rows.
+     * Returns less rows if monitor was canceled.
+     */
+    List<Object[]> generateRows(DBRProgressMonitor monitor, int count) throws DBException, IOException {
+        List<Object[]> rows = new ArrayList<>(count);
+        int collisions = 0;
+        while (rows.size() < count && !monitor.isCanceled()) {
+            Object[] row = new Object[generators.length];
+            for (int i = 0; i < generators.length; i++) {
+                row[i] = generators[i].generateValue(monitor);
+            }
+            if (!addUniqueKeys(row)) {
+                if (++collisions > AbstractMockValueGenerator.UNIQUE_VALUE_GEN_ATTEMPTS) {
+                    throw new DBException("Can't generate unique row after " + collisions + " attempts.\n" +
+                        "      Try to change the generators of unique key columns or their parameters.");
+                }
+                continue;
+            }
+            collisions = 0;
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private boolean addUniqueKeys(Object[] row) {
+        for (MockDataUniqueKeySet keySet : uniqueKeys) {
+            if (keySet.contains(row)) {
+                return false;
+            }
+        }
+        for (MockDataUniqueKeySet keySet : uniqueKeys) {
+            keySet.add(row);
+        }
+        return true;
+    }
+
+}
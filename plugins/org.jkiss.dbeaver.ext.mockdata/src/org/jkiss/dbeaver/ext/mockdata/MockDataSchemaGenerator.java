@@ -0,0 +1,352 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mockdata;
+
+import org.eclipse.osgi.util.NLS;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.runtime.ProxyProgressMonitor;
+import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTableForeignKeyColumn;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates mock data for several tables.
+ *
+ * Tables are sorted by foreign keys, so referenced tables are generated before tables which refer them.
+ * Keys generated for referenced tables are collected in memory and used by foreign key generators of
+ * dependent tables (instead of reading referenced tables). Tables of the same dependency level
+ * are generated in parallel, each in its own connection.
+ */
+class MockDataSchemaGenerator {
+
+    private static final Log log = Log.getLog(MockDataSchemaGenerator.class);
+
+    private static final int MAX_PARALLEL_TABLES = 4;
+
+    private final MockDataExecuteWizard wizard;
+    private final MockDataSettings mainSettings;
+    private final List<DBSDataManipulator> tables;
+    private final Map<DBSEntityAttribute, MockDataValuePool> keyPools = new HashMap<>();
+
+    MockDataSchemaGenerator(MockDataExecuteWizard wizard, MockDataSettings mainSettings, List<DBSDataManipulator> tables) {
+        this.wizard = wizard;
+        this.mainSettings = mainSettings;
+        this.tables = tables;
+    }
+
+    void generate(DBRProgressMonitor monitor) throws DBException, IOException {
+        List<List<DBSDataManipulator>> levels = sortByDependencies(monitor);
+        createKeyPools(monitor);
+
+        StringBuilder order = new StringBuilder();
+        for (List<DBSDataManipulator> level : levels) {
+            if (order.length() > 0) order.append(" -> ");
+            for (int i = 0; i < level.size(); i++) {
+                if (i > 0) order.append(", ");
+                order.append(level.get(i).getName());
+            }
+        }
+        wizard.appendLog(NLS.bind(MockDataMessages.tools_mockdata_wizard_log_generation_order, order));
+
+        // Settings of other tables are loaded from dialog settings (or auto-assigned)
+        Map<DBSDataManipulator, MockDataSettings> tableSettings = new IdentityHashMap<>();
+        for (DBSDataManipulator table : tables) {
+            MockDataSettings settings;
+            if (table == mainSettings.getEntity()) {
+                settings = mainSettings;
+            } else {
+                settings = new MockDataSettings();
+                settings.init(monitor, table);
+                settings.loadFrom(wizard.getDialogSettings());
+            }
+            tableSettings.put(table, settings);
+        }
+
+        if (mainSettings.isRemoveOldData()) {
+            // Dependent tables first
+            for (int i = levels.size() - 1; i >= 0; i--) {
+                for (DBSDataManipulator table : levels.get(i)) {
+                    if (monitor.isCanceled()) {
+                        return;
+                    }
+                    if (!wizard.removeTableData(monitor, DBUtils.getDefaultContext(table, false), table)) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        DBSDataManipulator firstTable = tables.get(0);
+        boolean parallel = !firstTable.getDataSource().getContainer().getDriver().isEmbedded();
+        ExecutorService executor = Executors.newFixedThreadPool(MAX_PARALLEL_TABLES, r -> {
+            Thread thread = new Thread(r, "Mock data table generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.beginTask(MockDataMessages.tools_mockdata_wizard_task_generate_data, tables.size());
+        try {
+            for (List<DBSDataManipulator> level : levels) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                if (!parallel || level.size() == 1) {
+                    for (DBSDataManipulator table : level) {
+                        if (monitor.isCanceled()) {
+                            break;
+                        }
+                        monitor.subTask(table.getName());
+                        if (!generateTable(new TableProgressMonitor(monitor), table, tableSettings.get(table), false)) {
+                            // Next tables may refer to keys of the failed table
+                            return;
+                        }
+                        monitor.worked(1);
+                    }
+                } else {
+                    boolean failed = false;
+                    List<Future<Boolean>> results = new ArrayList<>();
+                    for (DBSDataManipulator table : level) {
+                        results.add(executor.submit(() ->
+                            generateTable(new TableProgressMonitor(monitor), table, tableSettings.get(table), true)));
+                    }
+                    // Wait for the whole level - next level depends on generated keys
+                    for (Future<Boolean> result : results) {
+                        try {
+                            if (!result.get()) {
+                                failed = true;
+                            }
+                        } catch (InterruptedException e) {
+                            return;
+                        } catch (ExecutionException e) {
+                            wizard.processGeneratorException(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                            failed = true;
+                        }
+                        monitor.worked(1);
+                    }
+                    if (failed) {
+                        // Next levels refer to keys of the failed table
+                        return;
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            monitor.done();
+        }
+    }
+
+    private boolean generateTable(DBRProgressMonitor monitor, DBSDataManipulator table, MockDataSettings settings, boolean isolated)
+        throws DBException, IOException
+    {
+        DBCExecutionContext context = isolated ?
+            DBUtils.getObjectOwnerInstance(table).openIsolatedContext(monitor, "Mock data generator") :
+            DBUtils.getDefaultContext(table, false);
+        try {
+            return wizard.generateTableData(monitor, context, table, settings, false, keyPools);
+        } finally {
+            if (isolated) {
+                context.close();
+            }
+        }
+    }
+
+    private List<List<DBSDataManipulator>> sortByDependencies(DBRProgressMonitor monitor) throws DBException {
+        Map<DBSEntity, DBSDataManipulator> selected = new IdentityHashMap<>();
+        for (DBSDataManipulator table : tables) {
+            selected.put((DBSEntity) table, table);
+        }
+        Map<DBSDataManipulator, Set<DBSDataManipulator>> dependencies = new IdentityHashMap<>();
+        for (DBSDataManipulator table : tables) {
+            Set<DBSDataManipulator> refTables = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (DBSEntityAssociation association : CommonUtils.safeCollection(((DBSEntity) table).getAssociations(monitor))) {
+                DBSDataManipulator refTable = selected.get(association.getAssociatedEntity());
+                if (refTable != null && refTable != table) {
+                    refTables.add(refTable);
+                }
+            }
+            dependencies.put(table, refTables);
+        }
+        return sortByDependencies(tables, dependencies);
+    }
+
+    /**
+     * Splits tables into dependency levels. Each level contains tables which refer only tables of previous levels.
+     * Reference cycles (strongly connected components) are condensed first: tables of a cycle get the same level
+     * and are placed in separate single-table levels after the rest of their level, so they are generated one by one.
+     * Tables which refer a cycle always come after the whole cycle.
+     */
+    static <T> List<List<T>> sortByDependencies(List<T> tables, Map<T, Set<T>> dependencies) {
+        // Components are found in reverse topological order - referenced components first
+        Map<T, Integer> componentLevels = new IdentityHashMap<>();
+        Set<T> cyclic = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<T> component : new ComponentFinder<>(dependencies).findComponents(tables)) {
+            int level = 0;
+            for (T table : component) {
+                for (T refTable : dependencies.get(table)) {
+                    Integer refLevel = componentLevels.get(refTable);
+                    if (refLevel != null) {
+                        level = Math.max(level, refLevel + 1);
+                    }
+                }
+            }
+            for (T table : component) {
+                componentLevels.put(table, level);
+            }
+            if (component.size() > 1) {
+                // Some foreign keys of these tables will refer to existing rows.
+                log.debug("Cyclic references between tables " + component);
+                cyclic.addAll(component);
+            }
+        }
+
+        int maxLevel = -1;
+        for (Integer level : componentLevels.values()) {
+            maxLevel = Math.max(maxLevel, level);
+        }
+        List<List<T>> levels = new ArrayList<>();
+        for (int i = 0; i <= maxLevel; i++) {
+            List<T> level = new ArrayList<>();
+            List<T> cycleTables = new ArrayList<>();
+            for (T table : tables) {
+                if (componentLevels.get(table) == i) {
+                    (cyclic.contains(table) ? cycleTables : level).add(table);
+                }
+            }
+            if (!level.isEmpty()) {
+                levels.add(level);
+            }
+            for (T table : cycleTables) {
+                levels.add(Collections.singletonList(table));
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Creates pools for all columns referenced by foreign keys of selected tables
+     */
+    private void createKeyPools(DBRProgressMonitor monitor) throws DBException {
+        Set<DBSEntity> selected = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (DBSDataManipulator table : tables) {
+            selected.add((DBSEntity) table);
+        }
+        for (DBSDataManipulator table : tables) {
+            for (DBSEntityAssociation association : CommonUtils.safeCollection(((DBSEntity) table).getAssociations(monitor))) {
+                if (!selected.contains(association.getAssociatedEntity()) || !(association instanceof DBSEntityReferrer)) {
+                    continue;
+                }
+                for (DBSEntityAttributeRef ref : CommonUtils.safeCollection(((DBSEntityReferrer) association).getAttributeReferences(monitor))) {
+                    if (ref instanceof DBSTableForeignKeyColumn) {
+                        DBSEntityAttribute refColumn = ((DBSTableForeignKeyColumn) ref).getReferencedColumn();
+                        if (refColumn != null && !keyPools.containsKey(refColumn)) {
+                            keyPools.put(refColumn, new MockDataValuePool());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Tarjan's strongly connected components search
+     */
+    private static class ComponentFinder<T> {
+
+        private final Map<T, Set<T>> dependencies;
+        private final Map<T, Integer> indexes = new IdentityHashMap<>();
+        private final Map<T, Integer> lowLinks = new IdentityHashMap<>();
+        private final Deque<T> stack = new ArrayDeque<>();
+        private final Set<T> onStack = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<List<T>> components = new ArrayList<>();
+
+        ComponentFinder(Map<T, Set<T>> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        List<List<T>> findComponents(List<T> tables) {
+            for (T table : tables) {
+                if (!indexes.containsKey(table)) {
+                    visit(table);
+                }
+            }
+            return components;
+        }
+
+        private void visit(T table) {
+            int index = indexes.size();
+            indexes.put(table, index);
+            lowLinks.put(table, index);
+            stack.push(table);
+            onStack.add(table);
+            for (T refTable : dependencies.get(table)) {
+                if (!indexes.containsKey(refTable)) {
+                    visit(refTable);
+                    lowLinks.put(table, Math.min(lowLinks.get(table), lowLinks.get(refTable)));
+                } else if (onStack.contains(refTable)) {
+                    lowLinks.put(table, Math.min(lowLinks.get(table), indexes.get(refTable)));
+                }
+            }
+            if (lowLinks.get(table) == index) {
+                List<T> component = new ArrayList<>();
+                T member;
+                do {
+                    member = stack.pop();
+                    onStack.remove(member);
+                    component.add(member);
+                } while (member != table);
+                components.add(component);
+            }
+        }
+    }
+
+    /**
+     * Table generators run in parallel so they shouldn't change the main progress
+     */
+    private static class TableProgressMonitor extends ProxyProgressMonitor {
+
+        TableProgressMonitor(DBRProgressMonitor original) {
+            super(original);
+        }
+
+        @Override
+        public void beginTask(String name, int totalWork) {
+        }
+
+        @Override
+        public void done() {
+        }
+
+        @Override
+        public void subTask(String name) {
+        }
+
+        @Override
+        public void worked(int work) {
+        }
+    }
+
+}
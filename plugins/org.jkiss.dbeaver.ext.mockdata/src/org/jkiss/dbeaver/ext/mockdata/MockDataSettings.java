@@ -61,10 +61,16 @@ public class MockDataSettings {
 
     // populate attribute generators properties map
     public void init(DBRProgressMonitor monitor, MockDataExecuteWizard wizard) throws DBException {
+        List<DBSDataManipulator> databaseObjects = wizard.getDatabaseObjects();
+        init(monitor, databaseObjects.iterator().next()); // TODO only the first
+    }
+
+    /**
+     * Populates attribute generators of the specified table
+     */
+    public void init(DBRProgressMonitor monitor, DBSDataManipulator dataManipulator) throws DBException {
         this.monitor = monitor;
 
-        List<DBSDataManipulator> databaseObjects = wizard.getDatabaseObjects();
-        DBSDataManipulator dataManipulator = databaseObjects.iterator().next(); // TODO only the first
         entity = (DBSEntity) dataManipulator;
         attributes = new ArrayList<>();
 
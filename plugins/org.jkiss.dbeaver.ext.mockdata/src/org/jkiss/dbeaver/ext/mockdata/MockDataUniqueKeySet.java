@@ -0,0 +1,220 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mockdata;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Date;
+
+/**
+ * Set of generated unique (possibly composite) keys.
+ *
+ * Keys are stored as 64-bit fingerprints in a primitive hash table, so each key takes ~10 bytes.
+ * For huge sets (more than {@link #MAX_EXACT_KEYS} expected keys) Bloom filter is used instead.
+ * Both may report a new key as already existing (fingerprint collision or Bloom filter false positive),
+ * but never accept a duplicate. For mock data this only means that some generated row is skipped.
+ */
+public class MockDataUniqueKeySet {
+
+    public static final int MAX_EXACT_KEYS = 20000000;
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+    private static final int BLOOM_HASH_COUNT = 7;
+    // ~1% of false positives with 7 hash functions
+    private static final int BLOOM_BITS_PER_KEY = 10;
+
+    private final int[] keyIndexes;
+    private long size;
+
+    // Fingerprints hash table
+    private long[] table;
+    private boolean hasZero;
+
+    // Bloom filter
+    private long[] bloomBits;
+    private long bloomBitCount;
+
+    /**
+     * @param keyIndexes indexes of key values in a row
+     * @param expectedSize expected number of keys
+     */
+    public MockDataUniqueKeySet(int[] keyIndexes, long expectedSize) {
+        this.keyIndexes = keyIndexes;
+        if (expectedSize > MAX_EXACT_KEYS) {
+            bloomBitCount = expectedSize * BLOOM_BITS_PER_KEY;
+            bloomBits = new long[(int) ((bloomBitCount + 63) / 64)];
+        } else {
+            int capacity = 16;
+            while (capacity * MAX_LOAD_FACTOR < expectedSize) {
+                capacity <<= 1;
+            }
+            table = new long[capacity];
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean contains(Object[] row) {
+        long fingerprint = getFingerprint(row);
+        if (bloomBits != null) {
+            return bloomContains(fingerprint);
+        }
+        if (fingerprint == 0) {
+            return hasZero;
+        }
+        int mask = table.length - 1;
+        for (int i = (int) fingerprint & mask; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds row key to the set
+     * @return false if key already exists
+     */
+    public boolean add(Object[] row) {
+        long fingerprint = getFingerprint(row);
+        if (bloomBits != null) {
+            if (bloomContains(fingerprint)) {
+                return false;
+            }
+            bloomAdd(fingerprint);
+            size++;
+            return true;
+        }
+        if (fingerprint == 0) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        if (!tableAdd(table, fingerprint)) {
+            return false;
+        }
+        size++;
+        if (size > table.length * MAX_LOAD_FACTOR) {
+            rehash();
+        }
+        return true;
+    }
+
+    private static boolean tableAdd(long[] table, long fingerprint) {
+        int mask = table.length - 1;
+        int i = (int) fingerprint & mask;
+        for (; table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == fingerprint) {
+                return false;
+            }
+        }
+        table[i] = fingerprint;
+        return true;
+    }
+
+    private void rehash() {
+        long[] newTable = new long[table.length * 2];
+        for (long fingerprint : table) {
+            if (fingerprint != 0) {
+                tableAdd(newTable, fingerprint);
+            }
+        }
+        table = newTable;
+    }
+
+    private boolean bloomContains(long fingerprint) {
+        long h1 = fingerprint, h2 = (fingerprint >>> 32) | (fingerprint << 32);
+        for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bloomBitCount);
+            if ((bloomBits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void bloomAdd(long fingerprint) {
+        long h1 = fingerprint, h2 = (fingerprint >>> 32) | (fingerprint << 32);
+        for (int i = 0; i < BLOOM_HASH_COUNT; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bloomBitCount);
+            bloomBits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private long getFingerprint(Object[] row) {
+        long hash = 0x2545F4914F6CDD1DL;
+        for (int index : keyIndexes) {
+            hash = (hash ^ getValueHash(row[index])) * 0x9E3779B97F4A7C15L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * 64-bit value hash. Values which are equal in database (e.g. 1.0 and 1.00) must have the same hash.
+     */
+    private static long getValueHash(Object value) {
+        if (value == null) {
+            return 0x5BD1E995L;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return mix(((Number) value).longValue());
+        } else if (value instanceof Double || value instanceof Float) {
+            return mix(Double.doubleToLongBits(((Number) value).doubleValue()));
+        } else if (value instanceof BigDecimal) {
+            BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+            return mix(getStringHash(decimal.unscaledValue().toString()) + decimal.scale());
+        } else if (value instanceof BigInteger) {
+            return mix(getStringHash(value.toString()));
+        } else if (value instanceof Date) {
+            long hash = mix(((Date) value).getTime());
+            if (value instanceof java.sql.Timestamp) {
+                hash ^= ((java.sql.Timestamp) value).getNanos();
+            }
+            return hash;
+        } else if (value instanceof byte[]) {
+            long hash = 0xCBF29CE484222325L;
+            for (byte b : (byte[]) value) {
+                hash = (hash ^ b) * 0x100000001B3L;
+            }
+            return mix(hash);
+        } else {
+            return mix(getStringHash(value.toString()));
+        }
+    }
+
+    private static long getStringHash(String str) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < str.length(); i++) {
+            hash = (hash ^ str.charAt(i)) * 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mockdata;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Pool of referenced key values (e.g. for foreign key generation).
+ *
+ * Integer keys are stored in a primitive long array, other values are stored as objects.
+ * Pool switches to object storage when it gets first non-integer value.
+ */
+public class MockDataValuePool {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] longValues = new long[INITIAL_CAPACITY];
+    private Object[] objectValues;
+    // Type of integer values
+    private Class<?> valueType;
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (objectValues == null) {
+            if (isIntegerValue(value) && (valueType == null || valueType == value.getClass())) {
+                if (size == longValues.length) {
+                    longValues = Arrays.copyOf(longValues, size * 2);
+                }
+                longValues[size++] = ((Number) value).longValue();
+                valueType = value.getClass();
+                return;
+            }
+            convertToObjects();
+        }
+        if (size == objectValues.length) {
+            objectValues = Arrays.copyOf(objectValues, size * 2);
+        }
+        objectValues[size++] = value;
+    }
+
+    public Object get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        if (objectValues != null) {
+            return objectValues[index];
+        }
+        return toValue(longValues[index]);
+    }
+
+    public Object getRandom(Random random) {
+        if (size == 0) {
+            return null;
+        }
+        return get(random.nextInt(size));
+    }
+
+    private Object toValue(long value) {
+        if (valueType == Integer.class) {
+            return (int) value;
+        } else if (valueType == Short.class) {
+            return (short) value;
+        } else if (valueType == Byte.class) {
+            return (byte) value;
+        } else {
+            return value;
+        }
+    }
+
+    private void convertToObjects() {
+        objectValues = new Object[Math.max(INITIAL_CAPACITY, size * 2)];
+        for (int i = 0; i < size; i++) {
+            objectValues[i] = toValue(longValues[i]);
+        }
+        longValues = null;
+    }
+
+    private static boolean isIntegerValue(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+}
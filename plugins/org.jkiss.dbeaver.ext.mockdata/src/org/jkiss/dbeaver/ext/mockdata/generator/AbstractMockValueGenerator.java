@@ -18,6 +18,7 @@
 package org.jkiss.dbeaver.ext.mockdata.generator;
 
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.mockdata.MockDataUniqueKeySet;
 import org.jkiss.dbeaver.ext.mockdata.MockDataUtils;
 import org.jkiss.dbeaver.ext.mockdata.model.MockValueGenerator;
 import org.jkiss.dbeaver.model.DBUtils;
@@ -44,7 +45,7 @@ public abstract class AbstractMockValueGenerator implements MockValueGenerator {
     protected int nullsPersent = 10;
     private boolean isFirstRun = true;
     private boolean isUnique;
-    private Set<Object> uniqueValues;
+    private MockDataUniqueKeySet uniqueValues;
 
     /**
      * Should be run before the generateValue call
@@ -83,10 +84,10 @@ public abstract class AbstractMockValueGenerator implements MockValueGenerator {
             isFirstRun = false;
             isUnique = (MockDataUtils.checkUnique(monitor, dbsEntity, attribute) == MockDataUtils.UNIQ_TYPE.SINGLE);
             if (isUnique && (attribute instanceof DBSAttributeEnumerable)) {
-                uniqueValues = new HashSet<>();
+                uniqueValues = new MockDataUniqueKeySet(new int[] { 0 }, UNIQUE_VALUES_SET_SIZE);
                 Collection<DBDLabelValuePair> valuePairs = readColumnValues(monitor, (DBSAttributeEnumerable) attribute, UNIQUE_VALUES_SET_SIZE);
                 for (DBDLabelValuePair pair : valuePairs) {
-                    uniqueValues.add(pair.getValue());
+                    uniqueValues.add(new Object[] { pair.getValue() });
                 }
 
             }
@@ -94,7 +95,7 @@ public abstract class AbstractMockValueGenerator implements MockValueGenerator {
         if (isUnique && uniqueValues != null) {
             int attempts = 0;
             Object value = null;
-            while (value == null || uniqueValues.contains(value)) {
+            while (value == null || !uniqueValues.add(new Object[] { value })) {
                 if (attempts > UNIQUE_VALUE_GEN_ATTEMPTS) {
                     throw new DBException("\n      Can't generate appropriate unique value for the '" + attribute.getName() + "' <" + attribute.getFullTypeName() + "> attribute.\n" +
                             "      Try to change the generator or its parameters.\n");
@@ -105,7 +106,6 @@ public abstract class AbstractMockValueGenerator implements MockValueGenerator {
                 value = generateOneValue(monitor);
                 attempts++;
             }
-            uniqueValues.add(value);
             return value;
         } else {
             return generateOneValue(monitor);
@@ -20,16 +20,21 @@ package org.jkiss.dbeaver.ext.mockdata.generator;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ext.mockdata.MockDataUtils;
+import org.jkiss.dbeaver.ext.mockdata.MockDataValuePool;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
-import org.jkiss.dbeaver.model.data.DBDLabelValuePair;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.exec.DBCStatementType;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTableColumn;
 import org.jkiss.dbeaver.model.struct.rdb.DBSTableForeignKeyColumn;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -40,7 +45,8 @@ public class FKGenerator extends AbstractMockValueGenerator
     private static final int UNIQ_REF_RECORDS_LIMIT = 100000000;
     private static final int REF_RECORDS_LIMIT = 100000;
 
-    private List<Object> refValues = null;
+    private MockDataValuePool refValues = null;
+    private Map<DBSEntityAttribute, MockDataValuePool> keyPools;
 
     @Override
     public void init(DBSDataManipulator container, DBSAttributeBase attribute, Map<Object, Object> properties) throws DBException {
@@ -55,33 +61,80 @@ public class FKGenerator extends AbstractMockValueGenerator
 */
     }
 
+    /**
+     * Pools of keys generated for referenced tables in the same run.
+     * If referenced column has non-empty pool then its values are used instead of reading the referenced table.
+     */
+    public void setKeyPools(Map<DBSEntityAttribute, MockDataValuePool> keyPools) {
+        this.keyPools = keyPools;
+    }
+
     @Override
     public Object generateOneValue(DBRProgressMonitor monitor) throws DBException, IOException {
         if (refValues == null) {
-            refValues = new ArrayList<>();
             List<DBSEntityReferrer> attributeReferrers = DBUtils.getAttributeReferrers(monitor, (DBSEntityAttribute) attribute);
-            DBSEntityReferrer fk = attributeReferrers.get(0); // TODO only the first
-            List<? extends DBSEntityAttributeRef> references = ((DBSEntityReferrer) fk).getAttributeReferences(monitor);
-
             DBSTableForeignKeyColumn column = null;
-            for (DBSEntityAttributeRef ref : references) {
-                if (((DBPNamedObject) ref).getName().equals(attribute.getName())) {
-                    column = (DBSTableForeignKeyColumn) ref;
+            for (DBSEntityReferrer fk : attributeReferrers) {
+                DBSTableForeignKeyColumn fkColumn = findReferenceColumn(monitor, fk);
+                if (fkColumn == null) {
+                    continue;
+                }
+                if (keyPools != null) {
+                    MockDataValuePool pool = keyPools.get(fkColumn.getReferencedColumn());
+                    if (pool != null && !pool.isEmpty()) {
+                        refValues = pool;
+                        break;
+                    }
+                }
+                if (column == null) {
+                    // By default use the first reference
+                    column = fkColumn;
                 }
             }
-            if (column == null) {
-                throw new DBException("Can't find reference column for '" + attribute.getName() + "'");
+            if (refValues == null) {
+                if (column == null) {
+                    throw new DBException("Can't find reference column for '" + attribute.getName() + "'");
+                }
+                refValues = new MockDataValuePool();
+                int numberRefRecords = (MockDataUtils.checkUnique(monitor, dbsEntity, attribute) == MockDataUtils.UNIQ_TYPE.SINGLE) ? UNIQ_REF_RECORDS_LIMIT : REF_RECORDS_LIMIT;
+                readReferencedValues(monitor, column.getReferencedColumn(), numberRefRecords);
             }
+        }
+        return refValues.getRandom(random);
+    }
 
-            int numberRefRecords = (MockDataUtils.checkUnique(monitor, dbsEntity, attribute) == MockDataUtils.UNIQ_TYPE.SINGLE) ? UNIQ_REF_RECORDS_LIMIT : REF_RECORDS_LIMIT;
-            Collection<DBDLabelValuePair> values = readColumnValues(monitor, (DBSAttributeEnumerable) column.getReferencedColumn(), numberRefRecords);
-            for (DBDLabelValuePair value : values) {
-                refValues.add(value.getValue());
+    private DBSTableForeignKeyColumn findReferenceColumn(DBRProgressMonitor monitor, DBSEntityReferrer fk) throws DBException {
+        List<? extends DBSEntityAttributeRef> references = fk.getAttributeReferences(monitor);
+        if (references != null) {
+            for (DBSEntityAttributeRef ref : references) {
+                if (ref instanceof DBSTableForeignKeyColumn && ((DBPNamedObject) ref).getName().equals(attribute.getName())) {
+                    return (DBSTableForeignKeyColumn) ref;
+                }
             }
         }
-        if (refValues.isEmpty()) {
-            return null;
+        return null;
+    }
+
+    /**
+     * Reads referenced keys directly into the pool. Keys are unique so there is no need to group them
+     * (as value enumeration does) and to keep intermediate value list.
+     */
+    private void readReferencedValues(DBRProgressMonitor monitor, DBSTableColumn refColumn, int maxValues) throws DBException {
+        DBSEntity refTable = refColumn.getParentObject();
+        String query = "SELECT " + DBUtils.getQuotedIdentifier(refColumn) +
+            " FROM " + DBUtils.getObjectFullName(refTable, DBPEvaluationContext.DML);
+        try (DBCSession session = DBUtils.openUtilSession(monitor, refTable, "Read referenced keys")) {
+            DBDValueHandler valueHandler = DBUtils.findValueHandler(session, refColumn);
+            try (DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false)) {
+                dbStat.setLimit(0, maxValues);
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                        while (dbResult.nextRow() && !monitor.isCanceled()) {
+                            refValues.add(valueHandler.fetchValueObject(session, dbResult, refColumn, 0));
+                        }
+                    }
+                }
+            }
         }
-        return refValues.get(random.nextInt(refValues.size()));
     }
 }
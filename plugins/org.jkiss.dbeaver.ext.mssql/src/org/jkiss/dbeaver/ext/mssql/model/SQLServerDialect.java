@@ -18,6 +18,7 @@ package org.jkiss.dbeaver.ext.mssql.model;
 
 import org.eclipse.jface.text.rules.IRule;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.ext.mssql.SQLServerConstants;
 import org.jkiss.dbeaver.ext.mssql.SQLServerUtils;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -98,6 +99,25 @@ public class SQLServerDialect extends JDBCSQLDialect implements SQLRuleProvider
         }
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        if (SQLServerUtils.isDriverSqlServer(dataSource.getContainer().getDriver()) &&
+            dataSource.isServerVersionAtLeast(SQLServerConstants.SQL_SERVER_2008_VERSION_MAJOR, 0))
+        {
+            return UpsertMode.MERGE;
+        }
+        return super.getUpsertMode();
+    }
+
+    @Nullable
+    @Override
+    public String generateUpsertQuery(@NotNull String tableName, @NotNull String[] columns, @NotNull String[] keyColumns) {
+        String query = super.generateUpsertQuery(tableName, columns, keyColumns);
+        // MERGE must be terminated with semicolon
+        return query == null ? null : query + ";";
+    }
+
     @Override
     public String getColumnTypeModifiers(DBPDataSource dataSource, DBSTypedObject column, String typeName, DBPDataKind dataKind) {
         if (dataKind == DBPDataKind.DATETIME) {
@@ -118,6 +118,26 @@ class MySQLDialect extends JDBCSQLDialect implements SQLRuleProvider {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        return UpsertMode.ON_DUPLICATE_KEY;
+    }
+
+    @Override
+    public String getRowsHashExpression(@NotNull String[] columns) {
+        // CONCAT_WS skips nulls, so null flags are added to distinguish them
+        StringBuilder row = new StringBuilder("CONCAT_WS('|'");
+        for (String column : columns) {
+            row.append(",").append(column);
+        }
+        for (String column : columns) {
+            row.append(",ISNULL(").append(column).append(")");
+        }
+        row.append(")");
+        return "SUM(CAST(CONV(SUBSTRING(MD5(" + row + "),1,15),16,10) AS UNSIGNED))";
+    }
+
     @Override
     public boolean supportsAliasInSelect() {
         return true;
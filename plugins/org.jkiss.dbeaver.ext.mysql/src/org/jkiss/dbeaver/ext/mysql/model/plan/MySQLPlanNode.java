@@ -16,9 +16,13 @@
  */
 package org.jkiss.dbeaver.ext.mysql.model.plan;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanCostNode;
 import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.utils.CommonUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -27,7 +31,7 @@ import java.util.List;
 /**
  * MySQL execution plan node
  */
-public class MySQLPlanNode implements DBCPlanNode {
+public class MySQLPlanNode implements DBCPlanCostNode {
 
     private long id;
     private String selectType;
@@ -138,6 +142,59 @@ public class MySQLPlanNode implements DBCPlanNode {
         return extra;
     }
 
+    @NotNull
+    @Override
+    public String getNodeType() {
+        return CommonUtils.notEmpty(type);
+    }
+
+    @NotNull
+    @Override
+    public DBCPlanNodeKind getNodeKind() {
+        if (CommonUtils.isEmpty(type)) {
+            return DBCPlanNodeKind.SELECT;
+        }
+        switch (type) {
+            case "ALL":
+                return DBCPlanNodeKind.TABLE_SCAN;
+            case "system":
+            case "const":
+            case "eq_ref":
+            case "ref":
+            case "ref_or_null":
+            case "fulltext":
+            case "index_merge":
+            case "unique_subquery":
+            case "index_subquery":
+            case "range":
+            case "index":
+                return DBCPlanNodeKind.INDEX_SCAN;
+            default:
+                return DBCPlanNodeKind.DEFAULT;
+        }
+    }
+
+    @Override
+    public String getNodeName() {
+        return table;
+    }
+
+    @Override
+    public double getNodeCost() {
+        // Tabular EXPLAIN doesn't report cost
+        return -1;
+    }
+
+    @Override
+    public long getNodeRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public long getNodeActualRowCount() {
+        return -1;
+    }
+
     @Override
     public String toString() {
         return table + " " + type + " " + key;
@@ -16,16 +16,17 @@
  */
 package org.jkiss.dbeaver.ext.mysql.model.session;
 
-import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.utils.CommonUtils;
 
 import java.sql.ResultSet;
 
 /**
  * MySQL session
  */
-public class MySQLSession implements DBAServerSession {
+public class MySQLSession implements DBAServerSessionActivity {
     private long pid;
     private String user;
     private String host;
@@ -95,6 +96,28 @@ public class MySQLSession implements DBAServerSession {
         return info;
     }
 
+    @Override
+    public Object getSessionId() {
+        return pid;
+    }
+
+    @Override
+    public boolean isActive() {
+        return "Query".equals(command) || "Execute".equals(command);
+    }
+
+    @Override
+    public String getWaitEvent() {
+        // Thread state says what active statement is doing (or waiting for)
+        return isActive() && !CommonUtils.isEmpty(state) ? state : null;
+    }
+
+    @Override
+    public long getActiveDuration() {
+        // Time is in seconds
+        return isActive() ? time * 1000 : -1;
+    }
+
     @Override
     public String toString()
     {
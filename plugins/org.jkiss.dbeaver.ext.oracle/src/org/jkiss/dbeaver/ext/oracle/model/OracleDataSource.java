@@ -23,9 +23,11 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.ext.oracle.model.plan.OraclePlanAnalyser;
+import org.jkiss.dbeaver.ext.oracle.model.lock.OracleLockManager;
 import org.jkiss.dbeaver.ext.oracle.model.session.OracleServerSessionManager;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.access.DBAPasswordChangeInfo;
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLockManager;
 import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionManager;
 import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
 import org.jkiss.dbeaver.model.connection.DBPDriver;
@@ -183,7 +185,7 @@ public class OracleDataSource extends JDBCDataSource
 
             connectionInfo.setUserPassword(passwordInfo.getNewPassword());
             getContainer().getConnectionConfiguration().setUserPassword(passwordInfo.getNewPassword());
-            getContainer().getRegistry().flushConfig();
+            getContainer().persistConfiguration();
             return true;
         }
         catch (Exception e) {
@@ -547,6 +549,8 @@ public class OracleDataSource extends JDBCDataSource
             return adapter.cast(outputReader);
         } else if (adapter == DBAServerSessionManager.class) {
             return adapter.cast(new OracleServerSessionManager(getDefaultInstance().getDefaultContext(false)));
+        } else if (adapter == DBAServerLockManager.class) {
+            return adapter.cast(new OracleLockManager(this));
         }
         return super.getAdapter(adapter);
     }
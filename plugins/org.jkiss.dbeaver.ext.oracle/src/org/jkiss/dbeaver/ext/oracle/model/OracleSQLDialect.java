@@ -347,6 +347,12 @@ class OracleSQLDialect extends JDBCSQLDialect {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        return UpsertMode.MERGE;
+    }
+
     @Override
     public boolean supportsAliasInSelect() {
         return true;
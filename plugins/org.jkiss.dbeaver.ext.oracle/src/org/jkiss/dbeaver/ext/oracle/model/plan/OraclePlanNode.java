@@ -16,11 +16,13 @@
  */
 package org.jkiss.dbeaver.ext.oracle.model.plan;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.ext.oracle.model.OracleDataSource;
 import org.jkiss.dbeaver.ext.oracle.model.OracleObjectType;
 import org.jkiss.dbeaver.ext.oracle.model.OracleTablePhysical;
-import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanCostNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -37,7 +39,7 @@ import java.util.List;
 /**
  * Oracle execution plan node
  */
-public class OraclePlanNode implements DBCPlanNode {
+public class OraclePlanNode implements DBCPlanCostNode {
 
     private final OracleDataSource dataSource;
     private String statementId;
@@ -308,6 +310,59 @@ public class OraclePlanNode implements DBCPlanNode {
         return qblockName;
     }
 
+    @NotNull
+    @Override
+    public String getNodeType() {
+        return CommonUtils.notEmpty(getOperation());
+    }
+
+    @NotNull
+    @Override
+    public DBCPlanNodeKind getNodeKind() {
+        if (operation == null) {
+            return DBCPlanNodeKind.DEFAULT;
+        }
+        if (operation.startsWith("TABLE ACCESS")) {
+            return "FULL".equals(options) ? DBCPlanNodeKind.TABLE_SCAN : DBCPlanNodeKind.INDEX_SCAN;
+        } else if (operation.startsWith("INDEX")) {
+            return DBCPlanNodeKind.INDEX_SCAN;
+        } else if (operation.startsWith("NESTED LOOPS") || operation.startsWith("HASH JOIN") || operation.startsWith("MERGE JOIN")) {
+            return DBCPlanNodeKind.JOIN;
+        } else if (operation.startsWith("SORT")) {
+            return options != null && options.contains("GROUP BY") ? DBCPlanNodeKind.AGGREGATE : DBCPlanNodeKind.SORT;
+        } else if (operation.startsWith("HASH") && options != null && options.contains("GROUP BY")) {
+            return DBCPlanNodeKind.AGGREGATE;
+        } else if (operation.startsWith("FILTER")) {
+            return DBCPlanNodeKind.FILTER;
+        } else if (operation.startsWith("SELECT STATEMENT")) {
+            return DBCPlanNodeKind.SELECT;
+        } else if (operation.startsWith("INSERT") || operation.startsWith("UPDATE") || operation.startsWith("DELETE") || operation.startsWith("MERGE")) {
+            return DBCPlanNodeKind.MODIFY;
+        }
+        return DBCPlanNodeKind.DEFAULT;
+    }
+
+    @Override
+    public String getNodeName() {
+        return objectName;
+    }
+
+    @Override
+    public double getNodeCost() {
+        return cost;
+    }
+
+    @Override
+    public long getNodeRowCount() {
+        return cardinality;
+    }
+
+    @Override
+    public long getNodeActualRowCount() {
+        // PLAN_TABLE contains estimates only
+        return -1;
+    }
+
     @Override
     public String toString()
     {
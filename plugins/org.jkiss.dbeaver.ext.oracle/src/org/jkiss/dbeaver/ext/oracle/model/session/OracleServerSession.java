@@ -16,7 +16,7 @@
  */
 package org.jkiss.dbeaver.ext.oracle.model.session;
 
-import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 
@@ -26,7 +26,7 @@ import java.sql.Timestamp;
 /**
 * Session
 */
-public class OracleServerSession implements DBAServerSession {
+public class OracleServerSession implements DBAServerSessionActivity {
 
     public static final String CAT_SESSION = "Session";
     public static final String CAT_SQL = "SQL";
@@ -44,6 +44,7 @@ public class OracleServerSession implements DBAServerSession {
     private String state;
     private String sql;
     private String event;
+    private String waitClass;
     private long secondsInWait;
     private long elapsedTime;
     private Timestamp logonTime;
@@ -97,6 +98,7 @@ public class OracleServerSession implements DBAServerSession {
         this.consistentChanges = JDBCUtils.safeGetLong(dbResult, "CONSISTENT_CHANGES");
 
         this.event = JDBCUtils.safeGetString(dbResult, "EVENT");
+        this.waitClass = JDBCUtils.safeGetString(dbResult, "WAIT_CLASS");
         this.secondsInWait = JDBCUtils.safeGetLong(dbResult, "SECONDS_IN_WAIT");
 
         //this.statCPU = JDBCUtils.safeGetLong(dbResult, "STAT_CPU") * 10;
@@ -248,6 +250,31 @@ public class OracleServerSession implements DBAServerSession {
         return sql;
     }
 
+    @Override
+    public Object getSessionId() {
+        return sid;
+    }
+
+    @Override
+    public boolean isActive() {
+        // Background processes are always active
+        return "ACTIVE".equals(status) && !"BACKGROUND".equals(type);
+    }
+
+    @Override
+    public String getWaitEvent() {
+        if (isActive() && "WAITING".equals(state) && !"Idle".equals(waitClass)) {
+            return event;
+        }
+        return null;
+    }
+
+    @Override
+    public long getActiveDuration() {
+        // LAST_CALL_ET is in seconds
+        return isActive() ? elapsedTime * 1000 : -1;
+    }
+
     @Override
     public String toString()
     {
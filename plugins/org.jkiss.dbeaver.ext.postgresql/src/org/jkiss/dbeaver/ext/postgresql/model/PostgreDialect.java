@@ -142,6 +142,18 @@ public class PostgreDialect extends JDBCSQLDialect {
         return MultiValueInsertMode.GROUP_ROWS;
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        return UpsertMode.ON_CONFLICT;
+    }
+
+    @Override
+    public String getRowsHashExpression(@NotNull String[] columns) {
+        // Sum of row hashes (60 bits of md5) - doesn't depend on rows order and doesn't need to sort rows
+        return "sum(('x' || substr(md5(ROW(" + String.join(",", columns) + ")::text), 1, 15))::bit(60)::bigint)";
+    }
+
     @Override
     public String[][] getBlockBoundStrings() {
         // PostgreSQL-specific blocks ($$) should be used everywhere
@@ -16,11 +16,14 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model.plan;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.ext.postgresql.model.PostgreDataSource;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
 import org.jkiss.dbeaver.model.preferences.DBPPropertySource;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanCostNode;
 import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.dbeaver.model.impl.PropertyDescriptor;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -38,7 +41,7 @@ import java.util.Map;
 /**
  * Postgre execution plan node
  */
-public class PostgrePlanNode implements DBCPlanNode, DBPPropertySource {
+public class PostgrePlanNode implements DBCPlanCostNode, DBPPropertySource {
 
     public static final String ATTR_NODE_TYPE = "Node-Type";
     public static final String ATTR_RELATION_NAME = "Relation-Name";
@@ -54,6 +57,7 @@ public class PostgrePlanNode implements DBCPlanNode, DBPPropertySource {
     private String nodeType;
     private String entity;
     private String cost;
+    private double totalCost;
     private Map<String, String> attributes = new LinkedHashMap<>();
 
     public PostgrePlanNode(PostgreDataSource dataSource, PostgrePlanNode parent, Element element) {
@@ -78,6 +82,7 @@ public class PostgrePlanNode implements DBCPlanNode, DBPPropertySource {
         String startCost = attributes.remove(ATTR_STARTUP_COST);
         String totalCost = attributes.remove(ATTR_TOTAL_COST);
         cost = startCost + " - " + totalCost;
+        this.totalCost = parseNumber(totalCost, -1);
 
         Element nestedPlansElement = XMLUtils.getChildElement(element, "Plans");
         if (nestedPlansElement != null) {
@@ -90,9 +95,11 @@ public class PostgrePlanNode implements DBCPlanNode, DBPPropertySource {
         }
     }
 
+    @NotNull
+    @Override
     @Property(order = 0, viewable = true)
     public String getNodeType() {
-        return nodeType;
+        return CommonUtils.notEmpty(nodeType);
     }
 
     @Property(order = 2, viewable = true)
@@ -138,6 +145,75 @@ public class PostgrePlanNode implements DBCPlanNode, DBPPropertySource {
         return cond;
     }
 
+    @NotNull
+    @Override
+    public DBCPlanNodeKind getNodeKind() {
+        if (nodeType == null) {
+            return DBCPlanNodeKind.DEFAULT;
+        }
+        switch (nodeType) {
+            case "Seq Scan":
+                return DBCPlanNodeKind.TABLE_SCAN;
+            case "Index Scan":
+            case "Index Only Scan":
+            case "Bitmap Index Scan":
+            case "Bitmap Heap Scan":
+                return DBCPlanNodeKind.INDEX_SCAN;
+            case "Nested Loop":
+            case "Hash Join":
+            case "Merge Join":
+                return DBCPlanNodeKind.JOIN;
+            case "Sort":
+            case "Incremental Sort":
+                return DBCPlanNodeKind.SORT;
+            case "Aggregate":
+            case "Group":
+                return DBCPlanNodeKind.AGGREGATE;
+            case "ModifyTable":
+                return DBCPlanNodeKind.MODIFY;
+            case "Result":
+                return DBCPlanNodeKind.SELECT;
+            default:
+                return DBCPlanNodeKind.DEFAULT;
+        }
+    }
+
+    @Override
+    public String getNodeName() {
+        return entity;
+    }
+
+    @Override
+    public double getNodeCost() {
+        return totalCost;
+    }
+
+    @Override
+    public long getNodeRowCount() {
+        return (long) parseNumber(attributes.get("Plan-Rows"), -1);
+    }
+
+    @Override
+    public long getNodeActualRowCount() {
+        String rows = attributes.get("Actual-Rows");
+        if (rows == null) {
+            return -1;
+        }
+        // Per loop, the same as Plan-Rows (inner side of nested loop is executed Actual-Loops times)
+        return (long) parseNumber(rows, -1);
+    }
+
+    private static double parseNumber(String value, double defaultValue) {
+        if (CommonUtils.isEmpty(value)) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     @Override
     public DBCPlanNode getParent()
     {
@@ -16,7 +16,7 @@
  */
 package org.jkiss.dbeaver.ext.postgresql.model.session;
 
-import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
 import org.jkiss.dbeaver.model.meta.Property;
 import org.jkiss.utils.CommonUtils;
@@ -27,7 +27,7 @@ import java.util.Date;
 /**
  * PostgreSQL session
  */
-public class PostgreSession implements DBAServerSession {
+public class PostgreSession implements DBAServerSessionActivity {
     private static final String CAT_CLIENT = "Client";
     private static final String CAT_TIMING = "Timings";
 
@@ -43,6 +43,10 @@ public class PostgreSession implements DBAServerSession {
     private Date stateChange;
     private String state;
     private String appName;
+    private String waitEventType;
+    private String waitEvent;
+    private boolean waiting;
+    private long queryDuration;
 
     public PostgreSession(ResultSet dbResult) {
         this.pid = JDBCUtils.safeGetInt(dbResult, "pid");
@@ -62,6 +66,11 @@ public class PostgreSession implements DBAServerSession {
 
         this.state = JDBCUtils.safeGetString(dbResult, "state");
         this.appName = JDBCUtils.safeGetString(dbResult, "application_name");
+        // wait_event columns exist since 9.6, waiting column exists in older versions
+        this.waitEventType = JDBCUtils.safeGetString(dbResult, "wait_event_type");
+        this.waitEvent = JDBCUtils.safeGetString(dbResult, "wait_event");
+        this.waiting = JDBCUtils.safeGetBoolean(dbResult, "waiting");
+        this.queryDuration = JDBCUtils.safeGetLong(dbResult, "query_duration");
     }
 
     @Property(viewable = true, order = 1)
@@ -139,6 +148,33 @@ public class PostgreSession implements DBAServerSession {
         return query;
     }
 
+    @Override
+    public Object getSessionId() {
+        return pid;
+    }
+
+    @Override
+    public boolean isActive() {
+        return "active".equals(state);
+    }
+
+    @Override
+    public String getWaitEvent() {
+        // Idle sessions wait for client
+        if (!isActive()) {
+            return null;
+        }
+        if (!CommonUtils.isEmpty(waitEvent)) {
+            return CommonUtils.isEmpty(waitEventType) ? waitEvent : waitEventType + ":" + waitEvent;
+        }
+        return waiting ? "Lock" : null;
+    }
+
+    @Override
+    public long getActiveDuration() {
+        return isActive() && queryStart != null ? queryDuration : -1;
+    }
+
     @Override
     public String toString()
     {
@@ -56,7 +56,9 @@ public class PostgreSessionManager implements DBAServerSessionManager<PostgreSes
     public Collection<PostgreSession> getSessions(DBCSession session, Map<String, Object> options) throws DBException
     {
         try {
-            try (JDBCPreparedStatement dbStat = ((JDBCSession) session).prepareStatement("SELECT sa.* FROM pg_catalog.pg_stat_activity sa")) {
+            try (JDBCPreparedStatement dbStat = ((JDBCSession) session).prepareStatement(
+                "SELECT sa.*, CAST(EXTRACT(EPOCH FROM (now() - sa.query_start)) * 1000 AS BIGINT) AS query_duration\n" +
+                "FROM pg_catalog.pg_stat_activity sa")) {
                 try (JDBCResultSet dbResult = dbStat.executeQuery()) {
                     List<PostgreSession> sessions = new ArrayList<>();
                     while (dbResult.next()) {
@@ -0,0 +1,120 @@
+package org.jkiss.dbeaver.ext.postgresql.model.plan;
+
+import org.jkiss.dbeaver.model.exec.plan.DBCPlan;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanAnalysis;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanAnalyzer;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNode;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNodeKind;
+import org.jkiss.dbeaver.model.exec.plan.DBCPlanNormalizedNode;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks normalized information of EXPLAIN ANALYZE nodes
+ */
+public class PostgrePlanNodeTest {
+
+    // EXPLAIN (ANALYZE, FORMAT XML) of nested loop join
+    private static final String NESTED_LOOP_PLAN =
+        "<Plan>" +
+            "<Node-Type>Nested Loop</Node-Type>" +
+            "<Startup-Cost>0.29</Startup-Cost><Total-Cost>850.50</Total-Cost>" +
+            "<Plan-Rows>100</Plan-Rows><Actual-Rows>100</Actual-Rows><Actual-Loops>1</Actual-Loops>" +
+            "<Plans>" +
+                "<Plan>" +
+                    "<Node-Type>Seq Scan</Node-Type><Relation-Name>customers</Relation-Name><Alias>c</Alias>" +
+                    "<Startup-Cost>0.00</Startup-Cost><Total-Cost>2.00</Total-Cost>" +
+                    "<Plan-Rows>100</Plan-Rows><Actual-Rows>100</Actual-Rows><Actual-Loops>1</Actual-Loops>" +
+                "</Plan>" +
+                "<Plan>" +
+                    "<Node-Type>Index Scan</Node-Type><Index-Name>orders_customer_idx</Index-Name>" +
+                    "<Startup-Cost>0.29</Startup-Cost><Total-Cost>8.30</Total-Cost>" +
+                    "<Plan-Rows>1</Plan-Rows><Actual-Rows>1</Actual-Rows><Actual-Loops>5000</Actual-Loops>" +
+                "</Plan>" +
+            "</Plans>" +
+        "</Plan>";
+
+    @Test
+    public void testActualRowsPerLoop() throws Exception {
+        PostgrePlanNode root = parsePlan(NESTED_LOOP_PLAN);
+        assertEquals(DBCPlanNodeKind.JOIN, root.getNodeKind());
+        assertEquals(850.5, root.getNodeCost(), 0);
+
+        List<PostgrePlanNode> nested = root.getNested();
+        assertEquals("customers as c", nested.get(0).getNodeName());
+        assertEquals(DBCPlanNodeKind.TABLE_SCAN, nested.get(0).getNodeKind());
+
+        PostgrePlanNode indexScan = nested.get(1);
+        assertEquals(DBCPlanNodeKind.INDEX_SCAN, indexScan.getNodeKind());
+        assertEquals(1, indexScan.getNodeRowCount());
+        // Per loop, comparable with the estimate
+        assertEquals(1, indexScan.getNodeActualRowCount());
+
+        DBCPlanNormalizedNode normalized = new DBCPlanNormalizedNode(null, indexScan);
+        assertEquals(1, normalized.getEstimateError(), 0);
+    }
+
+    @Test
+    public void testNestedLoopIsNotBadEstimate() throws Exception {
+        PostgrePlanNode root = parsePlan(NESTED_LOOP_PLAN);
+        DBCPlanAnalysis analysis = new DBCPlanAnalyzer(null).analyzePlan(makePlan(root), "query");
+        assertTrue(analysis.getIssues().isEmpty());
+    }
+
+    @Test
+    public void testBadEstimate() throws Exception {
+        PostgrePlanNode root = parsePlan(
+            "<Plan>" +
+                "<Node-Type>Index Scan</Node-Type><Index-Name>orders_status_idx</Index-Name>" +
+                "<Startup-Cost>0.29</Startup-Cost><Total-Cost>8.30</Total-Cost>" +
+                "<Plan-Rows>5</Plan-Rows><Actual-Rows>20000</Actual-Rows><Actual-Loops>1</Actual-Loops>" +
+            "</Plan>");
+        assertEquals(20000, root.getNodeActualRowCount());
+        DBCPlanAnalysis analysis = new DBCPlanAnalyzer(null).analyzePlan(makePlan(root), "query");
+        assertEquals(1, analysis.getIssues().size());
+        assertEquals(DBCPlanAnalysis.IssueType.BAD_ESTIMATE, analysis.getIssues().get(0).getType());
+    }
+
+    @Test
+    public void testNoActualRows() throws Exception {
+        PostgrePlanNode root = parsePlan(
+            "<Plan><Node-Type>Seq Scan</Node-Type><Relation-Name>orders</Relation-Name>" +
+                "<Startup-Cost>0.00</Startup-Cost><Total-Cost>180.00</Total-Cost><Plan-Rows>8000</Plan-Rows></Plan>");
+        assertEquals(8000, root.getNodeRowCount());
+        assertEquals(-1, root.getNodeActualRowCount());
+    }
+
+    private static DBCPlan makePlan(PostgrePlanNode root) {
+        return new DBCPlan() {
+            @Override
+            public String getQueryString() {
+                return "query";
+            }
+
+            @Override
+            public String getPlanQueryString() {
+                return "EXPLAIN query";
+            }
+
+            @Override
+            public Collection<? extends DBCPlanNode> getPlanNodes() {
+                return Collections.singletonList(root);
+            }
+        };
+    }
+
+    private static PostgrePlanNode parsePlan(String xml) throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new InputSource(new StringReader(xml)));
+        return new PostgrePlanNode(null, null, document.getDocumentElement());
+    }
+
+}
@@ -63,9 +63,12 @@ public final class ModelPreferences
     public static final String CONTENT_CACHE_CLOB = "content.cache.clob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_BLOB = "content.cache.blob"; //$NON-NLS-1$
     public static final String CONTENT_CACHE_MAX_SIZE = "content.cache.maxsize"; //$NON-NLS-1$
+    public static final String CONTENT_LOB_RANGE_FETCH = "content.lob.range.fetch"; //$NON-NLS-1$
     public static final String META_SEPARATE_CONNECTION = "database.meta.separate.connection"; //$NON-NLS-1$
     public static final String META_CASE_SENSITIVE = "database.meta.casesensitive"; //$NON-NLS-1$
     public static final String META_USE_SERVER_SIDE_FILTERS = "database.meta.server.side.filters"; //$NON-NLS-1$
+    public static final String META_PREFETCH_FOLDERS = "database.meta.prefetch.folders"; //$NON-NLS-1$
+    public static final String META_BULK_LOAD_THRESHOLD = "database.meta.bulk.load.threshold"; //$NON-NLS-1$
 
     public static final String META_CLIENT_NAME_DISABLE = "database.meta.client.name.disable"; //$NON-NLS-1$
     public static final String META_CLIENT_NAME_OVERRIDE = "database.meta.client.name.override"; //$NON-NLS-1$
@@ -73,6 +76,9 @@ public final class ModelPreferences
 
     public static final String CONNECT_USE_ENV_VARS = "database.connect.processEnvVars"; //$NON-NLS-1$
 
+    public static final String ADMIN_ACTIVITY_SAMPLE_INTERVAL = "admin.activity.sample.interval"; //$NON-NLS-1$
+    public static final String ADMIN_ACTIVITY_HISTORY_SIZE = "admin.activity.history.size"; //$NON-NLS-1$
+
     public static final String RESULT_NATIVE_DATETIME_FORMAT = "resultset.format.datetime.native"; //$NON-NLS-1$
     public static final String RESULT_TRANSFORM_COMPLEX_TYPES = "resultset.transform.complex.type"; //$NON-NLS-1$
 
@@ -82,6 +88,7 @@ public final class ModelPreferences
 
     // ResultSet
     public static final String RESULT_SET_USE_FETCH_SIZE = "resultset.fetch.size"; //$NON-NLS-1$
+    public static final String RESULT_SET_ADAPTIVE_FETCH_SIZE = "resultset.fetch.size.adaptive"; //$NON-NLS-1$
     public static final String RESULT_SET_MAX_ROWS_USE_SQL = "resultset.maxrows.sql"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_PRESENTATION = "resultset.binary.representation"; //$NON-NLS-1$
     public static final String RESULT_SET_BINARY_STRING_MAX_LEN = "resultset.binary.stringMaxLength"; //$NON-NLS-1$
@@ -163,6 +170,8 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, META_SEPARATE_CONNECTION, true);
         PrefUtils.setDefaultPreferenceValue(store, META_CASE_SENSITIVE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_USE_SERVER_SIDE_FILTERS, true);
+        PrefUtils.setDefaultPreferenceValue(store, META_PREFETCH_FOLDERS, false);
+        PrefUtils.setDefaultPreferenceValue(store, META_BULK_LOAD_THRESHOLD, 0);
 
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_DISABLE, false);
         PrefUtils.setDefaultPreferenceValue(store, META_CLIENT_NAME_OVERRIDE, false);
@@ -170,6 +179,10 @@ public final class ModelPreferences
 
         PrefUtils.setDefaultPreferenceValue(store, CONNECT_USE_ENV_VARS, false);
 
+        PrefUtils.setDefaultPreferenceValue(store, ADMIN_ACTIVITY_SAMPLE_INTERVAL, 10);
+        // One day of samples with default interval
+        PrefUtils.setDefaultPreferenceValue(store, ADMIN_ACTIVITY_HISTORY_SIZE, 8640);
+
         PrefUtils.setDefaultPreferenceValue(store, RESULT_NATIVE_DATETIME_FORMAT, false);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_TRANSFORM_COMPLEX_TYPES, true);
 
@@ -177,6 +190,7 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_CLOB, true);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_BLOB, false);
         PrefUtils.setDefaultPreferenceValue(store, CONTENT_CACHE_MAX_SIZE, 1000000);
+        PrefUtils.setDefaultPreferenceValue(store, CONTENT_LOB_RANGE_FETCH, true);
 
         // Network
         PrefUtils.setDefaultPreferenceValue(store, NET_TUNNEL_PORT_MIN, 10000);
@@ -187,6 +201,7 @@ public final class ModelPreferences
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_PRESENTATION, DBConstants.BINARY_FORMATS[0].getId());
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_BINARY_STRING_MAX_LEN, 32);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_USE_FETCH_SIZE, false);
+        PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_ADAPTIVE_FETCH_SIZE, false);
         PrefUtils.setDefaultPreferenceValue(store, RESULT_SET_IGNORE_COLUMN_LABEL, false);
 
         // QM
@@ -565,6 +565,27 @@ public final class DBUtils {
         return new DBDAttributeBindingMeta(session, attributeMeta);
     }
 
+    /**
+     * Creates fetcher of result set column values.
+     * Uses handler's specialized fetcher if possible, otherwise fetcher calls {@link DBDValueHandler#fetchValueObject}.
+     */
+    @NotNull
+    public static DBDValueFetcher createValueFetcher(
+        @NotNull DBCSession session,
+        @NotNull final DBCResultSet resultSet,
+        @NotNull final DBDValueHandler valueHandler,
+        @NotNull final DBSTypedObject type,
+        final int index)
+    {
+        if (valueHandler instanceof DBDValueFetcherFactory) {
+            DBDValueFetcher fetcher = ((DBDValueFetcherFactory) valueHandler).createValueFetcher(session, resultSet, type, index);
+            if (fetcher != null) {
+                return fetcher;
+            }
+        }
+        return fetchSession -> valueHandler.fetchValueObject(fetchSession, resultSet, type, index);
+    }
+
     @NotNull
     public static DBDValueHandler findValueHandler(@NotNull DBCSession session, @NotNull DBSTypedObject column)
     {
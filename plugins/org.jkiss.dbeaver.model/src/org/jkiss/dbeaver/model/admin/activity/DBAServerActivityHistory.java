@@ -0,0 +1,152 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.activity;
+
+import java.util.*;
+
+/**
+ * Server activity time series.
+ * Samples are kept in a ring buffer - when it is full the oldest sample is replaced.
+ */
+public class DBAServerActivityHistory {
+
+    private final DBAServerActivitySample[] samples;
+    private int first;
+    private int size;
+
+    public DBAServerActivityHistory(int capacity) {
+        this.samples = new DBAServerActivitySample[Math.max(capacity, 1)];
+    }
+
+    public int getCapacity() {
+        return samples.length;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void addSample(DBAServerActivitySample sample) {
+        if (size < samples.length) {
+            samples[(first + size) % samples.length] = sample;
+            size++;
+        } else {
+            samples[first] = sample;
+            first = (first + 1) % samples.length;
+        }
+    }
+
+    public synchronized DBAServerActivitySample getLastSample() {
+        return size == 0 ? null : samples[(first + size - 1) % samples.length];
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(samples, null);
+        first = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns samples made in the specified time range (inclusive), oldest first
+     */
+    public synchronized List<DBAServerActivitySample> getSamples(long fromTime, long toTime) {
+        List<DBAServerActivitySample> result = new ArrayList<>();
+        // Samples are ordered by time, so find the first one with binary search
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (samples[(first + mid) % samples.length].getTimestamp() < fromTime) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < size; i++) {
+            DBAServerActivitySample sample = samples[(first + i) % samples.length];
+            if (sample.getTimestamp() > toTime) {
+                break;
+            }
+            result.add(sample);
+        }
+        return result;
+    }
+
+    /**
+     * Most frequent wait events. Value is a number of session samples spent in the wait event.
+     */
+    public List<Map.Entry<String, Integer>> getTopWaits(long fromTime, long toTime, int maxCount) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (DBAServerActivitySample sample : getSamples(fromTime, toTime)) {
+            String[] events = sample.getWaitEvents();
+            for (int i = 0; i < events.length; i++) {
+                totals.merge(events[i], sample.getWaitCounts()[i], Integer::sum);
+            }
+        }
+        return getTopEntries(totals, maxCount);
+    }
+
+    /**
+     * Sessions which blocked other sessions most. Value is a number of blocked session samples.
+     */
+    public List<Map.Entry<String, Integer>> getTopBlockers(long fromTime, long toTime, int maxCount) {
+        Map<String, Integer> totals = new HashMap<>();
+        for (DBAServerActivitySample sample : getSamples(fromTime, toTime)) {
+            String[] blockers = sample.getBlockers();
+            for (int i = 0; i < blockers.length; i++) {
+                totals.merge(blockers[i], sample.getBlockedCounts()[i], Integer::sum);
+            }
+        }
+        return getTopEntries(totals, maxCount);
+    }
+
+    /**
+     * Longest statements. The same statement of the same session is reported once, with its maximal duration.
+     */
+    public List<DBAServerActivitySample.QueryInfo> getLongestQueries(long fromTime, long toTime, int maxCount) {
+        Map<String, DBAServerActivitySample.QueryInfo> queries = new HashMap<>();
+        for (DBAServerActivitySample sample : getSamples(fromTime, toTime)) {
+            for (DBAServerActivitySample.QueryInfo query : sample.getLongQueries()) {
+                String key = query.getSessionId() + ":" + query.getQuery();
+                DBAServerActivitySample.QueryInfo prev = queries.get(key);
+                if (prev == null || prev.getDuration() < query.getDuration()) {
+                    queries.put(key, query);
+                }
+            }
+        }
+        List<DBAServerActivitySample.QueryInfo> result = new ArrayList<>(queries.values());
+        result.sort((o1, o2) -> Long.compare(o2.getDuration(), o1.getDuration()));
+        return result.size() > maxCount ? new ArrayList<>(result.subList(0, maxCount)) : result;
+    }
+
+    /**
+     * Maximal number of blocked sessions in the specified time range
+     */
+    public int getMaxBlockedCount(long fromTime, long toTime) {
+        int result = 0;
+        for (DBAServerActivitySample sample : getSamples(fromTime, toTime)) {
+            result = Math.max(result, sample.getBlockedCount());
+        }
+        return result;
+    }
+
+    private static List<Map.Entry<String, Integer>> getTopEntries(Map<String, Integer> totals, int maxCount) {
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(totals.entrySet());
+        result.sort((o1, o2) -> Integer.compare(o2.getValue(), o1.getValue()));
+        return result.size() > maxCount ? new ArrayList<>(result.subList(0, maxCount)) : result;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.activity;
+
+/**
+ * Server activity sample.
+ * Only aggregated data is stored (wait counts, top blockers and longest queries), so samples are compact.
+ */
+public class DBAServerActivitySample {
+
+    public static final int MAX_QUERY_LENGTH = 2000;
+
+    /**
+     * Statement which was running at the sample time
+     */
+    public static class QueryInfo {
+        private final String sessionId;
+        private final String query;
+        private final long duration;
+
+        public QueryInfo(String sessionId, String query, long duration) {
+            this.sessionId = sessionId;
+            this.query = query != null && query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query;
+            this.duration = duration;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        /**
+         * Statement duration in milliseconds
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return sessionId + " (" + duration + "ms): " + query;
+        }
+    }
+
+    private final long timestamp;
+    private final int sessionCount;
+    private final int activeCount;
+    private final int blockedCount;
+    private final String[] waitEvents;
+    private final int[] waitCounts;
+    private final String[] blockers;
+    private final int[] blockedCounts;
+    private final QueryInfo[] longQueries;
+
+    public DBAServerActivitySample(
+        long timestamp,
+        int sessionCount,
+        int activeCount,
+        int blockedCount,
+        String[] waitEvents,
+        int[] waitCounts,
+        String[] blockers,
+        int[] blockedCounts,
+        QueryInfo[] longQueries)
+    {
+        this.timestamp = timestamp;
+        this.sessionCount = sessionCount;
+        this.activeCount = activeCount;
+        this.blockedCount = blockedCount;
+        this.waitEvents = waitEvents;
+        this.waitCounts = waitCounts;
+        this.blockers = blockers;
+        this.blockedCounts = blockedCounts;
+        this.longQueries = longQueries;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public int getActiveCount() {
+        return activeCount;
+    }
+
+    /**
+     * Number of sessions which wait for locks held by other sessions
+     */
+    public int getBlockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * Wait events. Number of waiting sessions is in {@link #getWaitCounts()} at the same index.
+     */
+    public String[] getWaitEvents() {
+        return waitEvents;
+    }
+
+    public int[] getWaitCounts() {
+        return waitCounts;
+    }
+
+    /**
+     * Sessions which hold locks. Number of blocked sessions is in {@link #getBlockedCounts()} at the same index.
+     */
+    public String[] getBlockers() {
+        return blockers;
+    }
+
+    public int[] getBlockedCounts() {
+        return blockedCounts;
+    }
+
+    /**
+     * Longest running statements, longest first
+     */
+    public QueryInfo[] getLongQueries() {
+        return longQueries;
+    }
+
+}
@@ -0,0 +1,290 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.activity;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLock;
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLockManager;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionManager;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.*;
+
+/**
+ * Background sampler of server sessions and locks.
+ *
+ * Polls data source session manager and lock manager (DBAServerSessionManager and DBAServerLockManager adapters)
+ * with the configured interval and keeps samples in activity history.
+ * Sampler uses its own isolated execution context which is kept open between samples.
+ * History remains available after sampling stops (e.g. after disconnect).
+ */
+public class DBAServerActivitySampler {
+
+    private static final Log log = Log.getLog(DBAServerActivitySampler.class);
+
+    public static final int TOP_COUNT = 10;
+    private static final int MAX_ERRORS = 5;
+
+    private static final Map<DBPDataSourceContainer, DBAServerActivitySampler> samplers = new IdentityHashMap<>();
+
+    @Nullable
+    public static DBAServerActivitySampler getSampler(@NotNull DBPDataSourceContainer container) {
+        synchronized (samplers) {
+            return samplers.get(container);
+        }
+    }
+
+    /**
+     * Starts sampling of the data source. If it is already sampled then returns existing sampler.
+     */
+    @NotNull
+    public static DBAServerActivitySampler startSampling(@NotNull DBPDataSource dataSource) {
+        synchronized (samplers) {
+            DBAServerActivitySampler sampler = samplers.get(dataSource.getContainer());
+            if (sampler != null && sampler.dataSource == dataSource && sampler.isRunning()) {
+                return sampler;
+            }
+            if (sampler != null) {
+                sampler.stop();
+            }
+            sampler = new DBAServerActivitySampler(dataSource);
+            samplers.put(dataSource.getContainer(), sampler);
+            sampler.start();
+            return sampler;
+        }
+    }
+
+    public static void stopSampling(@NotNull DBPDataSourceContainer container) {
+        synchronized (samplers) {
+            DBAServerActivitySampler sampler = samplers.get(container);
+            if (sampler != null) {
+                sampler.stop();
+            }
+        }
+    }
+
+    private final DBPDataSource dataSource;
+    private final DBAServerActivityHistory history;
+    private final long interval;
+    private final SamplerJob job;
+    private volatile boolean running;
+    private DBCExecutionContext context;
+    private int errorCount;
+
+    private DBAServerActivitySampler(DBPDataSource dataSource) {
+        this.dataSource = dataSource;
+        DBPPreferenceStore preferenceStore = dataSource.getContainer().getPreferenceStore();
+        this.interval = Math.max(preferenceStore.getInt(ModelPreferences.ADMIN_ACTIVITY_SAMPLE_INTERVAL), 1) * 1000L;
+        this.history = new DBAServerActivityHistory(preferenceStore.getInt(ModelPreferences.ADMIN_ACTIVITY_HISTORY_SIZE));
+        this.job = new SamplerJob();
+    }
+
+    public DBPDataSource getDataSource() {
+        return dataSource;
+    }
+
+    public DBAServerActivityHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Sampling interval in milliseconds
+     */
+    public long getInterval() {
+        return interval;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void start() {
+        running = true;
+        job.schedule();
+    }
+
+    private void stop() {
+        running = false;
+        job.cancel();
+        closeContext();
+    }
+
+    private DBAServerActivitySample collectSample(DBRProgressMonitor monitor) throws DBException {
+        DBAServerSessionManager<?> sessionManager = DBUtils.getAdapter(DBAServerSessionManager.class, dataSource);
+        DBAServerLockManager<?, ?> lockManager = DBUtils.getAdapter(DBAServerLockManager.class, dataSource);
+        if (sessionManager == null && lockManager == null) {
+            throw new DBException("Data source doesn't support session management");
+        }
+        Collection<? extends DBAServerSession> sessions = Collections.emptyList();
+        Collection<? extends DBAServerLock> locks = Collections.emptyList();
+        try (DBCSession session = getContext(monitor).openSession(monitor, DBCExecutionPurpose.UTIL, "Sample server activity")) {
+            if (sessionManager != null) {
+                sessions = sessionManager.getSessions(session, new HashMap<>());
+            }
+            if (lockManager != null) {
+                locks = lockManager.getLocks(session, new HashMap<>()).values();
+            }
+        }
+        return makeSample(System.currentTimeMillis(), sessions, locks);
+    }
+
+    /**
+     * Aggregates sessions and locks into a sample
+     */
+    public static DBAServerActivitySample makeSample(
+        long timestamp,
+        @NotNull Collection<? extends DBAServerSession> sessions,
+        @NotNull Collection<? extends DBAServerLock> locks)
+    {
+        int activeCount = 0;
+        Map<String, Integer> waits = new HashMap<>();
+        List<DBAServerActivitySample.QueryInfo> queries = new ArrayList<>();
+        for (DBAServerSession session : sessions) {
+            if (!(session instanceof DBAServerSessionActivity)) {
+                continue;
+            }
+            DBAServerSessionActivity activity = (DBAServerSessionActivity) session;
+            if (activity.isActive()) {
+                activeCount++;
+                if (activity.getActiveDuration() >= 0) {
+                    queries.add(new DBAServerActivitySample.QueryInfo(
+                        String.valueOf(activity.getSessionId()),
+                        activity.getActiveQuery(),
+                        activity.getActiveDuration()));
+                }
+            }
+            String waitEvent = activity.getWaitEvent();
+            if (waitEvent != null) {
+                waits.merge(waitEvent, 1, Integer::sum);
+            }
+        }
+        queries.sort((o1, o2) -> Long.compare(o2.getDuration(), o1.getDuration()));
+        if (queries.size() > TOP_COUNT) {
+            queries = queries.subList(0, TOP_COUNT);
+        }
+
+        int blockedCount = 0;
+        Map<String, Integer> blockers = new HashMap<>();
+        for (DBAServerLock lock : locks) {
+            Object holdId = lock.getHoldID();
+            if (holdId == null || (holdId instanceof Number && ((Number) holdId).longValue() == 0)) {
+                // Not blocked
+                continue;
+            }
+            blockedCount++;
+            blockers.merge(String.valueOf(holdId), 1, Integer::sum);
+        }
+
+        String[] waitEvents = waits.keySet().toArray(new String[waits.size()]);
+        int[] waitCounts = new int[waitEvents.length];
+        for (int i = 0; i < waitEvents.length; i++) {
+            waitCounts[i] = waits.get(waitEvents[i]);
+        }
+        String[] blockerIds = blockers.keySet().toArray(new String[blockers.size()]);
+        int[] blockedCounts = new int[blockerIds.length];
+        for (int i = 0; i < blockerIds.length; i++) {
+            blockedCounts[i] = blockers.get(blockerIds[i]);
+        }
+        return new DBAServerActivitySample(
+            timestamp,
+            sessions.size(),
+            activeCount,
+            blockedCount,
+            waitEvents,
+            waitCounts,
+            blockerIds,
+            blockedCounts,
+            queries.toArray(new DBAServerActivitySample.QueryInfo[queries.size()]));
+    }
+
+    private synchronized DBCExecutionContext getContext(DBRProgressMonitor monitor) throws DBException {
+        if (context != null && !context.isConnected()) {
+            closeContext();
+        }
+        if (context == null) {
+            context = dataSource.getDefaultInstance().openIsolatedContext(monitor, "Activity sampler");
+        }
+        return context;
+    }
+
+    private synchronized void closeContext() {
+        if (context != null) {
+            try {
+                context.close();
+            } catch (Exception e) {
+                log.debug("Error closing sampler context: " + e.getMessage());
+            }
+            context = null;
+        }
+    }
+
+    private class SamplerJob extends AbstractJob {
+
+        SamplerJob() {
+            super("Server activity sampler (" + dataSource.getContainer().getName() + ")");
+            setSystem(true);
+            setUser(false);
+        }
+
+        @Override
+        protected IStatus run(DBRProgressMonitor monitor) {
+            if (!running) {
+                return Status.CANCEL_STATUS;
+            }
+            DBPDataSourceContainer container = dataSource.getContainer();
+            if (!container.isConnected() || container.getDataSource() != dataSource) {
+                // Disconnected or reconnected. Keep history but stop sampling.
+                stop();
+                return Status.OK_STATUS;
+            }
+            try {
+                history.addSample(collectSample(monitor));
+                errorCount = 0;
+            } catch (Exception e) {
+                log.debug("Error sampling server activity: " + e.getMessage());
+                // Context will be reopened
+                closeContext();
+                if (++errorCount >= MAX_ERRORS) {
+                    log.warn("Server activity sampling of '" + container.getName() + "' stopped after " + errorCount + " errors");
+                    stop();
+                    return Status.OK_STATUS;
+                }
+            }
+            if (running) {
+                schedule(interval);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+
+}
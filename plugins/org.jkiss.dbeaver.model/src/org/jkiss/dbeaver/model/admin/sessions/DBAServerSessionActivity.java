@@ -0,0 +1,48 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.admin.sessions;
+
+import org.jkiss.code.Nullable;
+
+/**
+ * Server session which provides activity details.
+ * These details are collected by activity sampler.
+ */
+public interface DBAServerSessionActivity extends DBAServerSession {
+
+    /**
+     * Session identifier (pid, sid, etc)
+     */
+    Object getSessionId();
+
+    /**
+     * Whether session executes a statement at the moment
+     */
+    boolean isActive();
+
+    /**
+     * Event (or state) the session waits for. Null if session doesn't wait.
+     */
+    @Nullable
+    String getWaitEvent();
+
+    /**
+     * Duration of the current statement in milliseconds. -1 if unknown.
+     */
+    long getActiveDuration();
+
+}
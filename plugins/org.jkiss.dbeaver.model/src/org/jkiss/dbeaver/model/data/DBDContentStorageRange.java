@@ -0,0 +1,67 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.data;
+
+import java.io.IOException;
+
+/**
+ * Content storage which reads ranges of the database value on demand.
+ * The whole value is never copied locally.
+ *
+ * Positions and lengths are measured in bytes for binary content and in characters for text content.
+ */
+public interface DBDContentStorageRange extends DBDContentStorage {
+
+    /**
+     * Text content is read with {@link #readChars}, binary content is read with {@link #readBytes}
+     */
+    boolean isText();
+
+    /**
+     * Reads bytes of binary content.
+     * @return number of read bytes or -1 if position is beyond the end of content
+     */
+    int readBytes(long position, byte[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Reads characters of text content.
+     * @return number of read characters or -1 if position is beyond the end of content
+     */
+    int readChars(long position, char[] buffer, int offset, int length) throws IOException;
+
+    /**
+     * Overwrites part of the value. Database value is not changed: overwritten parts are kept
+     * in the storage (and returned by reads) until the value is saved.
+     */
+    void overwriteBytes(long position, byte[] data) throws IOException;
+
+    /**
+     * Overwrites part of the text value. Database value is not changed until the value is saved.
+     */
+    void overwriteChars(long position, String data) throws IOException;
+
+    /**
+     * Checks whether storage has overwritten parts which are not saved yet
+     */
+    boolean isOverwritten();
+
+    /**
+     * Discards overwritten parts
+     */
+    void resetOverwrites();
+
+}
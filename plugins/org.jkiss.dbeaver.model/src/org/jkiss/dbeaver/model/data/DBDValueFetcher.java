@@ -0,0 +1,46 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.data;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+/**
+ * Value fetcher.
+ * Reads values of one result set column. Fetcher is created once per result set column
+ * (see {@link org.jkiss.dbeaver.model.DBUtils#createValueFetcher}), so result set and column type checks
+ * are made once and not for each fetched value.
+ */
+public interface DBDValueFetcher
+{
+
+    /**
+     * Extracts column value from the current row of the result set this fetcher was created for.
+     * Returns the same value as {@link DBDValueHandler#fetchValueObject}.
+     *
+     * @param session session
+     * @return value or null
+     * @throws org.jkiss.dbeaver.model.exec.DBCException on error
+     */
+    @Nullable
+    Object fetchValue(@NotNull DBCSession session)
+        throws DBCException;
+
+}
@@ -0,0 +1,154 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Execution plan analysis result of a single query
+ */
+public class DBCPlanAnalysis {
+
+    public enum IssueType {
+        FULL_SCAN,
+        BAD_ESTIMATE
+    }
+
+    public static class Issue {
+        private final IssueType type;
+        private final DBCPlanNormalizedNode node;
+        private final String message;
+
+        Issue(IssueType type, DBCPlanNormalizedNode node, String message) {
+            this.type = type;
+            this.node = node;
+            this.message = message;
+        }
+
+        @NotNull
+        public IssueType getType() {
+            return type;
+        }
+
+        @NotNull
+        public DBCPlanNormalizedNode getNode() {
+            return node;
+        }
+
+        @NotNull
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return message;
+        }
+    }
+
+    private final String query;
+    private final List<DBCPlanNormalizedNode> planNodes;
+    private final Throwable error;
+    private final List<Issue> issues = new ArrayList<>();
+
+    DBCPlanAnalysis(@NotNull String query, @NotNull List<DBCPlanNormalizedNode> planNodes) {
+        this.query = query;
+        this.planNodes = planNodes;
+        this.error = null;
+    }
+
+    DBCPlanAnalysis(@NotNull String query, @NotNull Throwable error) {
+        this.query = query;
+        this.planNodes = Collections.emptyList();
+        this.error = error;
+    }
+
+    @NotNull
+    public String getQuery() {
+        return query;
+    }
+
+    @NotNull
+    public List<DBCPlanNormalizedNode> getPlanNodes() {
+        return planNodes;
+    }
+
+    /**
+     * Plan build error
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    @NotNull
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    void addIssue(IssueType type, DBCPlanNormalizedNode node, String message) {
+        issues.add(new Issue(type, node, message));
+    }
+
+    public double getTotalCost() {
+        return getPlanCost(planNodes);
+    }
+
+    /**
+     * Sum of estimated rows of all plan nodes.
+     * Used to compare plans of dialects which do not report cost (e.g. MySQL).
+     */
+    public long getTotalRowCount() {
+        long total = 0;
+        for (DBCPlanNormalizedNode node : planNodes) {
+            total += getSubtreeRowCount(node);
+        }
+        return total;
+    }
+
+    /**
+     * Plan cost is a sum of root nodes costs (node cost includes costs of nested nodes).
+     * Returns -1 if cost is unknown.
+     */
+    public static double getPlanCost(@NotNull List<DBCPlanNormalizedNode> planNodes) {
+        double total = -1;
+        for (DBCPlanNormalizedNode node : planNodes) {
+            if (node.getCost() >= 0) {
+                total = total < 0 ? node.getCost() : total + node.getCost();
+            }
+        }
+        return total;
+    }
+
+    private static long getSubtreeRowCount(DBCPlanNormalizedNode node) {
+        long total = Math.max(0, node.getRowCount());
+        for (DBCPlanNormalizedNode child : node.getNested()) {
+            total += getSubtreeRowCount(child);
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return query + " [cost " + getTotalCost() + ", " + issues.size() + " issue(s)]";
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Batch execution plan analyzer.
+ *
+ * Explains each query with the data source planner and checks normalized plans for
+ * full table scans and bad row estimates. Queries which can't be explained are reported with error.
+ */
+public class DBCPlanAnalyzer {
+
+    private static final Log log = Log.getLog(DBCPlanAnalyzer.class);
+
+    /**
+     * Compares analysis results by total cost (or by estimated rows if cost is unknown), most expensive first
+     */
+    public static final Comparator<DBCPlanAnalysis> COST_COMPARATOR = (o1, o2) -> {
+        int result = Double.compare(o2.getTotalCost(), o1.getTotalCost());
+        if (result == 0) {
+            result = Long.compare(o2.getTotalRowCount(), o1.getTotalRowCount());
+        }
+        return result;
+    };
+
+    private final DBCQueryPlanner planner;
+    private long fullScanMinRows = 1000;
+    private double badEstimateRatio = 10;
+    private long badEstimateMinRows = 100;
+
+    public DBCPlanAnalyzer(@NotNull DBCQueryPlanner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * Full scans of tables with fewer estimated rows are not reported. Scans with unknown row count are always reported.
+     */
+    public void setFullScanMinRows(long fullScanMinRows) {
+        this.fullScanMinRows = fullScanMinRows;
+    }
+
+    /**
+     * Minimal ratio between actual and estimated rows to report bad estimate
+     */
+    public void setBadEstimateRatio(double badEstimateRatio) {
+        this.badEstimateRatio = badEstimateRatio;
+    }
+
+    /**
+     * Estimates of nodes with fewer (actual and estimated) rows are not reported
+     */
+    public void setBadEstimateMinRows(long badEstimateMinRows) {
+        this.badEstimateMinRows = badEstimateMinRows;
+    }
+
+    /**
+     * Explains and analyzes all queries. Stops if session monitor was canceled.
+     */
+    @NotNull
+    public List<DBCPlanAnalysis> analyzeQueries(@NotNull DBCSession session, @NotNull List<String> queries) {
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        List<DBCPlanAnalysis> result = new ArrayList<>(queries.size());
+        monitor.beginTask("Explain queries", queries.size());
+        try {
+            for (String query : queries) {
+                if (monitor.isCanceled()) {
+                    break;
+                }
+                monitor.subTask(query);
+                result.add(analyzeQuery(session, query));
+                monitor.worked(1);
+            }
+        } finally {
+            monitor.done();
+        }
+        return result;
+    }
+
+    @NotNull
+    public DBCPlanAnalysis analyzeQuery(@NotNull DBCSession session, @NotNull String query) {
+        DBCPlan plan;
+        try {
+            plan = planner.planQueryExecution(session, query);
+        } catch (DBException e) {
+            log.debug("Can't explain query: " + e.getMessage());
+            return new DBCPlanAnalysis(query, e);
+        }
+        return analyzePlan(plan, query);
+    }
+
+    @NotNull
+    public DBCPlanAnalysis analyzePlan(@NotNull DBCPlan plan, @NotNull String query) {
+        DBCPlanAnalysis analysis = new DBCPlanAnalysis(query, DBCPlanNormalizedNode.normalize(plan));
+        for (DBCPlanNormalizedNode node : analysis.getPlanNodes()) {
+            analyzeNode(analysis, node);
+        }
+        return analysis;
+    }
+
+    /**
+     * Returns the most expensive queries. Queries which failed to explain are skipped.
+     */
+    @NotNull
+    public static List<DBCPlanAnalysis> getMostExpensive(@NotNull List<DBCPlanAnalysis> analyses, int maxCount) {
+        List<DBCPlanAnalysis> result = new ArrayList<>(analyses.size());
+        for (DBCPlanAnalysis analysis : analyses) {
+            if (analysis.getError() == null) {
+                result.add(analysis);
+            }
+        }
+        result.sort(COST_COMPARATOR);
+        return result.size() > maxCount ? new ArrayList<>(result.subList(0, maxCount)) : result;
+    }
+
+    private void analyzeNode(DBCPlanAnalysis analysis, DBCPlanNormalizedNode node) {
+        if (node.getNodeKind() == DBCPlanNodeKind.TABLE_SCAN) {
+            long rows = node.getActualRowCount() >= 0 ? node.getActualRowCount() : node.getRowCount();
+            if (rows < 0 || rows >= fullScanMinRows) {
+                analysis.addIssue(
+                    DBCPlanAnalysis.IssueType.FULL_SCAN,
+                    node,
+                    "Full scan of " + (node.getNodeName() == null ? node.getNodeType() : node.getNodeName()) +
+                        (rows < 0 ? "" : " (" + rows + " rows)"));
+            }
+        }
+        double estimateError = node.getEstimateError();
+        if (estimateError >= badEstimateRatio &&
+            Math.max(node.getRowCount(), node.getActualRowCount()) >= badEstimateMinRows)
+        {
+            analysis.addIssue(
+                DBCPlanAnalysis.IssueType.BAD_ESTIMATE,
+                node,
+                "Bad row estimate in " + node + ": estimated " + node.getRowCount() + ", actual " + node.getActualRowCount());
+        }
+        for (DBCPlanNormalizedNode child : node.getNested()) {
+            analyzeNode(analysis, child);
+        }
+    }
+
+}
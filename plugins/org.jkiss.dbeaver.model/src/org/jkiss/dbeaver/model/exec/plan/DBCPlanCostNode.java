@@ -0,0 +1,60 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+/**
+ * Execution plan node which provides normalized cost information.
+ * Unknown numeric values are reported as -1.
+ */
+public interface DBCPlanCostNode extends DBCPlanNode {
+
+    /**
+     * Dialect-specific node type (operation name)
+     */
+    @NotNull
+    String getNodeType();
+
+    @NotNull
+    DBCPlanNodeKind getNodeKind();
+
+    /**
+     * Name of object (table, index) this node accesses
+     */
+    @Nullable
+    String getNodeName();
+
+    /**
+     * Planner cost of this node including nested nodes
+     */
+    double getNodeCost();
+
+    /**
+     * Rows count estimated by planner (per single execution of the node)
+     */
+    long getNodeRowCount();
+
+    /**
+     * Actual rows count per single execution of the node (available only if plan was built with query execution).
+     * Must be comparable with {@link #getNodeRowCount()}: nodes executed many times (e.g. inner side of nested loop)
+     * report average rows count per execution.
+     */
+    long getNodeActualRowCount();
+
+}
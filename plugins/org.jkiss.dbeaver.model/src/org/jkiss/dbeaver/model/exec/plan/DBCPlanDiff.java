@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Difference between two execution plans of the same query.
+ *
+ * Nested nodes of each pair of matched nodes are aligned by the longest common subsequence of
+ * operations (node type, kind and object name). Unmatched nodes are reported as added or removed,
+ * matched nodes with different cost or row estimates are reported as changed.
+ */
+public class DBCPlanDiff {
+
+    public enum ChangeType {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    public static class Change {
+        private final ChangeType type;
+        private final DBCPlanNormalizedNode oldNode;
+        private final DBCPlanNormalizedNode newNode;
+
+        Change(ChangeType type, DBCPlanNormalizedNode oldNode, DBCPlanNormalizedNode newNode) {
+            this.type = type;
+            this.oldNode = oldNode;
+            this.newNode = newNode;
+        }
+
+        @NotNull
+        public ChangeType getType() {
+            return type;
+        }
+
+        @Nullable
+        public DBCPlanNormalizedNode getOldNode() {
+            return oldNode;
+        }
+
+        @Nullable
+        public DBCPlanNormalizedNode getNewNode() {
+            return newNode;
+        }
+
+        /**
+         * Cost delta or 0 if cost of some node is unknown
+         */
+        public double getCostDelta() {
+            double oldCost = oldNode == null ? 0 : oldNode.getCost();
+            double newCost = newNode == null ? 0 : newNode.getCost();
+            if (oldCost < 0 || newCost < 0) {
+                return 0;
+            }
+            return newCost - oldCost;
+        }
+
+        @Override
+        public String toString() {
+            switch (type) {
+                case ADDED: return "+ " + newNode;
+                case REMOVED: return "- " + oldNode;
+                default: return "* " + newNode + " cost " + oldNode.getCost() + " -> " + newNode.getCost() +
+                    ", rows " + oldNode.getRowCount() + " -> " + newNode.getRowCount();
+            }
+        }
+    }
+
+    private final List<DBCPlanNormalizedNode> oldPlan;
+    private final List<DBCPlanNormalizedNode> newPlan;
+    private final List<Change> changes = new ArrayList<>();
+
+    public DBCPlanDiff(@NotNull List<DBCPlanNormalizedNode> oldPlan, @NotNull List<DBCPlanNormalizedNode> newPlan) {
+        this.oldPlan = oldPlan;
+        this.newPlan = newPlan;
+        compareNodes(oldPlan, newPlan);
+    }
+
+    public DBCPlanDiff(@NotNull DBCPlan oldPlan, @NotNull DBCPlan newPlan) {
+        this(DBCPlanNormalizedNode.normalize(oldPlan), DBCPlanNormalizedNode.normalize(newPlan));
+    }
+
+    @NotNull
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Checks whether plan structure (set of operations) was changed
+     */
+    public boolean isStructureChanged() {
+        for (Change change : changes) {
+            if (change.type != ChangeType.CHANGED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public double getOldCost() {
+        return DBCPlanAnalysis.getPlanCost(oldPlan);
+    }
+
+    public double getNewCost() {
+        return DBCPlanAnalysis.getPlanCost(newPlan);
+    }
+
+    /**
+     * Checks whether new plan is more expensive than the old one by more than specified ratio (e.g. 0.2 for 20%).
+     * Returns false if costs are unknown.
+     */
+    public boolean isRegression(double threshold) {
+        double oldCost = getOldCost(), newCost = getNewCost();
+        if (oldCost < 0 || newCost < 0) {
+            return false;
+        }
+        return newCost > oldCost * (1 + threshold);
+    }
+
+    private void compareNodes(List<DBCPlanNormalizedNode> oldNodes, List<DBCPlanNormalizedNode> newNodes) {
+        int oldCount = oldNodes.size(), newCount = newNodes.size();
+        // LCS table
+        int[][] lcs = new int[oldCount + 1][newCount + 1];
+        for (int i = oldCount - 1; i >= 0; i--) {
+            for (int k = newCount - 1; k >= 0; k--) {
+                if (oldNodes.get(i).isSameOperation(newNodes.get(k))) {
+                    lcs[i][k] = lcs[i + 1][k + 1] + 1;
+                } else {
+                    lcs[i][k] = Math.max(lcs[i + 1][k], lcs[i][k + 1]);
+                }
+            }
+        }
+        int i = 0, k = 0;
+        while (i < oldCount && k < newCount) {
+            DBCPlanNormalizedNode oldNode = oldNodes.get(i), newNode = newNodes.get(k);
+            if (oldNode.isSameOperation(newNode)) {
+                if (oldNode.getCost() != newNode.getCost() || oldNode.getRowCount() != newNode.getRowCount()) {
+                    changes.add(new Change(ChangeType.CHANGED, oldNode, newNode));
+                }
+                compareNodes(oldNode.getNested(), newNode.getNested());
+                i++;
+                k++;
+            } else if (lcs[i + 1][k] >= lcs[i][k + 1]) {
+                addSubtree(ChangeType.REMOVED, oldNode);
+                i++;
+            } else {
+                addSubtree(ChangeType.ADDED, newNode);
+                k++;
+            }
+        }
+        for (; i < oldCount; i++) {
+            addSubtree(ChangeType.REMOVED, oldNodes.get(i));
+        }
+        for (; k < newCount; k++) {
+            addSubtree(ChangeType.ADDED, newNodes.get(k));
+        }
+    }
+
+    private void addSubtree(ChangeType type, DBCPlanNormalizedNode node) {
+        if (type == ChangeType.ADDED) {
+            changes.add(new Change(type, null, node));
+        } else {
+            changes.add(new Change(type, node, null));
+        }
+        for (DBCPlanNormalizedNode child : node.getNested()) {
+            addSubtree(type, child);
+        }
+    }
+
+}
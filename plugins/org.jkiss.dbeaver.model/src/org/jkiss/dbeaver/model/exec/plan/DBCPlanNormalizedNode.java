@@ -0,0 +1,157 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Dialect-neutral copy of execution plan node.
+ * Nodes which do not implement {@link DBCPlanCostNode} are represented by their string form with unknown cost.
+ */
+public class DBCPlanNormalizedNode {
+
+    private final DBCPlanNormalizedNode parent;
+    private final DBCPlanNode source;
+    private final String nodeType;
+    private final DBCPlanNodeKind nodeKind;
+    private final String nodeName;
+    private final double cost;
+    private final long rowCount;
+    private final long actualRowCount;
+    private final List<DBCPlanNormalizedNode> nested;
+
+    public DBCPlanNormalizedNode(@Nullable DBCPlanNormalizedNode parent, @NotNull DBCPlanNode source) {
+        this.parent = parent;
+        this.source = source;
+        if (source instanceof DBCPlanCostNode) {
+            DBCPlanCostNode costNode = (DBCPlanCostNode) source;
+            this.nodeType = costNode.getNodeType();
+            this.nodeKind = costNode.getNodeKind();
+            this.nodeName = costNode.getNodeName();
+            this.cost = costNode.getNodeCost();
+            this.rowCount = costNode.getNodeRowCount();
+            this.actualRowCount = costNode.getNodeActualRowCount();
+        } else {
+            this.nodeType = String.valueOf(source);
+            this.nodeKind = DBCPlanNodeKind.DEFAULT;
+            this.nodeName = null;
+            this.cost = -1;
+            this.rowCount = -1;
+            this.actualRowCount = -1;
+        }
+        Collection<? extends DBCPlanNode> sourceNested = source.getNested();
+        if (CommonUtils.isEmpty(sourceNested)) {
+            this.nested = Collections.emptyList();
+        } else {
+            this.nested = new ArrayList<>(sourceNested.size());
+            for (DBCPlanNode child : sourceNested) {
+                this.nested.add(new DBCPlanNormalizedNode(this, child));
+            }
+        }
+    }
+
+    /**
+     * Normalizes all plan nodes
+     */
+    @NotNull
+    public static List<DBCPlanNormalizedNode> normalize(@NotNull DBCPlan plan) {
+        Collection<? extends DBCPlanNode> planNodes = plan.getPlanNodes();
+        if (CommonUtils.isEmpty(planNodes)) {
+            return Collections.emptyList();
+        }
+        List<DBCPlanNormalizedNode> result = new ArrayList<>(planNodes.size());
+        for (DBCPlanNode node : planNodes) {
+            result.add(new DBCPlanNormalizedNode(null, node));
+        }
+        return result;
+    }
+
+    @Nullable
+    public DBCPlanNormalizedNode getParent() {
+        return parent;
+    }
+
+    @NotNull
+    public DBCPlanNode getSource() {
+        return source;
+    }
+
+    @NotNull
+    public String getNodeType() {
+        return nodeType;
+    }
+
+    @NotNull
+    public DBCPlanNodeKind getNodeKind() {
+        return nodeKind;
+    }
+
+    @Nullable
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getActualRowCount() {
+        return actualRowCount;
+    }
+
+    @NotNull
+    public List<DBCPlanNormalizedNode> getNested() {
+        return nested;
+    }
+
+    /**
+     * Checks that both nodes perform the same operation on the same object
+     */
+    public boolean isSameOperation(@NotNull DBCPlanNormalizedNode node) {
+        return nodeKind == node.nodeKind &&
+            nodeType.equals(node.nodeType) &&
+            CommonUtils.equalObjects(nodeName, node.nodeName);
+    }
+
+    /**
+     * Ratio between actual and estimated row counts (always >= 1) or -1 if some of them is unknown
+     */
+    public double getEstimateError() {
+        if (rowCount < 0 || actualRowCount < 0) {
+            return -1;
+        }
+        long min = Math.max(1, Math.min(rowCount, actualRowCount));
+        long max = Math.max(1, Math.max(rowCount, actualRowCount));
+        return (double) max / min;
+    }
+
+    @Override
+    public String toString() {
+        return nodeName == null ? nodeType : nodeType + " (" + nodeName + ")";
+    }
+}
@@ -21,24 +21,40 @@ import org.jkiss.dbeaver.model.struct.DBSTypedObject;
 import org.jkiss.utils.CommonUtils;
 import org.jkiss.utils.time.ExtendedDateFormat;
 
-import java.text.DateFormat;
-import java.text.FieldPosition;
-import java.text.ParseException;
+import java.text.*;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.TemporalAccessor;
-import java.util.Locale;
-import java.util.Map;
+import java.util.*;
 
+/**
+ * Date/time formatter.
+ *
+ * Formatter is immutable after initialization and may be used by several threads without locks.
+ * Dates are formatted by a pattern compiled into a list of numeric fields and literals, so the result
+ * is the same as of ExtendedDateFormat. Patterns with text fields (except AM/PM marker), time zones, etc.
+ * and dates before Gregorian calendar cutover are formatted by a per-thread copy of the date format.
+ */
 public class DateTimeDataFormatter implements DBDDataFormatter {
 
     public static final String PROP_PATTERN = "pattern";
 
+    // Default GregorianCalendar cutover (October 15, 1582)
+    private static final long GREGORIAN_CUTOVER = -12219292800000L;
+    private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+    private static final int[] POWERS_OF_TEN = { 1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000 };
+
     private String pattern;
-    private DateFormat dateFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ExtendedDateFormat dateFormat;
+    private ThreadLocal<DateFormat> threadFormat;
     private DateTimeFormatter dateTimeFormatter;
 
+    // Compiled pattern. Null if pattern can't be formatted by fast path.
+    private PatternToken[] patternTokens;
+    // Own copy of the format time zone. Its offsets differ from java.time zone rules for historical dates.
+    private TimeZone timeZone;
+    private String[] amPmStrings;
+
     @Override
     public void init(DBSTypedObject type, Locale locale, Map<Object, Object> properties)
     {
@@ -46,11 +62,15 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         dateFormat = new ExtendedDateFormat(
             pattern,
             locale);
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        final ExtendedDateFormat prototype = dateFormat;
+        threadFormat = ThreadLocal.withInitial(() -> (DateFormat) prototype.clone());
         // DateTimeFormatter pattern for nanoseconds is "n" but old "f" (ExtendedDateFormat)
         String java8DatePattern = pattern.replaceAll("f+", "n");
         dateTimeFormatter = DateTimeFormatter.ofPattern(java8DatePattern);
+
+        patternTokens = compilePattern(dateFormat);
+        timeZone = (TimeZone) dateFormat.getTimeZone().clone();
+        amPmStrings = dateFormat.getDateFormatSymbols().getAmPmStrings();
     }
 
     @Override
@@ -65,9 +85,31 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         if (value instanceof TemporalAccessor) {
             return dateTimeFormatter.format((TemporalAccessor) value);
         }
-        synchronized (dateFormat) {
-            buffer.setLength(0);
-            return value == null ? null : dateFormat.format(value, buffer, position).toString();
+        if (value == null) {
+            return null;
+        }
+        StringBuilder buffer = new StringBuilder(32);
+        formatValue(value, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends formatted value to the buffer
+     */
+    public void formatValue(Object value, StringBuilder buffer)
+    {
+        if (value instanceof TemporalAccessor) {
+            dateTimeFormatter.formatTo((TemporalAccessor) value, buffer);
+        } else if (patternTokens == null || !(value instanceof Date) || ((Date) value).getTime() < GREGORIAN_CUTOVER) {
+            buffer.append(threadFormat.get().format(value, new StringBuffer(), new FieldPosition(0)));
+        } else {
+            int start = buffer.length();
+            appendDate((Date) value, buffer);
+            int nanoStart = dateFormat.getNanoStart();
+            String nanos = dateFormat.formatNanos((Date) value);
+            if (nanos != null) {
+                buffer.insert(start + nanoStart, nanos);
+            }
         }
     }
 
@@ -77,7 +119,170 @@ public class DateTimeDataFormatter implements DBDDataFormatter {
         if (typeHint != null && TemporalAccessor.class.isAssignableFrom(typeHint)) {
             return dateTimeFormatter.parse(value);
         }
-        return dateFormat.parse(value);
+        return threadFormat.get().parse(value);
+    }
+
+    private void appendDate(Date date, StringBuilder buffer)
+    {
+        long time = date.getTime();
+        long localTime = time + timeZone.getOffset(time);
+        LocalDate localDate = LocalDate.ofEpochDay(Math.floorDiv(localTime, MILLIS_PER_DAY));
+        int millisOfDay = (int) Math.floorMod(localTime, MILLIS_PER_DAY);
+        int hour = millisOfDay / 3600000;
+
+        for (PatternToken token : patternTokens) {
+            int fieldValue;
+            switch (token.field) {
+                case 0:
+                    buffer.append(token.literal);
+                    continue;
+                case 'y':
+                    fieldValue = token.length == 2 ? localDate.getYear() % 100 : localDate.getYear();
+                    break;
+                case 'M':
+                    fieldValue = localDate.getMonthValue();
+                    break;
+                case 'd':
+                    fieldValue = localDate.getDayOfMonth();
+                    break;
+                case 'H':
+                    fieldValue = hour;
+                    break;
+                case 'k':
+                    fieldValue = hour == 0 ? 24 : hour;
+                    break;
+                case 'K':
+                    fieldValue = hour % 12;
+                    break;
+                case 'h':
+                    fieldValue = hour % 12 == 0 ? 12 : hour % 12;
+                    break;
+                case 'm':
+                    fieldValue = millisOfDay / 60000 % 60;
+                    break;
+                case 's':
+                    fieldValue = millisOfDay / 1000 % 60;
+                    break;
+                case 'S':
+                    fieldValue = millisOfDay % 1000;
+                    break;
+                case 'a':
+                    buffer.append(amPmStrings[hour < 12 ? 0 : 1]);
+                    continue;
+                default:
+                    throw new IllegalStateException("Unsupported pattern field '" + token.field + "'");
+            }
+            appendNumber(buffer, fieldValue, token.length);
+        }
+    }
+
+    private static void appendNumber(StringBuilder buffer, int value, int minDigits)
+    {
+        for (int i = minDigits - 1; i > 0 && value < POWERS_OF_TEN[Math.min(i, POWERS_OF_TEN.length - 1)]; i--) {
+            buffer.append('0');
+        }
+        buffer.append(value);
+    }
+
+    /**
+     * Compiles pattern of date format (without nanoseconds).
+     * Returns null if pattern contains fields which are not supported by fast path.
+     */
+    private static PatternToken[] compilePattern(ExtendedDateFormat format)
+    {
+        if (format.getCalendar().getClass() != GregorianCalendar.class) {
+            // Buddhist, Japanese imperial, etc
+            return null;
+        }
+        NumberFormat numberFormat = format.getNumberFormat();
+        if (!(numberFormat instanceof DecimalFormat) || ((DecimalFormat) numberFormat).getDecimalFormatSymbols().getZeroDigit() != '0') {
+            return null;
+        }
+        String datePattern = format.toPattern();
+        List<PatternToken> tokens = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        for (int i = 0; i < datePattern.length(); ) {
+            char c = datePattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < datePattern.length() && datePattern.charAt(i + 1) == '\'') {
+                    literal.append('\'');
+                    i += 2;
+                    continue;
+                }
+                int end = datePattern.indexOf('\'', i + 1);
+                while (end > 0 && end + 1 < datePattern.length() && datePattern.charAt(end + 1) == '\'') {
+                    // Escaped quote inside of quoted text
+                    literal.append(datePattern, i + 1, end + 1);
+                    i = end + 1;
+                    end = datePattern.indexOf('\'', end + 2);
+                }
+                if (end < 0) {
+                    return null;
+                }
+                literal.append(datePattern, i + 1, end);
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int length = 1;
+                while (i + length < datePattern.length() && datePattern.charAt(i + length) == c) {
+                    length++;
+                }
+                switch (c) {
+                    case 'y':
+                    case 'd':
+                    case 'H':
+                    case 'k':
+                    case 'K':
+                    case 'h':
+                    case 'm':
+                    case 's':
+                    case 'S':
+                    case 'a':
+                        break;
+                    case 'M':
+                        if (length <= 2) {
+                            break;
+                        }
+                        // Month name
+                        return null;
+                    default:
+                        return null;
+                }
+                if (literal.length() > 0) {
+                    tokens.add(new PatternToken(literal.toString()));
+                    literal.setLength(0);
+                }
+                tokens.add(new PatternToken(c, length));
+                i += length;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        if (literal.length() > 0) {
+            tokens.add(new PatternToken(literal.toString()));
+        }
+        return tokens.toArray(new PatternToken[tokens.size()]);
+    }
+
+    private static class PatternToken {
+        // Pattern letter or 0 for literal text
+        final char field;
+        final int length;
+        final String literal;
+
+        PatternToken(char field, int length)
+        {
+            this.field = field;
+            this.length = length;
+            this.literal = null;
+        }
+
+        PatternToken(String literal)
+        {
+            this.field = 0;
+            this.length = 0;
+            this.literal = literal;
+        }
     }
 
 }
@@ -25,19 +25,36 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.text.FieldPosition;
 import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.Locale;
 import java.util.Map;
 
+/**
+ * Number formatter.
+ *
+ * Formatter is immutable after initialization and may be used by several threads without locks.
+ * Integer values are formatted by a precompiled fast path, other values by a per-thread copy of the decimal format.
+ */
 public class NumberDataFormatter implements DBDDataFormatter {
 
     public static final int MAX_DEFAULT_FRACTIONS_DIGITS = 4;
 
     private DecimalFormat numberFormat;
-    private StringBuffer buffer;
-    private FieldPosition position;
+    private ThreadLocal<DecimalFormat> threadFormat;
+
+    // Integer fast path. Disabled if format has settings which it doesn't support.
+    private boolean fastIntegers;
+    private char zeroDigit;
+    private char groupingSeparator;
+    private int groupingSize;
+    private int minIntDigits;
+    private int maxIntDigits;
+    private String positivePrefix, positiveSuffix, negativePrefix, negativeSuffix;
+    // Decimal separator followed by minimal fraction zeros
+    private String zeroFraction;
 
     @Override
     public void init(DBSTypedObject type, Locale locale, Map<Object, Object> properties)
@@ -79,8 +96,37 @@ public class NumberDataFormatter implements DBDDataFormatter {
                 numberFormat.setMinimumFractionDigits(fractionDigits);
             }
         }
-        buffer = new StringBuffer();
-        position = new FieldPosition(0);
+        compileIntegerFormat();
+        final DecimalFormat prototype = numberFormat;
+        threadFormat = ThreadLocal.withInitial(() -> (DecimalFormat) prototype.clone());
+    }
+
+    private void compileIntegerFormat()
+    {
+        DecimalFormatSymbols symbols = numberFormat.getDecimalFormatSymbols();
+        zeroDigit = symbols.getZeroDigit();
+        groupingSeparator = symbols.getGroupingSeparator();
+        groupingSize = numberFormat.isGroupingUsed() ? numberFormat.getGroupingSize() : 0;
+        minIntDigits = numberFormat.getMinimumIntegerDigits();
+        maxIntDigits = numberFormat.getMaximumIntegerDigits();
+        positivePrefix = numberFormat.getPositivePrefix();
+        positiveSuffix = numberFormat.getPositiveSuffix();
+        negativePrefix = numberFormat.getNegativePrefix();
+        negativeSuffix = numberFormat.getNegativeSuffix();
+        int minFractDigits = numberFormat.getMinimumFractionDigits();
+        if (minFractDigits > 0) {
+            StringBuilder fraction = new StringBuilder(minFractDigits + 1);
+            fraction.append(symbols.getDecimalSeparator());
+            for (int i = 0; i < minFractDigits; i++) {
+                fraction.append(zeroDigit);
+            }
+            zeroFraction = fraction.toString();
+        } else {
+            zeroFraction = "";
+        }
+        fastIntegers = numberFormat.getMultiplier() == 1 &&
+            !numberFormat.isDecimalSeparatorAlwaysShown() &&
+            minIntDigits > 0;
     }
 
     @Nullable
@@ -97,39 +143,92 @@ public class NumberDataFormatter implements DBDDataFormatter {
         if (value == null) {
             return null;
         }
-        try {
-            synchronized (this) {
-                buffer.setLength(0);
-                return numberFormat.format(value, buffer, position).toString();
+        StringBuilder buffer = new StringBuilder(20);
+        formatValue(value, buffer);
+        return buffer.toString();
+    }
+
+    /**
+     * Appends formatted value to the buffer
+     */
+    public void formatValue(Object value, StringBuilder buffer)
+    {
+        if (fastIntegers) {
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                if (appendInteger(((Number) value).longValue(), buffer)) {
+                    return;
+                }
+            } else if (value instanceof BigInteger && ((BigInteger) value).bitLength() < 64) {
+                if (appendInteger(((BigInteger) value).longValue(), buffer)) {
+                    return;
+                }
             }
+        }
+        try {
+            buffer.append(threadFormat.get().format(value, new StringBuffer(), new FieldPosition(0)));
         } catch (Exception e) {
-            return value.toString();
+            buffer.append(value.toString());
         }
     }
 
+    /**
+     * Formats integer the same way as DecimalFormat does.
+     * Returns false if number doesn't fit in maximum integer digits (DecimalFormat truncates such numbers).
+     */
+    private boolean appendInteger(long value, StringBuilder buffer)
+    {
+        if (value == Long.MIN_VALUE) {
+            return false;
+        }
+        boolean negative = value < 0;
+        if (negative) {
+            value = -value;
+        }
+        char[] digits = new char[19];
+        int digitCount = 0;
+        do {
+            digits[digitCount++] = (char) (zeroDigit + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        if (digitCount > maxIntDigits) {
+            return false;
+        }
+        int length = Math.max(digitCount, minIntDigits);
+
+        buffer.append(negative ? negativePrefix : positivePrefix);
+        for (int i = length - 1; i >= 0; i--) {
+            buffer.append(i < digitCount ? digits[i] : zeroDigit);
+            if (groupingSize > 0 && i > 0 && i % groupingSize == 0) {
+                buffer.append(groupingSeparator);
+            }
+        }
+        buffer.append(zeroFraction);
+        buffer.append(negative ? negativeSuffix : positiveSuffix);
+        return true;
+    }
+
     @Override
     public Object parseValue(String value, @Nullable Class<?> typeHint) throws ParseException
     {
-        synchronized (this) {
-            numberFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
-            Number number = numberFormat.parse(value);
-            if (number != null && typeHint != null) {
-                if (typeHint == Byte.class) {
-                    return number.byteValue();
-                } else if (typeHint == Short.class) {
-                    return number.shortValue();
-                } else if (typeHint == Integer.class) {
-                    return number.intValue();
-                } else if (typeHint == Long.class) {
-                    return number.longValue();
-                } else if (typeHint == Float.class) {
-                    return number.floatValue();
-                } else if (typeHint == Double.class) {
-                    return number.doubleValue();
-                }
+        DecimalFormat parseFormat = threadFormat.get();
+        parseFormat.setParseBigDecimal(typeHint == BigDecimal.class || typeHint == BigInteger.class);
+        Number number = parseFormat.parse(value);
+        if (number != null && typeHint != null) {
+            if (typeHint == Byte.class) {
+                return number.byteValue();
+            } else if (typeHint == Short.class) {
+                return number.shortValue();
+            } else if (typeHint == Integer.class) {
+                return number.intValue();
+            } else if (typeHint == Long.class) {
+                return number.longValue();
+            } else if (typeHint == Float.class) {
+                return number.floatValue();
+            } else if (typeHint == Double.class) {
+                return number.doubleValue();
             }
-            return number;
         }
+        return number;
     }
 
 }
@@ -318,6 +318,12 @@ public class JDBCSQLDialect extends BasicSQLDialect {
         return false;
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        return supportsUpsertStatement() ? UpsertMode.UPSERT : super.getUpsertMode();
+    }
+
     @NotNull
     @Override
     public TreeSet<String> getDataTypes(@NotNull DBPDataSource dataSource) {
@@ -0,0 +1,141 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metadata cache statistics.
+ *
+ * Counts cache hits and per-object loads. After a burst of per-object loads (see
+ * {@link ModelPreferences#META_BULK_LOAD_THRESHOLD}) cache switches to a single bulk load of all owner's objects.
+ * Burst is a sequence of misses with less than {@link #MISS_BURST_INTERVAL} ms between them, so occasional
+ * reads (e.g. user opens tables one by one) never trigger bulk load.
+ */
+public class JDBCCacheStatistics {
+
+    static final long MISS_BURST_INTERVAL = 2000;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong objectLoads = new AtomicLong();
+    private final AtomicLong bulkLoads = new AtomicLong();
+    private final AtomicLong bulkSwitches = new AtomicLong();
+    // Per-object loads in the current burst
+    private final AtomicInteger pendingMisses = new AtomicInteger();
+    private volatile long lastMissTime;
+    private volatile boolean bulkLoadUnsupported;
+
+    /**
+     * Number of requests served from cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of queries which read children of a single object
+     */
+    public long getObjectLoads() {
+        return objectLoads.get();
+    }
+
+    /**
+     * Number of queries which read children of all owner's objects
+     */
+    public long getBulkLoads() {
+        return bulkLoads.get();
+    }
+
+    /**
+     * Number of bulk loads triggered by per-object misses
+     */
+    public long getBulkSwitches() {
+        return bulkSwitches.get();
+    }
+
+    public boolean isBulkLoadUnsupported() {
+        return bulkLoadUnsupported;
+    }
+
+    void addHit() {
+        hits.incrementAndGet();
+    }
+
+    void addObjectLoad() {
+        objectLoads.incrementAndGet();
+    }
+
+    void addBulkLoad() {
+        bulkLoads.incrementAndGet();
+        pendingMisses.set(0);
+    }
+
+    void setBulkLoadUnsupported() {
+        bulkLoadUnsupported = true;
+    }
+
+    void reset() {
+        pendingMisses.set(0);
+        bulkLoadUnsupported = false;
+    }
+
+    /**
+     * Registers cache miss for a single object.
+     * @return true if cache should load children of all owner's objects instead
+     */
+    boolean registerMiss(DBSObject owner) {
+        if (bulkLoadUnsupported) {
+            return false;
+        }
+        int threshold = getBulkLoadThreshold(owner);
+        if (threshold <= 0) {
+            return false;
+        }
+        return registerMiss(threshold, System.currentTimeMillis());
+    }
+
+    boolean registerMiss(int threshold, long time) {
+        if (time - lastMissTime > MISS_BURST_INTERVAL) {
+            // New burst
+            pendingMisses.set(0);
+        }
+        lastMissTime = time;
+        if (pendingMisses.incrementAndGet() > threshold) {
+            bulkSwitches.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private static int getBulkLoadThreshold(DBSObject owner) {
+        DBPDataSource dataSource = owner.getDataSource();
+        if (dataSource == null) {
+            return 0;
+        }
+        return dataSource.getContainer().getPreferenceStore().getInt(ModelPreferences.META_BULK_LOAD_THRESHOLD);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + hits + ", object loads=" + objectLoads + ", bulk loads=" + bulkLoads + ", bulk switches=" + bulkSwitches;
+    }
+}
@@ -60,6 +60,7 @@ public abstract class JDBCCompositeCache<
     private final Object objectColumnName;
 
     private final Map<PARENT, List<OBJECT>> objectCache = new IdentityHashMap<>();
+    private final JDBCCacheStatistics statistics = new JDBCCacheStatistics();
 
     protected JDBCCompositeCache(
         JDBCStructCache<OWNER,?,?> parentCache,
@@ -196,6 +197,21 @@ public abstract class JDBCCompositeCache<
     {
     }
 
+    /**
+     * Reads objects of all parents with a single query
+     */
+    public void warmUp(DBRProgressMonitor monitor, OWNER owner)
+        throws DBException
+    {
+        loadObjects(monitor, owner, null);
+    }
+
+    @NotNull
+    public JDBCCacheStatistics getStatistics()
+    {
+        return statistics;
+    }
+
     @Override
     public void clearCache()
     {
@@ -203,6 +219,7 @@ public abstract class JDBCCompositeCache<
             this.objectCache.clear();
             super.clearCache();
         }
+        statistics.reset();
     }
 
     @Override
@@ -238,11 +255,35 @@ public abstract class JDBCCompositeCache<
         throws DBException
     {
         synchronized (objectCache) {
-            if ((forParent == null && isFullyCached()) ||
-                (forParent != null && (!forParent.isPersisted() || objectCache.containsKey(forParent))))
-            {
+            if (forParent != null && !forParent.isPersisted()) {
                 return;
             }
+            if ((forParent == null && isFullyCached()) || (forParent != null && objectCache.containsKey(forParent))) {
+                statistics.addHit();
+                return;
+            }
+        }
+        if (forParent != null && statistics.registerMiss(owner)) {
+            // Too many single parent reads. Read objects of all parents at once
+            log.debug("Switch to bulk load in " + getClass().getSimpleName() + " (" + statistics + ")");
+            try {
+                loadObjects(monitor, owner, null);
+                synchronized (objectCache) {
+                    if (objectCache.containsKey(forParent) || monitor.isCanceled()) {
+                        return;
+                    }
+                }
+            } catch (DBException e) {
+                // Some caches do not support global reads (e.g. indexes of all tables)
+                log.debug("Bulk load failed, fallback to single parent load: " + e.getMessage());
+            }
+            // Bulk read failed or didn't provide objects of this parent. Do not try it again.
+            statistics.setBulkLoadUnsupported();
+        }
+        if (forParent == null) {
+            statistics.addBulkLoad();
+        } else {
+            statistics.addObjectLoad();
         }
 
         // Load tables and columns first
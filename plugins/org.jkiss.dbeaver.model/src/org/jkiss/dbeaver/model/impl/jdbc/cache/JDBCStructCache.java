@@ -50,6 +50,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
     private final Object objectNameColumn;
     private volatile boolean childrenCached = false;
     private final Map<OBJECT, SimpleObjectCache<OBJECT, CHILD>> childrenCache = new IdentityHashMap<>();
+    private final JDBCCacheStatistics childrenStatistics = new JDBCCacheStatistics();
 
     abstract protected JDBCStatement prepareChildrenStatement(@NotNull JDBCSession session, @NotNull OWNER owner, @Nullable OBJECT forObject)
         throws SQLException;
@@ -74,10 +75,33 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
      */
     public synchronized void loadChildren(DBRProgressMonitor monitor, OWNER owner, @Nullable final OBJECT forObject) throws DBException
     {
-        if ((forObject == null && this.childrenCached)
-            || (forObject != null && (!forObject.isPersisted() || isChildrenCached(forObject))) || monitor.isCanceled()) {
+        if (monitor.isCanceled() || (forObject != null && !forObject.isPersisted())) {
             return;
         }
+        if ((forObject == null && this.childrenCached) || (forObject != null && isChildrenCached(forObject))) {
+            childrenStatistics.addHit();
+            return;
+        }
+        if (forObject != null && childrenStatistics.registerMiss(owner)) {
+            // Too many single object reads. Read children of all objects at once
+            log.debug("Switch to bulk children load in " + getClass().getSimpleName() + " (" + childrenStatistics + ")");
+            try {
+                loadChildren(monitor, owner, null);
+                if (isChildrenCached(forObject) || monitor.isCanceled()) {
+                    return;
+                }
+            } catch (DBException e) {
+                // Some drivers do not support reading children of all objects at once
+                log.debug("Bulk children load failed, fallback to single object load: " + e.getMessage());
+            }
+            // Bulk read failed or returned nothing (or object is not in the owner's list). Do not try it again.
+            childrenStatistics.setBulkLoadUnsupported();
+        }
+        if (forObject == null) {
+            childrenStatistics.addBulkLoad();
+        } else {
+            childrenStatistics.addObjectLoad();
+        }
         if (forObject == null) {
             // If we have some child objects read before that - do not clear them.
             // We have to reuse them because there could be some references in cached model
@@ -178,6 +202,23 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
         }
     }
 
+    /**
+     * Reads children of all owner's objects with a single query
+     */
+    public void warmUp(DBRProgressMonitor monitor, OWNER owner) throws DBException
+    {
+        loadChildren(monitor, owner, null);
+    }
+
+    /**
+     * Children cache statistics
+     */
+    @NotNull
+    public JDBCCacheStatistics getChildrenStatistics()
+    {
+        return childrenStatistics;
+    }
+
     @Override
     public void removeObject(@NotNull OBJECT object, boolean resetFullCache)
     {
@@ -242,6 +283,7 @@ public abstract class JDBCStructCache<OWNER extends DBSObject, OBJECT extends DB
                 this.childrenCache.remove(forParent);
             } else {
                 this.childrenCache.clear();
+                childrenStatistics.reset();
             }
             childrenCached = false;
         }
@@ -96,6 +96,9 @@ public class JDBCContentBLOB extends JDBCContentLOB {
                 } catch (Throwable e) {
                     throw new DBCException(e, dataSource);
                 }
+            } else if (isRangeFetchEnabled(contentLength) && (storage = openRangeStorage(platform, contentLength)) != null) {
+                // Blob is read by pages on demand, so we can't free it
+                return storage;
             } else {
                 // Create new local storage
                 File tempFile;
@@ -124,6 +127,18 @@ public class JDBCContentBLOB extends JDBCContentLOB {
         return storage;
     }
 
+    private JDBCContentRangeStorage openRangeStorage(DBPPlatform platform, long contentLength) {
+        JDBCContentRangeStorage rangeStorage = new JDBCContentRangeStorage(platform, blob, contentLength, getDefaultEncoding());
+        try {
+            // Check that driver supports range reads. First page is cached anyway.
+            rangeStorage.readBytes(0, new byte[1], 0, 1);
+            return rangeStorage;
+        } catch (Throwable e) {
+            log.debug("BLOB range read is not supported: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public void release()
     {
@@ -157,7 +172,11 @@ public class JDBCContentBLOB extends JDBCContentLOB {
         throws DBCException
     {
         try {
-            if (storage != null) {
+            if (storage instanceof JDBCContentRangeStorage && blob != null && writeRangeOverwrites((JDBCContentRangeStorage) storage)) {
+                // Blob wasn't replaced, overwritten parts were written in place.
+                // Otherwise the whole value (with overwritten parts) is written below
+                preparedStatement.setBlob(paramIndex, blob);
+            } else if (storage != null) {
                 // Write new blob value
                 releaseTempStream();
                 tmpStream = storage.getContentStream();
@@ -99,6 +99,9 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
                         throw new DBCException(e, dataSource);
                     }
                 }
+            } else if (isRangeFetchEnabled(contentLength) && (storage = openRangeStorage(platform, contentLength)) != null) {
+                // Clob is read by pages on demand, so we can't free it
+                return storage;
             } else {
                 // Create new local storage
                 File tempFile;
@@ -125,6 +128,18 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
         return storage;
     }
 
+    private JDBCContentRangeStorage openRangeStorage(DBPPlatform platform, long contentLength) {
+        JDBCContentRangeStorage rangeStorage = new JDBCContentRangeStorage(platform, clob, contentLength, getDefaultEncoding());
+        try {
+            // Check that driver supports range reads. First page is cached anyway.
+            rangeStorage.readChars(0, new char[1], 0, 1);
+            return rangeStorage;
+        } catch (Throwable e) {
+            log.debug("CLOB range read is not supported: " + e.getMessage());
+            return null;
+        }
+    }
+
     @Override
     public void release()
     {
@@ -158,7 +173,11 @@ public class JDBCContentCLOB extends JDBCContentLOB implements DBDContent {
         throws DBCException
     {
         try {
-            if (storage != null) {
+            if (storage instanceof JDBCContentRangeStorage && clob != null && writeRangeOverwrites((JDBCContentRangeStorage) storage)) {
+                // Clob wasn't replaced, overwritten parts were written in place.
+                // Otherwise the whole value (with overwritten parts) is written below
+                preparedStatement.setClob(paramIndex, clob);
+            } else if (storage != null) {
 //                String stringValue = ContentUtils.getContentStringValue(session.getProgressMonitor(), this);
 //                preparedStatement.setString(paramIndex, stringValue);
                 // Try 3 jdbc methods to set character stream
@@ -16,6 +16,8 @@
  */
 package org.jkiss.dbeaver.model.impl.jdbc.data;
 
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDContentStorage;
@@ -24,6 +26,7 @@ import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * JDBCContentLOB
@@ -32,6 +35,11 @@ import java.io.IOException;
  */
 public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDContent {
 
+    private static final Log log = Log.getLog(JDBCContentLOB.class);
+
+    // LOBs smaller than this are copied locally even if range fetch is enabled
+    private static final long RANGE_FETCH_MIN_SIZE = 1024 * 1024;
+
     private DBDContentStorage originalStorage;
     protected DBDContentStorage storage;
 
@@ -50,6 +58,28 @@ public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDC
 
     protected abstract long getLOBLength() throws DBCException;
 
+    /**
+     * Checks whether big LOB may be read by ranges instead of copying to a temporary file
+     */
+    protected boolean isRangeFetchEnabled(long contentLength) {
+        return contentLength >= RANGE_FETCH_MIN_SIZE &&
+            dataSource.getContainer().getPlatform().getPreferenceStore().getBoolean(ModelPreferences.CONTENT_LOB_RANGE_FETCH);
+    }
+
+    /**
+     * Writes overwritten parts of the range storage into the original LOB, so it can be bound back.
+     * @return false if LOB can't be changed in place (e.g. it wasn't selected for update) and the whole value must be written
+     */
+    protected static boolean writeRangeOverwrites(JDBCContentRangeStorage rangeStorage) {
+        try {
+            rangeStorage.writeOverwrites();
+            return true;
+        } catch (SQLException e) {
+            log.debug("Can't change LOB in place, write the whole value: " + e.getMessage());
+            return false;
+        }
+    }
+
     @Override
     public boolean updateContents(
         DBRProgressMonitor monitor,
@@ -82,6 +112,9 @@ public abstract class JDBCContentLOB extends JDBCContentAbstract implements DBDC
     @Override
     public void resetContents()
     {
+        if (this.storage instanceof JDBCContentRangeStorage) {
+            ((JDBCContentRangeStorage) this.storage).resetOverwrites();
+        }
         if (this.originalStorage != null) {
             if (this.storage != null) {
                 this.storage.release();
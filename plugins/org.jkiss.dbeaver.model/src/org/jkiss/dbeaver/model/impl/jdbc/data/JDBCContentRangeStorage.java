@@ -0,0 +1,426 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.jkiss.dbeaver.model.app.DBPPlatform;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.data.DBDContentStorageRange;
+import org.jkiss.dbeaver.model.impl.TemporaryContentStorage;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.*;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * LOB storage which reads value by pages (with Blob.getBytes/Clob.getSubString).
+ * Recently read pages are cached, so scrolling of viewers doesn't hit the database again.
+ * Overwritten parts are kept in memory (on top of the read pages) until the owner content saves them
+ * with {@link #writeOverwrites()}.
+ *
+ * LOB must remain valid while storage is in use. Storage doesn't free LOB - it is owned by the content.
+ */
+public class JDBCContentRangeStorage implements DBDContentStorageRange {
+
+    public static final int PAGE_SIZE = 64 * 1024;
+    private static final int MAX_CACHED_PAGES = 32;
+
+    private final DBPPlatform platform;
+    private final Blob blob;
+    private final Clob clob;
+    private final long length;
+    private final String charset;
+    private final Map<Long, Object> pageCache = new LinkedHashMap<Long, Object>(MAX_CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Object> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Overwritten parts in order of changes (later parts may cover earlier ones)
+    private final List<Overwrite> overwrites = new ArrayList<>();
+
+    public JDBCContentRangeStorage(DBPPlatform platform, Blob blob, long length, String charset) {
+        this(platform, blob, null, length, charset);
+    }
+
+    public JDBCContentRangeStorage(DBPPlatform platform, Clob clob, long length, String charset) {
+        this(platform, null, clob, length, charset);
+    }
+
+    private JDBCContentRangeStorage(DBPPlatform platform, Blob blob, Clob clob, long length, String charset) {
+        this.platform = platform;
+        this.blob = blob;
+        this.clob = clob;
+        this.length = length;
+        this.charset = CommonUtils.toString(charset, GeneralUtils.DEFAULT_ENCODING);
+    }
+
+    @Override
+    public boolean isText() {
+        return clob != null;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    @Override
+    public String getCharset() {
+        return charset;
+    }
+
+    @Override
+    public int readBytes(long position, byte[] buffer, int offset, int length) throws IOException {
+        if (isText()) {
+            throw new IOException("Text content can't be read as bytes");
+        }
+        if (position >= this.length) {
+            return -1;
+        }
+        int count = (int) Math.min(length, this.length - position);
+        for (int copied = 0; copied < count; ) {
+            long pagePosition = position + copied;
+            byte[] page = (byte[]) getPage(pagePosition / PAGE_SIZE);
+            int pageOffset = (int) (pagePosition % PAGE_SIZE);
+            int partLength = Math.min(count - copied, page.length - pageOffset);
+            System.arraycopy(page, pageOffset, buffer, offset + copied, partLength);
+            copied += partLength;
+        }
+        applyOverwrites(position, buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public int readChars(long position, char[] buffer, int offset, int length) throws IOException {
+        if (!isText()) {
+            throw new IOException("Binary content can't be read as characters");
+        }
+        if (position >= this.length) {
+            return -1;
+        }
+        int count = (int) Math.min(length, this.length - position);
+        for (int copied = 0; copied < count; ) {
+            long pagePosition = position + copied;
+            char[] page = (char[]) getPage(pagePosition / PAGE_SIZE);
+            int pageOffset = (int) (pagePosition % PAGE_SIZE);
+            int partLength = Math.min(count - copied, page.length - pageOffset);
+            System.arraycopy(page, pageOffset, buffer, offset + copied, partLength);
+            copied += partLength;
+        }
+        applyOverwrites(position, buffer, offset, count);
+        return count;
+    }
+
+    @Override
+    public void overwriteBytes(long position, byte[] data) throws IOException {
+        if (blob == null) {
+            throw new IOException("Text content can't be written as bytes");
+        }
+        addOverwrite(position, data.clone(), data.length);
+    }
+
+    @Override
+    public void overwriteChars(long position, String data) throws IOException {
+        if (clob == null) {
+            throw new IOException("Binary content can't be written as text");
+        }
+        addOverwrite(position, data.toCharArray(), data.length());
+    }
+
+    @Override
+    public boolean isOverwritten() {
+        synchronized (overwrites) {
+            return !overwrites.isEmpty();
+        }
+    }
+
+    @Override
+    public void resetOverwrites() {
+        synchronized (overwrites) {
+            overwrites.clear();
+        }
+    }
+
+    /**
+     * Writes overwritten parts to the LOB in place (with Blob.setBytes/Clob.setString).
+     * Written parts are removed one by one, so after an error the rest of them remain in the storage
+     * and the whole value still can be read (and saved) with them.
+     */
+    public void writeOverwrites() throws SQLException {
+        synchronized (overwrites) {
+            while (!overwrites.isEmpty()) {
+                Overwrite overwrite = overwrites.get(0);
+                try {
+                    if (blob != null) {
+                        blob.setBytes(overwrite.position + 1, (byte[]) overwrite.data);
+                    } else {
+                        clob.setString(overwrite.position + 1, new String((char[]) overwrite.data));
+                    }
+                } catch (UnsupportedOperationException e) {
+                    throw new SQLFeatureNotSupportedException(e);
+                }
+                overwrites.remove(0);
+                invalidatePages(overwrite.position, overwrite.length);
+            }
+        }
+    }
+
+    @Override
+    public InputStream getContentStream() throws IOException {
+        if (isText()) {
+            return new CharsInputStream();
+        }
+        return new BytesInputStream();
+    }
+
+    @Override
+    public Reader getContentReader() throws IOException {
+        if (isText()) {
+            return new CharsReader();
+        }
+        return new InputStreamReader(new BytesInputStream(), charset);
+    }
+
+    @Override
+    public DBDContentStorage cloneStorage(DBRProgressMonitor monitor) throws IOException {
+        File tempFile = ContentUtils.createTempContentFile(monitor, platform, "copy" + this.hashCode());
+        try {
+            try (InputStream is = getContentStream()) {
+                try (OutputStream os = new FileOutputStream(tempFile)) {
+                    ContentUtils.copyStreams(is, -1, os, monitor);
+                }
+            }
+        } catch (IOException e) {
+            ContentUtils.deleteTempFile(tempFile);
+            throw new IOException(e);
+        }
+        return new TemporaryContentStorage(platform, tempFile, charset);
+    }
+
+    @Override
+    public void release() {
+        synchronized (pageCache) {
+            pageCache.clear();
+        }
+    }
+
+    private Object getPage(long pageIndex) throws IOException {
+        synchronized (pageCache) {
+            Object page = pageCache.get(pageIndex);
+            if (page == null) {
+                page = readPage(pageIndex);
+                pageCache.put(pageIndex, page);
+            }
+            return page;
+        }
+    }
+
+    /**
+     * Reads page from the database. Pages read by streams are not cached - sequential reading
+     * of the whole value would evict pages which are actually viewed.
+     */
+    private Object readPage(long pageIndex) throws IOException {
+        long pagePosition = pageIndex * PAGE_SIZE;
+        int pageLength = (int) Math.min(PAGE_SIZE, length - pagePosition);
+        try {
+            if (blob != null) {
+                return blob.getBytes(pagePosition + 1, pageLength);
+            } else {
+                return clob.getSubString(pagePosition + 1, pageLength).toCharArray();
+            }
+        } catch (SQLException e) {
+            throw new IOException("Error reading LOB at position " + pagePosition, e);
+        }
+    }
+
+    private void addOverwrite(long position, Object data, int dataLength) throws IOException {
+        if (position < 0 || position + dataLength > length) {
+            throw new IOException("Overwritten part [" + position + "," + (position + dataLength) + ") is out of content bounds");
+        }
+        synchronized (overwrites) {
+            // Parts covered by the new one don't matter anymore (editors may overwrite the same part many times)
+            overwrites.removeIf(overwrite -> overwrite.position >= position && overwrite.position + overwrite.length <= position + dataLength);
+            overwrites.add(new Overwrite(position, data, dataLength));
+        }
+    }
+
+    /**
+     * Puts overwritten parts into the buffer which contains database content starting at the specified position
+     */
+    private void applyOverwrites(long position, Object buffer, int offset, int count) {
+        synchronized (overwrites) {
+            for (Overwrite overwrite : overwrites) {
+                long start = Math.max(position, overwrite.position);
+                long end = Math.min(position + count, overwrite.position + overwrite.length);
+                if (start < end) {
+                    System.arraycopy(overwrite.data, (int) (start - overwrite.position), buffer, offset + (int) (start - position), (int) (end - start));
+                }
+            }
+        }
+    }
+
+    private void invalidatePages(long position, long length) {
+        synchronized (pageCache) {
+            for (long page = position / PAGE_SIZE; page <= (position + length) / PAGE_SIZE; page++) {
+                pageCache.remove(page);
+            }
+        }
+    }
+
+    private static class Overwrite {
+        private final long position;
+        private final Object data;
+        private final int length;
+
+        Overwrite(long position, Object data, int length) {
+            this.position = position;
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private class BytesInputStream extends InputStream {
+        private long position;
+        private byte[] page;
+        private int pageOffset;
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (page == null || pageOffset >= page.length) {
+                if (position >= length) {
+                    return -1;
+                }
+                page = (byte[]) readPage(position / PAGE_SIZE);
+                pageOffset = (int) (position % PAGE_SIZE);
+            }
+            int count = Math.min(len, page.length - pageOffset);
+            System.arraycopy(page, pageOffset, b, off, count);
+            applyOverwrites(position, b, off, count);
+            pageOffset += count;
+            position += count;
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = Math.max(0, Math.min(n, length - position));
+            position += skipped;
+            page = null;
+            return skipped;
+        }
+    }
+
+    private class CharsReader extends Reader {
+        private long position;
+        private char[] page;
+        private int pageOffset;
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (page == null || pageOffset >= page.length) {
+                if (position >= length) {
+                    return -1;
+                }
+                page = (char[]) readPage(position / PAGE_SIZE);
+                pageOffset = 0;
+            }
+            int count = Math.min(len, page.length - pageOffset);
+            System.arraycopy(page, pageOffset, cbuf, off, count);
+            applyOverwrites(position, cbuf, off, count);
+            pageOffset += count;
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+            page = null;
+        }
+    }
+
+    /**
+     * Encodes text pages in the storage charset
+     */
+    private class CharsInputStream extends InputStream {
+        private final CharsReader reader = new CharsReader();
+        private final char[] chars = new char[PAGE_SIZE + 1];
+        private int charCount;
+        private byte[] bytes;
+        private int bytesOffset;
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (bytes == null || bytesOffset >= bytes.length) {
+                int count = reader.read(chars, charCount, PAGE_SIZE);
+                if (count < 0) {
+                    if (charCount == 0) {
+                        return -1;
+                    }
+                    count = 0;
+                }
+                charCount += count;
+                int encodeCount = charCount;
+                if (count > 0 && Character.isHighSurrogate(chars[charCount - 1])) {
+                    // Keep surrogate pair together
+                    encodeCount--;
+                }
+                bytes = new String(chars, 0, encodeCount).getBytes(charset);
+                bytesOffset = 0;
+                if (encodeCount < charCount) {
+                    chars[0] = chars[charCount - 1];
+                }
+                charCount -= encodeCount;
+            }
+            int count = Math.min(len, bytes.length - bytesOffset);
+            System.arraycopy(bytes, bytesOffset, b, off, count);
+            bytesOffset += count;
+            return count;
+        }
+    }
+
+}
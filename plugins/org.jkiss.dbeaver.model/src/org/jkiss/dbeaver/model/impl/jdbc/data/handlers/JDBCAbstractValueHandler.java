@@ -19,6 +19,8 @@ package org.jkiss.dbeaver.model.impl.jdbc.data.handlers;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
+import org.jkiss.dbeaver.model.data.DBDValueFetcherFactory;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
@@ -35,7 +37,7 @@ import java.sql.SQLException;
 /**
  * Base JDBC value handler
  */
-public abstract class JDBCAbstractValueHandler extends BaseValueHandler {
+public abstract class JDBCAbstractValueHandler extends BaseValueHandler implements DBDValueFetcherFactory {
 
     private static final Log log = Log.getLog(JDBCAbstractValueHandler.class);
 
@@ -56,6 +58,47 @@ public abstract class JDBCAbstractValueHandler extends BaseValueHandler {
         }
     }
 
+    @Nullable
+    @Override
+    public DBDValueFetcher createValueFetcher(@NotNull DBCSession session, @NotNull DBCResultSet resultSet, @NotNull DBSTypedObject type, int index)
+    {
+        if (resultSet instanceof JDBCResultSet) {
+            // JDBC uses 1-based indexes
+            return createColumnFetcher((JDBCResultSet) resultSet, type, index + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Creates fetcher of column values.
+     * Handlers may return fetchers specialized for the column type. Such fetchers must not be used by
+     * subclasses which override {@link #fetchColumnValue} - these have to use {@link #createDefaultColumnFetcher}.
+     * @param resultSet     result set
+     * @param type          column type
+     * @param index         column index (1-based)
+     */
+    @NotNull
+    protected DBDValueFetcher createColumnFetcher(JDBCResultSet resultSet, DBSTypedObject type, int index)
+    {
+        return createDefaultColumnFetcher(resultSet, type, index);
+    }
+
+    /**
+     * Creates fetcher which calls {@link #fetchColumnValue}
+     */
+    @NotNull
+    protected final DBDValueFetcher createDefaultColumnFetcher(final JDBCResultSet resultSet, final DBSTypedObject type, final int index)
+    {
+        return session -> {
+            try {
+                return fetchColumnValue(session, resultSet, type, index);
+            }
+            catch (SQLException e) {
+                throw new DBCException(e, session.getDataSource());
+            }
+        };
+    }
+
     @Override
     public final void bindValueObject(@NotNull DBCSession session, @NotNull DBCStatement statement, @NotNull DBSTypedObject columnMetaData,
                                       int index, Object value) throws DBCException {
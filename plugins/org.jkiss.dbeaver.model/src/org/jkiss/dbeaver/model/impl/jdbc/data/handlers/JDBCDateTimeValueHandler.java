@@ -23,6 +23,8 @@ import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.data.DBDDataFormatter;
 import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
+import org.jkiss.dbeaver.model.data.DBDValueFetcherFactory;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
@@ -44,7 +46,7 @@ import java.util.Date;
 /**
  * JDBC string value handler
  */
-public class JDBCDateTimeValueHandler extends DateTimeCustomValueHandler {
+public class JDBCDateTimeValueHandler extends DateTimeCustomValueHandler implements DBDValueFetcherFactory {
 
     public static final SimpleDateFormat DEFAULT_DATETIME_FORMAT = new SimpleDateFormat("''" + DBConstants.DEFAULT_TIMESTAMP_FORMAT + "''");
     public static final SimpleDateFormat DEFAULT_DATE_FORMAT = new SimpleDateFormat("''" + DBConstants.DEFAULT_DATE_FORMAT + "''");
@@ -138,6 +140,53 @@ public class JDBCDateTimeValueHandler extends DateTimeCustomValueHandler {
         }
     }
 
+    /**
+     * Fetcher reads values with the same getter as fetchValueObject but resolves it once per column.
+     * Values in native format and driver-specific workarounds (on errors) are handled by fetchValueObject.
+     * Subclasses which override fetchValueObject must override this method too.
+     */
+    @Nullable
+    @Override
+    public DBDValueFetcher createValueFetcher(@NotNull DBCSession session, @NotNull final DBCResultSet resultSet, @NotNull final DBSTypedObject type, final int index) {
+        if (!(resultSet instanceof JDBCResultSet) ||
+            session.getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_NATIVE_DATETIME_FORMAT))
+        {
+            return null;
+        }
+        final JDBCResultSet dbResults = (JDBCResultSet) resultSet;
+        // JDBC uses 1-based indexes
+        final int columnIndex = index + 1;
+        switch (type.getTypeID()) {
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return fetchSession -> {
+                    try {
+                        return dbResults.getTime(columnIndex);
+                    } catch (SQLException e) {
+                        return fetchValueObject(fetchSession, resultSet, type, index);
+                    }
+                };
+            case Types.DATE:
+                return fetchSession -> {
+                    try {
+                        return dbResults.getDate(columnIndex);
+                    } catch (SQLException e) {
+                        return fetchValueObject(fetchSession, resultSet, type, index);
+                    }
+                };
+            default:
+                return fetchSession -> {
+                    Object value;
+                    try {
+                        value = dbResults.getObject(columnIndex);
+                    } catch (SQLException e) {
+                        return fetchValueObject(fetchSession, resultSet, type, index);
+                    }
+                    return getValueFromObject(fetchSession, type, value, false);
+                };
+        }
+    }
+
     @Override
     public void bindValueObject(@NotNull DBCSession session, @NotNull DBCStatement statement, @NotNull DBSTypedObject type, int index, @Nullable Object value) throws DBCException {
         try {
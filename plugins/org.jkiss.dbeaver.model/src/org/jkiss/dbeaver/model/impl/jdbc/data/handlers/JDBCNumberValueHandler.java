@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBValueFormatting;
 import org.jkiss.dbeaver.model.data.DBDDataFormatter;
 import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
@@ -179,6 +180,81 @@ public class JDBCNumberValueHandler extends JDBCAbstractValueHandler {
         }
     }
 
+    /**
+     * Fetchers of primitive numbers call getters directly, without per-value type switch.
+     * Other types (and all types of subclasses which read values in their own way) are fetched by fetchColumnValue.
+     */
+    @NotNull
+    @Override
+    protected DBDValueFetcher createColumnFetcher(final JDBCResultSet resultSet, DBSTypedObject type, final int index)
+    {
+        if (isFetchColumnValueOverridden()) {
+            return createDefaultColumnFetcher(resultSet, type, index);
+        }
+        switch (type.getTypeID()) {
+            case Types.DOUBLE:
+            case Types.REAL:
+                return session -> {
+                    try {
+                        double value = resultSet.getDouble(index);
+                        return resultSet.wasNull() ? null : value;
+                    } catch (SQLException e) {
+                        throw new DBCException(e, session.getDataSource());
+                    }
+                };
+            case Types.INTEGER:
+                return session -> {
+                    try {
+                        Number value;
+                        try {
+                            // Read value with maximum precision. Some drivers reports INTEGER but means long [JDBC:SQLite]
+                            value = resultSet.getLong(index);
+                        } catch (SQLException | ClassCastException | NumberFormatException e) {
+                            value = resultSet.getInt(index);
+                        }
+                        return resultSet.wasNull() ? null : value;
+                    } catch (SQLException e) {
+                        throw new DBCException(e, session.getDataSource());
+                    }
+                };
+            case Types.SMALLINT:
+                return session -> {
+                    try {
+                        // Read int in case of unsigned shorts
+                        int value = resultSet.getInt(index);
+                        return resultSet.wasNull() ? null : value;
+                    } catch (SQLException e) {
+                        throw new DBCException(e, session.getDataSource());
+                    }
+                };
+            case Types.TINYINT:
+                return session -> {
+                    try {
+                        // Read short in case of unsigned byte
+                        short value = resultSet.getShort(index);
+                        return resultSet.wasNull() ? null : value;
+                    } catch (SQLException e) {
+                        throw new DBCException(e, session.getDataSource());
+                    }
+                };
+            default:
+                return super.createColumnFetcher(resultSet, type, index);
+        }
+    }
+
+    private boolean isFetchColumnValueOverridden()
+    {
+        for (Class<?> handlerClass = getClass(); handlerClass != JDBCNumberValueHandler.class; handlerClass = handlerClass.getSuperclass()) {
+            try {
+                handlerClass.getDeclaredMethod("fetchColumnValue", DBCSession.class, JDBCResultSet.class, DBSTypedObject.class, int.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Inherited - check superclass
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void bindParameter(JDBCSession session, JDBCPreparedStatement statement, DBSTypedObject paramType,
                                  int paramIndex, Object value) throws SQLException
@@ -0,0 +1,261 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ModelPreferences;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Adaptive result set fetch size.
+ *
+ * Measures fetch time and size of values read in each rows batch.
+ * Fetch size is doubled while network round trip takes most of the batch time and each growth
+ * makes round trip per row noticeably cheaper (i.e. latency bound connection).
+ * Growth stops once round trip time grows with the batch (i.e. transfer bound connection).
+ * Fetch size never exceeds the limit calculated from measured row size and fetch memory budget.
+ * The last fetch size is remembered per driver and used as initial size for the next result sets.
+ */
+public class JDBCFetchSizeController {
+
+    private static final Log log = Log.getLog(JDBCFetchSizeController.class);
+
+    public static final String STAT_FETCH_SIZE = "Fetch size";
+    public static final String STAT_FETCH_SIZE_ADJUSTMENTS = "Fetch size adjustments";
+
+    private static final int MIN_FETCH_SIZE = 10;
+    private static final int MAX_FETCH_SIZE = 10000;
+    private static final long FETCH_MEMORY_BUDGET = 16L * 1024 * 1024;
+    // Growth must make round trip per row at least 25% cheaper
+    private static final double MIN_GROWTH_GAIN = 0.75;
+
+    private static final int MIN_COLUMN_SIZE = 8;
+    private static final int MAX_COLUMN_SIZE = 4000;
+    private static final int LOB_COLUMN_SIZE = 64 * 1024;
+    private static final int OBJECT_VALUE_SIZE = 16;
+
+    private static final Map<String, Integer> driverFetchSizes = new ConcurrentHashMap<>();
+
+    private final ResultSet resultSet;
+    private final String driverId;
+    private final long minRowSize;
+    private final int maxFetchSize;
+
+    private int fetchSize;
+    private int adjustments;
+    private boolean disabled;
+    // Round trip time per row of the previous batch (before the last growth), -1 if none
+    private long prevRowTripTime = -1;
+
+    // Current batch
+    private int batchRows;
+    private long batchTime;
+    private long batchBytes;
+    private long maxRowTime;
+
+    private JDBCFetchSizeController(ResultSet resultSet, String driverId, int fetchSize, int columnCount, long estimatedRowSize) {
+        this.resultSet = resultSet;
+        this.driverId = driverId;
+        this.fetchSize = fetchSize;
+        this.minRowSize = Math.max(1, columnCount) * MIN_COLUMN_SIZE;
+        this.maxFetchSize = getMaxFetchSize(estimatedRowSize);
+    }
+
+    /**
+     * Creates controller for specified result set.
+     * Returns null if adaptive fetch size is disabled or result set uses driver-specific fetch mode
+     * (zero or negative fetch size).
+     */
+    @Nullable
+    static JDBCFetchSizeController create(@NotNull JDBCSession session, @NotNull ResultSet resultSet) {
+        if (!session.getDataSource().getContainer().getPreferenceStore().getBoolean(ModelPreferences.RESULT_SET_ADAPTIVE_FETCH_SIZE)) {
+            return null;
+        }
+        try {
+            int fetchSize = resultSet.getFetchSize();
+            if (fetchSize <= 0) {
+                // Driver reads everything at once or uses streaming - do not interfere
+                return null;
+            }
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            long rowSize = estimateRowSize(metaData);
+            String driverId = session.getDataSource().getContainer().getDriver().getId();
+            JDBCFetchSizeController controller = new JDBCFetchSizeController(resultSet, driverId, fetchSize, metaData.getColumnCount(), rowSize);
+            if (fetchSize > controller.maxFetchSize) {
+                // Wide rows (estimated from metadata). Do not let driver buffer grow above the budget
+                controller.changeFetchSize(controller.maxFetchSize);
+            } else if (fetchSize >= MIN_FETCH_SIZE) {
+                // Small fetch sizes are set explicitly (e.g. single object lookup). Keep them.
+                Integer driverFetchSize = driverFetchSizes.get(driverId);
+                if (driverFetchSize != null && driverFetchSize > fetchSize) {
+                    controller.changeFetchSize(Math.min(driverFetchSize, controller.maxFetchSize));
+                }
+            }
+            return controller;
+        } catch (Throwable e) {
+            log.debug("Can't initialize adaptive fetch size: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public int getAdjustments() {
+        return adjustments;
+    }
+
+    /**
+     * Called after each row fetch
+     * @param fetchTime row fetch time in nanoseconds
+     */
+    void afterFetch(long fetchTime) {
+        if (disabled) {
+            return;
+        }
+        batchRows++;
+        batchTime += fetchTime;
+        if (fetchTime > maxRowTime) {
+            maxRowTime = fetchTime;
+        }
+        if (batchRows < fetchSize) {
+            return;
+        }
+        // The slowest fetch in the batch is the server round trip.
+        // Other fetches read rows from driver buffer.
+        long rowSize = Math.max(minRowSize, batchBytes / batchRows);
+        int newFetchSize = getNextFetchSize(fetchSize, rowSize, maxRowTime, batchTime - maxRowTime, prevRowTripTime);
+        if (newFetchSize > fetchSize) {
+            prevRowTripTime = maxRowTime / batchRows;
+        } else if (newFetchSize < fetchSize) {
+            prevRowTripTime = -1;
+        }
+        if (newFetchSize != fetchSize) {
+            changeFetchSize(newFetchSize);
+        }
+        batchRows = 0;
+        batchTime = 0;
+        batchBytes = 0;
+        maxRowTime = 0;
+    }
+
+    /**
+     * Called for each value read from the result set. Accumulates approximate size of fetched data.
+     * Values are read after the row fetch so the batch size lags by one row, which is fine for estimation.
+     */
+    void afterRead(@Nullable Object value) {
+        if (disabled || value == null) {
+            return;
+        }
+        if (value instanceof String) {
+            batchBytes += 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            batchBytes += ((byte[]) value).length;
+        } else {
+            batchBytes += OBJECT_VALUE_SIZE;
+        }
+    }
+
+    /**
+     * Fetch size sizing rule.
+     * @param fetchSize       current fetch size
+     * @param rowSize         measured average row size in bytes
+     * @param roundTripTime   server round trip time of the last batch
+     * @param localTime       time spent reading other rows of the last batch from the driver buffer
+     * @param prevRowTripTime round trip time per row before the last growth or -1 if fetch size wasn't grown yet
+     * @return new fetch size. Equal to the current size if it shouldn't be changed.
+     */
+    static int getNextFetchSize(int fetchSize, long rowSize, long roundTripTime, long localTime, long prevRowTripTime) {
+        int maxFetchSize = getMaxFetchSize(rowSize);
+        if (fetchSize > maxFetchSize) {
+            // Rows are wider than estimated
+            return maxFetchSize;
+        }
+        if (fetchSize == maxFetchSize || roundTripTime <= localTime) {
+            return fetchSize;
+        }
+        if (prevRowTripTime >= 0 && roundTripTime / fetchSize > prevRowTripTime * MIN_GROWTH_GAIN) {
+            // Round trip grows with batch size - connection is transfer bound
+            return fetchSize;
+        }
+        return Math.min(fetchSize * 2, maxFetchSize);
+    }
+
+    void close() {
+        if (!disabled && adjustments > 0) {
+            driverFetchSizes.put(driverId, fetchSize);
+        }
+    }
+
+    public void fillStatistics(@NotNull DBCStatistics statistics) {
+        statistics.addInfo(STAT_FETCH_SIZE, fetchSize);
+        if (adjustments > 0) {
+            statistics.addInfo(STAT_FETCH_SIZE_ADJUSTMENTS, adjustments);
+        }
+    }
+
+    private void changeFetchSize(int newFetchSize) {
+        try {
+            resultSet.setFetchSize(newFetchSize);
+            fetchSize = newFetchSize;
+            adjustments++;
+        } catch (Throwable e) {
+            // Driver doesn't support fetch size change for open result set
+            log.debug("Can't change result set fetch size: " + e.getMessage());
+            disabled = true;
+        }
+    }
+
+    private static int getMaxFetchSize(long rowSize) {
+        return (int) Math.max(MIN_FETCH_SIZE, Math.min(MAX_FETCH_SIZE, FETCH_MEMORY_BUDGET / Math.max(1, rowSize)));
+    }
+
+    private static long estimateRowSize(ResultSetMetaData metaData) throws SQLException {
+        long rowSize = 0;
+        int columnCount = metaData.getColumnCount();
+        for (int i = 1; i <= columnCount; i++) {
+            switch (metaData.getColumnType(i)) {
+                case Types.BLOB:
+                case Types.CLOB:
+                case Types.NCLOB:
+                case Types.LONGVARBINARY:
+                case Types.LONGVARCHAR:
+                case Types.LONGNVARCHAR:
+                case Types.SQLXML:
+                    rowSize += LOB_COLUMN_SIZE;
+                    break;
+                default:
+                    int displaySize = metaData.getColumnDisplaySize(i);
+                    rowSize += Math.max(MIN_COLUMN_SIZE, Math.min(MAX_COLUMN_SIZE, displaySize));
+                    break;
+            }
+        }
+        return Math.max(rowSize, MIN_COLUMN_SIZE);
+    }
+
+}
@@ -52,6 +52,8 @@ public class JDBCResultSetImpl implements JDBCResultSet {
     private long maxRows = -1;
     private boolean fake;
     private boolean disableLogging;
+    @Nullable
+    private JDBCFetchSizeController fetchSizeController;
 
     public static JDBCResultSet makeResultSet(@NotNull JDBCSession session, @Nullable JDBCStatement statement, @NotNull ResultSet original, String description, boolean disableLogging)
         throws SQLException
@@ -70,6 +72,7 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         } else {
             this.statement = statement;
             this.fake = false;
+            this.fetchSizeController = JDBCFetchSizeController.create(session, original);
         }
 
         if (!disableLogging) {
@@ -266,6 +269,22 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         this.maxRows = maxRows;
     }
 
+    /**
+     * Adaptive fetch size controller. Null if adaptive fetch size is disabled for this result set.
+     */
+    @Nullable
+    public JDBCFetchSizeController getFetchSizeController() {
+        return fetchSizeController;
+    }
+
+    private <T> T afterRead(T value)
+    {
+        if (fetchSizeController != null) {
+            fetchSizeController.afterRead(value);
+        }
+        return value;
+    }
+
     @Override
     public boolean next()
         throws SQLException
@@ -281,7 +300,16 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         this.beforeFetch();
         try {
             // Fetch next row
-            boolean fetched = original.next();
+            boolean fetched;
+            if (fetchSizeController == null) {
+                fetched = original.next();
+            } else {
+                long startTime = System.nanoTime();
+                fetched = original.next();
+                if (fetched) {
+                    fetchSizeController.afterFetch(System.nanoTime() - startTime);
+                }
+            }
             if (fetched) {
                 rowsFetched++;
             }
@@ -309,6 +337,9 @@ public class JDBCResultSetImpl implements JDBCResultSet {
                 // Handle close
                 QMUtils.getDefaultHandler().handleResultSetClose(this, rowsFetched);
             }
+            if (fetchSizeController != null) {
+                fetchSizeController.close();
+            }
 
             // Close result set
             try {
@@ -336,7 +367,7 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         throws SQLException
     {
         checkNotEmpty();
-        return original.getString(columnIndex);
+        return afterRead(original.getString(columnIndex));
     }
 
     @Override
@@ -409,7 +440,7 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         throws SQLException
     {
         checkNotEmpty();
-        return original.getBytes(columnIndex);
+        return afterRead(original.getBytes(columnIndex));
     }
 
     @Override
@@ -625,7 +656,7 @@ public class JDBCResultSetImpl implements JDBCResultSet {
         throws SQLException
     {
         checkNotEmpty();
-        return original.getObject(columnIndex);
+        return afterRead(original.getObject(columnIndex));
     }
 
     @Override
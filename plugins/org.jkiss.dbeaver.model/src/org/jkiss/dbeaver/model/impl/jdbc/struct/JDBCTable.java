@@ -32,6 +32,8 @@ import org.jkiss.dbeaver.model.impl.DBObjectNameCaseTransformer;
 import org.jkiss.dbeaver.model.impl.data.ExecuteBatchImpl;
 import org.jkiss.dbeaver.model.impl.jdbc.JDBCSQLDialect;
 import org.jkiss.dbeaver.model.impl.jdbc.cache.JDBCStructCache;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCFetchSizeController;
+import org.jkiss.dbeaver.model.impl.jdbc.exec.JDBCResultSetImpl;
 import org.jkiss.dbeaver.model.impl.struct.AbstractTable;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.meta.Property;
@@ -104,6 +106,11 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         if (isTruncateSupported()) {
             features |= DATA_TRUNCATE;
         }
+        if (getDataSource() instanceof SQLDataSource &&
+            ((SQLDataSource) getDataSource()).getSQLDialect().getUpsertMode() != SQLDialect.UpsertMode.NOT_SUPPORTED)
+        {
+            features |= DATA_UPSERT;
+        }
         return features;
     }
 
@@ -210,6 +217,12 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
                         }
                         statistics.setFetchTime(System.currentTimeMillis() - startTime);
                         statistics.setRowsFetched(rowCount);
+                        if (dbResult instanceof JDBCResultSetImpl) {
+                            JDBCFetchSizeController fetchSizeController = ((JDBCResultSetImpl) dbResult).getFetchSizeController();
+                            if (fetchSizeController != null) {
+                                fetchSizeController.fillStatistics(statistics);
+                            }
+                        }
                     } finally {
                         // First - close cursor
                         try {
@@ -379,6 +392,52 @@ public abstract class JDBCTable<DATASOURCE extends DBPDataSource, CONTAINER exte
         };
     }
 
+    @NotNull
+    @Override
+    public ExecuteBatch upsertData(
+        @NotNull DBCSession session,
+        @NotNull final DBSAttributeBase[] attributes,
+        @NotNull final DBSAttributeBase[] keyAttributes,
+        @NotNull final DBCExecutionSource source)
+        throws DBCException
+    {
+        readRequiredMeta(session.getProgressMonitor());
+
+        String[] columns = new String[attributes.length];
+        for (int i = 0; i < attributes.length; i++) {
+            columns[i] = getAttributeName(attributes[i]);
+        }
+        String[] keyColumns = new String[keyAttributes.length];
+        for (int i = 0; i < keyAttributes.length; i++) {
+            keyColumns[i] = getAttributeName(keyAttributes[i]);
+        }
+        SQLDialect dialect = session.getDataSource() instanceof SQLDataSource ?
+            ((SQLDataSource) session.getDataSource()).getSQLDialect() : null;
+        final String query = dialect == null ? null :
+            dialect.generateUpsertQuery(getFullyQualifiedName(DBPEvaluationContext.DML), columns, keyColumns);
+        if (query == null) {
+            throw new DBCException("Upsert is not supported by " + session.getDataSource().getContainer().getDriver().getName());
+        }
+
+        // All values are bound (including nulls), so the same statement is used for all rows
+        return new ExecuteBatchImpl(attributes, null, true) {
+            @NotNull
+            @Override
+            protected DBCStatement prepareStatement(@NotNull DBCSession session, Object[] attributeValues) throws DBCException {
+                DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, false);
+                dbStat.setStatementSource(source);
+                return dbStat;
+            }
+
+            @Override
+            protected void bindStatement(@NotNull DBDValueHandler[] handlers, @NotNull DBCStatement statement, Object[] attributeValues) throws DBCException {
+                for (int k = 0; k < handlers.length; k++) {
+                    handlers[k].bindValueObject(statement.getSession(), statement, attributes[k], k, attributeValues[k]);
+                }
+            }
+        };
+    }
+
     ////////////////////////////////////////////////////////////////////
     // Update
 
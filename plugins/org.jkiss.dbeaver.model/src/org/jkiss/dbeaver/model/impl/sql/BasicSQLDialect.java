@@ -363,6 +363,106 @@ public class BasicSQLDialect implements SQLDialect {
         return MultiValueInsertMode.NOT_SUPPORTED;
     }
 
+    @NotNull
+    @Override
+    public UpsertMode getUpsertMode() {
+        return UpsertMode.NOT_SUPPORTED;
+    }
+
+    @Nullable
+    @Override
+    public String generateUpsertQuery(@NotNull String tableName, @NotNull String[] columns, @NotNull String[] keyColumns) {
+        List<String> keys = Arrays.asList(keyColumns);
+        List<String> valueColumns = new ArrayList<>();
+        for (String column : columns) {
+            if (!keys.contains(column)) {
+                valueColumns.add(column);
+            }
+        }
+        StringBuilder query = new StringBuilder(200);
+        switch (getUpsertMode()) {
+            case UPSERT:
+                query.append("UPSERT INTO ").append(tableName);
+                appendInsertValues(query, columns);
+                break;
+            case ON_CONFLICT:
+                query.append("INSERT INTO ").append(tableName);
+                appendInsertValues(query, columns);
+                query.append("\nON CONFLICT (").append(String.join(",", keyColumns)).append(")");
+                if (valueColumns.isEmpty()) {
+                    query.append(" DO NOTHING");
+                } else {
+                    query.append(" DO UPDATE SET ");
+                    for (int i = 0; i < valueColumns.size(); i++) {
+                        if (i > 0) query.append(",");
+                        query.append(valueColumns.get(i)).append("=EXCLUDED.").append(valueColumns.get(i));
+                    }
+                }
+                break;
+            case ON_DUPLICATE_KEY:
+                query.append("INSERT INTO ").append(tableName);
+                appendInsertValues(query, columns);
+                query.append("\nON DUPLICATE KEY UPDATE ");
+                if (valueColumns.isEmpty()) {
+                    // Nothing to update
+                    query.append(keyColumns[0]).append("=").append(keyColumns[0]);
+                }
+                for (int i = 0; i < valueColumns.size(); i++) {
+                    if (i > 0) query.append(",");
+                    query.append(valueColumns.get(i)).append("=VALUES(").append(valueColumns.get(i)).append(")");
+                }
+                break;
+            case MERGE:
+                query.append("MERGE INTO ").append(tableName).append(" T USING (SELECT ");
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) query.append(",");
+                    query.append("? AS ").append(columns[i]);
+                }
+                String dualTableName = getDualTableName();
+                if (dualTableName != null) {
+                    query.append(" FROM ").append(dualTableName);
+                }
+                query.append(") S ON (");
+                for (int i = 0; i < keyColumns.length; i++) {
+                    if (i > 0) query.append(" AND ");
+                    query.append("T.").append(keyColumns[i]).append("=S.").append(keyColumns[i]);
+                }
+                query.append(")");
+                if (!valueColumns.isEmpty()) {
+                    query.append("\nWHEN MATCHED THEN UPDATE SET ");
+                    for (int i = 0; i < valueColumns.size(); i++) {
+                        if (i > 0) query.append(",");
+                        query.append("T.").append(valueColumns.get(i)).append("=S.").append(valueColumns.get(i));
+                    }
+                }
+                query.append("\nWHEN NOT MATCHED THEN INSERT (").append(String.join(",", columns)).append(") VALUES (");
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) query.append(",");
+                    query.append("S.").append(columns[i]);
+                }
+                query.append(")");
+                break;
+            default:
+                return null;
+        }
+        return query.toString();
+    }
+
+    @Nullable
+    @Override
+    public String getRowsHashExpression(@NotNull String[] columns) {
+        return null;
+    }
+
+    private static void appendInsertValues(StringBuilder query, String[] columns) {
+        query.append(" (").append(String.join(",", columns)).append(")\nVALUES (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) query.append(",");
+            query.append("?");
+        }
+        query.append(")");
+    }
+
     @Override
     public String addFiltersToQuery(DBPDataSource dataSource, String query, DBDDataFilter filter) {
         return SQLSemanticProcessor.addFiltersToQuery(dataSource, query, filter);
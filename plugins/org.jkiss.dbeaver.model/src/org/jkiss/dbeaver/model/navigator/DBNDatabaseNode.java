@@ -21,6 +21,7 @@ import org.eclipse.core.runtime.Status;
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ModelPreferences;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
@@ -39,6 +40,10 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * DBNDatabaseNode
@@ -50,6 +55,11 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     private volatile boolean locked;
     protected volatile DBNDatabaseNode[] childNodes;
     private boolean filtered;
+    // In-flight children load. Other threads wait for it instead of loading children again
+    private CompletableFuture<DBNDatabaseNode[]> childrenLoader;
+    private Thread childrenLoaderThread;
+    // Incremented on each children change. Children loaded in older generation are stale.
+    private int childrenGeneration;
 
     protected DBNDatabaseNode(DBNNode parentNode)
     {
@@ -196,25 +206,142 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         return false;
     }
 
+    /**
+     * Returns node children. Loads them if needed.
+     * Concurrent calls wait for the same load. If that load was canceled or its result became stale
+     * (node children were changed during the load) then waiting threads load children by themselves.
+     * Recursive call from the loading thread returns empty array (children are not loaded yet).
+     */
     @Override
-    public synchronized DBNDatabaseNode[] getChildren(DBRProgressMonitor monitor)
+    public DBNDatabaseNode[] getChildren(DBRProgressMonitor monitor)
         throws DBException
     {
-        if (childNodes == null && hasChildren(false)) {
-            if (this.initializeNode(monitor, null)) {
-                final List<DBNDatabaseNode> tmpList = new ArrayList<>();
-                loadChildren(monitor, getMeta(), null, tmpList, this, true);
-                if (!monitor.isCanceled()) {
-                    if (tmpList.isEmpty()) {
-                        this.childNodes = EMPTY_NODES;
+        for (;;) {
+            DBNDatabaseNode[] children = childNodes;
+            if (children != null || !hasChildren(false)) {
+                return children;
+            }
+            final CompletableFuture<DBNDatabaseNode[]> loader;
+            final int generation;
+            synchronized (this) {
+                if (childNodes != null) {
+                    return childNodes;
+                }
+                if (childrenLoader != null) {
+                    if (childrenLoaderThread == Thread.currentThread()) {
+                        // Recursive call from the loading thread
+                        return EMPTY_NODES;
+                    }
+                    loader = childrenLoader;
+                } else {
+                    childrenLoader = new CompletableFuture<>();
+                    childrenLoaderThread = Thread.currentThread();
+                    loader = null;
+                }
+                generation = childrenGeneration;
+            }
+            if (loader != null) {
+                children = waitForChildren(monitor, loader);
+                if (children != null || monitor.isCanceled() || isDisposed()) {
+                    return children;
+                }
+                // Load was canceled or discarded. Try again.
+                continue;
+            }
+
+            final CompletableFuture<DBNDatabaseNode[]> ownLoader = childrenLoader;
+            boolean loaded = false;
+            try {
+                if (this.initializeNode(monitor, null)) {
+                    final List<DBNDatabaseNode> tmpList = new ArrayList<>();
+                    loadChildren(monitor, getMeta(), null, tmpList, this, true);
+                    if (!monitor.isCanceled()) {
+                        synchronized (this) {
+                            if (generation == childrenGeneration && childNodes == null) {
+                                if (tmpList.isEmpty()) {
+                                    this.childNodes = EMPTY_NODES;
+                                } else {
+                                    this.childNodes = tmpList.toArray(new DBNDatabaseNode[tmpList.size()]);
+                                }
+                                loaded = true;
+                            }
+                        }
+                    }
+                    if (loaded) {
+                        this.afterChildRead();
+                        prefetchFolders(tmpList);
                     } else {
-                        this.childNodes = tmpList.toArray(new DBNDatabaseNode[tmpList.size()]);
+                        // Canceled or stale. These nodes are not visible to anybody.
+                        for (DBNDatabaseNode child : tmpList) {
+                            child.dispose(false);
+                        }
                     }
-                    this.afterChildRead();
+                } else {
+                    loaded = true;
                 }
+                // Waiting threads get null if children were not loaded
+                ownLoader.complete(loaded ? childNodes : null);
+            } catch (Throwable e) {
+                ownLoader.completeExceptionally(e);
+                throw e;
+            } finally {
+                synchronized (this) {
+                    childrenLoader = null;
+                    childrenLoaderThread = null;
+                }
+            }
+            if (loaded || monitor.isCanceled() || isDisposed()) {
+                return childNodes;
             }
+            // Children were changed during the load. Reload them.
+        }
+    }
+
+    private DBNDatabaseNode[] waitForChildren(DBRProgressMonitor monitor, CompletableFuture<DBNDatabaseNode[]> loader)
+        throws DBException
+    {
+        for (;;) {
+            try {
+                return loader.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (monitor.isCanceled()) {
+                    return childNodes;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return childNodes;
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof DBException) {
+                    throw (DBException) e.getCause();
+                }
+                throw new DBException("Error loading children of '" + getNodeName() + "'", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Loads contents of sibling folders in background (if enabled in preferences).
+     * Folders are loaded concurrently, so expanding them later doesn't wait for sequential metadata reads.
+     */
+    private void prefetchFolders(List<DBNDatabaseNode> children)
+    {
+        if (this instanceof DBNDatabaseFolder) {
+            // Do not chain prefetch for nested folders
+            return;
+        }
+        final DBPDataSourceContainer container = getDataSourceContainer();
+        if (container == null || !container.getPreferenceStore().getBoolean(ModelPreferences.META_PREFETCH_FOLDERS)) {
+            return;
+        }
+        List<DBNDatabaseNode> folders = new ArrayList<>();
+        for (DBNDatabaseNode child : children) {
+            if (child instanceof DBNDatabaseFolder) {
+                folders.add(child);
+            }
+        }
+        if (!folders.isEmpty()) {
+            DBNPrefetchJob.prefetchChildren(folders);
         }
-        return childNodes;
     }
 
     protected void afterChildRead()
@@ -243,6 +370,13 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     {
         DBXTreeItem metaChildren = getItemsMeta();
         if (metaChildren != null) {
+            synchronized (this) {
+                childrenGeneration++;
+                if (childNodes == null && childrenLoader != null) {
+                    // Children are being loaded. Loader will reload them, new item will be read with others.
+                    return;
+                }
+            }
             final DBNDatabaseItem newChild = new DBNDatabaseItem(this, metaChildren, object, false);
             synchronized (this) {
                 childNodes = ArrayUtils.add(DBNDatabaseNode.class, childNodes, newChild);
@@ -257,6 +391,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
     {
         DBNNode childNode = null;
         synchronized (this) {
+            childrenGeneration++;
             if (!ArrayUtils.isEmpty(childNodes)) {
                 for (int i = 0; i < childNodes.length; i++) {
                     final DBNDatabaseNode child = childNodes[i];
@@ -378,6 +513,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         synchronized (this) {
             childrenCopy = childNodes == null ? null : Arrays.copyOf(childNodes, childNodes.length);
             childNodes = null;
+            childrenGeneration++;
         }
         if (childrenCopy != null) {
             for (DBNNode child : childrenCopy) {
@@ -695,7 +831,8 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         DBNDatabaseNode[] oldChildren;
         synchronized (this) {
             if (childNodes == null) {
-                // Nothing to reload
+                // Nothing to reload. Make in-flight load (if any) re-read children.
+                childrenGeneration++;
                 return;
             }
             oldChildren = Arrays.copyOf(childNodes, childNodes.length);
@@ -704,6 +841,7 @@ public abstract class DBNDatabaseNode extends DBNNode implements DBSWrapper, DBP
         loadChildren(monitor, getMeta(), oldChildren, newChildren, source, reflect);
         synchronized (this) {
             childNodes = newChildren.toArray(new DBNDatabaseNode[newChildren.size()]);
+            childrenGeneration++;
         }
     }
 
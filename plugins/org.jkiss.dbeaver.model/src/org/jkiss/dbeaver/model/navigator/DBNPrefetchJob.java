@@ -0,0 +1,97 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2017 Serge Rider (serge@jkiss.org)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.navigator;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.runtime.AbstractJob;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Background navigator children loader.
+ *
+ * Nodes are distributed between a few concurrent jobs. If user expands a node which is being
+ * prefetched then navigator waits for the running load (see {@link DBNDatabaseNode#getChildren}).
+ */
+public class DBNPrefetchJob extends AbstractJob {
+
+    private static final Log log = Log.getLog(DBNPrefetchJob.class);
+
+    private static final int MAX_PREFETCH_JOBS = 4;
+
+    private final List<DBNDatabaseNode> nodes;
+
+    private DBNPrefetchJob(List<DBNDatabaseNode> nodes) {
+        super("Prefetch navigator nodes");
+        this.nodes = nodes;
+        setSystem(true);
+        setUser(false);
+    }
+
+    /**
+     * Loads children of specified nodes in background
+     */
+    public static void prefetchChildren(@NotNull Collection<? extends DBNDatabaseNode> nodes) {
+        List<DBNDatabaseNode> toLoad = new ArrayList<>(nodes.size());
+        for (DBNDatabaseNode node : nodes) {
+            if (!node.isDisposed() && node.needsInitialization()) {
+                toLoad.add(node);
+            }
+        }
+        if (toLoad.isEmpty()) {
+            return;
+        }
+        int jobCount = Math.min(MAX_PREFETCH_JOBS, toLoad.size());
+        List<List<DBNDatabaseNode>> jobNodes = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            jobNodes.add(new ArrayList<>());
+        }
+        for (int i = 0; i < toLoad.size(); i++) {
+            jobNodes.get(i % jobCount).add(toLoad.get(i));
+        }
+        for (List<DBNDatabaseNode> list : jobNodes) {
+            new DBNPrefetchJob(list).schedule();
+        }
+    }
+
+    @Override
+    protected IStatus run(DBRProgressMonitor monitor) {
+        for (DBNDatabaseNode node : nodes) {
+            if (monitor.isCanceled()) {
+                break;
+            }
+            if (node.isDisposed() || !node.needsInitialization()) {
+                continue;
+            }
+            try {
+                node.getChildren(monitor);
+            } catch (DBException e) {
+                // Errors will be shown when user expands the node
+                log.debug("Error prefetching children of '" + node.getNodeName() + "': " + e.getMessage());
+            }
+        }
+        return Status.OK_STATUS;
+    }
+
+}
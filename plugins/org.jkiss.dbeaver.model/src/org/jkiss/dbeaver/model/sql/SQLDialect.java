@@ -53,6 +53,21 @@ public interface SQLDialect {
         PLAIN
     }
 
+    /**
+     * Statement which inserts new row or updates existing row with the same key
+     */
+    enum UpsertMode {
+        NOT_SUPPORTED,
+        // UPSERT INTO ... VALUES ...
+        UPSERT,
+        // INSERT ... ON CONFLICT (...) DO UPDATE SET ...
+        ON_CONFLICT,
+        // INSERT ... ON DUPLICATE KEY UPDATE ...
+        ON_DUPLICATE_KEY,
+        // MERGE INTO ... USING (SELECT ...) ON (...) WHEN MATCHED ... WHEN NOT MATCHED ...
+        MERGE
+    }
+
     /**
      * Dialect name
      * @return SQL dialect name
@@ -261,6 +276,30 @@ public interface SQLDialect {
     @NotNull
     MultiValueInsertMode getMultiValueInsertMode();
 
+    @NotNull
+    UpsertMode getUpsertMode();
+
+    /**
+     * Generates upsert statement (see {@link #getUpsertMode()}).
+     * Statement has one parameter per column, parameters go in the order of columns.
+     * @param tableName  fully qualified table name
+     * @param columns    quoted column names
+     * @param keyColumns quoted names of key columns (subset of columns)
+     * @return statement text or null if upsert is not supported
+     */
+    @Nullable
+    String generateUpsertQuery(@NotNull String tableName, @NotNull String[] columns, @NotNull String[] keyColumns);
+
+    /**
+     * Aggregate expression which calculates hash of all rows of a group. Used by data compare to compare
+     * table ranges without reading rows. Result must not depend on the order of rows.
+     * Hashes are compared only between databases of the same dialect.
+     * @param columns quoted column names
+     * @return expression or null if hashes can't be calculated on server side
+     */
+    @Nullable
+    String getRowsHashExpression(@NotNull String[] columns);
+
     String addFiltersToQuery(DBPDataSource dataSource, String query, DBDDataFilter filter);
 
     /**
@@ -38,6 +38,7 @@ public interface DBSDataManipulator extends DBSDataContainer {
     int DATA_UPDATE         = 1 << 17;
     int DATA_DELETE         = 1 << 18;
     int DATA_TRUNCATE       = 1 << 19;
+    int DATA_UPSERT         = 1 << 20;
 
     interface ExecuteBatch extends AutoCloseable {
         void add(@NotNull Object[] attributeValues) throws DBCException;
@@ -59,6 +60,18 @@ public interface DBSDataManipulator extends DBSDataContainer {
         @NotNull DBCExecutionSource source)
         throws DBCException;
 
+    /**
+     * Inserts new rows and updates existing rows with the same key values.
+     * Supported if {@link #DATA_UPSERT} feature is supported.
+     */
+    @NotNull
+    ExecuteBatch upsertData(
+        @NotNull DBCSession session,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBSAttributeBase[] keyAttributes,
+        @NotNull DBCExecutionSource source)
+        throws DBCException;
+
     @NotNull
     ExecuteBatch updateData(
         @NotNull DBCSession session,
@@ -90,7 +90,7 @@ public class GlobalProxyAuthenticator extends Authenticator {
                                         networkHandler.setUserName(userName);
                                         networkHandler.setPassword(userPassword);
                                         networkHandler.setSavePassword(true);
-                                        activeContext.getRegistry().flushConfig();
+                                        activeContext.persistConfiguration();
                                     }
                                 }
                             }
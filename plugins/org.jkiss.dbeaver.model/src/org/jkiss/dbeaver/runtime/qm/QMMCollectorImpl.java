@@ -31,6 +31,7 @@ import org.jkiss.dbeaver.model.qm.meta.*;
 import org.jkiss.dbeaver.model.runtime.AbstractJob;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.utils.LongKeyMap;
+import org.jkiss.utils.primitive.LongArrayList;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -48,7 +49,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
 
     // Session map
     private LongKeyMap<QMMSessionInfo> sessionMap = new LongKeyMap<>();
-    private List<Long> closedSessions = new ArrayList<>();
+    private LongArrayList closedSessions = new LongArrayList();
 
     // External listeners
     private final List<QMMetaListener> listeners = new ArrayList<>();
@@ -177,7 +178,7 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         }
 
         // Remove from closed sessions (in case of re-opened connection)
-        closedSessions.remove(contextId);
+        closedSessions.removeValue(contextId);
         // Notify
         fireMetaEvent(session, QMMetaEvent.Action.BEGIN);
     }
@@ -315,11 +316,11 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
         protected IStatus run(DBRProgressMonitor monitor)
         {
             final List<QMMetaEvent> events;
-            List<Long> sessionsToClose;
+            LongArrayList sessionsToClose;
             synchronized (QMMCollectorImpl.this) {
                 events = obtainEvents();
                 sessionsToClose = closedSessions;
-                closedSessions.clear();
+                closedSessions = new LongArrayList();
             }
             final List<QMMetaListener> listeners = getListeners();
             if (!listeners.isEmpty() && !events.isEmpty()) {
@@ -345,9 +346,10 @@ public class QMMCollectorImpl extends DefaultExecutionHandler implements QMMColl
             }
             // Cleanup closed sessions
             synchronized (QMMCollectorImpl.this) {
-                for (Long sessionId : sessionsToClose) {
+                for (int i = 0; i < sessionsToClose.size(); i++) {
+                    final long sessionId = sessionsToClose.get(i);
                     final QMMSessionInfo session = sessionMap.get(sessionId);
-                    if (session != null && !session.isClosed()) {
+                    if (session != null && session.isClosed()) {
                         // It is possible (rarely) that session was reopened before event dispatcher run
                         // In that case just ignore it
                         sessionMap.remove(sessionId);
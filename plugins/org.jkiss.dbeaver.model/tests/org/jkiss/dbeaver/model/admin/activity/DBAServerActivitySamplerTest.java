@@ -0,0 +1,221 @@
+package org.jkiss.dbeaver.model.admin.activity;
+
+import org.jkiss.dbeaver.model.admin.locks.DBAServerLock;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSession;
+import org.jkiss.dbeaver.model.admin.sessions.DBAServerSessionActivity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks aggregation of sampled sessions and locks and activity history
+ */
+public class DBAServerActivitySamplerTest {
+
+    @Test
+    public void testMakeSample() {
+        List<DBAServerSession> sessions = Arrays.asList(
+            new TestSession(1, true, "IO:DataFileRead", 5000, "select * from orders"),
+            new TestSession(2, true, "Lock:transactionid", 12000, "update orders set status = 1"),
+            new TestSession(3, true, "Lock:transactionid", -1, "update orders set status = 2"),
+            new TestSession(4, false, "Client:ClientRead", 0, null),
+            new TestSession(5, false, null, 0, null),
+            // Session without activity details is only counted
+            () -> "select 1");
+        List<DBAServerLock> locks = Arrays.asList(
+            new TestLock(2),
+            new TestLock(2),
+            new TestLock("7"),
+            new TestLock(0),
+            new TestLock(null));
+
+        DBAServerActivitySample sample = DBAServerActivitySampler.makeSample(1000, sessions, locks);
+        assertEquals(1000, sample.getTimestamp());
+        assertEquals(6, sample.getSessionCount());
+        assertEquals(3, sample.getActiveCount());
+        assertEquals(3, sample.getBlockedCount());
+
+        Map<String, Integer> waits = toMap(sample.getWaitEvents(), sample.getWaitCounts());
+        assertEquals(3, waits.size());
+        assertEquals(Integer.valueOf(2), waits.get("Lock:transactionid"));
+        assertEquals(Integer.valueOf(1), waits.get("IO:DataFileRead"));
+        assertEquals(Integer.valueOf(1), waits.get("Client:ClientRead"));
+
+        Map<String, Integer> blockers = toMap(sample.getBlockers(), sample.getBlockedCounts());
+        assertEquals(2, blockers.size());
+        assertEquals(Integer.valueOf(2), blockers.get("2"));
+        assertEquals(Integer.valueOf(1), blockers.get("7"));
+
+        // Longest first, statements of unknown duration are skipped
+        DBAServerActivitySample.QueryInfo[] queries = sample.getLongQueries();
+        assertEquals(2, queries.length);
+        assertEquals("2", queries[0].getSessionId());
+        assertEquals(12000, queries[0].getDuration());
+        assertEquals("select * from orders", queries[1].getQuery());
+    }
+
+    @Test
+    public void testTopQueriesLimit() {
+        List<DBAServerSession> sessions = new ArrayList<>();
+        for (int i = 0; i < DBAServerActivitySampler.TOP_COUNT * 2; i++) {
+            sessions.add(new TestSession(i, true, null, i * 100, "query " + i));
+        }
+        DBAServerActivitySample sample = DBAServerActivitySampler.makeSample(0, sessions, Collections.emptyList());
+        assertEquals(DBAServerActivitySampler.TOP_COUNT, sample.getLongQueries().length);
+        assertEquals((DBAServerActivitySampler.TOP_COUNT * 2 - 1) * 100, sample.getLongQueries()[0].getDuration());
+        assertEquals(0, sample.getWaitEvents().length);
+        assertEquals(0, sample.getBlockedCount());
+    }
+
+    @Test
+    public void testHistoryRingBuffer() {
+        DBAServerActivityHistory history = new DBAServerActivityHistory(5);
+        assertNull(history.getLastSample());
+        for (int i = 0; i < 12; i++) {
+            history.addSample(makeSample(i * 10, "b" + (i % 3), i));
+        }
+        assertEquals(5, history.size());
+        // Oldest samples were replaced
+        List<DBAServerActivitySample> samples = history.getSamples(0, Long.MAX_VALUE);
+        assertEquals(5, samples.size());
+        assertEquals(70, samples.get(0).getTimestamp());
+        assertEquals(110, history.getLastSample().getTimestamp());
+        // Time range is inclusive
+        assertEquals(3, history.getSamples(85, 110).size());
+        assertEquals(0, history.getSamples(111, 200).size());
+
+        history.clear();
+        assertEquals(0, history.size());
+        assertTrue(history.getSamples(0, Long.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void testHistoryAggregates() {
+        DBAServerActivityHistory history = new DBAServerActivityHistory(100);
+        for (int i = 0; i < 10; i++) {
+            history.addSample(makeSample(i * 10, "b" + (i % 3), i));
+        }
+        List<Map.Entry<String, Integer>> topWaits = history.getTopWaits(0, 1000, 5);
+        assertEquals(1, topWaits.size());
+        assertEquals("IO", topWaits.get(0).getKey());
+        assertEquals(Integer.valueOf(10), topWaits.get(0).getValue());
+
+        // b0 blocked in samples 0, 3, 6, 9
+        List<Map.Entry<String, Integer>> topBlockers = history.getTopBlockers(0, 1000, 2);
+        assertEquals(2, topBlockers.size());
+        assertEquals("b0", topBlockers.get(0).getKey());
+        assertEquals(Integer.valueOf(4), topBlockers.get(0).getValue());
+        assertEquals(Integer.valueOf(1), history.getTopBlockers(90, 90, 5).get(0).getValue());
+
+        // The same statement is reported once with its maximal duration
+        List<DBAServerActivitySample.QueryInfo> queries = history.getLongestQueries(0, 50, 3);
+        assertEquals(1, queries.size());
+        assertEquals(5, queries.get(0).getDuration());
+
+        assertEquals(1, history.getMaxBlockedCount(0, 1000));
+        assertEquals(0, history.getMaxBlockedCount(1000, 2000));
+    }
+
+    private static DBAServerActivitySample makeSample(long timestamp, String blocker, long duration) {
+        return new DBAServerActivitySample(
+            timestamp, 3, 1, 1,
+            new String[]{"IO"}, new int[]{1},
+            new String[]{blocker}, new int[]{1},
+            new DBAServerActivitySample.QueryInfo[]{new DBAServerActivitySample.QueryInfo("1", "select 1", duration)});
+    }
+
+    private static Map<String, Integer> toMap(String[] keys, int[] values) {
+        assertEquals(keys.length, values.length);
+        Map<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            result.put(keys[i], values[i]);
+        }
+        return result;
+    }
+
+    private static class TestSession implements DBAServerSessionActivity {
+        private final Object id;
+        private final boolean active;
+        private final String waitEvent;
+        private final long duration;
+        private final String query;
+
+        TestSession(Object id, boolean active, String waitEvent, long duration, String query) {
+            this.id = id;
+            this.active = active;
+            this.waitEvent = waitEvent;
+            this.duration = duration;
+            this.query = query;
+        }
+
+        @Override
+        public Object getSessionId() {
+            return id;
+        }
+
+        @Override
+        public boolean isActive() {
+            return active;
+        }
+
+        @Override
+        public String getWaitEvent() {
+            return waitEvent;
+        }
+
+        @Override
+        public long getActiveDuration() {
+            return duration;
+        }
+
+        @Override
+        public String getActiveQuery() {
+            return query;
+        }
+    }
+
+    private static class TestLock implements DBAServerLock {
+        private final Object holdId;
+
+        TestLock(Object holdId) {
+            this.holdId = holdId;
+        }
+
+        @Override
+        public String getTitle() {
+            return "lock";
+        }
+
+        @Override
+        public Object getId() {
+            return this;
+        }
+
+        @Override
+        public DBAServerLock getHoldBy() {
+            return null;
+        }
+
+        @Override
+        public void setHoldBy(DBAServerLock lock) {
+        }
+
+        @Override
+        public Object getHoldID() {
+            return holdId;
+        }
+
+        @Override
+        public List<DBAServerLock> waitThis() {
+            return Collections.emptyList();
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.jkiss.dbeaver.model.exec.plan.TestPlanNode.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks plan issues detection
+ */
+public class DBCPlanAnalyzerTest {
+
+    private final DBCPlanAnalyzer analyzer = new DBCPlanAnalyzer(null);
+
+    @Test
+    public void testFullScan() {
+        DBCPlanAnalysis analysis = analyzer.analyzePlan(
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 5000), scan("regions", 1, 5))), "query");
+        assertEquals(1, analysis.getIssues().size());
+        DBCPlanAnalysis.Issue issue = analysis.getIssues().get(0);
+        assertEquals(DBCPlanAnalysis.IssueType.FULL_SCAN, issue.getType());
+        assertEquals("orders", issue.getNode().getNodeName());
+        assertEquals(100, analysis.getTotalCost(), 0);
+
+        // Scans with unknown size are always reported
+        analysis = analyzer.analyzePlan(plan(scan("orders", -1, -1)), "query");
+        assertEquals(1, analysis.getIssues().size());
+    }
+
+    @Test
+    public void testBadEstimate() {
+        DBCPlanAnalysis analysis = analyzer.analyzePlan(
+            plan(new TestPlanNode("Index Scan", DBCPlanNodeKind.INDEX_SCAN, "orders_idx", 10, 10, 5000)), "query");
+        assertEquals(1, analysis.getIssues().size());
+        assertEquals(DBCPlanAnalysis.IssueType.BAD_ESTIMATE, analysis.getIssues().get(0).getType());
+
+        // Small nodes and close estimates are fine
+        analysis = analyzer.analyzePlan(plan(
+            new TestPlanNode("Index Scan", DBCPlanNodeKind.INDEX_SCAN, "orders_idx", 10, 1, 50),
+            new TestPlanNode("Index Scan", DBCPlanNodeKind.INDEX_SCAN, "customers_idx", 10, 1000, 5000)), "query");
+        assertTrue(analysis.getIssues().isEmpty());
+    }
+
+    @Test
+    public void testThresholds() {
+        analyzer.setFullScanMinRows(10000);
+        analyzer.setBadEstimateRatio(100);
+        DBCPlanAnalysis analysis = analyzer.analyzePlan(plan(
+            scan("orders", 40, 5000),
+            new TestPlanNode("Index Scan", DBCPlanNodeKind.INDEX_SCAN, "orders_idx", 10, 100, 5000)), "query");
+        assertTrue(analysis.getIssues().isEmpty());
+    }
+
+    @Test
+    public void testMostExpensive() {
+        DBCPlanAnalysis cheap = analyzer.analyzePlan(plan(indexScan("idx", 1, 1)), "cheap");
+        DBCPlanAnalysis expensive = analyzer.analyzePlan(plan(scan("orders", 500, 5000)), "expensive");
+        DBCPlanAnalysis medium = analyzer.analyzePlan(plan(scan("customers", 50, 500)), "medium");
+        DBCPlanAnalysis failed = new DBCPlanAnalysis("failed", new Exception("syntax error"));
+
+        List<DBCPlanAnalysis> top = DBCPlanAnalyzer.getMostExpensive(Arrays.asList(cheap, failed, expensive, medium), 2);
+        assertEquals(Arrays.asList(expensive, medium), top);
+    }
+
+    @Test
+    public void testUnknownCostOrderedByRows() {
+        DBCPlanAnalysis small = analyzer.analyzePlan(plan(scan("a", -1, 10)), "small");
+        DBCPlanAnalysis big = analyzer.analyzePlan(plan(join("Nested Loop", -1, 100, scan("a", -1, 10), scan("b", -1, 1000))), "big");
+        assertEquals(Arrays.asList(big, small), DBCPlanAnalyzer.getMostExpensive(Arrays.asList(small, big), 10));
+    }
+
+}
@@ -0,0 +1,94 @@
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.jkiss.dbeaver.model.exec.plan.TestPlanNode.*;
+import static org.junit.Assert.*;
+
+/**
+ * Checks plan alignment and regression detection
+ */
+public class DBCPlanDiffTest {
+
+    @Test
+    public void testSamePlan() {
+        DBCPlanDiff diff = new DBCPlanDiff(
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 1000), scan("customers", 10, 100))),
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 1000), scan("customers", 10, 100))));
+        assertTrue(diff.getChanges().isEmpty());
+        assertFalse(diff.isStructureChanged());
+        assertFalse(diff.isRegression(0));
+    }
+
+    @Test
+    public void testChangedEstimates() {
+        DBCPlanDiff diff = new DBCPlanDiff(
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 1000), scan("customers", 10, 100))),
+            plan(join("Hash Join", 130, 50, scan("orders", 70, 2000), scan("customers", 10, 100))));
+        List<DBCPlanDiff.Change> changes = diff.getChanges();
+        assertEquals(2, changes.size());
+        assertEquals(DBCPlanDiff.ChangeType.CHANGED, changes.get(0).getType());
+        assertEquals(30, changes.get(0).getCostDelta(), 0);
+        assertEquals("orders", changes.get(1).getNewNode().getNodeName());
+        assertFalse(diff.isStructureChanged());
+        assertTrue(diff.isRegression(0.2));
+        assertFalse(diff.isRegression(0.5));
+    }
+
+    @Test
+    public void testIndexReplacedWithScan() {
+        DBCPlanDiff diff = new DBCPlanDiff(
+            plan(join("Nested Loop", 20, 10, scan("customers", 10, 100), indexScan("orders_customer_idx", 0.5, 1))),
+            plan(join("Nested Loop", 500, 10, scan("customers", 10, 100), scan("orders", 450, 1000))));
+        assertTrue(diff.isStructureChanged());
+        assertTrue(diff.isRegression(1));
+        int added = 0, removed = 0;
+        for (DBCPlanDiff.Change change : diff.getChanges()) {
+            switch (change.getType()) {
+                case ADDED:
+                    assertEquals("orders", change.getNewNode().getNodeName());
+                    added++;
+                    break;
+                case REMOVED:
+                    assertEquals("orders_customer_idx", change.getOldNode().getNodeName());
+                    removed++;
+                    break;
+                default:
+                    // Join cost
+                    assertEquals(DBCPlanNodeKind.JOIN, change.getNewNode().getNodeKind());
+                    break;
+            }
+        }
+        assertEquals(1, added);
+        assertEquals(1, removed);
+    }
+
+    @Test
+    public void testRemovedSubtree() {
+        DBCPlanDiff diff = new DBCPlanDiff(
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 1000), join("Hash Join", 30, 100, scan("customers", 10, 100), scan("regions", 1, 5)))),
+            plan(join("Hash Join", 100, 50, scan("orders", 40, 1000))));
+        int removed = 0;
+        for (DBCPlanDiff.Change change : diff.getChanges()) {
+            if (change.getType() == DBCPlanDiff.ChangeType.REMOVED) {
+                assertNull(change.getNewNode());
+                removed++;
+            }
+        }
+        // Join with both nested scans
+        assertEquals(3, removed);
+    }
+
+    @Test
+    public void testUnknownCost() {
+        DBCPlanDiff diff = new DBCPlanDiff(
+            plan(scan("orders", -1, 1000)),
+            plan(scan("orders", 40, 1000)));
+        assertEquals(-1, diff.getOldCost(), 0);
+        assertFalse(diff.isRegression(0));
+        assertEquals(0, diff.getChanges().get(0).getCostDelta(), 0);
+    }
+
+}
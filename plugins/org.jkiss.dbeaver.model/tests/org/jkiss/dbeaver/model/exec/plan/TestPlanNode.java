@@ -0,0 +1,112 @@
+package org.jkiss.dbeaver.model.exec.plan;
+
+import org.jkiss.dbeaver.DBException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Plan node for plan analysis tests
+ */
+class TestPlanNode implements DBCPlanCostNode {
+
+    private final String type;
+    private final DBCPlanNodeKind kind;
+    private final String name;
+    private final double cost;
+    private final long rows;
+    private final long actualRows;
+    private TestPlanNode parent;
+    private final List<TestPlanNode> nested = new ArrayList<>();
+
+    TestPlanNode(String type, DBCPlanNodeKind kind, String name, double cost, long rows, long actualRows, TestPlanNode... nested) {
+        this.type = type;
+        this.kind = kind;
+        this.name = name;
+        this.cost = cost;
+        this.rows = rows;
+        this.actualRows = actualRows;
+        for (TestPlanNode child : nested) {
+            child.parent = this;
+            this.nested.add(child);
+        }
+    }
+
+    static TestPlanNode scan(String table, double cost, long rows) {
+        return new TestPlanNode("Seq Scan", DBCPlanNodeKind.TABLE_SCAN, table, cost, rows, -1);
+    }
+
+    static TestPlanNode indexScan(String index, double cost, long rows) {
+        return new TestPlanNode("Index Scan", DBCPlanNodeKind.INDEX_SCAN, index, cost, rows, -1);
+    }
+
+    static TestPlanNode join(String type, double cost, long rows, TestPlanNode... nested) {
+        return new TestPlanNode(type, DBCPlanNodeKind.JOIN, null, cost, rows, -1, nested);
+    }
+
+    static DBCPlan plan(TestPlanNode... nodes) {
+        return new DBCPlan() {
+            @Override
+            public String getQueryString() {
+                return "query";
+            }
+
+            @Override
+            public String getPlanQueryString() throws DBException {
+                return "explain query";
+            }
+
+            @Override
+            public Collection<? extends DBCPlanNode> getPlanNodes() {
+                return Arrays.asList(nodes);
+            }
+        };
+    }
+
+    @Override
+    public String getNodeType() {
+        return type;
+    }
+
+    @Override
+    public DBCPlanNodeKind getNodeKind() {
+        return kind;
+    }
+
+    @Override
+    public String getNodeName() {
+        return name;
+    }
+
+    @Override
+    public double getNodeCost() {
+        return cost;
+    }
+
+    @Override
+    public long getNodeRowCount() {
+        return rows;
+    }
+
+    @Override
+    public long getNodeActualRowCount() {
+        return actualRows;
+    }
+
+    @Override
+    public DBCPlanNode getParent() {
+        return parent;
+    }
+
+    @Override
+    public Collection<? extends DBCPlanNode> getNested() {
+        return nested;
+    }
+
+    @Override
+    public String toString() {
+        return type;
+    }
+}
@@ -0,0 +1,174 @@
+package org.jkiss.dbeaver.model.impl.data.formatters;
+
+import org.jkiss.utils.time.ExtendedDateFormat;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that compiled formatters produce the same output as plain DecimalFormat and ExtendedDateFormat
+ */
+public class DataFormattersTest {
+
+    private static final Locale[] LOCALES = {
+        Locale.US, Locale.GERMANY, Locale.FRANCE, Locale.JAPAN, new Locale("de", "CH"), new Locale("hi", "IN"),
+        new Locale("ar", "EG"), new Locale("th", "TH", "TH"), new Locale("ja", "JP", "JP")
+    };
+
+    private static final String[] DATE_PATTERNS = {
+        "yyyy-MM-dd",
+        "HH:mm:ss",
+        "yyyy-MM-dd HH:mm:ss",
+        "yyyy-MM-dd HH:mm:ss.SSS",
+        "yyyy-MM-dd HH:mm:ss.ffffff",
+        "yyyy-MM-dd HH:mm:ss[.fffffffff]",
+        "dd.MM.yy h:mm:ss a",
+        "d/M/y k:mm K:mm S",
+        "'TIMESTAMP '''yyyy-MM-dd HH:mm:ss.ffffff''",
+        "yyyy-MM-dd'T'HH:mm:ss.SSSZ",
+        "EEE, d MMM yyyy HH:mm",
+        "'It''s' hh 'o''clock'",
+    };
+
+    @Test
+    public void shouldFormatIntegersLikeDecimalFormat() {
+        Random random = new Random(1);
+        for (Locale locale : LOCALES) {
+            for (int i = 0; i < 32; i++) {
+                Map<Object, Object> properties = new NumberFormatSample().getDefaultProperties(locale);
+                properties.put(NumberFormatSample.PROP_USE_GROUPING, random.nextBoolean());
+                properties.put(NumberFormatSample.PROP_MIN_INT_DIGITS, random.nextInt(8));
+                if (random.nextBoolean()) {
+                    properties.put(NumberFormatSample.PROP_MAX_INT_DIGITS, 1 + random.nextInt(12));
+                }
+                properties.put(NumberFormatSample.PROP_MIN_FRACT_DIGITS, random.nextInt(3));
+                NumberDataFormatter formatter = new NumberDataFormatter();
+                formatter.init(null, locale, properties);
+                DecimalFormat reference = createReferenceFormat(locale, properties);
+
+                for (int k = 0; k < 1000; k++) {
+                    Object value = randomNumber(random);
+                    assertEquals(locale + " " + properties + " " + value, reference.format(value), formatter.formatValue(value));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFormatDatesLikeExtendedDateFormat() {
+        Random random = new Random(2);
+        for (Locale locale : LOCALES) {
+            for (String pattern : DATE_PATTERNS) {
+                DateTimeDataFormatter formatter = createDateFormatter(locale, pattern);
+                ExtendedDateFormat reference = new ExtendedDateFormat(pattern, locale);
+                for (int k = 0; k < 1000; k++) {
+                    Date value = randomDate(random);
+                    assertEquals(locale + " " + pattern + " " + value.getTime(),
+                        formatOrError(() -> reference.format(value)),
+                        formatOrError(() -> formatter.formatValue(value)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldFormatConcurrently() throws Exception {
+        NumberDataFormatter numberFormatter = new NumberDataFormatter();
+        numberFormatter.init(null, Locale.US, new NumberFormatSample().getDefaultProperties(Locale.US));
+        DateTimeDataFormatter dateFormatter = createDateFormatter(Locale.US, "yyyy-MM-dd HH:mm:ss.ffffff");
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                final int seed = i;
+                results.add(executor.submit(() -> {
+                    Random random = new Random(seed);
+                    DecimalFormat numberReference = createReferenceFormat(Locale.US, new NumberFormatSample().getDefaultProperties(Locale.US));
+                    ExtendedDateFormat dateReference = new ExtendedDateFormat("yyyy-MM-dd HH:mm:ss.ffffff", Locale.US);
+                    for (int k = 0; k < 10000; k++) {
+                        Object number = randomNumber(random);
+                        assertEquals(numberReference.format(number), numberFormatter.formatValue(number));
+                        Date date = randomDate(random);
+                        assertEquals(dateReference.format(date), dateFormatter.formatValue(date));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static String formatOrError(Callable<String> formatter) {
+        try {
+            return formatter.call();
+        } catch (Exception e) {
+            // ExtendedDateFormat fails on some patterns/locales. Formatter must fail the same way.
+            return e.getClass().getName();
+        }
+    }
+
+    private static DateTimeDataFormatter createDateFormatter(Locale locale, String pattern) {
+        DateTimeDataFormatter formatter = new DateTimeDataFormatter();
+        Map<Object, Object> properties = new HashMap<>();
+        properties.put(DateTimeDataFormatter.PROP_PATTERN, pattern);
+        formatter.init(null, locale, properties);
+        return formatter;
+    }
+
+    private static DecimalFormat createReferenceFormat(Locale locale, Map<Object, Object> properties) {
+        DecimalFormat format = (DecimalFormat) NumberFormat.getNumberInstance(locale);
+        format.setGroupingUsed((Boolean) properties.get(NumberFormatSample.PROP_USE_GROUPING));
+        format.setMaximumIntegerDigits((Integer) properties.get(NumberFormatSample.PROP_MAX_INT_DIGITS));
+        format.setMinimumIntegerDigits((Integer) properties.get(NumberFormatSample.PROP_MIN_INT_DIGITS));
+        format.setMaximumFractionDigits((Integer) properties.get(NumberFormatSample.PROP_MAX_FRACT_DIGITS));
+        format.setMinimumFractionDigits((Integer) properties.get(NumberFormatSample.PROP_MIN_FRACT_DIGITS));
+        return format;
+    }
+
+    private static Object randomNumber(Random random) {
+        switch (random.nextInt(8)) {
+            case 0: return random.nextInt();
+            case 1: return (short) random.nextInt();
+            case 2: return (byte) random.nextInt();
+            case 3: return random.nextLong() >> random.nextInt(64);
+            case 4: return BigInteger.valueOf(random.nextLong()).multiply(BigInteger.valueOf(random.nextInt(3)));
+            case 5: return random.nextDouble() * random.nextInt();
+            case 6: return new BigDecimal(random.nextGaussian() * 1000000);
+            default: return (long) random.nextInt(3) - 1;
+        }
+    }
+
+    private static Date randomDate(Random random) {
+        // From 1500 to 2100
+        long time = -14831769600000L + (long) (random.nextDouble() * 19567382400000L);
+        switch (random.nextInt(3)) {
+            case 0:
+                return new Date(time);
+            case 1:
+                return new java.sql.Date(time);
+            default:
+                Timestamp timestamp = new Timestamp(time);
+                if (random.nextBoolean()) {
+                    timestamp.setNanos(random.nextInt(1000000000));
+                }
+                return timestamp;
+        }
+    }
+
+}
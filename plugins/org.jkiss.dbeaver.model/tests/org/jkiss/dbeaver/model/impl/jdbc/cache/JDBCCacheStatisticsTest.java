@@ -0,0 +1,48 @@
+package org.jkiss.dbeaver.model.impl.jdbc.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks bulk load switch heuristic
+ */
+public class JDBCCacheStatisticsTest {
+
+    @Test
+    public void testBurstOfMisses() {
+        JDBCCacheStatistics statistics = new JDBCCacheStatistics();
+        long time = 100000;
+        for (int i = 0; i < 3; i++) {
+            assertFalse(statistics.registerMiss(3, time += 10));
+        }
+        assertTrue(statistics.registerMiss(3, time + 10));
+        assertEquals(1, statistics.getBulkSwitches());
+    }
+
+    @Test
+    public void testSlowMissesNeverSwitch() {
+        JDBCCacheStatistics statistics = new JDBCCacheStatistics();
+        long time = 100000;
+        for (int i = 0; i < 100; i++) {
+            time += JDBCCacheStatistics.MISS_BURST_INTERVAL + 1;
+            assertFalse(statistics.registerMiss(3, time));
+        }
+        assertEquals(0, statistics.getBulkSwitches());
+    }
+
+    @Test
+    public void testBulkLoadResetsBurst() {
+        JDBCCacheStatistics statistics = new JDBCCacheStatistics();
+        long time = 100000;
+        statistics.registerMiss(2, time);
+        statistics.registerMiss(2, time);
+        statistics.addBulkLoad();
+        assertFalse(statistics.registerMiss(2, time));
+        assertFalse(statistics.registerMiss(2, time));
+        assertTrue(statistics.registerMiss(2, time));
+    }
+
+}
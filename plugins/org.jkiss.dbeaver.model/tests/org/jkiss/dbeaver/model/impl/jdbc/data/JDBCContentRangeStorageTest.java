@@ -0,0 +1,168 @@
+package org.jkiss.dbeaver.model.impl.jdbc.data;
+
+import org.junit.Test;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+import javax.sql.rowset.serial.SerialException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks paged LOB reads and deferred overwrites
+ */
+public class JDBCContentRangeStorageTest {
+
+    private static final int PAGE_SIZE = JDBCContentRangeStorage.PAGE_SIZE;
+
+    @Test
+    public void testReadAcrossPages() throws Exception {
+        byte[] data = makeBytes(2 * PAGE_SIZE + 100);
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, new SerialBlob(data), data.length, "UTF-8");
+
+        byte[] buffer = new byte[40];
+        assertEquals(30, storage.readBytes(PAGE_SIZE - 10, buffer, 5, 30));
+        assertArrayEquals(Arrays.copyOfRange(data, PAGE_SIZE - 10, PAGE_SIZE + 20), Arrays.copyOfRange(buffer, 5, 35));
+
+        // Tail is truncated
+        assertEquals(10, storage.readBytes(data.length - 10, buffer, 0, 40));
+        assertEquals(-1, storage.readBytes(data.length, buffer, 0, 40));
+
+        assertArrayEquals(data, readStream(storage));
+    }
+
+    @Test
+    public void testOverwriteIsDeferred() throws Exception {
+        byte[] data = makeBytes(2 * PAGE_SIZE + 100);
+        SerialBlob blob = new SerialBlob(data);
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, blob, data.length, "UTF-8");
+        // Cache the pages
+        storage.readBytes(0, new byte[data.length], 0, data.length);
+
+        byte[] part = {-1, -2, -3, -4};
+        storage.overwriteBytes(PAGE_SIZE - 2, part);
+        assertTrue(storage.isOverwritten());
+        // Database value is not changed yet
+        assertArrayEquals(data, blob.getBytes(1, data.length));
+
+        byte[] expected = data.clone();
+        System.arraycopy(part, 0, expected, PAGE_SIZE - 2, part.length);
+        byte[] buffer = new byte[8];
+        storage.readBytes(PAGE_SIZE - 4, buffer, 0, 8);
+        assertArrayEquals(Arrays.copyOfRange(expected, PAGE_SIZE - 4, PAGE_SIZE + 4), buffer);
+        assertArrayEquals(expected, readStream(storage));
+
+        storage.writeOverwrites();
+        assertFalse(storage.isOverwritten());
+        assertArrayEquals(expected, blob.getBytes(1, data.length));
+        // Pages were re-read from the changed blob
+        storage.readBytes(PAGE_SIZE - 4, buffer, 0, 8);
+        assertArrayEquals(Arrays.copyOfRange(expected, PAGE_SIZE - 4, PAGE_SIZE + 4), buffer);
+    }
+
+    @Test
+    public void testLaterOverwriteWins() throws Exception {
+        byte[] data = makeBytes(100);
+        SerialBlob blob = new SerialBlob(data);
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, blob, data.length, "UTF-8");
+        storage.overwriteBytes(10, new byte[]{1, 1, 1, 1});
+        storage.overwriteBytes(12, new byte[]{2, 2, 2, 2});
+
+        byte[] buffer = new byte[8];
+        storage.readBytes(10, buffer, 0, 8);
+        assertArrayEquals(new byte[]{1, 1, 2, 2, 2, 2, data[16], data[17]}, buffer);
+
+        storage.writeOverwrites();
+        assertArrayEquals(buffer, blob.getBytes(11, 8));
+    }
+
+    @Test
+    public void testResetOverwrites() throws Exception {
+        byte[] data = makeBytes(100);
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, new SerialBlob(data), data.length, "UTF-8");
+        storage.overwriteBytes(0, new byte[]{1, 2, 3});
+        storage.resetOverwrites();
+        assertFalse(storage.isOverwritten());
+        assertArrayEquals(data, readStream(storage));
+    }
+
+    @Test
+    public void testFailedWriteKeepsOverwrites() throws Exception {
+        byte[] data = makeBytes(PAGE_SIZE + 100);
+        SerialBlob blob = new SerialBlob(data) {
+            @Override
+            public int setBytes(long pos, byte[] bytes) throws SerialException {
+                throw new SerialException("ORA-22920: row containing the LOB value is not locked");
+            }
+        };
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, blob, data.length, "UTF-8");
+        storage.overwriteBytes(PAGE_SIZE, new byte[]{7, 7});
+        try {
+            storage.writeOverwrites();
+            fail("Write must fail");
+        } catch (SQLException e) {
+            // Expected
+        }
+        // Whole value is still available for the full write
+        assertTrue(storage.isOverwritten());
+        byte[] expected = data.clone();
+        expected[PAGE_SIZE] = 7;
+        expected[PAGE_SIZE + 1] = 7;
+        assertArrayEquals(expected, readStream(storage));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOverwriteOutOfBounds() throws Exception {
+        byte[] data = makeBytes(100);
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, new SerialBlob(data), data.length, "UTF-8");
+        storage.overwriteBytes(98, new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testClob() throws Exception {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < PAGE_SIZE + 100) {
+            text.append("abc\u00e9");
+        }
+        SerialClob clob = new SerialClob(text.toString().toCharArray());
+        JDBCContentRangeStorage storage = new JDBCContentRangeStorage(null, clob, text.length(), "UTF-8");
+        assertTrue(storage.isText());
+
+        char[] buffer = new char[8];
+        assertEquals(8, storage.readChars(PAGE_SIZE - 4, buffer, 0, 8));
+        assertEquals(text.substring(PAGE_SIZE - 4, PAGE_SIZE + 4), new String(buffer));
+
+        storage.overwriteChars(PAGE_SIZE - 1, "XY");
+        text.replace(PAGE_SIZE - 1, PAGE_SIZE + 1, "XY");
+        assertArrayEquals(text.toString().getBytes("UTF-8"), readStream(storage));
+        assertNotEquals("XY", clob.getSubString(PAGE_SIZE, 2));
+
+        storage.writeOverwrites();
+        assertEquals(text.toString(), clob.getSubString(1, text.length()));
+    }
+
+    private static byte[] makeBytes(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + i / 256);
+        }
+        return data;
+    }
+
+    private static byte[] readStream(JDBCContentRangeStorage storage) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (InputStream is = storage.getContentStream()) {
+            byte[] chunk = new byte[10000];
+            for (int count; (count = is.read(chunk)) >= 0; ) {
+                buffer.write(chunk, 0, count);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+}
@@ -0,0 +1,143 @@
+package org.jkiss.dbeaver.model.impl.jdbc.data.handlers;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.data.DBDDataFormatterProfile;
+import org.jkiss.dbeaver.model.data.DBDValueFetcher;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCResultSet;
+import org.jkiss.dbeaver.model.struct.DBSTypedObject;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that column fetchers return the same values as fetchValueObject.
+ */
+public class JDBCNumberValueHandlerTest {
+
+    private static final DBCSession SESSION = (DBCSession) Proxy.newProxyInstance(
+        JDBCNumberValueHandlerTest.class.getClassLoader(),
+        new Class[] { DBCSession.class },
+        (proxy, method, args) -> null);
+
+    private static final DBDDataFormatterProfile FORMATTER_PROFILE = (DBDDataFormatterProfile) Proxy.newProxyInstance(
+        JDBCNumberValueHandlerTest.class.getClassLoader(),
+        new Class[] { DBDDataFormatterProfile.class },
+        (proxy, method, args) -> null);
+
+    @Test
+    public void testFetcherValues() throws Exception {
+        int[] types = { Types.DOUBLE, Types.REAL, Types.FLOAT, Types.INTEGER, Types.SMALLINT, Types.TINYINT, Types.BIGINT, Types.DECIMAL };
+        Object[][] rows = {
+            { 1.5, 2.25, 3.5, 123456789012L, 65535, (short) 255, Long.MAX_VALUE, new BigDecimal("1.25") },
+            { null, null, null, null, null, null, null, null },
+            { Double.NaN, -0.5, 0.0, -1, 0, (short) 0, 0L, BigDecimal.ZERO },
+        };
+        for (Object[] row : rows) {
+            TestResultSet values = new TestResultSet(row);
+            JDBCResultSet resultSet = values.createProxy();
+            for (int i = 0; i < types.length; i++) {
+                DBSTypedObject type = createType(types[i]);
+                JDBCNumberValueHandler handler = new JDBCNumberValueHandler(type, FORMATTER_PROFILE);
+                DBDValueFetcher fetcher = handler.createValueFetcher(SESSION, resultSet, type, i);
+                assertNotNull(fetcher);
+                Object expected = handler.fetchValueObject(SESSION, resultSet, type, i);
+                Object actual = fetcher.fetchValue(SESSION);
+                assertEquals("Column " + i, expected, actual);
+                if (row[i] == null) {
+                    assertNull("Column " + i, actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testOverriddenFetch() throws Exception {
+        JDBCResultSet resultSet = new TestResultSet(new Object[] { 1.5, 1 }).createProxy();
+        int[] types = { Types.DOUBLE, Types.INTEGER };
+        for (int i = 0; i < types.length; i++) {
+            DBSTypedObject type = createType(types[i]);
+            JDBCNumberValueHandler handler = new TestNumberValueHandler(type);
+            DBDValueFetcher fetcher = handler.createValueFetcher(SESSION, resultSet, type, i);
+            assertNotNull(fetcher);
+            assertEquals("custom", handler.fetchValueObject(SESSION, resultSet, type, i));
+            // Specialized fetchers would skip overridden fetchColumnValue
+            assertEquals("custom", fetcher.fetchValue(SESSION));
+        }
+    }
+
+    private static DBSTypedObject createType(int typeId) {
+        return (DBSTypedObject) Proxy.newProxyInstance(
+            JDBCNumberValueHandlerTest.class.getClassLoader(),
+            new Class[] { DBSTypedObject.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getTypeID": return typeId;
+                    case "getDataKind": return DBPDataKind.NUMERIC;
+                    case "getScale": return typeId == Types.DECIMAL ? 2 : 0;
+                    case "getPrecision": return 10;
+                    case "getMaxLength": return 10L;
+                    default: return String.valueOf(typeId);
+                }
+            });
+    }
+
+    private static class TestNumberValueHandler extends JDBCNumberValueHandler {
+
+        TestNumberValueHandler(DBSTypedObject type) {
+            super(type, FORMATTER_PROFILE);
+        }
+
+        @Override
+        protected Object fetchColumnValue(DBCSession session, JDBCResultSet resultSet, DBSTypedObject type, int index) throws DBCException, SQLException {
+            return "custom";
+        }
+    }
+
+    /**
+     * Result set of one row. Getters convert values like JDBC drivers do: null is returned as zero and sets wasNull flag.
+     */
+    private static class TestResultSet {
+
+        private final Object[] row;
+        private boolean wasNull;
+
+        TestResultSet(Object[] row) {
+            this.row = row;
+        }
+
+        JDBCResultSet createProxy() {
+            return (JDBCResultSet) Proxy.newProxyInstance(
+                JDBCNumberValueHandlerTest.class.getClassLoader(),
+                new Class[] { JDBCResultSet.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("wasNull")) {
+                        return wasNull;
+                    }
+                    if (args == null || args.length != 1 || !(args[0] instanceof Integer)) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Object value = row[(Integer) args[0] - 1];
+                    wasNull = value == null;
+                    Number number = value == null ? 0 : (Number) value;
+                    switch (method.getName()) {
+                        case "getObject": return value;
+                        case "getDouble": return number.doubleValue();
+                        case "getFloat": return number.floatValue();
+                        case "getLong": return number.longValue();
+                        case "getInt": return number.intValue();
+                        case "getShort": return number.shortValue();
+                        case "getByte": return number.byteValue();
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        }
+    }
+
+}
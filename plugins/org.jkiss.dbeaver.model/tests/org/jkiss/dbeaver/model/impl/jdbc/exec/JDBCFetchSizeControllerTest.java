@@ -0,0 +1,52 @@
+package org.jkiss.dbeaver.model.impl.jdbc.exec;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks adaptive fetch size sizing rule
+ */
+public class JDBCFetchSizeControllerTest {
+
+    private static final long SMALL_ROW = 100;
+
+    @Test
+    public void testGrowsWhileRoundTripDominates() {
+        assertEquals(200, JDBCFetchSizeController.getNextFetchSize(100, SMALL_ROW, 5000, 100, -1));
+        // Round trip per row became twice cheaper after the last growth
+        assertEquals(400, JDBCFetchSizeController.getNextFetchSize(200, SMALL_ROW, 5000, 200, 50));
+    }
+
+    @Test
+    public void testKeepsSizeWhenLocalReadDominates() {
+        assertEquals(100, JDBCFetchSizeController.getNextFetchSize(100, SMALL_ROW, 100, 5000, -1));
+    }
+
+    @Test
+    public void testStopsWhenTransferBound() {
+        // Batch was doubled and round trip doubled too - per row cost is the same
+        assertEquals(200, JDBCFetchSizeController.getNextFetchSize(200, SMALL_ROW, 10000, 200, 50));
+        // Less than 25% gain
+        assertEquals(200, JDBCFetchSizeController.getNextFetchSize(200, SMALL_ROW, 8000, 200, 50));
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        // 16Mb budget / 64Kb rows = 256 rows
+        long wideRow = 64 * 1024;
+        assertEquals(256, JDBCFetchSizeController.getNextFetchSize(200, wideRow, 5000, 100, -1));
+        assertEquals(256, JDBCFetchSizeController.getNextFetchSize(256, wideRow, 5000, 100, -1));
+        // Measured rows are wider than the metadata estimate - shrink even if round trip dominates
+        assertEquals(256, JDBCFetchSizeController.getNextFetchSize(1000, wideRow, 5000, 100, -1));
+        // Huge rows still get minimal batch
+        assertEquals(10, JDBCFetchSizeController.getNextFetchSize(100, 100L * 1024 * 1024, 5000, 100, -1));
+    }
+
+    @Test
+    public void testMaxFetchSize() {
+        assertEquals(10000, JDBCFetchSizeController.getNextFetchSize(8000, 8, 5000, 100, -1));
+        assertEquals(10000, JDBCFetchSizeController.getNextFetchSize(10000, 8, 5000, 100, -1));
+    }
+
+}
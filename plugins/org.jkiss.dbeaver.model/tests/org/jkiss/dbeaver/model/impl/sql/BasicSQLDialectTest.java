@@ -0,0 +1,87 @@
+package org.jkiss.dbeaver.model.impl.sql;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks upsert statements generation
+ */
+public class BasicSQLDialectTest {
+
+    private static final String[] COLUMNS = {"id", "name", "updated"};
+    private static final String[] KEY = {"id"};
+
+    @Test
+    public void testNotSupported() {
+        assertNull(new UpsertDialect(SQLDialect.UpsertMode.NOT_SUPPORTED, null).generateUpsertQuery("t", COLUMNS, KEY));
+    }
+
+    @Test
+    public void testUpsert() {
+        assertEquals(
+            "UPSERT INTO s.t (id,name,updated)\nVALUES (?,?,?)",
+            new UpsertDialect(SQLDialect.UpsertMode.UPSERT, null).generateUpsertQuery("s.t", COLUMNS, KEY));
+    }
+
+    @Test
+    public void testOnConflict() {
+        SQLDialect dialect = new UpsertDialect(SQLDialect.UpsertMode.ON_CONFLICT, null);
+        assertEquals(
+            "INSERT INTO t (id,name,updated)\nVALUES (?,?,?)\nON CONFLICT (id) DO UPDATE SET name=EXCLUDED.name,updated=EXCLUDED.updated",
+            dialect.generateUpsertQuery("t", COLUMNS, KEY));
+        // All columns are in the key
+        assertEquals(
+            "INSERT INTO t (a,b)\nVALUES (?,?)\nON CONFLICT (a,b) DO NOTHING",
+            dialect.generateUpsertQuery("t", new String[]{"a", "b"}, new String[]{"a", "b"}));
+    }
+
+    @Test
+    public void testOnDuplicateKey() {
+        SQLDialect dialect = new UpsertDialect(SQLDialect.UpsertMode.ON_DUPLICATE_KEY, null);
+        assertEquals(
+            "INSERT INTO t (id,name,updated)\nVALUES (?,?,?)\nON DUPLICATE KEY UPDATE name=VALUES(name),updated=VALUES(updated)",
+            dialect.generateUpsertQuery("t", COLUMNS, KEY));
+        assertEquals(
+            "INSERT INTO t (a,b)\nVALUES (?,?)\nON DUPLICATE KEY UPDATE a=a",
+            dialect.generateUpsertQuery("t", new String[]{"a", "b"}, new String[]{"a", "b"}));
+    }
+
+    @Test
+    public void testMerge() {
+        assertEquals(
+            "MERGE INTO t T USING (SELECT ? AS id,? AS name,? AS updated FROM DUAL) S ON (T.id=S.id)\n" +
+                "WHEN MATCHED THEN UPDATE SET T.name=S.name,T.updated=S.updated\n" +
+                "WHEN NOT MATCHED THEN INSERT (id,name,updated) VALUES (S.id,S.name,S.updated)",
+            new UpsertDialect(SQLDialect.UpsertMode.MERGE, "DUAL").generateUpsertQuery("t", COLUMNS, KEY));
+        // No dual table, composite key, nothing to update
+        assertEquals(
+            "MERGE INTO t T USING (SELECT ? AS a,? AS b) S ON (T.a=S.a AND T.b=S.b)\n" +
+                "WHEN NOT MATCHED THEN INSERT (a,b) VALUES (S.a,S.b)",
+            new UpsertDialect(SQLDialect.UpsertMode.MERGE, null).generateUpsertQuery("t", new String[]{"a", "b"}, new String[]{"a", "b"}));
+    }
+
+    private static class UpsertDialect extends BasicSQLDialect {
+        private final UpsertMode upsertMode;
+        private final String dualTableName;
+
+        UpsertDialect(UpsertMode upsertMode, String dualTableName) {
+            this.upsertMode = upsertMode;
+            this.dualTableName = dualTableName;
+        }
+
+        @NotNull
+        @Override
+        public UpsertMode getUpsertMode() {
+            return upsertMode;
+        }
+
+        @Override
+        public String getDualTableName() {
+            return dualTableName;
+        }
+    }
+
+}
@@ -242,9 +242,13 @@ public class TextUtils {
         // case right from the start. Turning characters to lower case
         // via Character.toLowerCase(char) is unfortunately insufficient
         // as it does not accept a locale.
-        final String termLowerCase = term.toString().toLowerCase(locale);
-        final String queryLowerCase = query.toString().toLowerCase(locale);
+        return fuzzyScoreLowerCase(term.toString().toLowerCase(locale), query.toString().toLowerCase(locale));
+    }
 
+    /**
+     * Same as {@link #fuzzyScore(CharSequence, CharSequence, Locale)} for strings which are already in lower case
+     */
+    public static int fuzzyScoreLowerCase(String termLowerCase, String queryLowerCase) {
         // the resulting score
         int score = 0;
 
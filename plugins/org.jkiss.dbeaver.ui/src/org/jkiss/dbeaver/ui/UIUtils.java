@@ -1703,6 +1703,28 @@ public class UIUtils {
         display.update();
     }
 
+    /**
+     * Waits for job completion but not longer than specified timeout.
+     * @return true if job was finished
+     */
+    public static boolean waitJobCompletion(AbstractJob job, long timeout) {
+        Display display = Display.getCurrent();
+        long endTime = System.currentTimeMillis() + timeout;
+        while (!job.isFinished()) {
+            long waitTime = endTime - System.currentTimeMillis();
+            if (waitTime <= 0) {
+                return false;
+            }
+            if (!display.readAndDispatch()) {
+                // Wake up on timeout even if there are no UI events
+                display.timerExec((int) Math.min(waitTime, 50), () -> {});
+                display.sleep();
+            }
+        }
+        display.update();
+        return true;
+    }
+
     public static void fixReadonlyTextBackground(Text textField) {
         // There is still no good workaround: https://bugs.eclipse.org/bugs/show_bug.cgi?id=340889
         if (false) {